@@ -18,7 +18,7 @@ public class CorsConfig {
                         .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS", "PATCH")
                         .allowedHeaders("*")
                         .allowCredentials(false)
-                        .exposedHeaders("Authorization");
+                        .exposedHeaders("Authorization", "ETag");
             }
         };
     }
@@ -0,0 +1,198 @@
+package com.example.met.config;
+
+import com.example.met.service.OTTimeRepairService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Data migrations that {@code ddl-auto=update} cannot express. Hibernate adds new columns on
+ * startup; this runner then copies data out of retired columns, creates the partial indexes JPA
+ * annotations cannot declare, and adds unique constraints that existing data has to be repaired
+ * for first. Every step checks the live schema or the {@code schema_migrations} table first, so
+ * it is safe to run on each start. A failed data migration fails startup: the entities no longer
+ * map the retired columns, so running on without the copied data would lose it, and OT writes
+ * upsert on the per-day unique index.
+ * <p>
+ * Migrations run once all singletons exist, which is before scheduled tasks (the outbox dispatcher
+ * among them) are started and before the web server accepts requests, so nothing writes OT rows
+ * until the unique index is in place.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SchemaMigrationRunner implements SmartInitializingSingleton {
+
+    // Per-status and OT durations moved from TIME columns (which wrap at 24h) to bigint seconds.
+    // The TIME columns are kept for nodes of the previous release and can be dropped in the next one.
+    private static final List<ColumnMove> DURATION_COLUMNS = List.of(
+            new ColumnMove("mini_job_cards", "mini_job_card_id", "spent_on_on_hold", "on_hold_seconds"),
+            new ColumnMove("mini_job_cards", "mini_job_card_id", "spent_on_assigned", "assigned_seconds"),
+            new ColumnMove("mini_job_cards", "mini_job_card_id", "spent_on_in_progress", "in_progress_seconds"),
+            new ColumnMove("mini_job_cards_archive", "mini_job_card_id", "spent_on_on_hold", "on_hold_seconds"),
+            new ColumnMove("mini_job_cards_archive", "mini_job_card_id", "spent_on_assigned", "assigned_seconds"),
+            new ColumnMove("mini_job_cards_archive", "mini_job_card_id", "spent_on_in_progress", "in_progress_seconds"),
+            new ColumnMove("ottimecalculator", "ottimeid", "spent_on_on_hold", "on_hold_seconds"),
+            new ColumnMove("ottimecalculator", "ottimeid", "spent_on_assigned", "assigned_seconds"),
+            new ColumnMove("ottimecalculator", "ottimeid", "spent_on_in_progress", "in_progress_seconds"),
+            new ColumnMove("ottimecalculator", "ottimeid", "morningottime", "morning_ot_seconds"),
+            new ColumnMove("ottimecalculator", "ottimeid", "eveningottime", "evening_ot_seconds"),
+            new ColumnMove("ottimecalculator", "ottimeid", "morning_ottime", "morning_ot_seconds"),
+            new ColumnMove("ottimecalculator", "ottimeid", "evening_ottime", "evening_ot_seconds")
+    );
+
+    private static final int BACKFILL_BATCH_SIZE = 1000;
+    // Legacy values as Postgres prints them: TIME (up to 24:00:00) or INTERVAL ("1 day 03:30:00",
+    // "27:30:00"), optionally with a fractional second
+    private static final Pattern LEGACY_DURATION = Pattern.compile(
+            "(?:(\\d+) days? )?(\\d+):(\\d{2}):(\\d{2})(?:\\.\\d+)?");
+
+    // The last-change column was declared with a hyphen; its physical name depends on the naming strategy in use
+    private static final List<String> LAST_UPDATE_COLUMNS = List.of(
+            "last_time_update_this-ticket", "lastTime_update_this-ticket");
+
+    private static final String OT_DAY_UNIQUE_INDEX = "uk_ottimecalculator_employee_date";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final OTTimeRepairService otTimeRepairService;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS schema_migrations (" +
+                "name varchar(200) PRIMARY KEY, applied_at timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP)");
+        for (ColumnMove move : DURATION_COLUMNS) {
+            backfillDurationSeconds(move);
+        }
+        try {
+            createActiveCardIndex();
+        } catch (Exception e) {
+            // Only speeds up the stuck-job scan; nothing depends on it being there
+            log.error("Failed to create the active mini job card index", e);
+        }
+        createOtDayUniqueIndex();
+    }
+
+    // Hibernate cannot add the unique constraint while duplicate days exist; merge them first, once.
+    // The merge and the index commit together, so a failure leaves the data as it was for the next start
+    private void createOtDayUniqueIndex() {
+        if (indexExists(OT_DAY_UNIQUE_INDEX)) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            // Nodes starting together take turns; the lock is released at commit
+            jdbcTemplate.query("SELECT pg_advisory_xact_lock(hashtext(?))", rs -> { }, OT_DAY_UNIQUE_INDEX);
+            if (indexExists(OT_DAY_UNIQUE_INDEX)) {
+                return;
+            }
+            int merged = otTimeRepairService.mergeDuplicateDays();
+            jdbcTemplate.execute("CREATE UNIQUE INDEX " + OT_DAY_UNIQUE_INDEX +
+                    " ON ottimecalculator (employee_email, date)");
+            log.info("Created {} after merging {} duplicate OT rows", OT_DAY_UNIQUE_INDEX, merged);
+        });
+    }
+
+    // Only ON_HOLD and ASSIGNED rows, so the stuck-job scan stays small however many closed cards pile up
+    private void createActiveCardIndex() {
+        String column = LAST_UPDATE_COLUMNS.stream()
+                .filter(candidate -> columnExists("mini_job_cards", candidate))
+                .findFirst()
+                .orElse(null);
+        if (column == null) {
+            log.warn("Skipping the active mini job card index, last-change column not found");
+            return;
+        }
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_mini_job_cards_active_last_update " +
+                "ON mini_job_cards (\"" + column + "\", mini_job_card_id) " +
+                "WHERE status IN ('ON_HOLD', 'ASSIGNED')");
+    }
+
+    private void backfillDurationSeconds(ColumnMove move) {
+        if (!columnExists(move.table(), move.legacyColumn()) || !columnExists(move.table(), move.column())) {
+            return;
+        }
+        String migration = "duration-seconds:" + move.table() + "." + move.legacyColumn();
+        transactionTemplate.executeWithoutResult(status -> {
+            // Nodes starting together take turns; the lock is released at commit
+            jdbcTemplate.query("SELECT pg_advisory_xact_lock(hashtext(?))", rs -> { }, migration);
+            if (migrationApplied(migration)) {
+                return;
+            }
+
+            // Nodes of the previous release still map the TIME column, so keep it but stop requiring it
+            jdbcTemplate.execute("ALTER TABLE " + move.table() + " ALTER COLUMN " + move.legacyColumn() +
+                    " DROP NOT NULL");
+
+            List<Object[]> batch = new ArrayList<>(BACKFILL_BATCH_SIZE);
+            int[] rows = {0};
+            String update = "UPDATE " + move.table() + " SET " + move.column() + " = ? WHERE " + move.idColumn() + " = ?";
+            jdbcTemplate.query("SELECT " + move.idColumn() + ", CAST(" + move.legacyColumn() + " AS text) FROM " +
+                    move.table() + " WHERE " + move.legacyColumn() + " IS NOT NULL", rs -> {
+                batch.add(new Object[]{legacyDurationToSeconds(rs.getString(2)), rs.getObject(1)});
+                if (batch.size() == BACKFILL_BATCH_SIZE) {
+                    rows[0] += batch.size();
+                    jdbcTemplate.batchUpdate(update, batch);
+                    batch.clear();
+                }
+            });
+            if (!batch.isEmpty()) {
+                rows[0] += batch.size();
+                jdbcTemplate.batchUpdate(update, batch);
+            }
+
+            jdbcTemplate.update("INSERT INTO schema_migrations (name) VALUES (?)", migration);
+            log.info("Backfilled {} rows of {}.{} from {}", rows[0], move.table(), move.column(), move.legacyColumn());
+        });
+    }
+
+    /**
+     * Seconds in a legacy duration as printed by Postgres. Hours are not capped at 24, so interval
+     * values and TIME's 24:00:00 convert in full; fractions of a second are dropped.
+     */
+    static long legacyDurationToSeconds(String value) {
+        if (value == null) {
+            return 0;
+        }
+        Matcher matcher = LEGACY_DURATION.matcher(value.trim());
+        if (!matcher.matches()) {
+            throw new IllegalArgumentException("Unrecognized legacy duration: " + value);
+        }
+        long days = matcher.group(1) != null ? Long.parseLong(matcher.group(1)) : 0;
+        return days * 86_400
+                + Long.parseLong(matcher.group(2)) * 3_600
+                + Long.parseLong(matcher.group(3)) * 60
+                + Long.parseLong(matcher.group(4));
+    }
+
+    private boolean migrationApplied(String migration) {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM schema_migrations WHERE name = ?", Integer.class, migration);
+        return count != null && count > 0;
+    }
+
+    private boolean columnExists(String table, String column) {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM information_schema.columns " +
+                        "WHERE table_schema = current_schema() AND table_name = ? AND column_name = ?",
+                Integer.class, table, column);
+        return count != null && count > 0;
+    }
+
+    private boolean indexExists(String index) {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM pg_indexes WHERE schemaname = current_schema() AND indexname = ?",
+                Integer.class, index);
+        return count != null && count > 0;
+    }
+
+    private record ColumnMove(String table, String idColumn, String legacyColumn, String column) {
+    }
+}
@@ -2,6 +2,7 @@ package com.example.met.config;
 
 import com.example.met.security.JwtAuthenticationEntryPoint;
 import com.example.met.security.JwtAuthenticationFilter;
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -50,7 +51,7 @@ public class SecurityConfig {
 //        configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS", "PATCH"));
 //        configuration.setAllowedHeaders(List.of("*"));
 //        configuration.setAllowCredentials(true);
-//        configuration.setExposedHeaders(List.of("Authorization"));
+//        configuration.setExposedHeaders(List.of("Authorization", "ETag"));
 //
 //        UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
 //        source.registerCorsConfiguration("/**", configuration);
@@ -63,7 +64,7 @@ public class SecurityConfig {
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS", "PATCH"));
         configuration.setAllowedHeaders(List.of("*"));
         configuration.setAllowCredentials(false); // Change this to false
-        configuration.setExposedHeaders(List.of("Authorization"));
+        configuration.setExposedHeaders(List.of("Authorization", "ETag"));
 
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
         source.registerCorsConfiguration("/**", configuration);
@@ -81,6 +82,8 @@ public class SecurityConfig {
                         auth
                                 // Public endpoints
                                 .requestMatchers("/auth/**", "/health/**", "/actuator/**").permitAll()
+                                // Completion dispatches of streams already authorized on the original request
+                                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                                 // All other endpoints require authentication (simplified)
                                 .anyRequest().authenticated()
                 );
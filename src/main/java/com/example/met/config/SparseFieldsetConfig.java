@@ -0,0 +1,29 @@
+package com.example.met.config;
+
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registers the Jackson filter used by {@code fields=} sparse fieldsets. Without a {@code fields}
+ * parameter every property is written, so regular responses are unchanged.
+ */
+@Configuration
+public class SparseFieldsetConfig {
+
+    public static final String FILTER_ID = "sparseFieldset";
+    public static final String FIELDS_PARAM = "fields";
+
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer sparseFieldsetFilterCustomizer() {
+        return builder -> builder.filters(defaultFilters());
+    }
+
+    public static SimpleFilterProvider defaultFilters() {
+        return new SimpleFilterProvider()
+                .setDefaultFilter(SimpleBeanPropertyFilter.serializeAll())
+                .setFailOnUnknownId(false);
+    }
+}
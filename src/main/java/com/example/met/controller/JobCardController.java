@@ -1,26 +1,40 @@
 package com.example.met.controller;
 
+import com.example.met.dto.JobCardSheet;
 import com.example.met.dto.request.RepairJobCardRequest;
 import com.example.met.dto.request.ServiceJobCardRequest;
 import com.example.met.dto.request.UpdateJobCardRequest;
 import com.example.met.dto.request.VisitJobCardRequest;
 import com.example.met.dto.response.ApiResponse;
+import com.example.met.dto.response.BatchFetchResponse;
+import com.example.met.dto.response.JobCardChangeResponse;
 import com.example.met.dto.response.JobCardResponse;
+import com.example.met.dto.response.PageResponse;
 import com.example.met.enums.JobCardType;
+import com.example.met.exception.ConcurrentUpdateException;
+import com.example.met.exception.PreconditionFailedException;
 import com.example.met.exception.ResourceNotFoundException;
+import com.example.met.service.JobCardHistoryService;
+import com.example.met.service.JobCardPdfService;
 import com.example.met.service.JobCardService;
+import com.example.met.util.ETagUtil;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
 import java.time.format.DateTimeParseException;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 @RestController
@@ -30,6 +44,8 @@ import java.util.UUID;
 public class JobCardController {
 
     private final JobCardService jobCardService;
+    private final JobCardPdfService jobCardPdfService;
+    private final JobCardHistoryService jobCardHistoryService;
 
     @PostMapping("/service")
     @PreAuthorize("hasAnyRole('ADMIN', 'EMPLOYEE')")
@@ -107,15 +123,21 @@ public class JobCardController {
     }
 
     @GetMapping
-    public ResponseEntity<ApiResponse<List<JobCardResponse>>> getAllJobCards() {
+    public ResponseEntity<ApiResponse<List<JobCardResponse>>> getAllJobCards(
+            @RequestParam(required = false) Set<String> fields,
+            @RequestParam(defaultValue = "false") boolean includeArchived) {
         try {
             log.info("Request to get all job cards");
 
-            List<JobCardResponse> jobCards = jobCardService.getAllJobCards();
+            List<JobCardResponse> jobCards = jobCardService.getAllJobCards(fields, includeArchived);
             ApiResponse<List<JobCardResponse>> response = ApiResponse.success(
                     "Job cards retrieved successfully", jobCards);
 
             return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            log.error("Invalid request for all job cards: {}", e.getMessage());
+            ApiResponse<List<JobCardResponse>> response = ApiResponse.error("Invalid request: " + e.getMessage(), null);
+            return ResponseEntity.badRequest().body(response);
         } catch (Exception e) {
             log.error("Error retrieving all job cards", e);
             ApiResponse<List<JobCardResponse>> response = ApiResponse.error(
@@ -124,6 +146,30 @@ public class JobCardController {
         }
     }
 
+    @GetMapping(params = "ids")
+    public ResponseEntity<ApiResponse<BatchFetchResponse<JobCardResponse>>> getJobCardsByIds(
+            @RequestParam List<UUID> ids) {
+        try {
+            log.info("Request to batch fetch {} job cards", ids.size());
+
+            BatchFetchResponse<JobCardResponse> jobCards = jobCardService.getJobCardsByIds(ids);
+            ApiResponse<BatchFetchResponse<JobCardResponse>> response = ApiResponse.success(
+                    "Job cards retrieved successfully", jobCards);
+
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            log.error("Invalid batch fetch request for job cards: {}", e.getMessage());
+            ApiResponse<BatchFetchResponse<JobCardResponse>> response = ApiResponse.error(
+                    "Invalid request: " + e.getMessage(), null);
+            return ResponseEntity.badRequest().body(response);
+        } catch (Exception e) {
+            log.error("Error batch fetching job cards", e);
+            ApiResponse<BatchFetchResponse<JobCardResponse>> response = ApiResponse.error(
+                    "Failed to retrieve job cards", null);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<ApiResponse<JobCardResponse>> getJobCardById(@PathVariable UUID id) {
         try {
@@ -133,7 +179,7 @@ public class JobCardController {
             ApiResponse<JobCardResponse> response = ApiResponse.success(
                     "Job card retrieved successfully", jobCard);
 
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok().eTag(ETagUtil.toETag(jobCard.getVersion())).body(response);
         } catch (IllegalArgumentException e) {
             log.error("Job card not found with ID: {}", id, e);
             ApiResponse<JobCardResponse> response = ApiResponse.error("Job card not found with the provided ID", null);
@@ -147,11 +193,13 @@ public class JobCardController {
     }
 
     @GetMapping("/type/{type}")
-    public ResponseEntity<ApiResponse<List<JobCardResponse>>> getJobCardsByType(@PathVariable JobCardType type) {
+    public ResponseEntity<ApiResponse<List<JobCardResponse>>> getJobCardsByType(
+            @PathVariable JobCardType type,
+            @RequestParam(defaultValue = "false") boolean includeArchived) {
         try {
             log.info("Request to get job cards by type: {}", type);
 
-            List<JobCardResponse> jobCards = jobCardService.getJobCardsByType(type);
+            List<JobCardResponse> jobCards = jobCardService.getJobCardsByType(type, includeArchived);
             ApiResponse<List<JobCardResponse>> response = ApiResponse.success(
                     "Job cards retrieved successfully", jobCards);
 
@@ -170,7 +218,9 @@ public class JobCardController {
 
     @GetMapping("/by-date")
     public ResponseEntity<ApiResponse<List<JobCardResponse>>> getJobCardsByDate(
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(required = false) Set<String> fields,
+            @RequestParam(defaultValue = "false") boolean includeArchived) {
         try {
             log.info("Request to get job cards by date: {}", date);
 
@@ -186,7 +236,7 @@ public class JobCardController {
                 return ResponseEntity.badRequest().body(response);
             }
 
-            List<JobCardResponse> jobCards = jobCardService.getJobCardsByDate(date);
+            List<JobCardResponse> jobCards = jobCardService.getJobCardsByDate(date, fields, includeArchived);
             ApiResponse<List<JobCardResponse>> response = ApiResponse.success(
                     "Job cards for date " + date + " retrieved successfully", jobCards);
 
@@ -209,7 +259,10 @@ public class JobCardController {
     }
 
     @GetMapping("/employee/{email}")
-    public ResponseEntity<ApiResponse<List<JobCardResponse>>> getJobCardsByEmployee(@PathVariable String email) {
+    public ResponseEntity<ApiResponse<List<JobCardResponse>>> getJobCardsByEmployee(
+            @PathVariable String email,
+            @RequestParam(required = false) Set<String> fields,
+            @RequestParam(defaultValue = "false") boolean includeArchived) {
         try {
             log.info("Request to get job cards for employee: {}", email);
 
@@ -225,7 +278,7 @@ public class JobCardController {
                 return ResponseEntity.badRequest().body(response);
             }
 
-            List<JobCardResponse> jobCards = jobCardService.getJobCardsByEmployee(email);
+            List<JobCardResponse> jobCards = jobCardService.getJobCardsByEmployee(email, fields, includeArchived);
             ApiResponse<List<JobCardResponse>> response = ApiResponse.success(
                     "Job cards retrieved successfully", jobCards);
 
@@ -243,11 +296,13 @@ public class JobCardController {
     }
 
     @GetMapping("/generator/{generatorId}")
-    public ResponseEntity<ApiResponse<List<JobCardResponse>>> getJobCardsByGenerator(@PathVariable UUID generatorId) {
+    public ResponseEntity<ApiResponse<List<JobCardResponse>>> getJobCardsByGenerator(
+            @PathVariable UUID generatorId,
+            @RequestParam(defaultValue = "false") boolean includeArchived) {
         try {
             log.info("Request to get job cards for generator: {}", generatorId);
 
-            List<JobCardResponse> jobCards = jobCardService.getJobCardsByGenerator(generatorId);
+            List<JobCardResponse> jobCards = jobCardService.getJobCardsByGenerator(generatorId, includeArchived);
             ApiResponse<List<JobCardResponse>> response = ApiResponse.success(
                     "Job cards retrieved successfully", jobCards);
 
@@ -264,22 +319,107 @@ public class JobCardController {
         }
     }
 
+    @GetMapping("/{id}/history")
+    public ResponseEntity<ApiResponse<PageResponse<JobCardChangeResponse>>> getJobCardHistory(
+            @PathVariable UUID id,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        try {
+            log.info("Request to get history for job card {} (page {}, size {})", id, page, size);
+
+            PageResponse<JobCardChangeResponse> history = jobCardHistoryService.getHistory(id, page, size);
+            ApiResponse<PageResponse<JobCardChangeResponse>> response = ApiResponse.success(
+                    "Job card history retrieved successfully", history);
+
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            log.error("Invalid history request for job card {}: {}", id, e.getMessage());
+            ApiResponse<PageResponse<JobCardChangeResponse>> response = ApiResponse.error(
+                    "Invalid request: " + e.getMessage(), null);
+            return ResponseEntity.badRequest().body(response);
+        } catch (Exception e) {
+            log.error("Error retrieving history for job card: {}", id, e);
+            ApiResponse<PageResponse<JobCardChangeResponse>> response = ApiResponse.error(
+                    "Failed to retrieve job card history", null);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+
+    @GetMapping("/{id}/pdf")
+    public ResponseEntity<?> getJobCardPdf(@PathVariable UUID id) {
+        try {
+            log.info("Request to export job card {} as PDF", id);
+
+            // Load everything first so lookup errors still produce a JSON error response
+            JobCardSheet sheet = jobCardPdfService.getJobCardSheet(id);
+            StreamingResponseBody body = out -> jobCardPdfService.writePdf(List.of(sheet), out);
+
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_PDF)
+                    .header(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"job-card-" + id + ".pdf\"")
+                    .body(body);
+        } catch (ResourceNotFoundException e) {
+            log.error("Job card not found with ID: {}", id, e);
+            ApiResponse<Void> response = ApiResponse.error("Job card not found with ID: " + id, null);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+        } catch (Exception e) {
+            log.error("Error exporting job card {} as PDF", id, e);
+            ApiResponse<Void> response = ApiResponse.error("Failed to export job card", null);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+
+    @GetMapping("/by-date/pdf")
+    public ResponseEntity<?> getJobCardsPdfByDate(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        try {
+            log.info("Request to export job cards for date {} as PDF", date);
+
+            List<JobCardSheet> sheets = jobCardPdfService.getJobCardSheetsByDate(date);
+            StreamingResponseBody body = out -> jobCardPdfService.writePdf(sheets, out);
+
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_PDF)
+                    .header(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"job-cards-" + date + ".pdf\"")
+                    .body(body);
+        } catch (IllegalArgumentException e) {
+            log.error("Invalid date parameter: {}", date, e);
+            ApiResponse<Void> response = ApiResponse.error("Invalid date: " + e.getMessage(), null);
+            return ResponseEntity.badRequest().body(response);
+        } catch (Exception e) {
+            log.error("Error exporting job cards for date {} as PDF", date, e);
+            ApiResponse<Void> response = ApiResponse.error("Failed to export job cards", null);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+
     @PutMapping("/{id}")
     @PreAuthorize("hasAnyRole('ADMIN', 'EMPLOYEE')")
     public ResponseEntity<ApiResponse<JobCardResponse>> updateJobCard(
             @PathVariable UUID id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @Valid @RequestBody UpdateJobCardRequest request) {
         try {
             log.info("Request to update job card with ID: {}", id);
 
-            JobCardResponse jobCard = jobCardService.updateJobCard(id, request);
+            Long expectedVersion = ETagUtil.parseIfMatch(ifMatch);
+            JobCardResponse jobCard = jobCardService.updateJobCard(id, request, expectedVersion);
             ApiResponse<JobCardResponse> response = ApiResponse.success("Job card updated successfully", jobCard);
 
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok().eTag(ETagUtil.toETag(jobCard.getVersion())).body(response);
         } catch (IllegalArgumentException e) {
             log.error("Invalid request data for updating job card with ID: {}: {}", id, e.getMessage(), e);
             ApiResponse<JobCardResponse> response = ApiResponse.error("Invalid request data: " + e.getMessage(), null);
             return ResponseEntity.badRequest().body(response);
+        } catch (PreconditionFailedException e) {
+            log.warn("Stale If-Match for job card {}: {}", id, e.getMessage());
+            ApiResponse<JobCardResponse> response = ApiResponse.error(e.getMessage(), null);
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(response);
+        } catch (ConcurrentUpdateException | OptimisticLockingFailureException e) {
+            log.warn("Concurrent update conflict for job card {}: {}", id, e.getMessage());
+            ApiResponse<JobCardResponse> response = ApiResponse.error(
+                    "Job card was modified concurrently, please reload and retry", null);
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
         } catch (SecurityException e) {
             log.error("Security error while updating job card with ID: {}", id, e);
             ApiResponse<JobCardResponse> response = ApiResponse.error("Access denied. Insufficient privileges", null);
@@ -1,23 +1,47 @@
 package com.example.met.controller;
 
+import com.example.met.dto.request.MiniJobCardBulkStatusRequest;
 import com.example.met.dto.request.MiniJobCardRequest;
+import com.example.met.dto.request.MiniJobCardSyncRequest;
 import com.example.met.dto.request.MiniJobCardUpdateRequest;
 import com.example.met.dto.response.ApiResponse;
+import com.example.met.dto.response.BatchFetchResponse;
+import com.example.met.dto.response.MiniJobCardBulkStatusResponse;
 import com.example.met.dto.response.MiniJobCardResponse;
+import com.example.met.dto.response.MiniJobCardStatsResponse;
+import com.example.met.dto.response.MiniJobCardSyncResponse;
+import com.example.met.dto.response.MiniJobCardTimelineResponse;
+import com.example.met.dto.response.MiniJobCardTransitionResponse;
+import com.example.met.dto.response.TransitionRebuildResponse;
 import com.example.met.enums.JobStatus;
+import com.example.met.exception.ConcurrentUpdateException;
+import com.example.met.exception.PreconditionFailedException;
+import com.example.met.exception.ResourceNotFoundException;
+import com.example.met.service.MiniJobCardBulkStatusService;
 import com.example.met.service.MiniJobCardService;
+import com.example.met.service.MiniJobCardStatsService;
+import com.example.met.service.MiniJobCardSyncService;
+import com.example.met.service.OutboxDispatcher;
+import com.example.met.service.TransitionStreamService;
+import com.example.met.service.MiniJobCardTransitionService;
+import com.example.met.util.ETagUtil;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.LocalDate;
 import java.time.format.DateTimeParseException;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 @RestController
@@ -27,6 +51,12 @@ import java.util.UUID;
 public class MiniJobCardController {
 
     private final MiniJobCardService miniJobCardService;
+    private final MiniJobCardTransitionService transitionService;
+    private final MiniJobCardSyncService syncService;
+    private final TransitionStreamService streamService;
+    private final MiniJobCardStatsService statsService;
+    private final MiniJobCardBulkStatusService bulkStatusService;
+    private final OutboxDispatcher outboxDispatcher;
 
     @PostMapping
     @PreAuthorize("hasAnyRole('ADMIN', 'EMPLOYEE')")
@@ -52,11 +82,12 @@ public class MiniJobCardController {
     }
 
     @GetMapping
-    public ResponseEntity<ApiResponse<List<MiniJobCardResponse>>> getAllMiniJobCards() {
+    public ResponseEntity<ApiResponse<List<MiniJobCardResponse>>> getAllMiniJobCards(
+            @RequestParam(required = false) Set<String> fields) {
         try {
             log.info("Request to get today's mini job cards");
 
-            List<MiniJobCardResponse> miniJobCards = miniJobCardService.getAllMiniJobCards();
+            List<MiniJobCardResponse> miniJobCards = miniJobCardService.getAllMiniJobCards(fields);
             ApiResponse<List<MiniJobCardResponse>> response = ApiResponse.success(
                     "Today's mini job cards retrieved successfully", miniJobCards);
 
@@ -69,6 +100,53 @@ public class MiniJobCardController {
         }
     }
 
+    @GetMapping(params = "ids")
+    public ResponseEntity<ApiResponse<BatchFetchResponse<MiniJobCardResponse>>> getMiniJobCardsByIds(
+            @RequestParam List<UUID> ids) {
+        try {
+            log.info("Request to batch fetch {} mini job cards", ids.size());
+
+            BatchFetchResponse<MiniJobCardResponse> miniJobCards = miniJobCardService.getMiniJobCardsByIds(ids);
+            ApiResponse<BatchFetchResponse<MiniJobCardResponse>> response = ApiResponse.success(
+                    "Mini job cards retrieved successfully", miniJobCards);
+
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            log.error("Invalid batch fetch request for mini job cards: {}", e.getMessage());
+            ApiResponse<BatchFetchResponse<MiniJobCardResponse>> response = ApiResponse.error(
+                    "Invalid request: " + e.getMessage(), null);
+            return ResponseEntity.badRequest().body(response);
+        } catch (Exception e) {
+            log.error("Error batch fetching mini job cards", e);
+            ApiResponse<BatchFetchResponse<MiniJobCardResponse>> response = ApiResponse.error(
+                    "Failed to retrieve mini job cards", null);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<ApiResponse<MiniJobCardStatsResponse>> getStats(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        try {
+            log.info("Request to get mini job card stats from {} to {}", from, to);
+
+            MiniJobCardStatsResponse stats = statsService.getStats(from, to);
+            ApiResponse<MiniJobCardStatsResponse> response = ApiResponse.success(
+                    "Mini job card stats retrieved successfully", stats);
+
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            log.error("Invalid stats request: {}", e.getMessage());
+            ApiResponse<MiniJobCardStatsResponse> response = ApiResponse.error("Invalid request: " + e.getMessage(), null);
+            return ResponseEntity.badRequest().body(response);
+        } catch (Exception e) {
+            log.error("Error retrieving mini job card stats", e);
+            ApiResponse<MiniJobCardStatsResponse> response = ApiResponse.error("Failed to retrieve mini job card stats", null);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<ApiResponse<MiniJobCardResponse>> getMiniJobCardById(@PathVariable UUID id) {
         try {
@@ -78,7 +156,7 @@ public class MiniJobCardController {
             ApiResponse<MiniJobCardResponse> response = ApiResponse.success(
                     "Mini job card retrieved successfully", miniJobCard);
 
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok().eTag(ETagUtil.toETag(miniJobCard.getVersion())).body(response);
         } catch (IllegalArgumentException e) {
             log.error("Mini job card not found with ID: {}", id, e);
             ApiResponse<MiniJobCardResponse> response = ApiResponse.error("Mini job card not found", null);
@@ -91,8 +169,125 @@ public class MiniJobCardController {
         }
     }
 
+    @GetMapping("/{id}/transitions")
+    public ResponseEntity<ApiResponse<List<MiniJobCardTransitionResponse>>> getTransitions(@PathVariable UUID id) {
+        try {
+            log.info("Request to get transitions for mini job card: {}", id);
+
+            List<MiniJobCardTransitionResponse> transitions = transitionService.getTransitions(id);
+            ApiResponse<List<MiniJobCardTransitionResponse>> response = ApiResponse.success(
+                    "Transitions retrieved successfully", transitions);
+
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            log.error("Invalid transition request for mini job card: {}", id, e);
+            ApiResponse<List<MiniJobCardTransitionResponse>> response = ApiResponse.error(
+                    "Invalid request: " + e.getMessage(), null);
+            return ResponseEntity.badRequest().body(response);
+        } catch (Exception e) {
+            log.error("Error retrieving transitions for mini job card: {}", id, e);
+            ApiResponse<List<MiniJobCardTransitionResponse>> response = ApiResponse.error(
+                    "Failed to retrieve transitions", null);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+
+    @GetMapping("/{id}/timeline")
+    public ResponseEntity<ApiResponse<MiniJobCardTimelineResponse>> getTimeline(@PathVariable UUID id) {
+        try {
+            log.info("Request to get timeline for mini job card: {}", id);
+
+            MiniJobCardTimelineResponse timeline = transitionService.getTimeline(id);
+            ApiResponse<MiniJobCardTimelineResponse> response = ApiResponse.success(
+                    "Timeline retrieved successfully", timeline);
+
+            return ResponseEntity.ok(response);
+        } catch (ResourceNotFoundException e) {
+            log.error("Mini job card not found for timeline: {}", id);
+            ApiResponse<MiniJobCardTimelineResponse> response = ApiResponse.error(e.getMessage(), null);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+        } catch (IllegalArgumentException e) {
+            log.error("Invalid timeline request for mini job card: {}", id, e);
+            ApiResponse<MiniJobCardTimelineResponse> response = ApiResponse.error(
+                    "Invalid request: " + e.getMessage(), null);
+            return ResponseEntity.badRequest().body(response);
+        } catch (Exception e) {
+            log.error("Error retrieving timeline for mini job card: {}", id, e);
+            ApiResponse<MiniJobCardTimelineResponse> response = ApiResponse.error(
+                    "Failed to retrieve timeline", null);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+
+    @PostMapping("/transitions/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<TransitionRebuildResponse>> rebuildTransitionProjections() {
+        try {
+            log.info("Request to rebuild mini job card time counters from the transition log");
+
+            TransitionRebuildResponse result = transitionService.rebuildProjections();
+            ApiResponse<TransitionRebuildResponse> response = ApiResponse.success(
+                    "Time counters rebuilt successfully", result);
+
+            return ResponseEntity.ok(response);
+        } catch (ConcurrentUpdateException e) {
+            log.warn("Transition rebuild rejected: {}", e.getMessage());
+            ApiResponse<TransitionRebuildResponse> response = ApiResponse.error(e.getMessage(), null);
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+        } catch (Exception e) {
+            log.error("Error rebuilding transition projections", e);
+            ApiResponse<TransitionRebuildResponse> response = ApiResponse.error(
+                    "Failed to rebuild time counters", null);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+
+    @PostMapping("/outbox/{id}/requeue")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<Void>> requeueOutboxEvent(@PathVariable Long id) {
+        try {
+            log.info("Request to requeue failed outbox event: {}", id);
+
+            outboxDispatcher.requeue(id);
+            ApiResponse<Void> response = ApiResponse.success("Outbox event requeued successfully");
+
+            return ResponseEntity.ok(response);
+        } catch (ResourceNotFoundException e) {
+            log.warn("Outbox event requeue rejected: {}", e.getMessage());
+            ApiResponse<Void> response = ApiResponse.error(e.getMessage(), null);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+        } catch (Exception e) {
+            log.error("Error requeuing outbox event: {}", id, e);
+            ApiResponse<Void> response = ApiResponse.error("Failed to requeue outbox event", null);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<SseEmitter> streamTransitions(
+            @RequestParam(required = false) String employeeEmail,
+            @RequestParam(required = false) UUID jobCardId,
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        try {
+            log.info("Request to stream transitions (employee: {}, job card: {}, last event: {})",
+                    employeeEmail, jobCardId, lastEventId);
+
+            return ResponseEntity.ok(streamService.subscribe(employeeEmail, jobCardId, lastEventId));
+        } catch (IllegalStateException e) {
+            log.warn("Rejected transition stream: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        } catch (Exception e) {
+            log.error("Error opening transition stream", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
     @GetMapping("/employee/{email}")
-    public ResponseEntity<ApiResponse<List<MiniJobCardResponse>>> getMiniJobCardsByEmployee(@PathVariable String email) {
+    public ResponseEntity<ApiResponse<List<MiniJobCardResponse>>> getMiniJobCardsByEmployee(
+            @PathVariable String email,
+            @RequestParam(required = false) Set<String> fields,
+            @RequestParam(defaultValue = "false") boolean includeArchived) {
         try {
             log.info("Request to get mini job cards for employee: {}", email);
 
@@ -102,7 +297,7 @@ public class MiniJobCardController {
                 return ResponseEntity.badRequest().body(response);
             }
 
-            List<MiniJobCardResponse> miniJobCards = miniJobCardService.getMiniJobCardsByEmployee(email);
+            List<MiniJobCardResponse> miniJobCards = miniJobCardService.getMiniJobCardsByEmployee(email, fields, includeArchived);
             ApiResponse<List<MiniJobCardResponse>> response = ApiResponse.success(
                     "Mini job cards retrieved successfully", miniJobCards);
 
@@ -159,11 +354,14 @@ public class MiniJobCardController {
     }
 
     @GetMapping("/jobcard/{jobCardId}")
-    public ResponseEntity<ApiResponse<List<MiniJobCardResponse>>> getMiniJobCardsByJobCard(@PathVariable UUID jobCardId) {
+    public ResponseEntity<ApiResponse<List<MiniJobCardResponse>>> getMiniJobCardsByJobCard(
+            @PathVariable UUID jobCardId,
+            @RequestParam(required = false) Set<String> fields,
+            @RequestParam(defaultValue = "false") boolean includeArchived) {
         try {
             log.info("Request to get mini job cards for job card: {}", jobCardId);
 
-            List<MiniJobCardResponse> miniJobCards = miniJobCardService.getMiniJobCardsByJobCard(jobCardId);
+            List<MiniJobCardResponse> miniJobCards = miniJobCardService.getMiniJobCardsByJobCard(jobCardId, fields, includeArchived);
             ApiResponse<List<MiniJobCardResponse>> response = ApiResponse.success(
                     "Mini job cards retrieved successfully", miniJobCards);
 
@@ -181,11 +379,14 @@ public class MiniJobCardController {
     }
 
     @GetMapping("/status/{status}")
-    public ResponseEntity<ApiResponse<List<MiniJobCardResponse>>> getMiniJobCardsByStatus(@PathVariable JobStatus status) {
+    public ResponseEntity<ApiResponse<List<MiniJobCardResponse>>> getMiniJobCardsByStatus(
+            @PathVariable JobStatus status,
+            @RequestParam(required = false) Set<String> fields,
+            @RequestParam(defaultValue = "false") boolean includeArchived) {
         try {
             log.info("Request to get mini job cards by status: {}", status);
 
-            List<MiniJobCardResponse> miniJobCards = miniJobCardService.getMiniJobCardsByStatus(status);
+            List<MiniJobCardResponse> miniJobCards = miniJobCardService.getMiniJobCardsByStatus(status, fields, includeArchived);
             ApiResponse<List<MiniJobCardResponse>> response = ApiResponse.success(
                     "Mini job cards retrieved successfully", miniJobCards);
 
@@ -206,19 +407,29 @@ public class MiniJobCardController {
     @PreAuthorize("hasAnyRole('ADMIN', 'EMPLOYEE')")
     public ResponseEntity<ApiResponse<MiniJobCardResponse>> updateMiniJobCard(
             @PathVariable UUID id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @Valid @RequestBody MiniJobCardUpdateRequest request) {
         try {
             log.info("Request to update mini job card: {}", id);
 
-            MiniJobCardResponse updatedMiniJobCard = miniJobCardService.updateMiniJobCard(id, request);
+            Long expectedVersion = ETagUtil.parseIfMatch(ifMatch);
+            MiniJobCardResponse updatedMiniJobCard = miniJobCardService.updateMiniJobCard(id, request, expectedVersion);
             ApiResponse<MiniJobCardResponse> response = ApiResponse.success(
                     "Mini job card updated successfully", updatedMiniJobCard);
 
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok().eTag(ETagUtil.toETag(updatedMiniJobCard.getVersion())).body(response);
         } catch (IllegalArgumentException e) {
             log.error("Invalid request for updating mini job card with ID: {}", id, e);
             ApiResponse<MiniJobCardResponse> response = ApiResponse.error("Invalid request: " + e.getMessage(), null);
             return ResponseEntity.badRequest().body(response);
+        } catch (PreconditionFailedException e) {
+            log.warn("Stale If-Match for mini job card {}: {}", id, e.getMessage());
+            ApiResponse<MiniJobCardResponse> response = ApiResponse.error(e.getMessage(), null);
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(response);
+        } catch (ConcurrentUpdateException e) {
+            log.warn("Concurrent update conflict for mini job card {}: {}", id, e.getMessage());
+            ApiResponse<MiniJobCardResponse> response = ApiResponse.error(e.getMessage(), null);
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
         } catch (RuntimeException e) {
             log.error("Mini job card not found for update with ID: {}", id, e);
             ApiResponse<MiniJobCardResponse> response = ApiResponse.error("Mini job card not found", null);
@@ -231,6 +442,55 @@ public class MiniJobCardController {
         }
     }
 
+    @PostMapping("/sync")
+    @PreAuthorize("hasAnyRole('ADMIN', 'EMPLOYEE')")
+    public ResponseEntity<ApiResponse<MiniJobCardSyncResponse>> syncOfflineChanges(
+            @Valid @RequestBody MiniJobCardSyncRequest request, Authentication authentication) {
+        try {
+            log.info("Request to sync {} offline changes from {}", request.getItems().size(), authentication.getName());
+
+            boolean admin = authentication.getAuthorities().stream()
+                    .anyMatch(authority -> "ROLE_ADMIN".equals(authority.getAuthority()));
+            MiniJobCardSyncResponse result = syncService.sync(request, authentication.getName(), admin);
+            ApiResponse<MiniJobCardSyncResponse> response = ApiResponse.success(
+                    "Synced " + result.getApplied() + " of " + request.getItems().size() + " changes", result);
+
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            log.error("Invalid sync request: {}", e.getMessage());
+            ApiResponse<MiniJobCardSyncResponse> response = ApiResponse.error("Invalid request: " + e.getMessage(), null);
+            return ResponseEntity.badRequest().body(response);
+        } catch (Exception e) {
+            log.error("Error syncing offline changes from {}", authentication.getName(), e);
+            ApiResponse<MiniJobCardSyncResponse> response = ApiResponse.error("Failed to sync offline changes", null);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+
+    @PostMapping("/bulk-status")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<MiniJobCardBulkStatusResponse>> bulkUpdateStatus(
+            @Valid @RequestBody MiniJobCardBulkStatusRequest request, Authentication authentication) {
+        try {
+            log.info("Request to move mini job cards to {} in bulk from {}", request.getStatus(), authentication.getName());
+
+            MiniJobCardBulkStatusResponse result = bulkStatusService.transition(request, authentication.getName());
+            ApiResponse<MiniJobCardBulkStatusResponse> response = ApiResponse.success(
+                    "Moved " + result.getUpdated() + " of " + result.getMatched() + " mini job cards to " + result.getStatus(),
+                    result);
+
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            log.error("Invalid bulk status request: {}", e.getMessage());
+            ApiResponse<MiniJobCardBulkStatusResponse> response = ApiResponse.error("Invalid request: " + e.getMessage(), null);
+            return ResponseEntity.badRequest().body(response);
+        } catch (Exception e) {
+            log.error("Error moving mini job cards to {} in bulk", request.getStatus(), e);
+            ApiResponse<MiniJobCardBulkStatusResponse> response = ApiResponse.error("Failed to update mini job cards", null);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+
     @GetMapping("/can-edit-status")
     @PreAuthorize("hasRole('EMPLOYEE')")
     public ResponseEntity<ApiResponse<Boolean>> canEditStatus(Authentication authentication) {
@@ -33,8 +33,8 @@ public class OTTimeController {
                     employeeEmail, date, endTime, endLocation);
 
             return ResponseEntity.ok().body("Session ended successfully. OT calculated: " +
-                    "Morning OT: " + otRecord.getMorningOTtime() +
-                    ", Evening OT: " + otRecord.getEveningOTtime());
+                    "Morning OT: " + (otRecord.getMorningOtSeconds() / 60) + " min" +
+                    ", Evening OT: " + (otRecord.getEveningOtSeconds() / 60) + " min");
 
         } catch (Exception e) {
             log.error("Error ending session for employee: {}", employeeEmail, e);
@@ -4,14 +4,19 @@ import com.example.met.dto.request.OTTimeReportRequest;
 import com.example.met.dto.request.EmployeeTimeReportRequest;
 import com.example.met.dto.response.OTTimeReportResponse;
 import com.example.met.dto.response.EmployeeTimeReportResponse;
+import com.example.met.dto.response.TeamOTReportResponse;
 import com.example.met.service.ReportService;
 import com.example.met.service.OTTimeCalculatorService;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
 import jakarta.validation.Valid;
 
+import java.time.LocalDate;
+
 @RestController
 @RequestMapping("/reports")
 @Slf4j
@@ -68,4 +73,38 @@ public class ReportController {
             return ResponseEntity.internalServerError().build();
         }
     }
-}
\ No newline at end of file
+
+    @GetMapping("/ot/team")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<TeamOTReportResponse> generateTeamOTReport(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        try {
+            log.info("Generating team OT report from {} to {}", startDate, endDate);
+
+            TeamOTReportResponse report = otTimeCalculatorService.generateTeamOTReport(startDate, endDate);
+
+            return ResponseEntity.ok(report);
+        } catch (IllegalArgumentException e) {
+            log.error("Invalid request for team OT report: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            log.error("Error generating team OT report from {} to {}", startDate, endDate, e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    // Daily records behind one row of the team report, fetched when that row is opened
+    @GetMapping("/ot/team/{employeeEmail}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<OTTimeReportResponse> getTeamOTReportDetails(
+            @PathVariable String employeeEmail,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        OTTimeReportRequest request = new OTTimeReportRequest();
+        request.setEmployeeEmail(employeeEmail);
+        request.setStartDate(startDate);
+        request.setEndDate(endDate);
+        return generateOTTimeReport(request);
+    }
+}
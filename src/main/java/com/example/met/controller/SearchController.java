@@ -0,0 +1,44 @@
+package com.example.met.controller;
+
+import com.example.met.dto.response.ApiResponse;
+import com.example.met.dto.response.SearchResponse;
+import com.example.met.enums.JobCardType;
+import com.example.met.service.SearchIndexService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/search")
+@RequiredArgsConstructor
+@Slf4j
+public class SearchController {
+
+    private final SearchIndexService searchIndexService;
+
+    @GetMapping
+    public ResponseEntity<ApiResponse<SearchResponse>> search(
+            @RequestParam("q") String query,
+            @RequestParam(required = false) JobCardType type,
+            @RequestParam(required = false) String month,
+            @RequestParam(defaultValue = "20") int limit) {
+        try {
+            log.info("Search request: '{}' (type {}, month {})", query, type, month);
+
+            SearchResponse result = searchIndexService.search(query, type, month, limit);
+            ApiResponse<SearchResponse> response = ApiResponse.success("Search completed successfully", result);
+
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            log.error("Invalid search request: {}", e.getMessage());
+            ApiResponse<SearchResponse> response = ApiResponse.error("Invalid search: " + e.getMessage(), null);
+            return ResponseEntity.badRequest().body(response);
+        } catch (Exception e) {
+            log.error("Error searching for '{}'", query, e);
+            ApiResponse<SearchResponse> response = ApiResponse.error("Search failed", null);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+}
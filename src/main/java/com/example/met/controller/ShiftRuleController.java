@@ -0,0 +1,146 @@
+package com.example.met.controller;
+
+import com.example.met.dto.request.HolidayRequest;
+import com.example.met.dto.request.ShiftTemplateRequest;
+import com.example.met.dto.response.ApiResponse;
+import com.example.met.dto.response.HolidayResponse;
+import com.example.met.dto.response.ShiftTemplateResponse;
+import com.example.met.exception.ResourceNotFoundException;
+import com.example.met.service.ShiftRuleService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Shift templates and holidays that decide what counts as OT. Changes are applied to the affected
+ * OT records in the background.
+ */
+@RestController
+@RequestMapping("/shift-rules")
+@RequiredArgsConstructor
+@Slf4j
+public class ShiftRuleController {
+
+    private final ShiftRuleService shiftRuleService;
+
+    @GetMapping("/templates")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<List<ShiftTemplateResponse>>> getTemplates() {
+        try {
+            List<ShiftTemplateResponse> templates = shiftRuleService.getAllTemplates();
+            return ResponseEntity.ok(ApiResponse.success("Shift templates retrieved successfully", templates));
+        } catch (Exception e) {
+            log.error("Error retrieving shift templates", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("Failed to retrieve shift templates", null));
+        }
+    }
+
+    @PostMapping("/templates")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<ShiftTemplateResponse>> createTemplate(@RequestBody ShiftTemplateRequest request) {
+        try {
+            log.info("Request to create shift template for {}",
+                    request.getEmployeeEmail() != null ? request.getEmployeeEmail() : request.getRole());
+            ShiftTemplateResponse template = shiftRuleService.createTemplate(request);
+            return new ResponseEntity<>(ApiResponse.success("Shift template created successfully", template),
+                    HttpStatus.CREATED);
+        } catch (IllegalArgumentException e) {
+            log.error("Invalid shift template: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(ApiResponse.error("Invalid request data: " + e.getMessage(), null));
+        } catch (Exception e) {
+            log.error("Error creating shift template", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("Failed to create shift template", null));
+        }
+    }
+
+    @PutMapping("/templates/{id}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<ShiftTemplateResponse>> updateTemplate(
+            @PathVariable UUID id,
+            @RequestBody ShiftTemplateRequest request) {
+        try {
+            log.info("Request to update shift template: {}", id);
+            ShiftTemplateResponse template = shiftRuleService.updateTemplate(id, request);
+            return ResponseEntity.ok(ApiResponse.success("Shift template updated successfully", template));
+        } catch (ResourceNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ApiResponse.error(e.getMessage(), null));
+        } catch (IllegalArgumentException e) {
+            log.error("Invalid shift template update for {}: {}", id, e.getMessage());
+            return ResponseEntity.badRequest().body(ApiResponse.error("Invalid request data: " + e.getMessage(), null));
+        } catch (Exception e) {
+            log.error("Error updating shift template: {}", id, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("Failed to update shift template", null));
+        }
+    }
+
+    @DeleteMapping("/templates/{id}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<Void>> deleteTemplate(@PathVariable UUID id) {
+        try {
+            log.info("Request to delete shift template: {}", id);
+            shiftRuleService.deleteTemplate(id);
+            return ResponseEntity.ok(ApiResponse.success("Shift template deleted successfully"));
+        } catch (ResourceNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ApiResponse.error(e.getMessage(), null));
+        } catch (Exception e) {
+            log.error("Error deleting shift template: {}", id, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("Failed to delete shift template", null));
+        }
+    }
+
+    @GetMapping("/holidays")
+    public ResponseEntity<ApiResponse<List<HolidayResponse>>> getHolidays(@RequestParam(required = false) Integer year) {
+        try {
+            List<HolidayResponse> holidays = shiftRuleService.getHolidays(year);
+            return ResponseEntity.ok(ApiResponse.success("Holidays retrieved successfully", holidays));
+        } catch (Exception e) {
+            log.error("Error retrieving holidays", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("Failed to retrieve holidays", null));
+        }
+    }
+
+    @PostMapping("/holidays")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<HolidayResponse>> createHoliday(@Valid @RequestBody HolidayRequest request) {
+        try {
+            log.info("Request to create holiday on {}", request.getDate());
+            HolidayResponse holiday = shiftRuleService.createHoliday(request);
+            return new ResponseEntity<>(ApiResponse.success("Holiday created successfully", holiday), HttpStatus.CREATED);
+        } catch (IllegalArgumentException e) {
+            log.error("Invalid holiday: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(ApiResponse.error("Invalid request data: " + e.getMessage(), null));
+        } catch (Exception e) {
+            log.error("Error creating holiday on {}", request.getDate(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("Failed to create holiday", null));
+        }
+    }
+
+    @DeleteMapping("/holidays/{id}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<Void>> deleteHoliday(@PathVariable UUID id) {
+        try {
+            log.info("Request to delete holiday: {}", id);
+            shiftRuleService.deleteHoliday(id);
+            return ResponseEntity.ok(ApiResponse.success("Holiday deleted successfully"));
+        } catch (ResourceNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ApiResponse.error(e.getMessage(), null));
+        } catch (Exception e) {
+            log.error("Error deleting holiday: {}", id, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("Failed to delete holiday", null));
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.met.dto;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.UUID;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import com.example.met.enums.JobCardType;
+import com.example.met.enums.JobStatus;
+
+/**
+ * Everything printed on a job card sheet, loaded up front so the PDF can be streamed
+ * after the database work is done.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class JobCardSheet {
+
+    private UUID jobCardId;
+    private UUID jobId;
+    private JobCardType jobType;
+    private LocalDate date;
+    private LocalTime estimatedTime;
+
+    // Generator details
+    private String generatorName;
+    private String generatorCapacity;
+    private String generatorContactNumber;
+    private String generatorEmail;
+    private String generatorDescription;
+
+    private List<CrewLine> crew;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class CrewLine {
+        private String employeeName;
+        private String employeeEmail;
+        private JobStatus status;
+        private String location;
+
+        // Time spent in each status, in minutes
+        private int onHoldMinutes;
+        private int assignedMinutes;
+        private int inProgressMinutes;
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.met.dto.request;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+@Data
+public class HolidayRequest {
+    @NotNull(message = "Date is required")
+    private LocalDate date;
+
+    @NotBlank(message = "Holiday name is required")
+    private String name;
+}
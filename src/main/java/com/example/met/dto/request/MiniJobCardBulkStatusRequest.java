@@ -0,0 +1,30 @@
+package com.example.met.dto.request;
+
+import com.example.met.enums.JobStatus;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Selects cards by exactly one of: a job card, explicit ids, or a filter (any combination of
+ * employee, current statuses and date range).
+ */
+@Data
+public class MiniJobCardBulkStatusRequest {
+    @NotNull(message = "Target status is required")
+    private JobStatus status;
+
+    private UUID jobCardId;
+
+    private List<UUID> miniJobCardIds;
+
+    // Filter
+    private String employeeEmail;
+    private Set<JobStatus> currentStatuses;
+    private LocalDate dateFrom;
+    private LocalDate dateTo;
+}
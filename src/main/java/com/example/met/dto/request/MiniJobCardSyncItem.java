@@ -0,0 +1,25 @@
+package com.example.met.dto.request;
+
+import com.example.met.enums.JobStatus;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+public class MiniJobCardSyncItem {
+    @NotNull(message = "Mini job card ID is required")
+    private UUID miniJobCardId;
+
+    @NotNull(message = "Status is required")
+    private JobStatus status;
+
+    // When the technician made the change on the device, in Sri Lanka local time
+    @NotNull(message = "Occurred at is required")
+    private LocalDateTime occurredAt;
+
+    @Size(max = 255, message = "Location cannot exceed 255 characters")
+    private String location;
+}
@@ -0,0 +1,14 @@
+package com.example.met.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class MiniJobCardSyncRequest {
+    // In the order the changes were made on the device
+    @NotEmpty(message = "At least one change is required")
+    private List<@Valid MiniJobCardSyncItem> items;
+}
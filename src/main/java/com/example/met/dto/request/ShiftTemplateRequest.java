@@ -0,0 +1,24 @@
+package com.example.met.dto.request;
+
+import com.example.met.enums.Role;
+import lombok.Data;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+
+/**
+ * A shift for exactly one of an employee or a role. Without a day it applies to every weekday
+ * that has no template of its own; without times it is a day off.
+ */
+@Data
+public class ShiftTemplateRequest {
+    private String employeeEmail;
+
+    private Role role;
+
+    private DayOfWeek dayOfWeek;
+
+    private LocalTime startTime;
+
+    private LocalTime endTime;
+}
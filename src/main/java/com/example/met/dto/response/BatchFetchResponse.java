@@ -0,0 +1,18 @@
+package com.example.met.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchFetchResponse<T> {
+    // Found items, in the order the ids were requested
+    private List<T> items;
+    // Requested ids that do not exist
+    private List<UUID> missingIds;
+}
@@ -0,0 +1,19 @@
+package com.example.met.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class HolidayResponse {
+    private UUID holidayId;
+    private LocalDate date;
+    private String name;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,19 @@
+package com.example.met.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class JobCardChangeResponse {
+    private Long revision;          // Job card version produced by the update
+    private String fieldName;
+    private String oldValue;
+    private String newValue;
+    private String changedBy;
+    private LocalDateTime changedAt;
+}
@@ -1,6 +1,8 @@
 package com.example.met.dto.response;
 
+import com.example.met.config.SparseFieldsetConfig;
 import com.example.met.enums.JobCardType;
+import com.fasterxml.jackson.annotation.JsonFilter;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -14,6 +16,7 @@ import java.util.UUID;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
+@JsonFilter(SparseFieldsetConfig.FILTER_ID)
 public class JobCardResponse {
     private UUID jobCardId;
     private UUID jobId;
@@ -25,4 +28,6 @@ public class JobCardResponse {
     private List<EmployeeResponse> assignedEmployees;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    private Long version;
+    private boolean archived;
 }
\ No newline at end of file
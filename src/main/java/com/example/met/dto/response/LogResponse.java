@@ -23,4 +23,5 @@ public class LogResponse {
     private String location;
     private LocalDateTime createdAt;
     private String generatorName;
+    private UUID miniJobCardId;     // Status change entries only
 }
\ No newline at end of file
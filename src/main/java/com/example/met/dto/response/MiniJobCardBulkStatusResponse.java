@@ -0,0 +1,28 @@
+package com.example.met.dto.response;
+
+import com.example.met.enums.JobStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MiniJobCardBulkStatusResponse {
+    private JobStatus status;
+    private int matched;
+    private int updated;
+    private int unchanged;                          // Already in the target status
+    private int notAllowed;                         // The move is not a valid transition
+    private int notFound;
+    private int failed;
+    private Map<JobStatus, Integer> updatedFrom;    // Updated cards by the status they left
+    private List<UUID> notAllowedIds;
+    private List<UUID> notFoundIds;
+    private List<UUID> failedIds;
+    private long durationMs;
+}
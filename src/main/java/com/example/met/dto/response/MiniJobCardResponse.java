@@ -1,7 +1,9 @@
 package com.example.met.dto.response;
 
+import com.example.met.config.SparseFieldsetConfig;
 import com.example.met.enums.JobCardType;
 import com.example.met.enums.JobStatus;
+import com.fasterxml.jackson.annotation.JsonFilter;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -14,6 +16,7 @@ import java.util.UUID;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
+@JsonFilter(SparseFieldsetConfig.FILTER_ID)
 public class MiniJobCardResponse {
     // Mini job card basic info
     private UUID miniJobCardId;
@@ -27,6 +30,7 @@ public class MiniJobCardResponse {
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
     private LocalTime updatedTime;
+    private Long version;                  // Optimistic lock version, echoed as ETag
 
     // Enhanced job card details
     private JobCardType jobType;           // SERVICE or REPAIR
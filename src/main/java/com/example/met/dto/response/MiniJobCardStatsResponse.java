@@ -0,0 +1,22 @@
+package com.example.met.dto.response;
+
+import com.example.met.enums.JobCardType;
+import com.example.met.enums.JobStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MiniJobCardStatsResponse {
+    private long total;
+    private Map<JobStatus, Long> byStatus;
+    private Map<JobCardType, Map<JobStatus, Long>> byJobType;
+    private Map<LocalDate, Map<JobStatus, Long>> byDay;       // Only the requested date range
+    private LocalDateTime lastReconciledAt;
+}
@@ -0,0 +1,17 @@
+package com.example.met.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MiniJobCardSyncResponse {
+    private List<MiniJobCardSyncResult> results;
+    private int applied;
+    private int skipped;            // Duplicates of changes already recorded
+    private int rejected;
+}
@@ -0,0 +1,21 @@
+package com.example.met.dto.response;
+
+import com.example.met.enums.JobStatus;
+import com.example.met.enums.SyncOutcome;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MiniJobCardSyncResult {
+    private int index;              // Position of the item in the request
+    private UUID miniJobCardId;
+    private SyncOutcome outcome;
+    private String message;
+    private JobStatus status;       // Card status after the item was processed, when known
+    private Long version;
+}
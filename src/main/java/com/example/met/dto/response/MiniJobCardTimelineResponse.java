@@ -0,0 +1,47 @@
+package com.example.met.dto.response;
+
+import com.example.met.enums.JobStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MiniJobCardTimelineResponse {
+    private UUID miniJobCardId;
+    private JobStatus currentStatus;
+    private boolean archived;
+    private List<Entry> entries;
+    private List<Gap> gaps;
+    private Map<JobStatus, Long> secondsByStatus;
+
+    /** A stretch of time the card spent in one status. */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Entry {
+        private JobStatus fromStatus;   // Null for the creation entry
+        private JobStatus status;
+        private LocalDateTime startedAt;
+        private LocalDateTime endedAt;  // Null while the card is still in this status
+        private Long durationSeconds;   // Up to now for an open active status, null for a final one
+        private String location;
+        private String employeeEmail;
+    }
+
+    /** A stretch the transition log cannot account for. */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Gap {
+        private LocalDateTime from;
+        private LocalDateTime to;
+        private String reason;
+    }
+}
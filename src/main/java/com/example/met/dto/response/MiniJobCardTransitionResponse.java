@@ -0,0 +1,19 @@
+package com.example.met.dto.response;
+
+import com.example.met.enums.JobStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MiniJobCardTransitionResponse {
+    private JobStatus fromStatus;   // Null for the creation entry
+    private JobStatus toStatus;
+    private LocalDateTime occurredAt;
+    private String location;
+    private String employeeEmail;
+}
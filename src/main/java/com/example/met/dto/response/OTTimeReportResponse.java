@@ -55,6 +55,7 @@ import java.util.List;
             // Current status information
             private String currentStatus;
             private String lastStatus;
+            private String closeReason;     // Null while the day is open
 
             // All locations visited during the day
             private List<String> allLocations;
@@ -0,0 +1,21 @@
+package com.example.met.dto.response;
+
+import com.example.met.enums.JobCardType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchHitResponse {
+    private UUID jobCardId;
+    private JobCardType jobType;
+    private LocalDate date;
+    private UUID generatorId;
+    private String generatorName;
+    private double score;
+}
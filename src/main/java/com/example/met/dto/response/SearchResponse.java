@@ -0,0 +1,20 @@
+package com.example.met.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchResponse {
+    private String query;
+    private int totalHits;
+    // Best matches first, at most the requested limit
+    private List<SearchHitResponse> hits;
+    // Facet name (jobType, month, generator) -> value -> hit count, over all hits
+    private Map<String, Map<String, Integer>> facets;
+}
@@ -0,0 +1,26 @@
+package com.example.met.dto.response;
+
+import com.example.met.enums.Role;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ShiftTemplateResponse {
+    private UUID shiftTemplateId;
+    private String employeeEmail;
+    private Role role;
+    private DayOfWeek dayOfWeek;        // Null for every day
+    private LocalTime startTime;        // Null on a day off
+    private LocalTime endTime;
+    private boolean dayOff;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
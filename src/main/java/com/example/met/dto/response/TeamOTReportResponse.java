@@ -0,0 +1,55 @@
+package com.example.met.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TeamOTReportResponse {
+
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate startDate;
+
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate endDate;
+
+    private int employeeCount;
+    private long openDays;          // Days in the period not yet ended, whose totals may still change
+
+    // Team totals
+    private long totalMorningOtSeconds;
+    private long totalEveningOtSeconds;
+    private String totalMorningOT;
+    private String totalEveningOT;
+    private String totalOT;
+
+    // One row per employee; daily records come from /reports/ot/team/{employeeEmail}
+    private List<EmployeeOTTotals> employees;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class EmployeeOTTotals {
+        private String employeeEmail;
+        private String employeeName;
+        private long days;
+        private long openDays;
+
+        private long morningOtSeconds;
+        private long eveningOtSeconds;
+        private String totalMorningOT;
+        private String totalEveningOT;
+        private String totalOT;
+
+        // Status time totals
+        private String totalOnHoldTime;
+        private String totalAssignedTime;
+        private String totalInProgressTime;
+    }
+}
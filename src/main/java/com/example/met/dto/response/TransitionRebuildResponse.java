@@ -0,0 +1,14 @@
+package com.example.met.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransitionRebuildResponse {
+    private int scanned;            // Cards with a complete transition log
+    private int corrected;          // Cards whose stored counters differed from the log
+    private long elapsedMs;
+}
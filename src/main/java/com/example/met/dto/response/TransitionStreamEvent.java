@@ -0,0 +1,30 @@
+package com.example.met.dto.response;
+
+import com.example.met.enums.JobStatus;
+import com.example.met.event.MiniJobCardStatusChange;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransitionStreamEvent {
+    private Long id;                // Outbox event id; also the SSE event id used to resume
+    private UUID miniJobCardId;
+    private UUID jobCardId;
+    private String employeeEmail;
+    private JobStatus fromStatus;
+    private JobStatus toStatus;
+    private LocalDateTime occurredAt;
+    private String location;
+
+    public static TransitionStreamEvent of(Long id, MiniJobCardStatusChange change) {
+        return new TransitionStreamEvent(id, change.getMiniJobCardId(), change.getJobCardId(),
+                change.getEmployeeEmail(), change.getFromStatus(), change.getToStatus(),
+                change.getOccurredAt(), change.getLocation());
+    }
+}
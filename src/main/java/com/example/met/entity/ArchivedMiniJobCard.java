@@ -0,0 +1,146 @@
+package com.example.met.entity;
+
+import com.example.met.enums.JobStatus;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.UUID;
+
+/**
+ * Mini job card moved out of {@code mini_job_cards} by the archiver. Keeps the original id and
+ * values so archived rows can be read back with {@code includeArchived}.
+ */
+@Entity
+@Table(name = "mini_job_cards_archive", indexes = {
+        @Index(name = "idx_mini_job_cards_archive_job_card", columnList = "job_card_id"),
+        @Index(name = "idx_mini_job_cards_archive_employee_date", columnList = "employee_email, date")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchivedMiniJobCard implements Persistable<UUID>, StatusTimeAccumulator {
+    @Id
+    @Column(name = "mini_job_card_id")
+    private UUID miniJobCardId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "job_card_id", nullable = false)
+    private JobCard jobCard;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "employee_email", nullable = false)
+    private Employee employee;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private JobStatus status;
+
+    @Column(nullable = false)
+    private LocalDate date;
+
+    private String location;
+
+    private LocalTime time;
+
+    @Column(name = "on_hold_seconds", nullable = false, columnDefinition = "bigint default 0")
+    private long onHoldSeconds;
+
+    @Column(name = "assigned_seconds", nullable = false, columnDefinition = "bigint default 0")
+    private long assignedSeconds;
+
+    @Column(name = "in_progress_seconds", nullable = false, columnDefinition = "bigint default 0")
+    private long inProgressSeconds;
+
+    @Column(name = "updated_time")
+    private LocalTime updatedtime;
+
+    @Column(name = "last_time_update_this_ticket")
+    private LocalDateTime lastTimeUpdateThisTicket;
+
+    @Column(name = "created_at")
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss'Z'")
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss'Z'")
+    private LocalDateTime updatedAt;
+
+    @Column(name = "version")
+    private Long version;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+
+    // Ids are copied from the live row, so tell Spring Data to insert instead of merge-selecting first
+    @Transient
+    private boolean newRow;
+
+    public static ArchivedMiniJobCard from(MiniJobCard miniJobCard, LocalDateTime archivedAt) {
+        ArchivedMiniJobCard archived = new ArchivedMiniJobCard();
+        archived.setMiniJobCardId(miniJobCard.getMiniJobCardId());
+        archived.setJobCard(miniJobCard.getJobCard());
+        archived.setEmployee(miniJobCard.getEmployee());
+        archived.setStatus(miniJobCard.getStatus());
+        archived.setDate(miniJobCard.getDate());
+        archived.setLocation(miniJobCard.getLocation());
+        archived.setTime(miniJobCard.getTime());
+        archived.setOnHoldSeconds(miniJobCard.getOnHoldSeconds());
+        archived.setAssignedSeconds(miniJobCard.getAssignedSeconds());
+        archived.setInProgressSeconds(miniJobCard.getInProgressSeconds());
+        archived.setUpdatedtime(miniJobCard.getUpdatedtime());
+        archived.setLastTimeUpdateThisTicket(miniJobCard.getLastTimeUpdateThisTicket());
+        archived.setCreatedAt(miniJobCard.getCreatedAt());
+        archived.setUpdatedAt(miniJobCard.getUpdatedAt());
+        archived.setVersion(miniJobCard.getVersion());
+        archived.setArchivedAt(archivedAt);
+        archived.setNewRow(true);
+        return archived;
+    }
+
+    /**
+     * Detached, read-only copy in the live entity shape so existing response and report mapping
+     * can be reused. Never pass the result to a repository.
+     */
+    public MiniJobCard toMiniJobCard() {
+        MiniJobCard miniJobCard = new MiniJobCard();
+        miniJobCard.setMiniJobCardId(miniJobCardId);
+        miniJobCard.setJobCard(jobCard);
+        miniJobCard.setEmployee(employee);
+        miniJobCard.setStatus(status);
+        miniJobCard.setDate(date);
+        miniJobCard.setLocation(location);
+        miniJobCard.setTime(time);
+        miniJobCard.setOnHoldSeconds(onHoldSeconds);
+        miniJobCard.setAssignedSeconds(assignedSeconds);
+        miniJobCard.setInProgressSeconds(inProgressSeconds);
+        miniJobCard.setUpdatedtime(updatedtime);
+        miniJobCard.setLastTimeUpdateThisTicket(lastTimeUpdateThisTicket);
+        miniJobCard.setCreatedAt(createdAt);
+        miniJobCard.setUpdatedAt(updatedAt);
+        miniJobCard.setVersion(version);
+        return miniJobCard;
+    }
+
+    @Override
+    public UUID getId() {
+        return miniJobCardId;
+    }
+
+    @Override
+    public boolean isNew() {
+        return newRow;
+    }
+
+    @PostPersist
+    @PostLoad
+    private void markNotNew() {
+        this.newRow = false;
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.met.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A public holiday: a day off for everyone, whatever their shift templates say.
+ */
+@Entity
+@Table(name = "holidays")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Holiday {
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    @Column(name = "holiday_id")
+    private UUID holidayId;
+
+    @Column(nullable = false, unique = true)
+    private LocalDate date;
+
+    @Column(nullable = false)
+    private String name;
+
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+}
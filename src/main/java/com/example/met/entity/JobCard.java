@@ -17,7 +17,9 @@ import java.util.List;
 import java.util.UUID;
 
 @Entity
-@Table(name = "job_cards")
+@Table(name = "job_cards", indexes = {
+        @Index(name = "idx_job_cards_archived_date", columnList = "archived, date")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -59,6 +61,18 @@ public class JobCard {
     @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss'Z'")
     private LocalDateTime updatedAt;
 
+    // Set by the archiver once every mini job card is closed and past retention; hidden from default queries
+    @Column(name = "archived", nullable = false, columnDefinition = "boolean default false")
+    private boolean archived;
+
+    @Column(name = "archived_at")
+    private LocalDateTime archivedAt;
+
+    // Served as the ETag and checked against If-Match on update
+    @Version
+    @Column(name = "version", nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
+
     @PrePersist
     private void generateJobId() {
         if (this.jobId == null) {
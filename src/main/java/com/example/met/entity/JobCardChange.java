@@ -0,0 +1,51 @@
+package com.example.met.entity;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One changed field of one job card update. Rows are only ever inserted; all fields changed by
+ * the same update share the job card version they produced as {@code revision}.
+ */
+@Entity
+@Table(name = "job_card_changes", indexes = {
+        @Index(name = "idx_job_card_changes_job_card_revision", columnList = "job_card_id, revision")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class JobCardChange {
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    @Column(name = "change_id")
+    private UUID changeId;
+
+    // Plain id rather than a foreign key so the journal outlives a deleted job card
+    @Column(name = "job_card_id", nullable = false, updatable = false)
+    private UUID jobCardId;
+
+    @Column(nullable = false, updatable = false)
+    private Long revision;
+
+    @Column(name = "field_name", nullable = false, updatable = false, length = 50)
+    private String fieldName;
+
+    @Column(name = "old_value", updatable = false, length = 2000)
+    private String oldValue;
+
+    @Column(name = "new_value", updatable = false, length = 2000)
+    private String newValue;
+
+    @Column(name = "changed_by", updatable = false)
+    private String changedBy;
+
+    @Column(name = "changed_at", nullable = false, updatable = false)
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss'Z'")
+    private LocalDateTime changedAt;
+}
@@ -14,7 +14,10 @@ import java.time.temporal.ChronoUnit;
 import java.util.UUID;
 
 @Entity
-@Table(name = "logs")
+@Table(name = "logs", indexes = {
+        @Index(name = "idx_logs_employee_date", columnList = "employee_email, date"),
+        @Index(name = "idx_logs_mini_job_card", columnList = "mini_job_card_id, date, time")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -43,6 +46,10 @@ public class Log {
 
     private String generatorName;
 
+    // Set on status change entries; a plain id like the transition log, so it survives archiving
+    @Column(name = "mini_job_card_id", updatable = false)
+    private UUID miniJobCardId;
+
     @CreationTimestamp
     @Column(name = "created_at", updatable = false)
     @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss'Z'")
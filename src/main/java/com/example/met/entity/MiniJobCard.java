@@ -16,11 +16,13 @@ import java.time.temporal.ChronoUnit;
 import java.util.UUID;
 
 @Entity
-@Table(name = "mini_job_cards")
+@Table(name = "mini_job_cards", indexes = {
+        @Index(name = "idx_mini_job_cards_job_card", columnList = "job_card_id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-public class MiniJobCard {
+public class MiniJobCard implements StatusTimeAccumulator {
     @Id
     @GeneratedValue(strategy = GenerationType.AUTO)
     @Column(name = "mini_job_card_id")
@@ -45,14 +47,15 @@ public class MiniJobCard {
 
     private LocalTime time;
 
-    @Column(name = "spent_on_ON_HOLD")
-    private LocalTime spentOnOnHold = LocalTime.of(00, 00, 0);
+    // Accumulated seconds per status; plain counters so multi-day jobs never wrap
+    @Column(name = "on_hold_seconds", nullable = false, columnDefinition = "bigint default 0")
+    private long onHoldSeconds;
 
-    @Column(name = "spent_on_ASSIGNED")
-    private LocalTime spentOnAssigned = LocalTime.of(00, 00, 0);
+    @Column(name = "assigned_seconds", nullable = false, columnDefinition = "bigint default 0")
+    private long assignedSeconds;
 
-    @Column(name = "spent_on_IN_PROGRESS")
-    private LocalTime spentOnInProgress = LocalTime.of(00, 00, 0);
+    @Column(name = "in_progress_seconds", nullable = false, columnDefinition = "bigint default 0")
+    private long inProgressSeconds;
 
     @Column(name = "updated_time")
     private LocalTime updatedtime = LocalTime.of(00, 00, 0);
@@ -70,6 +73,10 @@ public class MiniJobCard {
     @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss'Z'")
     private LocalDateTime updatedAt;
 
+    @Version
+    @Column(name = "version", nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
+
     @PrePersist
     private void setDefaults() {
         if (this.time == null) {
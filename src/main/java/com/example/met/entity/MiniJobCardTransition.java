@@ -0,0 +1,57 @@
+package com.example.met.entity;
+
+import com.example.met.enums.JobStatus;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One status change of one mini job card. Rows are only ever inserted; the per-status second
+ * counters on {@link MiniJobCard} are a projection of this log. The creation entry has no
+ * {@code fromStatus}.
+ */
+@Entity
+@Table(name = "mini_job_card_transitions", indexes = {
+        @Index(name = "idx_mini_job_card_transitions_card_time", columnList = "mini_job_card_id, occurred_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MiniJobCardTransition {
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    @Column(name = "transition_id")
+    private UUID transitionId;
+
+    // Plain id rather than a foreign key so the log survives archiving and deletion
+    @Column(name = "mini_job_card_id", nullable = false, updatable = false)
+    private UUID miniJobCardId;
+
+    @Column(name = "employee_email", nullable = false, updatable = false)
+    private String employeeEmail;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "from_status", updatable = false)
+    private JobStatus fromStatus;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "to_status", nullable = false, updatable = false)
+    private JobStatus toStatus;
+
+    @Column(name = "occurred_at", nullable = false, updatable = false)
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss'Z'")
+    private LocalDateTime occurredAt;
+
+    @Column(updatable = false)
+    private String location;
+
+    // Insertion order within the same second
+    @Column(name = "recorded_at", nullable = false, updatable = false)
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss'Z'")
+    private LocalDateTime recordedAt;
+}
@@ -0,0 +1,91 @@
+package com.example.met.entity;
+
+import com.example.met.enums.JobCardType;
+import com.example.met.enums.JobStatus;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.UUID;
+
+/**
+ * Flat copy of a live mini job card with the job card, generator and employee fields its list
+ * responses show, so a list is one indexed scan of one table. Written only by
+ * {@link com.example.met.service.MiniJobCardViewService}, in the same transaction as the change.
+ */
+@Entity
+@Table(name = "mini_job_card_views", indexes = {
+        @Index(name = "idx_mini_job_card_views_employee", columnList = "employee_email, created_at"),
+        @Index(name = "idx_mini_job_card_views_employee_date", columnList = "employee_email, date"),
+        @Index(name = "idx_mini_job_card_views_job_card", columnList = "job_card_id, created_at"),
+        @Index(name = "idx_mini_job_card_views_status", columnList = "status, updated_at"),
+        @Index(name = "idx_mini_job_card_views_date", columnList = "date, created_at"),
+        @Index(name = "idx_mini_job_card_views_generator", columnList = "generator_id")
+})
+@Data
+@NoArgsConstructor
+public class MiniJobCardView {
+    @Id
+    @Column(name = "mini_job_card_id")
+    private UUID miniJobCardId;
+
+    @Column(name = "job_card_id", nullable = false)
+    private UUID jobCardId;
+
+    @Column(name = "employee_email", nullable = false)
+    private String employeeEmail;
+
+    @Column(name = "employee_name")
+    private String employeeName;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private JobStatus status;
+
+    @Column(nullable = false)
+    private LocalDate date;
+
+    private String location;
+
+    private LocalTime time;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @Column(name = "updated_time")
+    private LocalTime updatedTime;
+
+    @Column(name = "version")
+    private Long version;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "job_type")
+    private JobCardType jobType;
+
+    @Column(name = "estimated_time")
+    private LocalTime estimatedTime;
+
+    @Column(name = "generator_id")
+    private UUID generatorId;
+
+    @Column(name = "generator_name")
+    private String generatorName;
+
+    @Column(name = "generator_capacity")
+    private String generatorCapacity;
+
+    @Column(name = "generator_contact_number")
+    private String generatorContactNumber;
+
+    @Column(name = "generator_email")
+    private String generatorEmail;
+
+    @Column(name = "generator_description", columnDefinition = "TEXT")
+    private String generatorDescription;
+}
@@ -17,11 +17,17 @@ import java.util.List;
 import java.util.UUID;
 
 @Entity
-@Table(name = "ottimecalculator")
+@Table(name = "ottimecalculator", uniqueConstraints = {
+        // One row per employee and day; the OT upsert relies on it
+        @UniqueConstraint(name = "uk_ottimecalculator_employee_date", columnNames = {"employee_email", "date"})
+}, indexes = {
+        // Team reports read a pay period for everyone
+        @Index(name = "idx_ottimecalculator_date", columnList = "date")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-public class OTtimeCalculator {
+public class OTtimeCalculator implements StatusTimeAccumulator {
 
     @Id
     @GeneratedValue(strategy = GenerationType.AUTO)
@@ -41,20 +47,21 @@ public class OTtimeCalculator {
     @Column(nullable = false)
     private LocalTime lasttime;
 
-    @Column(nullable = false)
-    private LocalTime morningOTtime = LocalTime.of(0, 0, 0);
+    // Durations are stored as whole seconds so totals can exceed a day and be summed in SQL
+    @Column(name = "morning_ot_seconds", nullable = false, columnDefinition = "bigint default 0")
+    private long morningOtSeconds;
 
-    @Column(nullable = false)
-    private LocalTime eveningOTtime = LocalTime.of(0, 0, 0);
+    @Column(name = "evening_ot_seconds", nullable = false, columnDefinition = "bigint default 0")
+    private long eveningOtSeconds;
 
-    @Column(name = "spent_on_ON_HOLD")
-    private LocalTime spentOnOnHold = LocalTime.of(0, 0, 0);
+    @Column(name = "on_hold_seconds", nullable = false, columnDefinition = "bigint default 0")
+    private long onHoldSeconds;
 
-    @Column(name = "spent_on_ASSIGNED")
-    private LocalTime spentOnAssigned = LocalTime.of(0, 0, 0);
+    @Column(name = "assigned_seconds", nullable = false, columnDefinition = "bigint default 0")
+    private long assignedSeconds;
 
-    @Column(name = "spent_on_IN_PROGRESS")
-    private LocalTime spentOnInProgress = LocalTime.of(0, 0, 0);
+    @Column(name = "in_progress_seconds", nullable = false, columnDefinition = "bigint default 0")
+    private long inProgressSeconds;
 
     private String laststatus;
     private String currentstatus;
@@ -75,6 +82,10 @@ public class OTtimeCalculator {
     @Column(name = "lastTime_update_ottime")
     private LocalDateTime lastTimeUpdateOTtime;
 
+    // How the day was closed: END_SESSION by the technician, or the finalizer's reason code
+    @Column(name = "close_reason", length = 40)
+    private String closeReason;
+
     @CreationTimestamp
     @Column(name = "created_at")
     private LocalDateTime createdAt;
@@ -83,6 +94,10 @@ public class OTtimeCalculator {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    @Version
+    @Column(name = "version", nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
+
     private static final ZoneId SRI_LANKA_ZONE = ZoneId.of("Asia/Colombo");
 
     @PrePersist
@@ -98,23 +113,6 @@ public class OTtimeCalculator {
             this.allLocations = new ArrayList<>();
         }
 
-        // Ensure required fields have defaults to prevent null constraint violations
-        if (this.morningOTtime == null) {
-            this.morningOTtime = LocalTime.of(0, 0, 0);
-        }
-        if (this.eveningOTtime == null) {
-            this.eveningOTtime = LocalTime.of(0, 0, 0);
-        }
-        if (this.spentOnOnHold == null) {
-            this.spentOnOnHold = LocalTime.of(0, 0, 0);
-        }
-        if (this.spentOnAssigned == null) {
-            this.spentOnAssigned = LocalTime.of(0, 0, 0);
-        }
-        if (this.spentOnInProgress == null) {
-            this.spentOnInProgress = LocalTime.of(0, 0, 0);
-        }
-
         // CRITICAL: Ensure lasttime is never null
         if (this.lasttime == null && this.firsttime != null) {
             this.lasttime = this.firsttime; // Set to same as firsttime initially
@@ -128,19 +126,8 @@ public class OTtimeCalculator {
     }
 
     // Helper method to calculate total daily OT
-    public LocalTime getTotalDailyOT() {
-        if (morningOTtime == null || eveningOTtime == null) {
-            return LocalTime.of(0, 0, 0);
-        }
-
-        int totalMinutes = (morningOTtime.getHour() * 60 + morningOTtime.getMinute()) +
-                (eveningOTtime.getHour() * 60 + eveningOTtime.getMinute());
-
-        int hours = totalMinutes / 60;
-        int minutes = totalMinutes % 60;
-
-        // Handle overflow beyond 24 hours
-        return LocalTime.of(hours % 24, minutes, 0);
+    public long getTotalDailyOtSeconds() {
+        return morningOtSeconds + eveningOtSeconds;
     }
 
     // Helper method to update lasttime safely
@@ -0,0 +1,65 @@
+package com.example.met.entity;
+
+import com.example.met.enums.Role;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.UUID;
+
+/**
+ * Working hours for one employee or everyone in a role, on one weekday or (with no day) every
+ * day. Time before the start or after the end counts as OT; a template without times marks a
+ * day off, on which all time worked counts.
+ */
+@Entity
+@Table(name = "shift_templates", indexes = {
+        @Index(name = "idx_shift_templates_employee", columnList = "employee_email"),
+        @Index(name = "idx_shift_templates_role", columnList = "role")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ShiftTemplate {
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    @Column(name = "shift_template_id")
+    private UUID shiftTemplateId;
+
+    // Exactly one of employee and role is set
+    @Column(name = "employee_email")
+    private String employeeEmail;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20)
+    private Role role;
+
+    // Null applies to every weekday without a template of its own
+    @Enumerated(EnumType.STRING)
+    @Column(name = "day_of_week", length = 10)
+    private DayOfWeek dayOfWeek;
+
+    @Column(name = "start_time")
+    private LocalTime startTime;
+
+    @Column(name = "end_time")
+    private LocalTime endTime;
+
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    public boolean isDayOff() {
+        return startTime == null;
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.met.entity;
+
+/**
+ * An entity holding the per-status second counters that
+ * {@link com.example.met.service.StatusTransitionEngine} credits.
+ */
+public interface StatusTimeAccumulator {
+
+    long getOnHoldSeconds();
+
+    void setOnHoldSeconds(long onHoldSeconds);
+
+    long getAssignedSeconds();
+
+    void setAssignedSeconds(long assignedSeconds);
+
+    long getInProgressSeconds();
+
+    void setInProgressSeconds(long inProgressSeconds);
+}
@@ -0,0 +1,58 @@
+package com.example.met.entity;
+
+import com.example.met.enums.JobCardType;
+import com.example.met.enums.JobStatus;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A mini job card found sitting in one status past its threshold. A card stuck since a given
+ * moment is alerted once; if it moves and stalls again, that is a new alert.
+ */
+@Entity
+@Table(name = "stuck_job_alerts", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_stuck_job_alerts_card_status_since",
+                columnNames = {"mini_job_card_id", "status", "stuck_since"})
+}, indexes = {
+        @Index(name = "idx_stuck_job_alerts_notified", columnList = "notified_at, id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StuckJobAlert {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "mini_job_card_id", nullable = false, updatable = false)
+    private UUID miniJobCardId;
+
+    @Column(name = "job_card_id", nullable = false, updatable = false)
+    private UUID jobCardId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "job_type", nullable = false, updatable = false, length = 20)
+    private JobCardType jobType;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, updatable = false, length = 20)
+    private JobStatus status;
+
+    @Column(name = "employee_email", nullable = false, updatable = false)
+    private String employeeEmail;
+
+    @Column(name = "stuck_since", nullable = false, updatable = false)
+    private LocalDateTime stuckSince;
+
+    @Column(name = "detected_at", nullable = false, updatable = false)
+    private LocalDateTime detectedAt;
+
+    // Set once the alert went out in a digest
+    @Column(name = "notified_at")
+    private LocalDateTime notifiedAt;
+}
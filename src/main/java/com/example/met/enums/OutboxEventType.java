@@ -0,0 +1,5 @@
+package com.example.met.enums;
+
+public enum OutboxEventType {
+    MINI_JOB_CARD_STATUS_CHANGED
+}
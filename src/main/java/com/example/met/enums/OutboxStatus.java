@@ -0,0 +1,7 @@
+package com.example.met.enums;
+
+public enum OutboxStatus {
+    PENDING,
+    PROCESSED,
+    FAILED
+}
@@ -0,0 +1,11 @@
+package com.example.met.enums;
+
+public enum SyncOutcome {
+    APPLIED,
+    DUPLICATE,
+    CONFLICT,
+    NOT_FOUND,
+    FORBIDDEN,
+    INVALID,
+    FAILED
+}
@@ -0,0 +1,15 @@
+package com.example.met.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Published when an employee's details change; their mini job card list rows carry the name.
+ */
+@Getter
+@AllArgsConstructor
+@ToString
+public class EmployeeChangedEvent {
+    private final String email;
+}
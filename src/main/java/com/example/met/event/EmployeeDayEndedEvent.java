@@ -0,0 +1,18 @@
+package com.example.met.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.LocalDate;
+
+/**
+ * Published when an END_DATE log is written for an employee, closing their day for status edits.
+ */
+@Getter
+@AllArgsConstructor
+@ToString
+public class EmployeeDayEndedEvent {
+    private final String employeeEmail;
+    private final LocalDate date;
+}
@@ -0,0 +1,17 @@
+package com.example.met.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.UUID;
+
+/**
+ * Published when a generator's details change; job cards that reference it need re-indexing.
+ */
+@Getter
+@AllArgsConstructor
+@ToString
+public class GeneratorChangedEvent {
+    private final UUID generatorId;
+}
@@ -0,0 +1,17 @@
+package com.example.met.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.UUID;
+
+/**
+ * Published when a job card or anything indexed with it (crew, locations, emails) is created or changed.
+ */
+@Getter
+@AllArgsConstructor
+@ToString
+public class JobCardChangedEvent {
+    private final UUID jobCardId;
+}
@@ -0,0 +1,17 @@
+package com.example.met.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.UUID;
+
+/**
+ * Published when a job card is deleted.
+ */
+@Getter
+@AllArgsConstructor
+@ToString
+public class JobCardDeletedEvent {
+    private final UUID jobCardId;
+}
@@ -0,0 +1,19 @@
+package com.example.met.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * Published when mini job cards are written or removed outside a job card change, so their list
+ * rows can follow.
+ */
+@Getter
+@AllArgsConstructor
+@ToString
+public class MiniJobCardChangedEvent {
+    private final Collection<UUID> miniJobCardIds;
+}
@@ -0,0 +1,39 @@
+package com.example.met.event;
+
+import com.example.met.enums.JobCardType;
+import com.example.met.enums.JobStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.LocalDate;
+
+/**
+ * Published when mini job cards are created, removed, or change status or date, so the live status
+ * counters can follow. A null "before" status means the cards were created, a null "after" status
+ * that they were removed.
+ */
+@Getter
+@AllArgsConstructor
+@ToString
+public class MiniJobCardCountChange {
+    private final JobCardType jobType;
+    private final LocalDate beforeDate;
+    private final JobStatus beforeStatus;
+    private final LocalDate afterDate;
+    private final JobStatus afterStatus;
+    private final long count;
+
+    public static MiniJobCardCountChange created(JobCardType jobType, LocalDate date, JobStatus status) {
+        return new MiniJobCardCountChange(jobType, null, null, date, status, 1);
+    }
+
+    public static MiniJobCardCountChange removed(JobCardType jobType, LocalDate date, JobStatus status, long count) {
+        return new MiniJobCardCountChange(jobType, date, status, null, null, count);
+    }
+
+    public static MiniJobCardCountChange changed(JobCardType jobType, LocalDate beforeDate, JobStatus beforeStatus,
+                                                 LocalDate afterDate, JobStatus afterStatus) {
+        return new MiniJobCardCountChange(jobType, beforeDate, beforeStatus, afterDate, afterStatus, 1);
+    }
+}
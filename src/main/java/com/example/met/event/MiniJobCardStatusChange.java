@@ -0,0 +1,27 @@
+package com.example.met.event;
+
+import com.example.met.enums.JobStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Outbox payload for one mini job card status change; carries everything the deferred side
+ * effects need so they do not have to reload the card.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MiniJobCardStatusChange {
+    private UUID miniJobCardId;
+    private UUID jobCardId;
+    private String employeeEmail;
+    private JobStatus fromStatus;
+    private JobStatus toStatus;
+    private LocalDateTime occurredAt;
+    private String location;
+    private String generatorName;
+}
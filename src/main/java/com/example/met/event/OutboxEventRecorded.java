@@ -0,0 +1,19 @@
+package com.example.met.event;
+
+import com.example.met.enums.OutboxEventType;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Published when an outbox event is written, so in-process listeners can react once the
+ * transaction commits without waiting for the dispatcher.
+ */
+@Getter
+@AllArgsConstructor
+@ToString
+public class OutboxEventRecorded {
+    private final Long outboxEventId;
+    private final OutboxEventType eventType;
+    private final Object payload;
+}
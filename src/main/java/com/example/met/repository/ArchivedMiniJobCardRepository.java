@@ -0,0 +1,83 @@
+package com.example.met.repository;
+
+import com.example.met.entity.ArchivedMiniJobCard;
+import com.example.met.enums.JobStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface ArchivedMiniJobCardRepository extends JpaRepository<ArchivedMiniJobCard, UUID> {
+
+    @Query("SELECT a FROM ArchivedMiniJobCard a " +
+            "JOIN FETCH a.jobCard j " +
+            "JOIN FETCH j.generator " +
+            "JOIN FETCH a.employee " +
+            "WHERE a.employee.email = :email " +
+            "ORDER BY a.createdAt DESC")
+    List<ArchivedMiniJobCard> findByEmployeeEmailOrderByCreatedAtDesc(@Param("email") String email);
+
+    @Query("SELECT a FROM ArchivedMiniJobCard a " +
+            "JOIN FETCH a.jobCard j " +
+            "JOIN FETCH j.generator " +
+            "JOIN FETCH a.employee " +
+            "WHERE j.jobCardId = :jobCardId")
+    List<ArchivedMiniJobCard> findByJobCardId(@Param("jobCardId") UUID jobCardId);
+
+    @Query("SELECT a FROM ArchivedMiniJobCard a " +
+            "JOIN FETCH a.jobCard j " +
+            "JOIN FETCH j.generator " +
+            "JOIN FETCH a.employee " +
+            "WHERE a.status = :status")
+    List<ArchivedMiniJobCard> findByStatus(@Param("status") JobStatus status);
+
+    @Query("SELECT a FROM ArchivedMiniJobCard a " +
+            "JOIN FETCH a.jobCard j " +
+            "JOIN FETCH j.generator " +
+            "JOIN FETCH a.employee " +
+            "WHERE a.employee.email = :employeeEmail " +
+            "AND a.date >= :startDate " +
+            "AND a.date <= :endDate " +
+            "ORDER BY a.date DESC, a.updatedAt DESC")
+    List<ArchivedMiniJobCard> findByEmployeeEmailAndDateRange(
+            @Param("employeeEmail") String employeeEmail,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate
+    );
+
+    @Query("SELECT a FROM ArchivedMiniJobCard a JOIN FETCH a.employee " +
+            "WHERE a.jobCard.jobCardId IN :jobCardIds ORDER BY a.createdAt ASC")
+    List<ArchivedMiniJobCard> findWithEmployeeByJobCardIdIn(@Param("jobCardIds") Collection<UUID> jobCardIds);
+
+    @Query("SELECT a.jobCard.jobCardId, a.location FROM ArchivedMiniJobCard a WHERE a.location IS NOT NULL")
+    List<Object[]> findAllJobCardLocations();
+
+    @Query("SELECT a.jobCard.jobCardId, a.location FROM ArchivedMiniJobCard a " +
+            "WHERE a.location IS NOT NULL AND a.jobCard.jobCardId IN :jobCardIds")
+    List<Object[]> findJobCardLocations(@Param("jobCardIds") Collection<UUID> jobCardIds);
+
+    // status, job type, date, count
+    @Query("SELECT a.status, j.jobType, a.date, COUNT(a) FROM ArchivedMiniJobCard a JOIN a.jobCard j " +
+            "GROUP BY a.status, j.jobType, a.date")
+    List<Object[]> countByStatusJobTypeAndDate();
+
+    // status, date, count
+    @Query("SELECT a.status, a.date, COUNT(a) FROM ArchivedMiniJobCard a " +
+            "WHERE a.jobCard.jobCardId = :jobCardId GROUP BY a.status, a.date")
+    List<Object[]> countByStatusAndDateForJobCard(@Param("jobCardId") UUID jobCardId);
+
+    @Modifying
+    @Query("DELETE FROM ArchivedMiniJobCard a WHERE a.jobCard.jobCardId = :jobCardId")
+    int deleteByJobCardId(@Param("jobCardId") UUID jobCardId);
+
+    // status, created at, last change; for the timeline, which needs nothing else from the card
+    @Query("SELECT m.status, m.createdAt, m.lastTimeUpdateThisTicket FROM ArchivedMiniJobCard m WHERE m.miniJobCardId = :id")
+    List<Object[]> findTimelineStateById(@Param("id") UUID id);
+}
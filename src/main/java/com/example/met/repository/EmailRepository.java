@@ -3,8 +3,11 @@ package com.example.met.repository;
 
 import com.example.met.entity.EmailEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -12,4 +15,11 @@ import java.util.UUID;
 public interface EmailRepository extends JpaRepository<EmailEntity, UUID> {
     List<EmailEntity> findByJobCardIdOrderByCreatedAtDesc(UUID jobCardId);
     List<EmailEntity> findBySentByOrderByCreatedAtDesc(String sentBy);
+
+    // (jobCardId, subject) pairs for the search index
+    @Query("SELECT e.jobCardId, e.subject FROM EmailEntity e")
+    List<Object[]> findAllJobCardSubjects();
+
+    @Query("SELECT e.jobCardId, e.subject FROM EmailEntity e WHERE e.jobCardId IN :jobCardIds")
+    List<Object[]> findJobCardSubjects(@Param("jobCardIds") Collection<UUID> jobCardIds);
 }
@@ -0,0 +1,19 @@
+package com.example.met.repository;
+
+import com.example.met.entity.Holiday;
+import org.springframework.stereotype.Repository;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface HolidayRepository extends JpaRepository<Holiday, UUID> {
+
+    List<Holiday> findAllByOrderByDateAsc();
+
+    List<Holiday> findByDateBetweenOrderByDateAsc(LocalDate startDate, LocalDate endDate);
+
+    boolean existsByDate(LocalDate date);
+}
@@ -0,0 +1,21 @@
+package com.example.met.repository;
+
+import com.example.met.entity.JobCardChange;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.UUID;
+
+@Repository
+public interface JobCardChangeRepository extends JpaRepository<JobCardChange, UUID> {
+
+    // Served by idx_job_card_changes_job_card_revision; newest revision first
+    @Query(value = "SELECT c FROM JobCardChange c WHERE c.jobCardId = :jobCardId " +
+            "ORDER BY c.revision DESC, c.fieldName ASC",
+            countQuery = "SELECT COUNT(c) FROM JobCardChange c WHERE c.jobCardId = :jobCardId")
+    Page<JobCardChange> findByJobCardId(@Param("jobCardId") UUID jobCardId, Pageable pageable);
+}
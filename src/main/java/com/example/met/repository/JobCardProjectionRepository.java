@@ -0,0 +1,210 @@
+package com.example.met.repository;
+
+import com.example.met.dto.response.EmployeeResponse;
+import com.example.met.dto.response.GeneratorResponse;
+import com.example.met.dto.response.JobCardResponse;
+import com.example.met.enums.JobCardType;
+import com.example.met.enums.Role;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
+
+/**
+ * Sparse fieldset queries for job cards. Scalar attributes come from one projection query; the
+ * generator is joined only when {@code generator} is requested, and crew emails / employees are
+ * loaded with one extra query each only when {@code employeeEmails} / {@code assignedEmployees}
+ * are requested.
+ */
+@Repository
+public class JobCardProjectionRepository {
+
+    private static final String GENERATOR = "generator";
+    private static final String EMPLOYEE_EMAILS = "employeeEmails";
+    private static final String ASSIGNED_EMPLOYEES = "assignedEmployees";
+
+    private static final Map<String, String> SCALAR_EXPRESSIONS = new LinkedHashMap<>();
+    private static final Map<String, BiConsumer<JobCardResponse, Object>> SCALAR_SETTERS = new HashMap<>();
+
+    static {
+        scalar("jobCardId", "j.jobCardId", (r, v) -> r.setJobCardId((UUID) v));
+        scalar("jobId", "j.jobId", (r, v) -> r.setJobId((UUID) v));
+        scalar("jobType", "j.jobType", (r, v) -> r.setJobType((JobCardType) v));
+        scalar("date", "j.date", (r, v) -> r.setDate((LocalDate) v));
+        scalar("estimatedTime", "j.estimatedTime", (r, v) -> r.setEstimatedTime((LocalTime) v));
+        scalar("createdAt", "j.createdAt", (r, v) -> r.setCreatedAt((LocalDateTime) v));
+        scalar("updatedAt", "j.updatedAt", (r, v) -> r.setUpdatedAt((LocalDateTime) v));
+        scalar("version", "j.version", (r, v) -> r.setVersion((Long) v));
+        scalar("archived", "j.archived", (r, v) -> r.setArchived((Boolean) v));
+    }
+
+    private static void scalar(String name, String expression, BiConsumer<JobCardResponse, Object> setter) {
+        SCALAR_EXPRESSIONS.put(name, expression);
+        SCALAR_SETTERS.put(name, setter);
+    }
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public List<JobCardResponse> findLatest(int limit, Collection<String> fields, boolean includeArchived) {
+        return query(fields, activeOnly(null, includeArchived), Map.of(), "j.updatedAt DESC", limit);
+    }
+
+    public List<JobCardResponse> findByDate(LocalDate date, Collection<String> fields, boolean includeArchived) {
+        return query(fields, activeOnly("j.date = :date", includeArchived), Map.of("date", date),
+                "j.updatedAt DESC", 0);
+    }
+
+    public List<JobCardResponse> findByEmployeeEmail(String email, Collection<String> fields, boolean includeArchived) {
+        return query(fields, activeOnly(":email MEMBER OF j.employeeEmails", includeArchived), Map.of("email", email),
+                "j.date DESC", 0);
+    }
+
+    private static String activeOnly(String where, boolean includeArchived) {
+        if (includeArchived) {
+            return where;
+        }
+        return where == null ? "j.archived = false" : where + " AND j.archived = false";
+    }
+
+    private List<JobCardResponse> query(Collection<String> requested, String where, Map<String, Object> params,
+                                        String orderBy, int limit) {
+        Set<String> fields = validate(requested);
+        boolean withGenerator = fields.contains(GENERATOR);
+        boolean withEmails = fields.contains(EMPLOYEE_EMAILS) || fields.contains(ASSIGNED_EMPLOYEES);
+
+        // The id is needed to attach crew data even when it is not itself requested
+        List<String> scalars = new ArrayList<>(fields.stream().filter(SCALAR_EXPRESSIONS::containsKey).toList());
+        if (withEmails && !scalars.contains("jobCardId")) {
+            scalars.add("jobCardId");
+        }
+
+        List<String> selections = new ArrayList<>();
+        scalars.forEach(name -> selections.add(SCALAR_EXPRESSIONS.get(name)));
+        if (withGenerator) {
+            selections.addAll(List.of("g.generatorId", "g.name", "g.capacity", "g.contactNumber",
+                    "g.email", "g.description", "g.createdAt", "g.updatedAt"));
+        }
+
+        StringBuilder jpql = new StringBuilder("SELECT ");
+        for (int i = 0; i < selections.size(); i++) {
+            if (i > 0) {
+                jpql.append(", ");
+            }
+            jpql.append(selections.get(i)).append(" AS f").append(i);
+        }
+        jpql.append(" FROM JobCard j");
+        if (withGenerator) {
+            jpql.append(" JOIN j.generator g");
+        }
+        if (where != null) {
+            jpql.append(" WHERE ").append(where);
+        }
+        jpql.append(" ORDER BY ").append(orderBy);
+
+        TypedQuery<Tuple> query = entityManager.createQuery(jpql.toString(), Tuple.class);
+        params.forEach(query::setParameter);
+        if (limit > 0) {
+            query.setMaxResults(limit);
+        }
+
+        List<Tuple> rows = query.getResultList();
+        List<JobCardResponse> result = new ArrayList<>(rows.size());
+        for (Tuple row : rows) {
+            JobCardResponse response = new JobCardResponse();
+            int column = 0;
+            for (String name : scalars) {
+                SCALAR_SETTERS.get(name).accept(response, row.get(column++));
+            }
+            if (withGenerator) {
+                response.setGenerator(new GeneratorResponse(
+                        (UUID) row.get(column++), (String) row.get(column++), (String) row.get(column++),
+                        (String) row.get(column++), (String) row.get(column++), (String) row.get(column++),
+                        (LocalDateTime) row.get(column++), (LocalDateTime) row.get(column++)));
+            }
+            result.add(response);
+        }
+
+        if (withEmails && !result.isEmpty()) {
+            attachCrew(result, fields.contains(EMPLOYEE_EMAILS), fields.contains(ASSIGNED_EMPLOYEES));
+        }
+        return result;
+    }
+
+    private void attachCrew(List<JobCardResponse> jobCards, boolean withEmails, boolean withEmployees) {
+        List<UUID> ids = jobCards.stream().map(JobCardResponse::getJobCardId).toList();
+
+        Map<UUID, List<String>> emailsByJobCard = new HashMap<>();
+        entityManager.createQuery(
+                        "SELECT j.jobCardId, em FROM JobCard j JOIN j.employeeEmails em WHERE j.jobCardId IN :ids",
+                        Tuple.class)
+                .setParameter("ids", ids)
+                .getResultList()
+                .forEach(row -> emailsByJobCard
+                        .computeIfAbsent((UUID) row.get(0), id -> new ArrayList<>())
+                        .add((String) row.get(1)));
+
+        Map<String, EmployeeResponse> employeesByEmail = new HashMap<>();
+        if (withEmployees) {
+            Set<String> allEmails = emailsByJobCard.values().stream()
+                    .flatMap(List::stream)
+                    .collect(Collectors.toSet());
+            if (!allEmails.isEmpty()) {
+                entityManager.createQuery(
+                                "SELECT e.email, e.name, e.contactNumber, e.role, e.createdAt, e.updatedAt " +
+                                        "FROM Employee e WHERE e.email IN :emails", Tuple.class)
+                        .setParameter("emails", allEmails)
+                        .getResultList()
+                        .forEach(row -> employeesByEmail.put((String) row.get(0), new EmployeeResponse(
+                                (String) row.get(0), (String) row.get(1), (String) row.get(2),
+                                (Role) row.get(3), (LocalDateTime) row.get(4), (LocalDateTime) row.get(5))));
+            }
+        }
+
+        for (JobCardResponse jobCard : jobCards) {
+            List<String> emails = emailsByJobCard.getOrDefault(jobCard.getJobCardId(), List.of());
+            if (withEmails) {
+                jobCard.setEmployeeEmails(emails);
+            }
+            if (withEmployees) {
+                jobCard.setAssignedEmployees(emails.stream()
+                        .map(employeesByEmail::get)
+                        .filter(Objects::nonNull)
+                        .toList());
+            }
+        }
+    }
+
+    private Set<String> validate(Collection<String> requested) {
+        Set<String> fields = new LinkedHashSet<>(requested);
+        if (fields.isEmpty()) {
+            throw new IllegalArgumentException("At least one field is required");
+        }
+        for (String name : fields) {
+            if (!SCALAR_EXPRESSIONS.containsKey(name) && !GENERATOR.equals(name)
+                    && !EMPLOYEE_EMAILS.equals(name) && !ASSIGNED_EMPLOYEES.equals(name)) {
+                throw new IllegalArgumentException("Unknown field '" + name + "'. Allowed fields: "
+                        + SCALAR_EXPRESSIONS.keySet() + ", [" + GENERATOR + ", " + EMPLOYEE_EMAILS + ", "
+                        + ASSIGNED_EMPLOYEES + "]");
+            }
+        }
+        return fields;
+    }
+}
@@ -2,13 +2,17 @@ package com.example.met.repository;
 
 import com.example.met.entity.JobCard;
 import com.example.met.enums.JobCardType;
+import com.example.met.enums.JobStatus;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -30,6 +34,49 @@ public interface JobCardRepository extends JpaRepository<JobCard, UUID> {
     @Query("SELECT j FROM JobCard j ORDER BY j.createdAt DESC")
     List<JobCard> findAllOrderByCreatedAtDesc();
 
+    @Query("SELECT DISTINCT j FROM JobCard j " +
+            "JOIN FETCH j.generator " +
+            "LEFT JOIN FETCH j.employeeEmails " +
+            "WHERE j.jobCardId IN :ids")
+    List<JobCard> findAllWithDetailsByJobCardIdIn(@Param("ids") Collection<UUID> ids);
+
+    // Full load for the in-memory search index (archived cards included)
+    @Query("SELECT DISTINCT j FROM JobCard j JOIN FETCH j.generator LEFT JOIN FETCH j.employeeEmails")
+    List<JobCard> findAllForSearchIndex();
+
+    @Query("SELECT j FROM JobCard j JOIN FETCH j.generator WHERE j.date = :date ORDER BY j.createdAt ASC")
+    List<JobCard> findWithGeneratorByDate(@Param("date") LocalDate date);
+
+    // Default (non-archived) variants used by the list endpoints unless includeArchived is requested
+    List<JobCard> findByJobTypeAndArchivedFalse(JobCardType jobType);
+
+    List<JobCard> findByGeneratorGeneratorIdAndArchivedFalse(UUID generatorId);
+
+    List<JobCard> findByDateAndArchivedFalse(LocalDate date);
+
+    @Query("SELECT j FROM JobCard j WHERE j.archived = false ORDER BY j.updatedAt DESC")
+    List<JobCard> findActiveOrderByUpdatedAtDesc(Pageable pageable);
+
+    @Query("SELECT j FROM JobCard j WHERE j.archived = false AND :email MEMBER OF j.employeeEmails")
+    List<JobCard> findActiveByEmployeeEmail(@Param("email") String email);
+
+    // Cards dated before the cutoff whose mini job cards are all in one of the closed statuses, keyset-paged by id
+    @Query("SELECT j.jobCardId FROM JobCard j " +
+            "WHERE j.archived = false AND j.date < :cutoff AND j.jobCardId > :afterId " +
+            "AND EXISTS (SELECT 1 FROM MiniJobCard m WHERE m.jobCard = j) " +
+            "AND NOT EXISTS (SELECT 1 FROM MiniJobCard m WHERE m.jobCard = j AND m.status NOT IN :closedStatuses) " +
+            "ORDER BY j.jobCardId ASC")
+    List<UUID> findArchivableJobCardIds(@Param("cutoff") LocalDate cutoff,
+                                        @Param("closedStatuses") Collection<JobStatus> closedStatuses,
+                                        @Param("afterId") UUID afterId,
+                                        Pageable pageable);
+
+    // Bumps the version so an edit that read the card before archiving fails instead of reviving it
+    @Modifying
+    @Query("UPDATE JobCard j SET j.archived = true, j.archivedAt = :archivedAt, j.version = j.version + 1 " +
+            "WHERE j.jobCardId IN :ids")
+    int markArchived(@Param("ids") Collection<UUID> ids, @Param("archivedAt") LocalDateTime archivedAt);
+
     @Query("SELECT j FROM JobCard j WHERE j.jobType = :jobType AND j.date >= :fromDate")
     List<JobCard> findByJobTypeAndDateAfter(@Param("jobType") JobCardType jobType, @Param("fromDate") LocalDate fromDate);
 }
\ No newline at end of file
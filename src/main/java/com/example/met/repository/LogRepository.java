@@ -21,6 +21,8 @@ public interface LogRepository extends JpaRepository<Log, UUID> {
 
     List<Log> findByEmployeeEmailAndDate(String employeeEmail, LocalDate date);
 
+    boolean existsByEmployeeEmailAndDateAndStatus(String employeeEmail, LocalDate date, String status);
+
     List<Log> findByAction(String action);
 
     List<Log> findByDateBetween(LocalDate startDate, LocalDate endDate);
@@ -0,0 +1,136 @@
+package com.example.met.repository;
+
+import com.example.met.dto.response.MiniJobCardResponse;
+import com.example.met.enums.JobCardType;
+import com.example.met.enums.JobStatus;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+
+/**
+ * Sparse fieldset queries for mini job cards: selects only the columns behind the requested
+ * {@link MiniJobCardResponse} attributes and joins job card, generator or employee only when one of
+ * their attributes is requested.
+ */
+@Repository
+public class MiniJobCardProjectionRepository {
+
+    private enum Join { NONE, JOB_CARD, GENERATOR, EMPLOYEE }
+
+    private record Field(String expression, Join join, BiConsumer<MiniJobCardResponse, Object> setter) {
+    }
+
+    private static final Map<String, Field> FIELDS = new LinkedHashMap<>();
+
+    static {
+        FIELDS.put("miniJobCardId", new Field("m.miniJobCardId", Join.NONE, (r, v) -> r.setMiniJobCardId((UUID) v)));
+        FIELDS.put("jobCardId", new Field("m.jobCard.jobCardId", Join.NONE, (r, v) -> r.setJobCardId((UUID) v)));
+        FIELDS.put("employeeEmail", new Field("m.employee.email", Join.NONE, (r, v) -> r.setEmployeeEmail((String) v)));
+        FIELDS.put("status", new Field("m.status", Join.NONE, (r, v) -> r.setStatus((JobStatus) v)));
+        FIELDS.put("date", new Field("m.date", Join.NONE, (r, v) -> r.setDate((LocalDate) v)));
+        FIELDS.put("location", new Field("m.location", Join.NONE, (r, v) -> r.setLocation((String) v)));
+        FIELDS.put("time", new Field("m.time", Join.NONE, (r, v) -> r.setTime((LocalTime) v)));
+        FIELDS.put("createdAt", new Field("m.createdAt", Join.NONE, (r, v) -> r.setCreatedAt((LocalDateTime) v)));
+        FIELDS.put("updatedAt", new Field("m.updatedAt", Join.NONE, (r, v) -> r.setUpdatedAt((LocalDateTime) v)));
+        FIELDS.put("updatedTime", new Field("m.updatedtime", Join.NONE, (r, v) -> r.setUpdatedTime((LocalTime) v)));
+        FIELDS.put("version", new Field("m.version", Join.NONE, (r, v) -> r.setVersion((Long) v)));
+        FIELDS.put("employeeName", new Field("e.name", Join.EMPLOYEE, (r, v) -> r.setEmployeeName((String) v)));
+        FIELDS.put("jobType", new Field("j.jobType", Join.JOB_CARD, (r, v) -> r.setJobType((JobCardType) v)));
+        FIELDS.put("estimatedTime", new Field("j.estimatedTime", Join.JOB_CARD, (r, v) -> r.setEstimatedTime((LocalTime) v)));
+        FIELDS.put("generatorId", new Field("j.generator.generatorId", Join.JOB_CARD, (r, v) -> r.setGeneratorId((UUID) v)));
+        FIELDS.put("generatorName", new Field("g.name", Join.GENERATOR, (r, v) -> r.setGeneratorName((String) v)));
+        FIELDS.put("generatorCapacity", new Field("g.capacity", Join.GENERATOR, (r, v) -> r.setGeneratorCapacity((String) v)));
+        FIELDS.put("generatorContactNumber", new Field("g.contactNumber", Join.GENERATOR, (r, v) -> r.setGeneratorContactNumber((String) v)));
+        FIELDS.put("generatorEmail", new Field("g.email", Join.GENERATOR, (r, v) -> r.setGeneratorEmail((String) v)));
+        FIELDS.put("generatorDescription", new Field("g.description", Join.GENERATOR, (r, v) -> r.setGeneratorDescription((String) v)));
+    }
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public List<MiniJobCardResponse> findByDate(LocalDate date, Collection<String> fields) {
+        return query(fields, "m.date = :date", Map.of("date", date), "m.createdAt DESC");
+    }
+
+    public List<MiniJobCardResponse> findByEmployeeEmail(String email, Collection<String> fields) {
+        return query(fields, "m.employee.email = :email", Map.of("email", email), "m.createdAt DESC");
+    }
+
+    public List<MiniJobCardResponse> findByJobCardId(UUID jobCardId, Collection<String> fields) {
+        return query(fields, "m.jobCard.jobCardId = :jobCardId", Map.of("jobCardId", jobCardId), "m.createdAt ASC");
+    }
+
+    public List<MiniJobCardResponse> findByStatus(JobStatus status, Collection<String> fields) {
+        return query(fields, "m.status = :status", Map.of("status", status), "m.updatedAt DESC");
+    }
+
+    private List<MiniJobCardResponse> query(Collection<String> requested, String where,
+                                            Map<String, Object> params, String orderBy) {
+        List<Map.Entry<String, Field>> selected = resolve(requested);
+
+        boolean joinJobCard = selected.stream().anyMatch(e -> e.getValue().join() == Join.JOB_CARD || e.getValue().join() == Join.GENERATOR);
+        boolean joinGenerator = selected.stream().anyMatch(e -> e.getValue().join() == Join.GENERATOR);
+        boolean joinEmployee = selected.stream().anyMatch(e -> e.getValue().join() == Join.EMPLOYEE);
+
+        StringBuilder jpql = new StringBuilder("SELECT ");
+        for (int i = 0; i < selected.size(); i++) {
+            if (i > 0) {
+                jpql.append(", ");
+            }
+            jpql.append(selected.get(i).getValue().expression()).append(" AS f").append(i);
+        }
+        jpql.append(" FROM MiniJobCard m");
+        if (joinJobCard) {
+            jpql.append(" JOIN m.jobCard j");
+        }
+        if (joinGenerator) {
+            jpql.append(" JOIN j.generator g");
+        }
+        if (joinEmployee) {
+            jpql.append(" JOIN m.employee e");
+        }
+        jpql.append(" WHERE ").append(where).append(" ORDER BY ").append(orderBy);
+
+        TypedQuery<Tuple> query = entityManager.createQuery(jpql.toString(), Tuple.class);
+        params.forEach(query::setParameter);
+
+        List<Tuple> rows = query.getResultList();
+        List<MiniJobCardResponse> result = new ArrayList<>(rows.size());
+        for (Tuple row : rows) {
+            MiniJobCardResponse response = new MiniJobCardResponse();
+            for (int i = 0; i < selected.size(); i++) {
+                selected.get(i).getValue().setter().accept(response, row.get(i));
+            }
+            result.add(response);
+        }
+        return result;
+    }
+
+    private List<Map.Entry<String, Field>> resolve(Collection<String> requested) {
+        List<Map.Entry<String, Field>> selected = new ArrayList<>();
+        for (String name : requested) {
+            Field field = FIELDS.get(name);
+            if (field == null) {
+                throw new IllegalArgumentException("Unknown field '" + name + "'. Allowed fields: " + FIELDS.keySet());
+            }
+            selected.add(Map.entry(name, field));
+        }
+        if (selected.isEmpty()) {
+            throw new IllegalArgumentException("At least one field is required");
+        }
+        return selected;
+    }
+}
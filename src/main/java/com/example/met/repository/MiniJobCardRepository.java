@@ -2,13 +2,20 @@ package com.example.met.repository;
 
 import com.example.met.entity.MiniJobCard;
 import com.example.met.enums.JobStatus;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
@@ -24,6 +31,11 @@ public interface MiniJobCardRepository extends JpaRepository<MiniJobCard, UUID>
 
     List<MiniJobCard> findByDateBetween(LocalDate startDate, LocalDate endDate);
 
+    // Everything a status update and its response touch, in one select
+    @EntityGraph(attributePaths = {"jobCard", "jobCard.generator", "employee"})
+    @Query("SELECT m FROM MiniJobCard m WHERE m.miniJobCardId = :id")
+    Optional<MiniJobCard> findWithDetailsById(@Param("id") UUID id);
+
     @Query("SELECT m FROM MiniJobCard m WHERE m.employee.email = :email AND m.status = :status")
     List<MiniJobCard> findByEmployeeEmailAndStatus(@Param("email") String email, @Param("status") JobStatus status);
 
@@ -60,5 +72,69 @@ public interface MiniJobCardRepository extends JpaRepository<MiniJobCard, UUID>
             @Param("endDate") LocalDate endDate
     );
 
+    @Query("SELECT m FROM MiniJobCard m " +
+            "JOIN FETCH m.jobCard j " +
+            "JOIN FETCH j.generator " +
+            "JOIN FETCH m.employee " +
+            "WHERE m.miniJobCardId IN :ids")
+    List<MiniJobCard> findAllWithDetailsByMiniJobCardIdIn(@Param("ids") Collection<UUID> ids);
+
+    @Query("SELECT m FROM MiniJobCard m JOIN FETCH m.employee WHERE m.jobCard.jobCardId IN :jobCardIds ORDER BY m.createdAt ASC")
+    List<MiniJobCard> findWithEmployeeByJobCardIdIn(@Param("jobCardIds") Collection<UUID> jobCardIds);
+
+    // (jobCardId, location) pairs for the search index
+    @Query("SELECT m.jobCard.jobCardId, m.location FROM MiniJobCard m WHERE m.location IS NOT NULL")
+    List<Object[]> findAllJobCardLocations();
+
+    @Query("SELECT m.jobCard.jobCardId, m.location FROM MiniJobCard m " +
+            "WHERE m.location IS NOT NULL AND m.jobCard.jobCardId IN :jobCardIds")
+    List<Object[]> findJobCardLocations(@Param("jobCardIds") Collection<UUID> jobCardIds);
+
+    // Row-locks the cards being archived so a concurrent status change waits for (or is seen by) the archiver
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT m FROM MiniJobCard m WHERE m.jobCard.jobCardId IN :jobCardIds")
+    List<MiniJobCard> findForArchiveByJobCardIdIn(@Param("jobCardIds") Collection<UUID> jobCardIds);
+
+    // Row-locks cards whose counters are being rebuilt or synced so status changes cannot interleave
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT m FROM MiniJobCard m WHERE m.miniJobCardId IN :ids")
+    List<MiniJobCard> findForUpdateByMiniJobCardIdIn(@Param("ids") Collection<UUID> ids);
+
+    // status, job type, date, count
+    @Query("SELECT m.status, j.jobType, m.date, COUNT(m) FROM MiniJobCard m JOIN m.jobCard j " +
+            "GROUP BY m.status, j.jobType, m.date")
+    List<Object[]> countByStatusJobTypeAndDate();
+
+    // Active cards untouched since before the cutoff, keyset-paged by (last change, id). The status
+    // literals match the partial index idx_mini_job_cards_active_last_update so closed cards are never read.
+    // miniJobCardId, jobCardId, job type, status, employee email, last change
+    @Query("SELECT m.miniJobCardId, j.jobCardId, j.jobType, m.status, m.employee.email, m.lastTimeUpdateThisTicket " +
+            "FROM MiniJobCard m JOIN m.jobCard j " +
+            "WHERE m.status IN (com.example.met.enums.JobStatus.ON_HOLD, com.example.met.enums.JobStatus.ASSIGNED) " +
+            "AND m.lastTimeUpdateThisTicket < :cutoff " +
+            "AND (m.lastTimeUpdateThisTicket > :afterTime " +
+            "    OR (m.lastTimeUpdateThisTicket = :afterTime AND m.miniJobCardId > :afterId)) " +
+            "ORDER BY m.lastTimeUpdateThisTicket ASC, m.miniJobCardId ASC")
+    List<Object[]> findStuckCandidates(@Param("cutoff") LocalDateTime cutoff, @Param("afterTime") LocalDateTime afterTime,
+                                       @Param("afterId") UUID afterId, Pageable pageable);
+
+    @Query("SELECT m.miniJobCardId FROM MiniJobCard m WHERE m.jobCard.jobCardId = :jobCardId ORDER BY m.miniJobCardId")
+    List<UUID> findIdsByJobCardId(@Param("jobCardId") UUID jobCardId);
+
+    @Query("SELECT m.miniJobCardId FROM MiniJobCard m " +
+            "WHERE (:email IS NULL OR m.employee.email = :email) " +
+            "AND m.status IN :statuses AND m.date BETWEEN :dateFrom AND :dateTo " +
+            "ORDER BY m.miniJobCardId")
+    List<UUID> findIdsByFilter(@Param("email") String email, @Param("statuses") Collection<JobStatus> statuses,
+                               @Param("dateFrom") LocalDate dateFrom, @Param("dateTo") LocalDate dateTo,
+                               Pageable pageable);
+
+    @Query("SELECT m.miniJobCardId, m.employee.email FROM MiniJobCard m WHERE m.miniJobCardId IN :ids")
+    List<Object[]> findEmployeeEmailsByMiniJobCardIdIn(@Param("ids") Collection<UUID> ids);
+
     List<MiniJobCard> findByEmployeeEmailAndDateOrderByLastTimeUpdateThisTicketAsc(String email, LocalDate date);
-}
\ No newline at end of file
+
+    // status, created at, last change; for the timeline, which needs nothing else from the card
+    @Query("SELECT m.status, m.createdAt, m.lastTimeUpdateThisTicket FROM MiniJobCard m WHERE m.miniJobCardId = :id")
+    List<Object[]> findTimelineStateById(@Param("id") UUID id);
+}
@@ -0,0 +1,30 @@
+package com.example.met.repository;
+
+import com.example.met.entity.MiniJobCardTransition;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface MiniJobCardTransitionRepository extends JpaRepository<MiniJobCardTransition, UUID> {
+
+    @Query("SELECT t FROM MiniJobCardTransition t WHERE t.miniJobCardId = :miniJobCardId " +
+            "ORDER BY t.occurredAt ASC, t.recordedAt ASC")
+    List<MiniJobCardTransition> findByMiniJobCardId(@Param("miniJobCardId") UUID miniJobCardId);
+
+    @Query("SELECT t FROM MiniJobCardTransition t WHERE t.miniJobCardId IN :miniJobCardIds " +
+            "ORDER BY t.miniJobCardId ASC, t.occurredAt ASC, t.recordedAt ASC")
+    List<MiniJobCardTransition> findByMiniJobCardIdIn(@Param("miniJobCardIds") Collection<UUID> miniJobCardIds);
+
+    // Cards whose full history is logged (they have a creation entry), in id order for keyset paging
+    @Query("SELECT t.miniJobCardId FROM MiniJobCardTransition t " +
+            "WHERE t.fromStatus IS NULL AND t.miniJobCardId > :afterId " +
+            "ORDER BY t.miniJobCardId ASC")
+    List<UUID> findLoggedMiniJobCardIds(@Param("afterId") UUID afterId, Pageable pageable);
+}
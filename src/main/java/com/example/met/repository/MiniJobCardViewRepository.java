@@ -0,0 +1,96 @@
+package com.example.met.repository;
+
+import com.example.met.entity.MiniJobCardView;
+import com.example.met.enums.JobStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface MiniJobCardViewRepository extends JpaRepository<MiniJobCardView, UUID> {
+
+    // Copies the selected live cards with their job card, generator and employee fields. Rows that
+    // already match are left alone; any change to the card itself moves its version
+    String UPSERT = "INSERT INTO mini_job_card_views (mini_job_card_id, job_card_id, employee_email, employee_name, "
+            + "status, date, location, time, created_at, updated_at, updated_time, version, job_type, estimated_time, "
+            + "generator_id, generator_name, generator_capacity, generator_contact_number, generator_email, "
+            + "generator_description) "
+            + "SELECT m.mini_job_card_id, m.job_card_id, m.employee_email, e.name, m.status, m.date, m.location, "
+            + "m.time, m.created_at, m.updated_at, m.updated_time, m.version, j.job_type, j.estimated_time, "
+            + "g.generator_id, g.name, g.capacity, g.contact_number, g.email, g.description "
+            + "FROM mini_job_cards m "
+            + "JOIN job_cards j ON j.job_card_id = m.job_card_id "
+            + "JOIN generators g ON g.generator_id = j.generator_id "
+            + "JOIN employees e ON e.email = m.employee_email ";
+
+    String ON_CONFLICT = " ON CONFLICT (mini_job_card_id) DO UPDATE SET "
+            + "job_card_id = EXCLUDED.job_card_id, employee_email = EXCLUDED.employee_email, "
+            + "employee_name = EXCLUDED.employee_name, status = EXCLUDED.status, date = EXCLUDED.date, "
+            + "location = EXCLUDED.location, time = EXCLUDED.time, created_at = EXCLUDED.created_at, "
+            + "updated_at = EXCLUDED.updated_at, updated_time = EXCLUDED.updated_time, version = EXCLUDED.version, "
+            + "job_type = EXCLUDED.job_type, estimated_time = EXCLUDED.estimated_time, "
+            + "generator_id = EXCLUDED.generator_id, generator_name = EXCLUDED.generator_name, "
+            + "generator_capacity = EXCLUDED.generator_capacity, "
+            + "generator_contact_number = EXCLUDED.generator_contact_number, "
+            + "generator_email = EXCLUDED.generator_email, generator_description = EXCLUDED.generator_description "
+            + "WHERE (mini_job_card_views.version, mini_job_card_views.updated_at, mini_job_card_views.employee_name, "
+            + "mini_job_card_views.job_card_id, mini_job_card_views.job_type, mini_job_card_views.estimated_time, "
+            + "mini_job_card_views.generator_id, mini_job_card_views.generator_name, "
+            + "mini_job_card_views.generator_capacity, mini_job_card_views.generator_contact_number, "
+            + "mini_job_card_views.generator_email, mini_job_card_views.generator_description) "
+            + "IS DISTINCT FROM (EXCLUDED.version, EXCLUDED.updated_at, EXCLUDED.employee_name, "
+            + "EXCLUDED.job_card_id, EXCLUDED.job_type, EXCLUDED.estimated_time, EXCLUDED.generator_id, "
+            + "EXCLUDED.generator_name, EXCLUDED.generator_capacity, EXCLUDED.generator_contact_number, "
+            + "EXCLUDED.generator_email, EXCLUDED.generator_description)";
+
+    String MISSING = " AND NOT EXISTS (SELECT 1 FROM mini_job_cards m WHERE m.mini_job_card_id = v.mini_job_card_id)";
+
+    List<MiniJobCardView> findByDateOrderByCreatedAtDesc(LocalDate date);
+
+    List<MiniJobCardView> findByEmployeeEmailOrderByCreatedAtDesc(String employeeEmail);
+
+    List<MiniJobCardView> findByEmployeeEmailAndDateOrderByCreatedAtDesc(String employeeEmail, LocalDate date);
+
+    List<MiniJobCardView> findByJobCardIdOrderByCreatedAtAsc(UUID jobCardId);
+
+    List<MiniJobCardView> findByStatusOrderByUpdatedAtDesc(JobStatus status);
+
+    @Modifying
+    @Query(value = UPSERT + "WHERE m.mini_job_card_id IN (:ids)" + ON_CONFLICT, nativeQuery = true)
+    int upsertByMiniJobCardIdIn(@Param("ids") Collection<UUID> ids);
+
+    @Modifying
+    @Query(value = UPSERT + "WHERE m.job_card_id = :jobCardId" + ON_CONFLICT, nativeQuery = true)
+    int upsertByJobCardId(@Param("jobCardId") UUID jobCardId);
+
+    @Modifying
+    @Query(value = UPSERT + "WHERE j.generator_id = :generatorId" + ON_CONFLICT, nativeQuery = true)
+    int upsertByGeneratorId(@Param("generatorId") UUID generatorId);
+
+    @Modifying
+    @Query(value = UPSERT + "WHERE m.employee_email = :email" + ON_CONFLICT, nativeQuery = true)
+    int upsertByEmployeeEmail(@Param("email") String email);
+
+    @Modifying
+    @Query(value = UPSERT + "WHERE TRUE" + ON_CONFLICT, nativeQuery = true)
+    int upsertAll();
+
+    @Modifying
+    @Query(value = "DELETE FROM mini_job_card_views v WHERE v.mini_job_card_id IN (:ids)" + MISSING, nativeQuery = true)
+    int deleteMissingByMiniJobCardIdIn(@Param("ids") Collection<UUID> ids);
+
+    @Modifying
+    @Query(value = "DELETE FROM mini_job_card_views v WHERE v.job_card_id = :jobCardId" + MISSING, nativeQuery = true)
+    int deleteMissingByJobCardId(@Param("jobCardId") UUID jobCardId);
+
+    @Modifying
+    @Query(value = "DELETE FROM mini_job_card_views v WHERE TRUE" + MISSING, nativeQuery = true)
+    int deleteAllMissing();
+}
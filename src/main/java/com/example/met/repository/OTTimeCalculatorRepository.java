@@ -2,12 +2,20 @@ package com.example.met.repository;
 
 import com.example.met.entity.Employee;
 import com.example.met.entity.OTtimeCalculator;
+import com.example.met.enums.Role;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -62,23 +70,65 @@ public interface OTTimeCalculatorRepository extends JpaRepository<OTtimeCalculat
     @Query("SELECT o FROM OTtimeCalculator o WHERE o.currentstatus = :status AND o.date = :date")
     List<OTtimeCalculator> findByCurrentstatusAndDate(@Param("status") String status, @Param("date") LocalDate date);
 
-    // Get summary statistics for date range
-    @Query("SELECT " +
-            "SUM(HOUR(o.morningOTtime) * 60 + MINUTE(o.morningOTtime)) as totalMorningOTMinutes, " +
-            "SUM(HOUR(o.eveningOTtime) * 60 + MINUTE(o.eveningOTtime)) as totalEveningOTMinutes, " +
-            "SUM(HOUR(o.spentOnOnHold) * 60 + MINUTE(o.spentOnOnHold)) as totalOnHoldMinutes, " +
-            "SUM(HOUR(o.spentOnAssigned) * 60 + MINUTE(o.spentOnAssigned)) as totalAssignedMinutes, " +
-            "SUM(HOUR(o.spentOnInProgress) * 60 + MINUTE(o.spentOnInProgress)) as totalInProgressMinutes, " +
-            "COUNT(o) as totalDays " +
-            "FROM OTtimeCalculator o " +
-            "WHERE o.employee.email = :email AND o.date BETWEEN :startDate AND :endDate")
-    Object[] getSummaryStatsByEmailAndDateRange(
-            @Param("email") String email,
-            @Param("startDate") LocalDate startDate,
-            @Param("endDate") LocalDate endDate
-    );
-
-    // Find incomplete entries that need finalization
-    @Query("SELECT o FROM OTtimeCalculator o WHERE o.date < :today AND (o.currentstatus != 'END_JOB_CARD' OR o.currentstatus IS NULL)")
-    List<OTtimeCalculator> findIncompleteEntries(@Param("today") LocalDate today);
-}
\ No newline at end of file
+    /**
+     * Per-employee totals for a pay period in one grouped query, all durations in seconds. Every
+     * employee is returned, with zeros when they have no rows. Columns: email, name, days, open days,
+     * morning OT, evening OT, on hold, assigned, in progress.
+     */
+    @Query("SELECT e.email, e.name, COUNT(o), " +
+            "COALESCE(SUM(CASE WHEN o.otTimeId IS NOT NULL AND (o.currentstatus IS NULL " +
+            "OR o.currentstatus <> 'END_JOB_CARD') THEN 1 ELSE 0 END), 0), " +
+            "COALESCE(SUM(o.morningOtSeconds), 0), " +
+            "COALESCE(SUM(o.eveningOtSeconds), 0), " +
+            "COALESCE(SUM(o.onHoldSeconds), 0), " +
+            "COALESCE(SUM(o.assignedSeconds), 0), " +
+            "COALESCE(SUM(o.inProgressSeconds), 0) " +
+            "FROM Employee e LEFT JOIN OTtimeCalculator o ON o.employee = e " +
+            "AND o.date BETWEEN :startDate AND :endDate " +
+            "GROUP BY e.email, e.name ORDER BY e.name, e.email")
+    List<Object[]> summarizeByEmployee(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    // Ids of entries before today that were never ended, one keyset page after afterId
+    @Query("SELECT o.otTimeId FROM OTtimeCalculator o WHERE o.date < :today " +
+            "AND (o.currentstatus != 'END_JOB_CARD' OR o.currentstatus IS NULL) " +
+            "AND o.otTimeId > :afterId ORDER BY o.otTimeId")
+    List<UUID> findIncompleteEntryIds(@Param("today") LocalDate today, @Param("afterId") UUID afterId,
+                                      Pageable pageable);
+
+    // Locks the rows until the finalizing transaction ends
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM OTtimeCalculator o WHERE o.otTimeId IN :ids")
+    List<OTtimeCalculator> findForFinalizeByOtTimeIdIn(@Param("ids") Collection<UUID> ids);
+
+    // (employee email, date) of the OT rows a shift rule change may affect; a null filter matches everyone
+    @Query("SELECT o.employee.email, o.date FROM OTtimeCalculator o " +
+            "WHERE (:email IS NULL OR o.employee.email = :email) AND (:role IS NULL OR o.employee.role = :role) " +
+            "AND o.date BETWEEN :startDate AND :endDate ORDER BY o.date, o.employee.email")
+    List<Object[]> findDaysForRecompute(@Param("email") String email, @Param("role") Role role,
+                                        @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    /**
+     * Creates the employee's blank row for the day, or, when it already exists, locks it (and moves
+     * its first time earlier if {@code time} precedes it). Either way the caller then holds the only
+     * row for the day until its transaction ends.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO ottimecalculator (ottimeid, employee_email, date, firsttime, lasttime, " +
+            "morning_ot_seconds, evening_ot_seconds, on_hold_seconds, assigned_seconds, in_progress_seconds, " +
+            "created_at, updated_at, version) " +
+            "VALUES (:id, :email, :date, :time, :time, 0, 0, 0, 0, 0, :now, :now, 0) " +
+            "ON CONFLICT (employee_email, date) DO UPDATE SET firsttime = EXCLUDED.firsttime " +
+            "WHERE EXCLUDED.firsttime < ottimecalculator.firsttime", nativeQuery = true)
+    int upsertDay(@Param("id") UUID id, @Param("email") String email, @Param("date") LocalDate date,
+                  @Param("time") LocalTime time, @Param("now") LocalDateTime now);
+
+    // (employee email, date) pairs holding more than one row, left from before the unique constraint
+    @Query("SELECT o.employee.email, o.date FROM OTtimeCalculator o " +
+            "GROUP BY o.employee.email, o.date HAVING COUNT(o) > 1")
+    List<Object[]> findDuplicateDays();
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM OTtimeCalculator o WHERE o.employee.email = :email AND o.date = :date " +
+            "ORDER BY o.firsttime ASC, o.createdAt ASC")
+    List<OTtimeCalculator> findAllForMerge(@Param("email") String email, @Param("date") LocalDate date);
+}
@@ -0,0 +1,82 @@
+package com.example.met.repository;
+
+import com.example.met.entity.OutboxEvent;
+import com.example.met.enums.OutboxEventType;
+import com.example.met.enums.OutboxStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // Due events whose partition has no earlier event still waiting out a backoff or given up on;
+    // settledBefore skips rows whose neighbours may still be committing, as for streaming
+    @Query("SELECT e FROM OutboxEvent e " +
+            "WHERE e.status = com.example.met.enums.OutboxStatus.PENDING AND e.nextAttemptAt <= :now " +
+            "AND e.createdAt <= :settledBefore " +
+            "AND NOT EXISTS (SELECT p.id FROM OutboxEvent p " +
+            "    WHERE p.partitionKey = e.partitionKey AND p.id < e.id " +
+            "    AND (p.status = com.example.met.enums.OutboxStatus.FAILED " +
+            "        OR (p.status = com.example.met.enums.OutboxStatus.PENDING AND p.nextAttemptAt > :now))) " +
+            "ORDER BY e.id ASC")
+    List<OutboxEvent> findDispatchable(@Param("now") LocalDateTime now, @Param("settledBefore") LocalDateTime settledBefore,
+                                       Pageable pageable);
+
+    // Claims a pending event; 0 when another node has already delivered it. The row stays locked
+    // until the claiming transaction ends, so a second claim waits and then sees the outcome
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.status = com.example.met.enums.OutboxStatus.PROCESSED, " +
+            "e.processedAt = :at, e.attempts = e.attempts + 1 " +
+            "WHERE e.id = :id AND e.status = com.example.met.enums.OutboxStatus.PENDING")
+    int markProcessed(@Param("id") Long id, @Param("at") LocalDateTime at);
+
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.status = :status, e.attempts = :attempts, " +
+            "e.nextAttemptAt = :nextAttemptAt, e.lastError = :error " +
+            "WHERE e.id = :id AND e.status = com.example.met.enums.OutboxStatus.PENDING")
+    int markAttemptFailed(@Param("id") Long id, @Param("status") OutboxStatus status, @Param("attempts") int attempts,
+                          @Param("nextAttemptAt") LocalDateTime nextAttemptAt, @Param("error") String error);
+
+    long countByStatus(OutboxStatus status);
+
+    // Partitions held back by an event that ran out of attempts
+    @Query("SELECT COUNT(DISTINCT e.partitionKey) FROM OutboxEvent e " +
+            "WHERE e.status = com.example.met.enums.OutboxStatus.FAILED")
+    long countBlockedPartitions();
+
+    // Puts an event that ran out of attempts back in line, once its cause is fixed
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.status = com.example.met.enums.OutboxStatus.PENDING, e.attempts = 0, " +
+            "e.nextAttemptAt = :at WHERE e.id = :id AND e.status = com.example.met.enums.OutboxStatus.FAILED")
+    int requeueFailed(@Param("id") Long id, @Param("at") LocalDateTime at);
+
+    @Query("SELECT MIN(e.createdAt) FROM OutboxEvent e WHERE e.status = com.example.met.enums.OutboxStatus.PENDING")
+    LocalDateTime findOldestPendingCreatedAt();
+
+    @Query("SELECT DISTINCT e.aggregateId FROM OutboxEvent e " +
+            "WHERE e.status = com.example.met.enums.OutboxStatus.PENDING AND e.aggregateId IN :aggregateIds")
+    List<UUID> findPendingAggregateIds(@Param("aggregateIds") Collection<UUID> aggregateIds);
+
+    @Query("SELECT COALESCE(MAX(e.id), 0) FROM OutboxEvent e")
+    Long findMaxId();
+
+    // Events of a type after an id, for streaming; settledBefore skips rows whose neighbours may still be committing
+    @Query("SELECT e FROM OutboxEvent e WHERE e.eventType = :eventType AND e.id > :afterId " +
+            "AND e.createdAt <= :settledBefore ORDER BY e.id ASC")
+    List<OutboxEvent> findStreamable(@Param("eventType") OutboxEventType eventType, @Param("afterId") Long afterId,
+                                     @Param("settledBefore") LocalDateTime settledBefore, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e WHERE e.status = com.example.met.enums.OutboxStatus.PROCESSED " +
+            "AND e.processedAt < :cutoff")
+    int deleteProcessedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
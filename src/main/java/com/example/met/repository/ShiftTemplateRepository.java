@@ -0,0 +1,20 @@
+package com.example.met.repository;
+
+import com.example.met.entity.ShiftTemplate;
+import com.example.met.enums.Role;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.DayOfWeek;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface ShiftTemplateRepository extends JpaRepository<ShiftTemplate, UUID> {
+
+    List<ShiftTemplate> findAllByOrderByEmployeeEmailAscRoleAscDayOfWeekAsc();
+
+    boolean existsByEmployeeEmailAndDayOfWeek(String employeeEmail, DayOfWeek dayOfWeek);
+
+    boolean existsByRoleAndDayOfWeek(Role role, DayOfWeek dayOfWeek);
+}
@@ -0,0 +1,29 @@
+package com.example.met.repository;
+
+import com.example.met.entity.StuckJobAlert;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface StuckJobAlertRepository extends JpaRepository<StuckJobAlert, Long> {
+
+    // (miniJobCardId, status, stuckSince) of alerts already recorded for these cards
+    @Query("SELECT a.miniJobCardId, a.status, a.stuckSince FROM StuckJobAlert a WHERE a.miniJobCardId IN :ids")
+    List<Object[]> findAlertKeysByMiniJobCardIdIn(@Param("ids") Collection<UUID> ids);
+
+    @Query("SELECT a FROM StuckJobAlert a WHERE a.notifiedAt IS NULL ORDER BY a.id ASC")
+    List<StuckJobAlert> findUnnotified(Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE StuckJobAlert a SET a.notifiedAt = :at WHERE a.id IN :ids")
+    int markNotified(@Param("ids") Collection<Long> ids, @Param("at") LocalDateTime at);
+}
@@ -0,0 +1,92 @@
+package com.example.met.service;
+
+import com.example.met.event.EmployeeDayEndedEvent;
+import com.example.met.repository.LogRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Whether each employee has ended their day, keyed by (email, date). A miss is answered by one
+ * indexed existence query. A day only ever goes from open to ended, so an ended day is remembered
+ * for good, while an open day is only trusted for a short TTL: the END_DATE log may be written on
+ * another node, and only local writes mark the day ended here as soon as they commit.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class EmployeeDayStateCache {
+
+    static final String END_DATE_STATUS = "END_DATE";
+
+    private final LogRepository logRepository;
+
+    private static final ZoneId SRI_LANKA_ZONE = ZoneId.of("Asia/Colombo");
+
+    private record DayKey(String employeeEmail, LocalDate date) {
+    }
+
+    @Value("${app.day-state.open-ttl-ms:10000}")
+    private long openTtlMs;
+
+    private final Set<DayKey> endedDays = ConcurrentHashMap.newKeySet();
+    // When each open day was last confirmed open, in System.nanoTime()
+    private final Map<DayKey, Long> openCheckedAt = new ConcurrentHashMap<>();
+
+    public boolean hasEndedDay(String employeeEmail, LocalDate date) {
+        DayKey key = new DayKey(employeeEmail, date);
+        if (endedDays.contains(key)) {
+            return true;
+        }
+        long now = System.nanoTime();
+        Long checkedAt = openCheckedAt.get(key);
+        if (checkedAt != null && now - checkedAt < TimeUnit.MILLISECONDS.toNanos(openTtlMs)) {
+            return false;
+        }
+        if (load(key)) {
+            endedDays.add(key);
+            openCheckedAt.remove(key);
+            return true;
+        }
+        openCheckedAt.put(key, now);
+        return false;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDayEnded(EmployeeDayEndedEvent event) {
+        DayKey key = new DayKey(event.getEmployeeEmail(), event.getDate());
+        endedDays.add(key);
+        openCheckedAt.remove(key);
+        log.debug("Marked day {} ended for employee {}", event.getDate(), event.getEmployeeEmail());
+    }
+
+    // Only today's and yesterday's states are asked for in practice
+    @Scheduled(cron = "${app.day-state.evict-cron:0 5 0 * * *}", zone = "Asia/Colombo")
+    public void evictPastDays() {
+        LocalDate cutoff = LocalDate.now(SRI_LANKA_ZONE).minusDays(1);
+        int before = endedDays.size() + openCheckedAt.size();
+        endedDays.removeIf(key -> key.date().isBefore(cutoff));
+        openCheckedAt.keySet().removeIf(key -> key.date().isBefore(cutoff));
+        log.info("Evicted {} employee day states before {}", before - endedDays.size() - openCheckedAt.size(), cutoff);
+    }
+
+    private boolean load(DayKey key) {
+        try {
+            return logRepository.existsByEmployeeEmailAndDateAndStatus(key.employeeEmail(), key.date(), END_DATE_STATUS);
+        } catch (DataAccessException e) {
+            log.error("Database error while loading day state for employee: {} on {}", key.employeeEmail(), key.date(), e);
+            throw new RuntimeException("Database error occurred while checking day state", e);
+        }
+    }
+}
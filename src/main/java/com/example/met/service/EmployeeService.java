@@ -4,11 +4,13 @@ import com.example.met.dto.request.RegisterRequest;
 import com.example.met.dto.request.RegisterRequestAdmin;
 import com.example.met.dto.response.EmployeeResponse;
 import com.example.met.entity.Employee;
+import com.example.met.event.EmployeeChangedEvent;
 import com.example.met.exception.DuplicateResourceException;
 import com.example.met.exception.ResourceNotFoundException;
 import com.example.met.repository.EmployeeRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -29,6 +31,7 @@ public class EmployeeService implements UserDetailsService {
 
     private final EmployeeRepository employeeRepository;
     private final PasswordEncoder passwordEncoder;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
@@ -102,6 +105,7 @@ public class EmployeeService implements UserDetailsService {
         }
 
         employee = employeeRepository.save(employee);
+        eventPublisher.publishEvent(new EmployeeChangedEvent(employee.getEmail()));
         log.info("Employee updated successfully with email: {}", employee.getEmail());
         return convertToResponse(employee);
     }
@@ -116,6 +120,7 @@ public class EmployeeService implements UserDetailsService {
         employee.setRole(request.getRole());
 
         employee = employeeRepository.save(employee);
+        eventPublisher.publishEvent(new EmployeeChangedEvent(employee.getEmail()));
         log.info("Employee updated by Admin : {}", employee.getEmail());
         return convertToResponse(employee);
     }
@@ -5,11 +5,13 @@ import com.example.met.dto.response.EmailResponse;
 import com.example.met.entity.EmailEntity;
 import com.example.met.entity.JobCard;
 import com.example.met.enums.EmailStatus;
+import com.example.met.event.JobCardChangedEvent;
 import com.example.met.repository.EmailRepository;
 import com.example.met.repository.JobCardRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.security.core.Authentication;
@@ -30,6 +32,7 @@ public class GenEmailService {
     private final EmailRepository emailRepository;
     private final JobCardRepository jobCardRepository;
     private final JavaMailSender mailSender;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Value("${spring.mail.username}")
     private String fromEmail;
@@ -87,6 +90,7 @@ public class GenEmailService {
 
         // Save email record
         EmailEntity savedEmail = emailRepository.save(emailEntity);
+        eventPublisher.publishEvent(new JobCardChangedEvent(savedEmail.getJobCardId()));
 
         return mapToEmailResponse(savedEmail);
     }
@@ -3,10 +3,12 @@ package com.example.met.service;
 import com.example.met.dto.request.GeneratorRequest;
 import com.example.met.dto.response.GeneratorResponse;
 import com.example.met.entity.Generator;
+import com.example.met.event.GeneratorChangedEvent;
 import com.example.met.exception.ResourceNotFoundException;
 import com.example.met.repository.GeneratorRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataAccessException;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.PageRequest;
@@ -24,6 +26,7 @@ import java.util.stream.Collectors;
 public class GeneratorService {
 
     private final GeneratorRepository generatorRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     // Email validation pattern
     private static final Pattern EMAIL_PATTERN = Pattern.compile(
@@ -189,6 +192,7 @@ public class GeneratorService {
             generator.setDescription(request.getDescription() != null ? request.getDescription().trim() : null);
 
             generator = generatorRepository.save(generator);
+            eventPublisher.publishEvent(new GeneratorChangedEvent(generator.getGeneratorId()));
             log.info("Generator updated successfully with ID: {}", generator.getGeneratorId());
             return convertToResponse(generator);
         } catch (IllegalArgumentException | ResourceNotFoundException e) {
@@ -239,7 +243,7 @@ public class GeneratorService {
         }
     }
 
-    private GeneratorResponse convertToResponse(Generator generator) {
+    public GeneratorResponse convertToResponse(Generator generator) {
         try {
             if (generator == null) {
                 throw new IllegalArgumentException("Generator cannot be null");
@@ -0,0 +1,137 @@
+package com.example.met.service;
+
+import com.example.met.entity.ArchivedMiniJobCard;
+import com.example.met.entity.MiniJobCard;
+import com.example.met.enums.JobStatus;
+import com.example.met.event.MiniJobCardChangedEvent;
+import com.example.met.repository.ArchivedMiniJobCardRepository;
+import com.example.met.repository.JobCardRepository;
+import com.example.met.repository.MiniJobCardRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Moves finished work out of the hot tables. A job card qualifies once it is older than the
+ * retention window and all of its mini job cards are COMPLETED or CANCELLED; its mini job cards
+ * are moved to {@code mini_job_cards_archive} and the job card itself is flagged as archived
+ * (it stays in place because email history references it).
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class JobCardArchiveService {
+
+    private final JobCardRepository jobCardRepository;
+    private final MiniJobCardRepository miniJobCardRepository;
+    private final ArchivedMiniJobCardRepository archivedMiniJobCardRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private static final ZoneId SRI_LANKA_ZONE = ZoneId.of("Asia/Colombo");
+    private static final UUID FIRST_ID = new UUID(0L, 0L);
+    private static final Set<JobStatus> CLOSED_STATUSES = Set.of(JobStatus.COMPLETED, JobStatus.CANCELLED);
+
+    @Value("${app.archive.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.archive.retention-days:180}")
+    private int retentionDays;
+
+    @Value("${app.archive.chunk-size:200}")
+    private int chunkSize;
+
+    @Value("${app.archive.max-chunks-per-run:50}")
+    private int maxChunksPerRun;
+
+    @Scheduled(cron = "${app.archive.cron:0 30 2 * * *}", zone = "Asia/Colombo")
+    public void archiveCompletedJobCards() {
+        if (!enabled) {
+            return;
+        }
+        LocalDate cutoff = LocalDate.now(SRI_LANKA_ZONE).minusDays(retentionDays);
+        log.info("Archiving job cards closed before {}", cutoff);
+
+        archiveBefore(cutoff);
+    }
+
+    /**
+     * Walks the candidates by id, so a chunk whose cards were all reopened meanwhile is stepped over
+     * instead of ending the run.
+     *
+     * @return the number of job cards archived
+     */
+    int archiveBefore(LocalDate cutoff) {
+        UUID afterId = FIRST_ID;
+        int totalArchived = 0;
+        for (int chunk = 0; chunk < maxChunksPerRun; chunk++) {
+            List<UUID> candidateIds;
+            Integer archived;
+            try {
+                candidateIds = jobCardRepository.findArchivableJobCardIds(
+                        cutoff, CLOSED_STATUSES, afterId, PageRequest.of(0, chunkSize));
+                if (candidateIds.isEmpty()) {
+                    break;
+                }
+                // One transaction per chunk keeps locks short and lets a failure stop without losing earlier chunks
+                archived = transactionTemplate.execute(status -> archiveChunk(candidateIds));
+            } catch (DataAccessException e) {
+                log.error("Archiving stopped after {} job cards because of a database error", totalArchived, e);
+                break;
+            }
+            totalArchived += archived != null ? archived : 0;
+            afterId = candidateIds.get(candidateIds.size() - 1);
+            if (candidateIds.size() < chunkSize) {
+                break;
+            }
+        }
+        log.info("Archived {} job cards", totalArchived);
+        return totalArchived;
+    }
+
+    private int archiveChunk(List<UUID> candidateIds) {
+        // Re-check under row locks: a card may have been reopened between the candidate query and now
+        Map<UUID, List<MiniJobCard>> miniJobCardsByJobCard = miniJobCardRepository.findForArchiveByJobCardIdIn(candidateIds)
+                .stream()
+                .collect(Collectors.groupingBy(miniJobCard -> miniJobCard.getJobCard().getJobCardId()));
+        List<UUID> archivableIds = miniJobCardsByJobCard.entrySet().stream()
+                .filter(entry -> entry.getValue().stream().allMatch(m -> CLOSED_STATUSES.contains(m.getStatus())))
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+        if (archivableIds.isEmpty()) {
+            return 0;
+        }
+
+        List<MiniJobCard> miniJobCards = archivableIds.stream()
+                .flatMap(id -> miniJobCardsByJobCard.get(id).stream())
+                .collect(Collectors.toList());
+        LocalDateTime now = LocalDateTime.now(SRI_LANKA_ZONE);
+
+        archivedMiniJobCardRepository.saveAll(miniJobCards.stream()
+                .map(miniJobCard -> ArchivedMiniJobCard.from(miniJobCard, now))
+                .collect(Collectors.toList()));
+        miniJobCardRepository.deleteAllInBatch(miniJobCards);
+        jobCardRepository.markArchived(archivableIds, now);
+        eventPublisher.publishEvent(new MiniJobCardChangedEvent(miniJobCards.stream()
+                .map(MiniJobCard::getMiniJobCardId)
+                .collect(Collectors.toList())));
+
+        log.debug("Archived {} job cards with {} mini job cards", archivableIds.size(), miniJobCards.size());
+        return archivableIds.size();
+    }
+}
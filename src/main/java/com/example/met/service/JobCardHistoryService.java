@@ -0,0 +1,165 @@
+package com.example.met.service;
+
+import com.example.met.dto.response.JobCardChangeResponse;
+import com.example.met.dto.response.PageResponse;
+import com.example.met.entity.JobCard;
+import com.example.met.entity.JobCardChange;
+import com.example.met.repository.JobCardChangeRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Change journal for job cards. Each update appends one row per field whose value actually
+ * changed, so history is read directly instead of being reconstructed from logs.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class JobCardHistoryService {
+
+    private final JobCardChangeRepository jobCardChangeRepository;
+
+    private static final ZoneId SRI_LANKA_ZONE = ZoneId.of("Asia/Colombo");
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_VALUE_LENGTH = 2000;
+
+    /**
+     * Captures the tracked fields before an update mutates the entity.
+     */
+    public Snapshot snapshot(JobCard jobCard) {
+        return new Snapshot(
+                jobCard.getGenerator() != null ? jobCard.getGenerator().getGeneratorId() : null,
+                jobCard.getJobType() != null ? jobCard.getJobType().name() : null,
+                jobCard.getDate() != null ? jobCard.getDate().toString() : null,
+                jobCard.getEstimatedTime() != null ? jobCard.getEstimatedTime().toString() : null,
+                jobCard.getEmployeeEmails() != null ? new ArrayList<>(jobCard.getEmployeeEmails()) : List.of());
+    }
+
+    /**
+     * Appends the fields that differ between {@code before} and the saved card. Joins the caller's
+     * transaction so the journal commits or rolls back with the update itself.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public int recordChanges(Snapshot before, JobCard updated) {
+        Snapshot after = snapshot(updated);
+        String changedBy = currentUser();
+        LocalDateTime changedAt = LocalDateTime.now(SRI_LANKA_ZONE);
+
+        List<JobCardChange> changes = new ArrayList<>(5);
+        addIfChanged(changes, updated, "generatorId", toString(before.generatorId), toString(after.generatorId), changedBy, changedAt);
+        addIfChanged(changes, updated, "jobType", before.jobType, after.jobType, changedBy, changedAt);
+        addIfChanged(changes, updated, "date", before.date, after.date, changedBy, changedAt);
+        addIfChanged(changes, updated, "estimatedTime", before.estimatedTime, after.estimatedTime, changedBy, changedAt);
+        // Crew order carries no meaning, so only membership changes are recorded
+        if (!new HashSet<>(before.employeeEmails).equals(new HashSet<>(after.employeeEmails))) {
+            changes.add(change(updated, "employeeEmails", String.join(",", before.employeeEmails),
+                    String.join(",", after.employeeEmails), changedBy, changedAt));
+        }
+
+        if (!changes.isEmpty()) {
+            // Inserted as one JDBC batch (hibernate.jdbc.batch_size)
+            jobCardChangeRepository.saveAll(changes);
+            log.debug("Recorded {} changed fields for job card {} revision {}",
+                    changes.size(), updated.getJobCardId(), updated.getVersion());
+        }
+        return changes.size();
+    }
+
+    @Transactional(readOnly = true)
+    public PageResponse<JobCardChangeResponse> getHistory(UUID jobCardId, int page, int size) {
+        if (jobCardId == null) {
+            throw new IllegalArgumentException("Job card ID cannot be null");
+        }
+        if (page < 0) {
+            throw new IllegalArgumentException("Page index cannot be negative");
+        }
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+
+        try {
+            Page<JobCardChange> changes = jobCardChangeRepository.findByJobCardId(jobCardId, PageRequest.of(page, size));
+            List<JobCardChangeResponse> items = changes.getContent().stream()
+                    .map(this::convertToResponse)
+                    .collect(Collectors.toList());
+            return new PageResponse<>(items, page, size, changes.getTotalElements(), changes.getTotalPages());
+        } catch (DataAccessException e) {
+            log.error("Database error while fetching history for job card: {}", jobCardId, e);
+            throw new RuntimeException("Database error occurred while retrieving job card history", e);
+        }
+    }
+
+    private void addIfChanged(List<JobCardChange> changes, JobCard jobCard, String fieldName,
+                              String oldValue, String newValue, String changedBy, LocalDateTime changedAt) {
+        if (!Objects.equals(oldValue, newValue)) {
+            changes.add(change(jobCard, fieldName, oldValue, newValue, changedBy, changedAt));
+        }
+    }
+
+    private JobCardChange change(JobCard jobCard, String fieldName, String oldValue, String newValue,
+                                 String changedBy, LocalDateTime changedAt) {
+        JobCardChange change = new JobCardChange();
+        change.setJobCardId(jobCard.getJobCardId());
+        change.setRevision(jobCard.getVersion());
+        change.setFieldName(fieldName);
+        change.setOldValue(truncate(oldValue));
+        change.setNewValue(truncate(newValue));
+        change.setChangedBy(changedBy);
+        change.setChangedAt(changedAt);
+        return change;
+    }
+
+    private JobCardChangeResponse convertToResponse(JobCardChange change) {
+        return new JobCardChangeResponse(change.getRevision(), change.getFieldName(), change.getOldValue(),
+                change.getNewValue(), change.getChangedBy(), change.getChangedAt());
+    }
+
+    private static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null ? authentication.getName() : "system";
+    }
+
+    private static String toString(Object value) {
+        return value != null ? value.toString() : null;
+    }
+
+    private static String truncate(String value) {
+        return value != null && value.length() > MAX_VALUE_LENGTH ? value.substring(0, MAX_VALUE_LENGTH) : value;
+    }
+
+    /**
+     * Tracked job card fields at a point in time.
+     */
+    public static final class Snapshot {
+        private final UUID generatorId;
+        private final String jobType;
+        private final String date;
+        private final String estimatedTime;
+        private final List<String> employeeEmails;
+
+        private Snapshot(UUID generatorId, String jobType, String date, String estimatedTime, List<String> employeeEmails) {
+            this.generatorId = generatorId;
+            this.jobType = jobType;
+            this.date = date;
+            this.estimatedTime = estimatedTime;
+            this.employeeEmails = employeeEmails;
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package com.example.met.service;
+
+import com.example.met.dto.JobCardSheet;
+import com.itextpdf.text.BaseColor;
+import com.itextpdf.text.Document;
+import com.itextpdf.text.DocumentException;
+import com.itextpdf.text.Element;
+import com.itextpdf.text.Font;
+import com.itextpdf.text.PageSize;
+import com.itextpdf.text.Paragraph;
+import com.itextpdf.text.Phrase;
+import com.itextpdf.text.pdf.BaseFont;
+import com.itextpdf.text.pdf.PdfPCell;
+import com.itextpdf.text.pdf.PdfPTable;
+import com.itextpdf.text.pdf.PdfWriter;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Renders job card sheets with iText. Fonts and the fixed parts of the layout (cell styles,
+ * crew table header) are built once at startup and copied per document; output is written
+ * page by page to the given stream.
+ */
+@Component
+@Slf4j
+public class JobCardPdfRenderer {
+
+    private static final ZoneId SRI_LANKA_ZONE = ZoneId.of("Asia/Colombo");
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("HH:mm");
+    private static final DateTimeFormatter GENERATED_AT_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
+    private static final float[] DETAIL_COLUMN_WIDTHS = {1.2f, 2.8f, 1.2f, 2.8f};
+    private static final float[] CREW_COLUMN_WIDTHS = {2.6f, 1.4f, 2.2f, 1f, 1f, 1f, 1f};
+    private static final String[] CREW_HEADERS = {"Employee", "Status", "Location", "On Hold", "Assigned", "In Progress", "Total"};
+    private static final BaseColor LABEL_BACKGROUND = new BaseColor(235, 235, 235);
+    private static final BaseColor HEADER_BACKGROUND = new BaseColor(60, 60, 60);
+
+    private final String companyName;
+
+    private Font titleFont;
+    private Font sectionFont;
+    private Font labelFont;
+    private Font valueFont;
+    private Font headerFont;
+    private Font footerFont;
+
+    private PdfPCell labelCellTemplate;
+    private PdfPCell valueCellTemplate;
+    private PdfPCell[] crewHeaderCells;
+
+    public JobCardPdfRenderer(@Value("${app.pdf.company-name:MET System}") String companyName) {
+        this.companyName = companyName;
+    }
+
+    @PostConstruct
+    void loadResources() {
+        try {
+            BaseFont regular = BaseFont.createFont(BaseFont.HELVETICA, BaseFont.WINANSI, BaseFont.NOT_EMBEDDED);
+            BaseFont bold = BaseFont.createFont(BaseFont.HELVETICA_BOLD, BaseFont.WINANSI, BaseFont.NOT_EMBEDDED);
+
+            titleFont = new Font(bold, 16);
+            sectionFont = new Font(bold, 11);
+            labelFont = new Font(bold, 9);
+            valueFont = new Font(regular, 9);
+            headerFont = new Font(bold, 9, Font.NORMAL, BaseColor.WHITE);
+            footerFont = new Font(regular, 7, Font.NORMAL, BaseColor.GRAY);
+        } catch (DocumentException | IOException e) {
+            throw new IllegalStateException("Failed to load PDF fonts", e);
+        }
+
+        labelCellTemplate = new PdfPCell();
+        labelCellTemplate.setBackgroundColor(LABEL_BACKGROUND);
+        labelCellTemplate.setPadding(4);
+
+        valueCellTemplate = new PdfPCell();
+        valueCellTemplate.setPadding(4);
+
+        crewHeaderCells = new PdfPCell[CREW_HEADERS.length];
+        for (int i = 0; i < CREW_HEADERS.length; i++) {
+            PdfPCell cell = new PdfPCell(new Phrase(CREW_HEADERS[i], headerFont));
+            cell.setBackgroundColor(HEADER_BACKGROUND);
+            cell.setPadding(4);
+            crewHeaderCells[i] = cell;
+        }
+        log.info("Job card PDF resources loaded");
+    }
+
+    /**
+     * Writes one document with a page per job card. The stream is left open for the caller.
+     */
+    public void render(List<JobCardSheet> sheets, OutputStream out) throws IOException {
+        Document document = new Document(PageSize.A4, 36, 36, 36, 36);
+        try {
+            PdfWriter writer = PdfWriter.getInstance(document, out);
+            writer.setCloseStream(false);
+            document.open();
+
+            String generatedAt = "Generated " + LocalDateTime.now(SRI_LANKA_ZONE).format(GENERATED_AT_FORMAT);
+            if (sheets.isEmpty()) {
+                document.add(new Paragraph("No job cards found", valueFont));
+            }
+            for (int i = 0; i < sheets.size(); i++) {
+                if (i > 0) {
+                    document.newPage();
+                }
+                writeSheet(document, sheets.get(i), generatedAt);
+            }
+        } catch (DocumentException e) {
+            throw new IOException("Failed to render job card PDF", e);
+        } finally {
+            if (document.isOpen()) {
+                document.close();
+            }
+        }
+    }
+
+    private void writeSheet(Document document, JobCardSheet sheet, String generatedAt) throws DocumentException {
+        Paragraph title = new Paragraph(companyName + " - " + sheet.getJobType() + " JOB CARD", titleFont);
+        title.setAlignment(Element.ALIGN_CENTER);
+        title.setSpacingAfter(12);
+        document.add(title);
+
+        document.add(section("Job Details"));
+        PdfPTable details = new PdfPTable(DETAIL_COLUMN_WIDTHS);
+        details.setWidthPercentage(100);
+        addRow(details, "Job Card ID", sheet.getJobCardId(), "Job ID", sheet.getJobId());
+        addRow(details, "Job Type", sheet.getJobType(), "Date",
+                sheet.getDate() != null ? sheet.getDate().format(DATE_FORMAT) : null);
+        addRow(details, "Estimated Time",
+                sheet.getEstimatedTime() != null ? sheet.getEstimatedTime().format(TIME_FORMAT) : null, "", "");
+        document.add(details);
+
+        document.add(section("Generator"));
+        PdfPTable generator = new PdfPTable(DETAIL_COLUMN_WIDTHS);
+        generator.setWidthPercentage(100);
+        addRow(generator, "Name", sheet.getGeneratorName(), "Capacity",
+                sheet.getGeneratorCapacity() != null ? sheet.getGeneratorCapacity() + " KW" : null);
+        addRow(generator, "Contact", sheet.getGeneratorContactNumber(), "Email", sheet.getGeneratorEmail());
+        PdfPCell descriptionLabel = cell(labelCellTemplate, "Description", labelFont);
+        PdfPCell description = cell(valueCellTemplate, sheet.getGeneratorDescription(), valueFont);
+        description.setColspan(3);
+        generator.addCell(descriptionLabel);
+        generator.addCell(description);
+        document.add(generator);
+
+        document.add(section("Crew"));
+        PdfPTable crew = new PdfPTable(CREW_COLUMN_WIDTHS);
+        crew.setWidthPercentage(100);
+        crew.setHeaderRows(1);
+        for (PdfPCell header : crewHeaderCells) {
+            crew.addCell(new PdfPCell(header));
+        }
+        int totalMinutes = 0;
+        List<JobCardSheet.CrewLine> lines = sheet.getCrew() != null ? sheet.getCrew() : List.of();
+        for (JobCardSheet.CrewLine line : lines) {
+            int lineTotal = line.getOnHoldMinutes() + line.getAssignedMinutes() + line.getInProgressMinutes();
+            totalMinutes += lineTotal;
+            crew.addCell(cell(valueCellTemplate, line.getEmployeeName() != null ? line.getEmployeeName() : line.getEmployeeEmail(), valueFont));
+            crew.addCell(cell(valueCellTemplate, line.getStatus(), valueFont));
+            crew.addCell(cell(valueCellTemplate, line.getLocation(), valueFont));
+            crew.addCell(cell(valueCellTemplate, formatMinutes(line.getOnHoldMinutes()), valueFont));
+            crew.addCell(cell(valueCellTemplate, formatMinutes(line.getAssignedMinutes()), valueFont));
+            crew.addCell(cell(valueCellTemplate, formatMinutes(line.getInProgressMinutes()), valueFont));
+            crew.addCell(cell(valueCellTemplate, formatMinutes(lineTotal), valueFont));
+        }
+        PdfPCell totalLabel = cell(labelCellTemplate, "Total crew time", labelFont);
+        totalLabel.setColspan(6);
+        crew.addCell(totalLabel);
+        crew.addCell(cell(labelCellTemplate, formatMinutes(totalMinutes), labelFont));
+        document.add(crew);
+
+        Paragraph footer = new Paragraph(generatedAt, footerFont);
+        footer.setAlignment(Element.ALIGN_RIGHT);
+        footer.setSpacingBefore(16);
+        document.add(footer);
+    }
+
+    private Paragraph section(String text) {
+        Paragraph paragraph = new Paragraph(text, sectionFont);
+        paragraph.setSpacingBefore(10);
+        paragraph.setSpacingAfter(4);
+        return paragraph;
+    }
+
+    private void addRow(PdfPTable table, String label1, Object value1, String label2, Object value2) {
+        table.addCell(cell(labelCellTemplate, label1, labelFont));
+        table.addCell(cell(valueCellTemplate, value1, valueFont));
+        table.addCell(cell(label2.isEmpty() ? valueCellTemplate : labelCellTemplate, label2, labelFont));
+        table.addCell(cell(valueCellTemplate, value2, valueFont));
+    }
+
+    private static PdfPCell cell(PdfPCell template, Object text, Font font) {
+        PdfPCell cell = new PdfPCell(template);
+        cell.setPhrase(new Phrase(text != null ? text.toString() : "-", font));
+        return cell;
+    }
+
+    static String formatMinutes(int minutes) {
+        return String.format("%02d:%02d", minutes / 60, minutes % 60);
+    }
+}
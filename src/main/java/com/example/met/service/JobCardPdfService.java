@@ -0,0 +1,132 @@
+package com.example.met.service;
+
+import com.example.met.dto.JobCardSheet;
+import com.example.met.entity.Generator;
+import com.example.met.entity.JobCard;
+import com.example.met.entity.MiniJobCard;
+import com.example.met.exception.ResourceNotFoundException;
+import com.example.met.repository.ArchivedMiniJobCardRepository;
+import com.example.met.repository.JobCardRepository;
+import com.example.met.repository.MiniJobCardRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Builds job card sheets for PDF export. Data is loaded in a fixed number of queries per request
+ * (job cards with generators, then all crew rows) before any bytes are written.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class JobCardPdfService {
+
+    private final JobCardRepository jobCardRepository;
+    private final MiniJobCardRepository miniJobCardRepository;
+    private final ArchivedMiniJobCardRepository archivedMiniJobCardRepository;
+    private final JobCardPdfRenderer renderer;
+
+    @Transactional(readOnly = true)
+    public JobCardSheet getJobCardSheet(UUID jobCardId) {
+        if (jobCardId == null) {
+            throw new IllegalArgumentException("Job card ID cannot be null");
+        }
+        try {
+            List<JobCard> jobCards = jobCardRepository.findAllWithDetailsByJobCardIdIn(List.of(jobCardId));
+            if (jobCards.isEmpty()) {
+                throw new ResourceNotFoundException("Job Card not found with id: " + jobCardId);
+            }
+            return toSheets(jobCards).get(0);
+        } catch (DataAccessException e) {
+            log.error("Database error while loading job card sheet: {}", jobCardId, e);
+            throw new RuntimeException("Database error occurred while loading job card", e);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public List<JobCardSheet> getJobCardSheetsByDate(LocalDate date) {
+        if (date == null) {
+            throw new IllegalArgumentException("Date cannot be null");
+        }
+        try {
+            return toSheets(jobCardRepository.findWithGeneratorByDate(date));
+        } catch (DataAccessException e) {
+            log.error("Database error while loading job card sheets for date: {}", date, e);
+            throw new RuntimeException("Database error occurred while loading job cards", e);
+        }
+    }
+
+    public void writePdf(List<JobCardSheet> sheets, OutputStream out) throws IOException {
+        long start = System.nanoTime();
+        renderer.render(sheets, out);
+        log.info("Rendered {} job card sheets in {} ms", sheets.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private List<JobCardSheet> toSheets(List<JobCard> jobCards) {
+        if (jobCards.isEmpty()) {
+            return List.of();
+        }
+        List<UUID> ids = jobCards.stream().map(JobCard::getJobCardId).collect(Collectors.toList());
+
+        List<MiniJobCard> crewRows = new ArrayList<>(miniJobCardRepository.findWithEmployeeByJobCardIdIn(ids));
+        List<UUID> archivedIds = jobCards.stream()
+                .filter(JobCard::isArchived)
+                .map(JobCard::getJobCardId)
+                .collect(Collectors.toList());
+        if (!archivedIds.isEmpty()) {
+            archivedMiniJobCardRepository.findWithEmployeeByJobCardIdIn(archivedIds)
+                    .forEach(archived -> crewRows.add(archived.toMiniJobCard()));
+        }
+        Map<UUID, List<JobCardSheet.CrewLine>> crewByJobCard = crewRows.stream()
+                .collect(Collectors.groupingBy(m -> m.getJobCard().getJobCardId(),
+                        Collectors.mapping(this::toCrewLine, Collectors.toList())));
+
+        return jobCards.stream()
+                .map(jobCard -> toSheet(jobCard, crewByJobCard.getOrDefault(jobCard.getJobCardId(), List.of())))
+                .collect(Collectors.toList());
+    }
+
+    private JobCardSheet toSheet(JobCard jobCard, List<JobCardSheet.CrewLine> crew) {
+        Generator generator = jobCard.getGenerator();
+        return JobCardSheet.builder()
+                .jobCardId(jobCard.getJobCardId())
+                .jobId(jobCard.getJobId())
+                .jobType(jobCard.getJobType())
+                .date(jobCard.getDate())
+                .estimatedTime(jobCard.getEstimatedTime())
+                .generatorName(generator.getName())
+                .generatorCapacity(generator.getCapacity())
+                .generatorContactNumber(generator.getContactNumber())
+                .generatorEmail(generator.getEmail())
+                .generatorDescription(generator.getDescription())
+                .crew(crew)
+                .build();
+    }
+
+    private JobCardSheet.CrewLine toCrewLine(MiniJobCard miniJobCard) {
+        return JobCardSheet.CrewLine.builder()
+                .employeeName(miniJobCard.getEmployee().getName())
+                .employeeEmail(miniJobCard.getEmployee().getEmail())
+                .status(miniJobCard.getStatus())
+                .location(miniJobCard.getLocation())
+                .onHoldMinutes(toMinutes(miniJobCard.getOnHoldSeconds()))
+                .assignedMinutes(toMinutes(miniJobCard.getAssignedSeconds()))
+                .inProgressMinutes(toMinutes(miniJobCard.getInProgressSeconds()))
+                .build();
+    }
+
+    private static int toMinutes(long seconds) {
+        return (int) (seconds / 60);
+    }
+}
@@ -4,6 +4,8 @@ import com.example.met.dto.request.RepairJobCardRequest;
 import com.example.met.dto.request.ServiceJobCardRequest;
 import com.example.met.dto.request.UpdateJobCardRequest;
 import com.example.met.dto.request.VisitJobCardRequest;
+import com.example.met.dto.response.BatchFetchResponse;
+import com.example.met.dto.response.EmployeeResponse;
 import com.example.met.dto.response.JobCardResponse;
 import com.example.met.entity.Employee;
 import com.example.met.entity.Generator;
@@ -11,25 +13,42 @@ import com.example.met.entity.JobCard;
 import com.example.met.entity.MiniJobCard;
 import com.example.met.enums.JobCardType;
 import com.example.met.enums.JobStatus;
+import com.example.met.event.JobCardChangedEvent;
+import com.example.met.event.JobCardDeletedEvent;
+import com.example.met.event.MiniJobCardCountChange;
+import com.example.met.exception.ConcurrentUpdateException;
+import com.example.met.exception.PreconditionFailedException;
 import com.example.met.exception.ResourceNotFoundException;
+import com.example.met.repository.ArchivedMiniJobCardRepository;
+import com.example.met.repository.JobCardProjectionRepository;
 import com.example.met.repository.JobCardRepository;
 import com.example.met.repository.MiniJobCardRepository;
+import com.example.met.util.BatchIdUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataAccessException;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.DateTimeException;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Service
@@ -38,12 +57,22 @@ import java.util.stream.Collectors;
 public class JobCardService {
 
     private final JobCardRepository jobCardRepository;
+    private final JobCardProjectionRepository projectionRepository;
     private final GeneratorService generatorService;
     private final EmployeeService employeeService;
     private final MiniJobCardRepository miniJobCardRepository;
+    private final ArchivedMiniJobCardRepository archivedMiniJobCardRepository;
+    private final JobCardHistoryService jobCardHistoryService;
+    private final MiniJobCardTransitionService transitionService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
 
     // Sri Lanka timezone constant
     private static final ZoneId SRI_LANKA_ZONE = ZoneId.of("Asia/Colombo");
+    // Bounded retries for optimistic lock conflicts on updates
+    private static final int MAX_UPDATE_ATTEMPTS = 3;
+    // Upper bound for multi-id fetches
+    private static final int MAX_BATCH_IDS = 500;
 
     @Transactional
     public JobCardResponse createServiceJobCard(ServiceJobCardRequest request) {
@@ -72,6 +101,7 @@ public class JobCardService {
 
             // Create mini job cards directly here with error handling
             createMiniJobCardsDirectly(jobCard, request.getEmployeeEmails());
+            eventPublisher.publishEvent(new JobCardChangedEvent(jobCard.getJobCardId()));
 
             log.info("Service job card created successfully with ID: {}", jobCard.getJobCardId());
             return convertToResponse(jobCard);
@@ -117,6 +147,7 @@ public class JobCardService {
 
             // Create mini job cards directly here with error handling
             createMiniJobCardsDirectly(jobCard, request.getEmployeeEmails());
+            eventPublisher.publishEvent(new JobCardChangedEvent(jobCard.getJobCardId()));
 
             log.info("Repair job card created successfully with ID: {}", jobCard.getJobCardId());
             return convertToResponse(jobCard);
@@ -162,6 +193,7 @@ public class JobCardService {
 
             // Create mini job cards directly here with error handling
             createMiniJobCardsDirectly(jobCard, request.getEmployeeEmails());
+            eventPublisher.publishEvent(new JobCardChangedEvent(jobCard.getJobCardId()));
 
             log.info("Visit job card created successfully with ID: {}", jobCard.getJobCardId());
             return convertToResponse(jobCard);
@@ -208,6 +240,9 @@ public class JobCardService {
                     }
 
                     miniJobCardRepository.save(miniJobCard);
+                    transitionService.recordCreated(miniJobCard, LocalDateTime.now(SRI_LANKA_ZONE).withNano(0));
+                    eventPublisher.publishEvent(MiniJobCardCountChange.created(
+                            jobCard.getJobType(), miniJobCard.getDate(), miniJobCard.getStatus()));
                     log.info("Mini job card created for employee: {}", email);
                 } catch (ResourceNotFoundException e) {
                     log.warn("Employee not found with email: {}, skipping mini job card creation", email);
@@ -252,12 +287,62 @@ public class JobCardService {
         }
     }
 
-    public List<JobCardResponse> getAllJobCards() {
+    /**
+     * Loads several job cards with one fetch-joined query plus one employee lookup for the whole
+     * batch, instead of a request (and per-card generator/employee queries) per id.
+     */
+    @Transactional(readOnly = true)
+    public BatchFetchResponse<JobCardResponse> getJobCardsByIds(List<UUID> ids) {
+        try {
+            List<UUID> requestedIds = BatchIdUtil.normalize(ids, MAX_BATCH_IDS);
+            log.info("Batch fetching {} job cards", requestedIds.size());
+
+            Map<UUID, JobCard> jobCardsById = jobCardRepository.findAllWithDetailsByJobCardIdIn(requestedIds)
+                    .stream()
+                    .collect(Collectors.toMap(JobCard::getJobCardId, Function.identity()));
+
+            List<String> allEmails = jobCardsById.values().stream()
+                    .filter(jobCard -> jobCard.getEmployeeEmails() != null)
+                    .flatMap(jobCard -> jobCard.getEmployeeEmails().stream())
+                    .distinct()
+                    .collect(Collectors.toList());
+
+            Map<String, EmployeeResponse> employeesByEmail = allEmails.isEmpty()
+                    ? Map.of()
+                    : employeeService.getEmployeesByEmails(allEmails).stream()
+                    .collect(Collectors.toMap(EmployeeResponse::getEmail, Function.identity()));
+
+            List<JobCardResponse> items = new ArrayList<>(requestedIds.size());
+            List<UUID> missingIds = new ArrayList<>();
+            for (UUID id : requestedIds) {
+                JobCard jobCard = jobCardsById.get(id);
+                if (jobCard == null) {
+                    missingIds.add(id);
+                } else {
+                    items.add(convertToResponse(jobCard, employeesByEmail));
+                }
+            }
+
+            if (!missingIds.isEmpty()) {
+                log.info("Batch fetch could not find {} of {} job cards", missingIds.size(), requestedIds.size());
+            }
+            return new BatchFetchResponse<>(items, missingIds);
+        } catch (IllegalArgumentException e) {
+            throw e; // Re-throw validation errors
+        } catch (DataAccessException e) {
+            log.error("Database error while batch fetching job cards", e);
+            throw new RuntimeException("Database error occurred while retrieving job cards", e);
+        }
+    }
+
+    public List<JobCardResponse> getAllJobCards(boolean includeArchived) {
         try {
             log.info("Fetching latest 50 job cards with pagination");
             Pageable pageable = PageRequest.of(0, 30);
-            return jobCardRepository.findTop100ByOrderByUpdatedAtDesc(pageable)
-                    .stream()
+            List<JobCard> jobCards = includeArchived
+                    ? jobCardRepository.findTop100ByOrderByUpdatedAtDesc(pageable)
+                    : jobCardRepository.findActiveOrderByUpdatedAtDesc(pageable);
+            return jobCards.stream()
                     .map(this::convertToResponse)
                     .collect(Collectors.toList());
         } catch (DataAccessException e) {
@@ -269,7 +354,53 @@ public class JobCardService {
         }
     }
 
-    public List<JobCardResponse> getJobCardsByType(JobCardType type) {
+    /**
+     * List variants for sparse fieldsets: when {@code fields} is given only those attributes are
+     * selected, and generator / crew data is loaded only if requested. Archived cards are left out
+     * unless {@code includeArchived} is set.
+     */
+    @Transactional(readOnly = true)
+    public List<JobCardResponse> getAllJobCards(Set<String> fields, boolean includeArchived) {
+        if (fields == null || fields.isEmpty()) {
+            return getAllJobCards(includeArchived);
+        }
+        return projectFields(() -> projectionRepository.findLatest(30, fields, includeArchived));
+    }
+
+    @Transactional(readOnly = true)
+    public List<JobCardResponse> getJobCardsByDate(LocalDate date, Set<String> fields, boolean includeArchived) {
+        if (fields == null || fields.isEmpty()) {
+            return getJobCardsByDate(date, includeArchived);
+        }
+        if (date == null) {
+            throw new IllegalArgumentException("Date cannot be null");
+        }
+        return projectFields(() -> projectionRepository.findByDate(date, fields, includeArchived));
+    }
+
+    @Transactional(readOnly = true)
+    public List<JobCardResponse> getJobCardsByEmployee(String email, Set<String> fields, boolean includeArchived) {
+        if (fields == null || fields.isEmpty()) {
+            return getJobCardsByEmployee(email, includeArchived);
+        }
+        if (email == null || email.trim().isEmpty()) {
+            throw new IllegalArgumentException("Employee email cannot be null or empty");
+        }
+        return projectFields(() -> projectionRepository.findByEmployeeEmail(email.trim(), fields, includeArchived));
+    }
+
+    private List<JobCardResponse> projectFields(Supplier<List<JobCardResponse>> query) {
+        try {
+            return query.get();
+        } catch (IllegalArgumentException e) {
+            throw e; // Unknown field names
+        } catch (DataAccessException e) {
+            log.error("Database error while fetching job card fields", e);
+            throw new RuntimeException("Database error occurred while retrieving job cards", e);
+        }
+    }
+
+    public List<JobCardResponse> getJobCardsByType(JobCardType type, boolean includeArchived) {
         try {
             log.info("Fetching job cards by type: {}", type);
 
@@ -277,8 +408,10 @@ public class JobCardService {
                 throw new IllegalArgumentException("Job card type cannot be null");
             }
 
-            return jobCardRepository.findByJobType(type)
-                    .stream()
+            List<JobCard> jobCards = includeArchived
+                    ? jobCardRepository.findByJobType(type)
+                    : jobCardRepository.findByJobTypeAndArchivedFalse(type);
+            return jobCards.stream()
                     .map(this::convertToResponse)
                     .collect(Collectors.toList());
         } catch (IllegalArgumentException e) {
@@ -292,7 +425,7 @@ public class JobCardService {
         }
     }
 
-    public List<JobCardResponse> getJobCardsByEmployee(String email) {
+    public List<JobCardResponse> getJobCardsByEmployee(String email, boolean includeArchived) {
         try {
             log.info("Fetching job cards for employee: {}", email);
 
@@ -305,8 +438,10 @@ public class JobCardService {
                 throw new IllegalArgumentException("Invalid email format");
             }
 
-            return jobCardRepository.findByEmployeeEmail(email.trim())
-                    .stream()
+            List<JobCard> jobCards = includeArchived
+                    ? jobCardRepository.findByEmployeeEmail(email.trim())
+                    : jobCardRepository.findActiveByEmployeeEmail(email.trim());
+            return jobCards.stream()
                     .map(this::convertToResponse)
                     .collect(Collectors.toList());
         } catch (IllegalArgumentException e) {
@@ -320,7 +455,7 @@ public class JobCardService {
         }
     }
 
-    public List<JobCardResponse> getJobCardsByDate(LocalDate date) {
+    public List<JobCardResponse> getJobCardsByDate(LocalDate date, boolean includeArchived) {
         try {
             log.info("Fetching job cards by date: {}", date);
 
@@ -333,8 +468,10 @@ public class JobCardService {
                 throw new IllegalArgumentException("Date cannot be more than 1 year in the future");
             }
 
-            return jobCardRepository.findByDate(date)
-                    .stream()
+            List<JobCard> jobCards = includeArchived
+                    ? jobCardRepository.findByDate(date)
+                    : jobCardRepository.findByDateAndArchivedFalse(date);
+            return jobCards.stream()
                     .sorted((j1, j2) -> j2.getUpdatedAt().compareTo(j1.getUpdatedAt())) // Latest updates first
                     .map(this::convertToResponse)
                     .collect(Collectors.toList());
@@ -349,7 +486,7 @@ public class JobCardService {
         }
     }
 
-    public List<JobCardResponse> getJobCardsByGenerator(UUID generatorId) {
+    public List<JobCardResponse> getJobCardsByGenerator(UUID generatorId, boolean includeArchived) {
         try {
             log.info("Fetching job cards for generator: {}", generatorId);
 
@@ -357,8 +494,10 @@ public class JobCardService {
                 throw new IllegalArgumentException("Generator ID cannot be null");
             }
 
-            return jobCardRepository.findByGeneratorGeneratorId(generatorId)
-                    .stream()
+            List<JobCard> jobCards = includeArchived
+                    ? jobCardRepository.findByGeneratorGeneratorId(generatorId)
+                    : jobCardRepository.findByGeneratorGeneratorIdAndArchivedFalse(generatorId);
+            return jobCards.stream()
                     .map(this::convertToResponse)
                     .collect(Collectors.toList());
         } catch (IllegalArgumentException e) {
@@ -373,8 +512,34 @@ public class JobCardService {
     }
     // Add this method to your JobCardService class
 
-    @Transactional
     public JobCardResponse updateJobCard(UUID id, UpdateJobCardRequest request) {
+        return updateJobCard(id, request, null);
+    }
+
+    /**
+     * Updates a job card under optimistic locking. A version conflict with another writer is retried
+     * on fresh state up to {@link #MAX_UPDATE_ATTEMPTS} times. When the client sent an expected
+     * version (If-Match), a card that has already moved on is rejected instead of retried.
+     *
+     * @param expectedVersion version the client last saw, or null to skip the precondition
+     */
+    public JobCardResponse updateJobCard(UUID id, UpdateJobCardRequest request, Long expectedVersion) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> doUpdateJobCard(id, request, expectedVersion));
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= MAX_UPDATE_ATTEMPTS) {
+                    log.error("Giving up updating job card {} after {} version conflicts", id, attempt);
+                    throw new ConcurrentUpdateException(
+                            "Job card " + id + " was modified concurrently, please reload and retry", e);
+                }
+                log.warn("Version conflict while updating job card {} (attempt {}/{}), retrying",
+                        id, attempt, MAX_UPDATE_ATTEMPTS);
+            }
+        }
+    }
+
+    private JobCardResponse doUpdateJobCard(UUID id, UpdateJobCardRequest request, Long expectedVersion) {
         try {
             log.info("Updating job card with ID: {}", id);
 
@@ -384,6 +549,15 @@ public class JobCardService {
             // Find existing job card
             JobCard existingJobCard = findById(id);
 
+            if (existingJobCard.isArchived()) {
+                throw new IllegalArgumentException("Job card " + id + " is archived and can no longer be edited");
+            }
+
+            if (expectedVersion != null && !expectedVersion.equals(existingJobCard.getVersion())) {
+                throw new PreconditionFailedException("Job card " + id + " has changed (current version "
+                        + existingJobCard.getVersion() + ", expected " + expectedVersion + ")");
+            }
+
             // Validate generator exists if it's being changed
             Generator generator;
             if (!existingJobCard.getGenerator().getGeneratorId().equals(request.getGeneratorId())) {
@@ -397,6 +571,8 @@ public class JobCardService {
                 generator = existingJobCard.getGenerator();
             }
 
+            JobCardHistoryService.Snapshot before = jobCardHistoryService.snapshot(existingJobCard);
+
             // Update job card fields
             existingJobCard.setGenerator(generator);
             existingJobCard.setJobType(request.getJobType());
@@ -404,8 +580,12 @@ public class JobCardService {
             existingJobCard.setEstimatedTime(request.getEstimatedTime());
             existingJobCard.setEmployeeEmails(request.getEmployeeEmails());
 
-            // Save updated job card
-            JobCard updatedJobCard = jobCardRepository.save(existingJobCard);
+            // Save updated job card; flush so a concurrent edit fails here and the response has the new version
+            JobCard updatedJobCard = jobCardRepository.saveAndFlush(existingJobCard);
+
+            // Journal the changed fields in the same transaction, tagged with the new version
+            jobCardHistoryService.recordChanges(before, updatedJobCard);
+            eventPublisher.publishEvent(new JobCardChangedEvent(id));
 
             // Update mini job cards if employee assignments changed
             updateMiniJobCards(updatedJobCard, request.getEmployeeEmails());
@@ -413,9 +593,12 @@ public class JobCardService {
             log.info("Job card updated successfully with ID: {}", id);
             return convertToResponse(updatedJobCard);
 
-        } catch (IllegalArgumentException | ResourceNotFoundException e) {
+        } catch (IllegalArgumentException | ResourceNotFoundException | PreconditionFailedException e) {
             // Re-throw validation and not found errors
             throw e;
+        } catch (OptimisticLockingFailureException e) {
+            // Let the retry loop in updateJobCard handle version conflicts
+            throw e;
         } catch (DataIntegrityViolationException e) {
             log.error("Data integrity violation while updating job card with ID: {}", id, e);
             throw new IllegalArgumentException("Data integrity violation: duplicate or invalid references", e);
@@ -455,6 +638,7 @@ public class JobCardService {
                         .collect(Collectors.toList());
 
                 miniJobCardRepository.deleteAll(miniJobCardsToRemove);
+                publishRemoved(jobCard.getJobType(), miniJobCardsToRemove);
                 log.info("Removed {} mini job cards for job card: {}", miniJobCardsToRemove.size(), jobCard.getJobCardId());
             }
 
@@ -471,6 +655,8 @@ public class JobCardService {
 
             for (MiniJobCard miniJobCard : remainingMiniJobCards) {
                 if (!miniJobCard.getDate().equals(jobCard.getDate())) {
+                    eventPublisher.publishEvent(MiniJobCardCountChange.changed(jobCard.getJobType(),
+                            miniJobCard.getDate(), miniJobCard.getStatus(), jobCard.getDate(), miniJobCard.getStatus()));
                     miniJobCard.setDate(jobCard.getDate());
                     miniJobCardRepository.save(miniJobCard);
                 }
@@ -543,6 +729,8 @@ public class JobCardService {
 
             response.setCreatedAt(jobCard.getCreatedAt());
             response.setUpdatedAt(jobCard.getUpdatedAt());
+            response.setVersion(jobCard.getVersion());
+            response.setArchived(jobCard.isArchived());
             return response;
         } catch (Exception e) {
             log.error("Error converting job card to response", e);
@@ -550,6 +738,31 @@ public class JobCardService {
         }
     }
 
+    // Conversion for batch loads: generator is already fetched and employees are resolved up front
+    private JobCardResponse convertToResponse(JobCard jobCard, Map<String, EmployeeResponse> employeesByEmail) {
+        JobCardResponse response = new JobCardResponse();
+        response.setJobCardId(jobCard.getJobCardId());
+        response.setJobId(jobCard.getJobId());
+        response.setGenerator(generatorService.convertToResponse(jobCard.getGenerator()));
+        response.setJobType(jobCard.getJobType());
+        response.setDate(jobCard.getDate());
+        response.setEstimatedTime(jobCard.getEstimatedTime());
+        response.setEmployeeEmails(jobCard.getEmployeeEmails());
+
+        if (jobCard.getEmployeeEmails() != null && !jobCard.getEmployeeEmails().isEmpty()) {
+            response.setAssignedEmployees(jobCard.getEmployeeEmails().stream()
+                    .map(employeesByEmail::get)
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toList()));
+        }
+
+        response.setCreatedAt(jobCard.getCreatedAt());
+        response.setUpdatedAt(jobCard.getUpdatedAt());
+        response.setVersion(jobCard.getVersion());
+        response.setArchived(jobCard.isArchived());
+        return response;
+    }
+
     @Transactional
     public void deleteJobCard(UUID id) {
         try {
@@ -566,6 +779,7 @@ public class JobCardService {
                 List<MiniJobCard> miniJobCards = miniJobCardRepository.findByJobCardJobCardId(id);
                 if (!miniJobCards.isEmpty()) {
                     miniJobCardRepository.deleteAll(miniJobCards);
+                    publishRemoved(jobCard.getJobType(), miniJobCards);
                     log.info("Deleted {} mini job cards for job card: {}", miniJobCards.size(), id);
                 }
             } catch (DataAccessException e) {
@@ -573,10 +787,26 @@ public class JobCardService {
                 throw new RuntimeException("Error deleting related mini job cards", e);
             }
 
+            // Archived mini job cards reference the job card too
+            try {
+                if (jobCard.isArchived()) {
+                    for (Object[] row : archivedMiniJobCardRepository.countByStatusAndDateForJobCard(id)) {
+                        eventPublisher.publishEvent(MiniJobCardCountChange.removed(jobCard.getJobType(),
+                                (LocalDate) row[1], (JobStatus) row[0], ((Number) row[2]).longValue()));
+                    }
+                    int archivedDeleted = archivedMiniJobCardRepository.deleteByJobCardId(id);
+                    log.info("Deleted {} archived mini job cards for job card: {}", archivedDeleted, id);
+                }
+            } catch (DataAccessException e) {
+                log.error("Error deleting archived mini job cards for job card: {}", id, e);
+                throw new RuntimeException("Error deleting related archived mini job cards", e);
+            }
+
             // Then delete the main job card
             try {
                 jobCardRepository.delete(jobCard);
                 log.info("Job card deleted successfully with ID: {}", id);
+                eventPublisher.publishEvent(new JobCardDeletedEvent(id));
             } catch (DataAccessException e) {
                 log.error("Error deleting job card: {}", id, e);
                 throw new RuntimeException("Error deleting job card from database", e);
@@ -668,4 +898,11 @@ public class JobCardService {
             }
         }
     }
-}
\ No newline at end of file
+
+    private void publishRemoved(JobCardType jobType, List<MiniJobCard> miniJobCards) {
+        for (MiniJobCard miniJobCard : miniJobCards) {
+            eventPublisher.publishEvent(MiniJobCardCountChange.removed(
+                    jobType, miniJobCard.getDate(), miniJobCard.getStatus(), 1));
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.met.service;
+
+import com.example.met.dto.response.TransitionStreamEvent;
+import com.example.met.enums.OutboxEventType;
+import com.example.met.event.MiniJobCardStatusChange;
+import com.example.met.event.OutboxEventRecorded;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Single-node feed: streams transitions written on this node as soon as their transaction commits.
+ */
+@Component
+@ConditionalOnProperty(name = "app.stream.fanout", havingValue = "local", matchIfMissing = true)
+@RequiredArgsConstructor
+public class LocalTransitionFeed {
+
+    private final TransitionStreamService streamService;
+
+    @TransactionalEventListener
+    public void onOutboxEventRecorded(OutboxEventRecorded event) {
+        if (event.getEventType() == OutboxEventType.MINI_JOB_CARD_STATUS_CHANGED
+                && event.getPayload() instanceof MiniJobCardStatusChange change) {
+            streamService.publish(TransitionStreamEvent.of(event.getOutboxEventId(), change));
+        }
+    }
+}
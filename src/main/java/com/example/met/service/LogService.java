@@ -2,11 +2,13 @@ package com.example.met.service;
 
 import com.example.met.dto.response.LogResponse;
 import com.example.met.entity.Log;
+import com.example.met.event.EmployeeDayEndedEvent;
 import com.example.met.exception.ResourceNotFoundException;
 import com.example.met.repository.LogRepository;
 import com.example.met.util.TimeZoneUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataAccessException;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
@@ -27,6 +29,7 @@ import java.util.stream.Collectors;
 public class LogService {
 
     private final LogRepository logRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     // Sri Lanka timezone constant
     private static final ZoneId SRI_LANKA_ZONE = ZoneId.of("Asia/Colombo");
@@ -59,6 +62,9 @@ public class LogService {
             }
 
             Log savedLog = logRepository.save(logEntry);
+            if (EmployeeDayStateCache.END_DATE_STATUS.equals(savedLog.getStatus())) {
+                eventPublisher.publishEvent(new EmployeeDayEndedEvent(savedLog.getEmployee().getEmail(), savedLog.getDate()));
+            }
             log.info("Log created with ID: {}", savedLog.getLogId());
             return savedLog;
         } catch (IllegalArgumentException e) {
@@ -276,6 +282,7 @@ public class LogService {
             response.setStatus(logEntry.getStatus());
             response.setLocation(logEntry.getLocation());
             response.setCreatedAt(logEntry.getCreatedAt());
+            response.setMiniJobCardId(logEntry.getMiniJobCardId());
 
             return response;
         } catch (Exception e) {
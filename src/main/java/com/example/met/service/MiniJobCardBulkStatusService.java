@@ -0,0 +1,234 @@
+package com.example.met.service;
+
+import com.example.met.dto.request.MiniJobCardBulkStatusRequest;
+import com.example.met.dto.response.MiniJobCardBulkStatusResponse;
+import com.example.met.entity.MiniJobCard;
+import com.example.met.enums.JobStatus;
+import com.example.met.enums.OutboxEventType;
+import com.example.met.event.MiniJobCardChangedEvent;
+import com.example.met.event.MiniJobCardCountChange;
+import com.example.met.event.MiniJobCardStatusChange;
+import com.example.met.repository.MiniJobCardRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Moves many mini job cards to one status, e.g. closing out a job for the whole crew. Each card
+ * goes through the same transition as {@link MiniJobCardService#updateMiniJobCard}: time since the
+ * last change is credited to the status being left, and OT, the transition log and the audit log
+ * follow from the outbox. Cards are processed in chunks, one transaction per chunk holding row
+ * locks, with the card updates and outbox rows written as batches.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MiniJobCardBulkStatusService {
+
+    private final MiniJobCardRepository miniJobCardRepository;
+    private final MiniJobCardTransitionService transitionService;
+    private final OutboxService outboxService;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private static final ZoneId SRI_LANKA_ZONE = ZoneId.of("Asia/Colombo");
+    private static final LocalDate EARLIEST_DATE = LocalDate.of(1970, 1, 1);
+    private static final LocalDate LATEST_DATE = LocalDate.of(9999, 12, 31);
+    private static final int MAX_CHUNK_ATTEMPTS = 3;
+
+    @Value("${app.bulk-status.max-cards:2000}")
+    private int maxCards;
+
+    @Value("${app.bulk-status.chunk-size:100}")
+    private int chunkSize;
+
+    public MiniJobCardBulkStatusResponse transition(MiniJobCardBulkStatusRequest request, String actorEmail) {
+        if (request == null || request.getStatus() == null) {
+            throw new IllegalArgumentException("Target status is required");
+        }
+        long start = System.nanoTime();
+        JobStatus toStatus = request.getStatus();
+        if (toStatus == JobStatus.PENDING) {
+            throw new IllegalArgumentException("Mini job cards cannot be moved back to PENDING");
+        }
+        List<UUID> ids = resolveTargets(request);
+        log.info("Bulk transition of {} mini job cards to {} requested by {}", ids.size(), toStatus, actorEmail);
+
+        Summary summary = new Summary();
+        for (int from = 0; from < ids.size(); from += chunkSize) {
+            List<UUID> chunk = ids.subList(from, Math.min(from + chunkSize, ids.size()));
+            applyChunkWithRetry(chunk, toStatus, summary);
+        }
+
+        long durationMs = (System.nanoTime() - start) / 1_000_000;
+        log.info("Bulk transition to {} finished in {} ms: {} updated, {} unchanged, {} not allowed, {} not found, {} failed",
+                toStatus, durationMs, summary.updated, summary.unchanged, summary.notAllowedIds.size(),
+                summary.notFoundIds.size(), summary.failedIds.size());
+        return new MiniJobCardBulkStatusResponse(toStatus, ids.size(), summary.updated, summary.unchanged,
+                summary.notAllowedIds.size(), summary.notFoundIds.size(), summary.failedIds.size(),
+                summary.updatedFrom, summary.notAllowedIds, summary.notFoundIds, summary.failedIds, durationMs);
+    }
+
+    private List<UUID> resolveTargets(MiniJobCardBulkStatusRequest request) {
+        boolean byJobCard = request.getJobCardId() != null;
+        boolean byIds = request.getMiniJobCardIds() != null && !request.getMiniJobCardIds().isEmpty();
+        boolean byFilter = request.getEmployeeEmail() != null
+                || (request.getCurrentStatuses() != null && !request.getCurrentStatuses().isEmpty())
+                || request.getDateFrom() != null || request.getDateTo() != null;
+        int selectors = (byJobCard ? 1 : 0) + (byIds ? 1 : 0) + (byFilter ? 1 : 0);
+        if (selectors != 1) {
+            throw new IllegalArgumentException("Select cards by exactly one of a job card, ids, or a filter");
+        }
+
+        List<UUID> ids;
+        try {
+            if (byJobCard) {
+                ids = miniJobCardRepository.findIdsByJobCardId(request.getJobCardId());
+            } else if (byIds) {
+                ids = request.getMiniJobCardIds().stream().distinct().sorted().collect(Collectors.toList());
+            } else {
+                LocalDate dateFrom = request.getDateFrom() != null ? request.getDateFrom() : EARLIEST_DATE;
+                LocalDate dateTo = request.getDateTo() != null ? request.getDateTo() : LATEST_DATE;
+                if (dateFrom.isAfter(dateTo)) {
+                    throw new IllegalArgumentException("Start date cannot be after end date");
+                }
+                Set<JobStatus> statuses = request.getCurrentStatuses() != null && !request.getCurrentStatuses().isEmpty()
+                        ? request.getCurrentStatuses() : EnumSet.allOf(JobStatus.class);
+                // One past the limit tells an oversized filter apart from one that just fits
+                ids = miniJobCardRepository.findIdsByFilter(request.getEmployeeEmail(), statuses, dateFrom, dateTo,
+                        PageRequest.of(0, maxCards + 1));
+            }
+        } catch (DataAccessException e) {
+            log.error("Database error while selecting cards for bulk transition", e);
+            throw new RuntimeException("Database error occurred while selecting mini job cards", e);
+        }
+
+        if (ids.size() > maxCards) {
+            throw new IllegalArgumentException("A bulk transition cannot affect more than " + maxCards
+                    + " mini job cards, narrow the selection");
+        }
+        return ids;
+    }
+
+    private void applyChunkWithRetry(List<UUID> chunk, JobStatus toStatus, Summary summary) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                ChunkResult result = transactionTemplate.execute(status -> applyChunk(chunk, toStatus));
+                summary.add(result);
+                return;
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= MAX_CHUNK_ATTEMPTS) {
+                    log.error("Giving up on a bulk transition chunk of {} cards after {} version conflicts",
+                            chunk.size(), attempt);
+                    summary.failedIds.addAll(chunk);
+                    return;
+                }
+                log.warn("Version conflict in bulk transition chunk (attempt {}/{}), retrying",
+                        attempt, MAX_CHUNK_ATTEMPTS);
+            } catch (DataAccessException e) {
+                log.error("Database error in bulk transition chunk of {} cards", chunk.size(), e);
+                summary.failedIds.addAll(chunk);
+                return;
+            }
+        }
+    }
+
+    private ChunkResult applyChunk(List<UUID> chunk, JobStatus toStatus) {
+        // Lock first, then load the associations into the same persistence context in one select
+        Map<UUID, MiniJobCard> cards = miniJobCardRepository.findForUpdateByMiniJobCardIdIn(chunk).stream()
+                .collect(Collectors.toMap(MiniJobCard::getMiniJobCardId, Function.identity()));
+        if (!cards.isEmpty()) {
+            miniJobCardRepository.findAllWithDetailsByMiniJobCardIdIn(cards.keySet());
+        }
+
+        LocalDateTime now = LocalDateTime.now(SRI_LANKA_ZONE);
+        LocalTime nowTime = now.toLocalTime().withNano(0);
+        ChunkResult result = new ChunkResult();
+        List<OutboxService.Entry> events = new ArrayList<>();
+        List<MiniJobCardCountChange> countChanges = new ArrayList<>();
+        List<UUID> updatedIds = new ArrayList<>();
+
+        for (UUID id : chunk) {
+            MiniJobCard card = cards.get(id);
+            if (card == null) {
+                result.notFoundIds.add(id);
+                continue;
+            }
+            JobStatus fromStatus = card.getStatus();
+            if (fromStatus == toStatus) {
+                result.unchanged++;
+                continue;
+            }
+            if (!StatusTransitionEngine.isAllowed(fromStatus, toStatus)) {
+                result.notAllowedIds.add(id);
+                continue;
+            }
+
+            transitionService.advance(card, toStatus, now);
+            card.setUpdatedtime(nowTime);
+            card.setUpdatedAt(now);
+            result.updatedFrom.merge(fromStatus, 1, Integer::sum);
+            updatedIds.add(id);
+
+            String employeeEmail = card.getEmployee().getEmail();
+            events.add(new OutboxService.Entry(id, employeeEmail, new MiniJobCardStatusChange(id,
+                    card.getJobCard().getJobCardId(), employeeEmail, fromStatus, toStatus, now, card.getLocation(),
+                    card.getJobCard().getGenerator().getName())));
+            countChanges.add(MiniJobCardCountChange.changed(card.getJobCard().getJobType(),
+                    card.getDate(), fromStatus, card.getDate(), toStatus));
+        }
+
+        // Card updates go out as one JDBC batch; version conflicts surface here
+        miniJobCardRepository.flush();
+        outboxService.enqueueAll(OutboxEventType.MINI_JOB_CARD_STATUS_CHANGED, events);
+        countChanges.forEach(eventPublisher::publishEvent);
+        eventPublisher.publishEvent(new MiniJobCardChangedEvent(updatedIds));
+        return result;
+    }
+
+    private static class ChunkResult {
+        private final Map<JobStatus, Integer> updatedFrom = new EnumMap<>(JobStatus.class);
+        private final List<UUID> notAllowedIds = new ArrayList<>();
+        private final List<UUID> notFoundIds = new ArrayList<>();
+        private int unchanged;
+    }
+
+    private static class Summary {
+        private final Map<JobStatus, Integer> updatedFrom = new EnumMap<>(JobStatus.class);
+        private final List<UUID> notAllowedIds = new ArrayList<>();
+        private final List<UUID> notFoundIds = new ArrayList<>();
+        private final List<UUID> failedIds = new ArrayList<>();
+        private int updated;
+        private int unchanged;
+
+        void add(ChunkResult chunk) {
+            chunk.updatedFrom.forEach((status, count) -> {
+                updatedFrom.merge(status, count, Integer::sum);
+                updated += count;
+            });
+            notAllowedIds.addAll(chunk.notAllowedIds);
+            notFoundIds.addAll(chunk.notFoundIds);
+            unchanged += chunk.unchanged;
+        }
+    }
+}
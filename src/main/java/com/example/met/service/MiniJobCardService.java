@@ -2,28 +2,47 @@ package com.example.met.service;
 
 import com.example.met.dto.request.MiniJobCardRequest;
 import com.example.met.dto.request.MiniJobCardUpdateRequest;
+import com.example.met.dto.response.BatchFetchResponse;
 import com.example.met.dto.response.MiniJobCardResponse;
 import com.example.met.entity.*;
 import com.example.met.enums.JobStatus;
+import com.example.met.enums.OutboxEventType;
+import com.example.met.event.JobCardChangedEvent;
+import com.example.met.event.MiniJobCardChangedEvent;
+import com.example.met.event.MiniJobCardCountChange;
+import com.example.met.event.MiniJobCardStatusChange;
+import com.example.met.exception.ConcurrentUpdateException;
+import com.example.met.exception.PreconditionFailedException;
 import com.example.met.exception.ResourceNotFoundException;
 import com.example.met.repository.JobCardRepository;
-import com.example.met.repository.LogRepository;
+import com.example.met.repository.ArchivedMiniJobCardRepository;
+import com.example.met.repository.MiniJobCardProjectionRepository;
 import com.example.met.repository.MiniJobCardRepository;
+import com.example.met.repository.MiniJobCardViewRepository;
+import com.example.met.util.BatchIdUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataAccessException;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.DateTimeException;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.ZoneId;
-import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Service
@@ -32,12 +51,22 @@ import java.util.stream.Collectors;
 public class MiniJobCardService {
 
     private final MiniJobCardRepository miniJobCardRepository;
+    private final MiniJobCardProjectionRepository projectionRepository;
+    private final MiniJobCardViewRepository miniJobCardViewRepository;
+    private final ArchivedMiniJobCardRepository archivedMiniJobCardRepository;
     private final JobCardRepository jobCardRepository;
     private final EmployeeService employeeService;
-    private final LogRepository logRepository;
-    private final OTTimeCalculatorService otTimeCalculatorService;
+    private final MiniJobCardTransitionService transitionService;
+    private final OutboxService outboxService;
+    private final EmployeeDayStateCache dayStateCache;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
     // Sri Lanka timezone constant
     private static final ZoneId SRI_LANKA_ZONE = ZoneId.of("Asia/Colombo");
+    // Bounded retries for optimistic lock conflicts on status updates
+    private static final int MAX_UPDATE_ATTEMPTS = 3;
+    // Upper bound for multi-id fetches
+    private static final int MAX_BATCH_IDS = 500;
 
     @Transactional
     public MiniJobCard createMiniJobCard(MiniJobCard miniJobCard) {
@@ -72,6 +101,10 @@ public class MiniJobCardService {
             validateMiniJobCard(miniJobCard);
 
             MiniJobCard saved = miniJobCardRepository.save(miniJobCard);
+            transitionService.recordCreated(saved, saved.getLastTimeUpdateThisTicket());
+            eventPublisher.publishEvent(new JobCardChangedEvent(saved.getJobCard().getJobCardId()));
+            eventPublisher.publishEvent(MiniJobCardCountChange.created(
+                    saved.getJobCard().getJobType(), saved.getDate(), saved.getStatus()));
             log.info("Mini job card created with ID: {}", saved.getMiniJobCardId());
             return saved;
         } catch (DataIntegrityViolationException e) {
@@ -97,6 +130,9 @@ public class MiniJobCardService {
 
             JobCard jobCard = jobCardRepository.findById(request.getJobCardId())
                     .orElseThrow(() -> new ResourceNotFoundException("Job Card not found with id: " + request.getJobCardId()));
+            if (jobCard.isArchived()) {
+                throw new IllegalArgumentException("Job card " + request.getJobCardId() + " is archived");
+            }
 
             Employee employee;
             try {
@@ -130,6 +166,10 @@ public class MiniJobCardService {
             miniJobCard.setLastTimeUpdateThisTicket(getSafeCurrentDateTime());
 
             miniJobCard = miniJobCardRepository.save(miniJobCard);
+            transitionService.recordCreated(miniJobCard, miniJobCard.getLastTimeUpdateThisTicket());
+            eventPublisher.publishEvent(new JobCardChangedEvent(jobCard.getJobCardId()));
+            eventPublisher.publishEvent(MiniJobCardCountChange.created(
+                    jobCard.getJobType(), miniJobCard.getDate(), miniJobCard.getStatus()));
             log.info("Mini job card created successfully with ID: {}", miniJobCard.getMiniJobCardId());
             return convertToResponse(miniJobCard);
         } catch (ResourceNotFoundException | IllegalArgumentException e) {
@@ -171,12 +211,48 @@ public class MiniJobCardService {
         }
     }
 
+    /**
+     * Loads several mini job cards with their job card, generator and employee in one query.
+     */
+    @Transactional(readOnly = true)
+    public BatchFetchResponse<MiniJobCardResponse> getMiniJobCardsByIds(List<UUID> ids) {
+        try {
+            List<UUID> requestedIds = BatchIdUtil.normalize(ids, MAX_BATCH_IDS);
+            log.info("Batch fetching {} mini job cards", requestedIds.size());
+
+            Map<UUID, MiniJobCard> cardsById = miniJobCardRepository.findAllWithDetailsByMiniJobCardIdIn(requestedIds)
+                    .stream()
+                    .collect(Collectors.toMap(MiniJobCard::getMiniJobCardId, Function.identity()));
+
+            List<MiniJobCardResponse> items = new ArrayList<>(requestedIds.size());
+            List<UUID> missingIds = new ArrayList<>();
+            for (UUID id : requestedIds) {
+                MiniJobCard miniJobCard = cardsById.get(id);
+                if (miniJobCard == null) {
+                    missingIds.add(id);
+                } else {
+                    items.add(convertToResponse(miniJobCard));
+                }
+            }
+
+            if (!missingIds.isEmpty()) {
+                log.info("Batch fetch could not find {} of {} mini job cards", missingIds.size(), requestedIds.size());
+            }
+            return new BatchFetchResponse<>(items, missingIds);
+        } catch (IllegalArgumentException e) {
+            throw e; // Re-throw validation errors
+        } catch (DataAccessException e) {
+            log.error("Database error while batch fetching mini job cards", e);
+            throw new RuntimeException("Database error occurred while retrieving mini job cards", e);
+        }
+    }
+
     public List<MiniJobCardResponse> getAllMiniJobCards() {
         try {
             log.info("Fetching all mini job cards for today");
             LocalDate today = LocalDate.now(SRI_LANKA_ZONE);
 
-            return miniJobCardRepository.findByDate(today)
+            return miniJobCardViewRepository.findByDateOrderByCreatedAtDesc(today)
                     .stream()
                     .map(this::convertToResponse)
                     .collect(Collectors.toList());
@@ -197,7 +273,7 @@ public class MiniJobCardService {
                 throw new IllegalArgumentException("Employee email cannot be null or empty");
             }
 
-            return miniJobCardRepository.findByEmployeeEmailOrderByCreatedAtDesc(email)
+            return miniJobCardViewRepository.findByEmployeeEmailOrderByCreatedAtDesc(email)
                     .stream()
                     .map(this::convertToResponse)
                     .collect(Collectors.toList());
@@ -224,7 +300,7 @@ public class MiniJobCardService {
                 throw new IllegalArgumentException("Date cannot be null");
             }
 
-            return miniJobCardRepository.findByEmployeeEmailAndDate(email, date)
+            return miniJobCardViewRepository.findByEmployeeEmailAndDateOrderByCreatedAtDesc(email, date)
                     .stream()
                     .map(this::convertToResponse)
                     .collect(Collectors.toList());
@@ -247,7 +323,7 @@ public class MiniJobCardService {
                 throw new IllegalArgumentException("Job card ID cannot be null");
             }
 
-            return miniJobCardRepository.findByJobCardJobCardId(jobCardId)
+            return miniJobCardViewRepository.findByJobCardIdOrderByCreatedAtAsc(jobCardId)
                     .stream()
                     .map(this::convertToResponse)
                     .collect(Collectors.toList());
@@ -270,7 +346,7 @@ public class MiniJobCardService {
                 throw new IllegalArgumentException("Job status cannot be null");
             }
 
-            return miniJobCardRepository.findByStatus(status)
+            return miniJobCardViewRepository.findByStatusOrderByUpdatedAtDesc(status)
                     .stream()
                     .map(this::convertToResponse)
                     .collect(Collectors.toList());
@@ -285,12 +361,120 @@ public class MiniJobCardService {
         }
     }
 
-    // Add this dependency to your MiniJobCardService
+    /**
+     * List variants for sparse fieldsets: when {@code fields} is given only those attributes are
+     * selected (and only the associations they need are joined); otherwise the full response is built.
+     * Archived mini job cards are appended only when {@code includeArchived} is set.
+     */
+    @Transactional(readOnly = true)
+    public List<MiniJobCardResponse> getAllMiniJobCards(Set<String> fields) {
+        if (fields == null || fields.isEmpty()) {
+            return getAllMiniJobCards();
+        }
+        return projectFields(() -> projectionRepository.findByDate(LocalDate.now(SRI_LANKA_ZONE), fields));
+    }
 
+    @Transactional(readOnly = true)
+    public List<MiniJobCardResponse> getMiniJobCardsByEmployee(String email, Set<String> fields, boolean includeArchived) {
+        List<MiniJobCardResponse> responses;
+        if (fields == null || fields.isEmpty()) {
+            responses = getMiniJobCardsByEmployee(email);
+        } else {
+            if (email == null || email.trim().isEmpty()) {
+                throw new IllegalArgumentException("Employee email cannot be null or empty");
+            }
+            responses = projectFields(() -> projectionRepository.findByEmployeeEmail(email, fields));
+        }
+        return withArchived(responses, includeArchived,
+                () -> archivedMiniJobCardRepository.findByEmployeeEmailOrderByCreatedAtDesc(email));
+    }
+
+    @Transactional(readOnly = true)
+    public List<MiniJobCardResponse> getMiniJobCardsByJobCard(UUID jobCardId, Set<String> fields, boolean includeArchived) {
+        List<MiniJobCardResponse> responses;
+        if (fields == null || fields.isEmpty()) {
+            responses = getMiniJobCardsByJobCard(jobCardId);
+        } else {
+            if (jobCardId == null) {
+                throw new IllegalArgumentException("Job card ID cannot be null");
+            }
+            responses = projectFields(() -> projectionRepository.findByJobCardId(jobCardId, fields));
+        }
+        return withArchived(responses, includeArchived,
+                () -> archivedMiniJobCardRepository.findByJobCardId(jobCardId));
+    }
+
+    @Transactional(readOnly = true)
+    public List<MiniJobCardResponse> getMiniJobCardsByStatus(JobStatus status, Set<String> fields, boolean includeArchived) {
+        List<MiniJobCardResponse> responses;
+        if (fields == null || fields.isEmpty()) {
+            responses = getMiniJobCardsByStatus(status);
+        } else {
+            if (status == null) {
+                throw new IllegalArgumentException("Job status cannot be null");
+            }
+            responses = projectFields(() -> projectionRepository.findByStatus(status, fields));
+        }
+        return withArchived(responses, includeArchived,
+                () -> archivedMiniJobCardRepository.findByStatus(status));
+    }
+
+    // Archived rows are mapped in full; a sparse fieldset is still applied to them when the response is written
+    private List<MiniJobCardResponse> withArchived(List<MiniJobCardResponse> responses, boolean includeArchived,
+                                                   Supplier<List<ArchivedMiniJobCard>> archivedQuery) {
+        if (!includeArchived) {
+            return responses;
+        }
+        try {
+            List<MiniJobCardResponse> combined = new ArrayList<>(responses);
+            archivedQuery.get().forEach(archived -> combined.add(convertToResponse(archived.toMiniJobCard())));
+            return combined;
+        } catch (DataAccessException e) {
+            log.error("Database error while fetching archived mini job cards", e);
+            throw new RuntimeException("Database error occurred while retrieving archived mini job cards", e);
+        }
+    }
+
+    private List<MiniJobCardResponse> projectFields(Supplier<List<MiniJobCardResponse>> query) {
+        try {
+            return query.get();
+        } catch (IllegalArgumentException e) {
+            throw e; // Unknown field names
+        } catch (DataAccessException e) {
+            log.error("Database error while fetching mini job card fields", e);
+            throw new RuntimeException("Database error occurred while retrieving mini job cards", e);
+        }
+    }
 
-    // Then modify your updateMiniJobCard method to include OT tracking
-    @Transactional
     public MiniJobCardResponse updateMiniJobCard(UUID id, MiniJobCardUpdateRequest request) {
+        return updateMiniJobCard(id, request, null);
+    }
+
+    /**
+     * Updates a mini job card under optimistic locking. A version conflict with another writer is
+     * retried on fresh state (so elapsed time is recomputed from the winning write) up to
+     * {@link #MAX_UPDATE_ATTEMPTS} times. When the client sent an expected version (If-Match),
+     * a card that has already moved on is rejected instead of retried.
+     *
+     * @param expectedVersion version the client last saw, or null to skip the precondition
+     */
+    public MiniJobCardResponse updateMiniJobCard(UUID id, MiniJobCardUpdateRequest request, Long expectedVersion) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> doUpdateMiniJobCard(id, request, expectedVersion));
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= MAX_UPDATE_ATTEMPTS) {
+                    log.error("Giving up updating mini job card {} after {} version conflicts", id, attempt);
+                    throw new ConcurrentUpdateException(
+                            "Mini job card " + id + " was modified concurrently, please reload and retry", e);
+                }
+                log.warn("Version conflict while updating mini job card {} (attempt {}/{}), retrying",
+                        id, attempt, MAX_UPDATE_ATTEMPTS);
+            }
+        }
+    }
+
+    private MiniJobCardResponse doUpdateMiniJobCard(UUID id, MiniJobCardUpdateRequest request, Long expectedVersion) {
         try {
             log.info("Updating mini job card with ID: {}", id);
 
@@ -302,11 +486,18 @@ public class MiniJobCardService {
                 throw new IllegalArgumentException("Update request cannot be null");
             }
 
-            MiniJobCard miniJobCard = findById(id);
+            // Job card, generator and employee come with the card so the response needs no further selects
+            MiniJobCard miniJobCard = miniJobCardRepository.findWithDetailsById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Mini Job Card not found with id: " + id));
+
+            if (expectedVersion != null && !expectedVersion.equals(miniJobCard.getVersion())) {
+                throw new PreconditionFailedException("Mini job card " + id + " has changed (current version "
+                        + miniJobCard.getVersion() + ", expected " + expectedVersion + ")");
+            }
 
             // Store old values for logging and time calculation
             JobStatus oldStatus = miniJobCard.getStatus();
-            LocalDateTime lastUpdateTime = miniJobCard.getLastTimeUpdateThisTicket();
+            LocalDate oldDate = miniJobCard.getDate();
 
             // Get current time for calculations
             LocalDateTime currentTime = getSafeCurrentDateTime();
@@ -322,27 +513,11 @@ public class MiniJobCardService {
                 miniJobCard.setUpdatedAt(currentTime);
 
                 // Save and return the existing card
-                miniJobCard = miniJobCardRepository.save(miniJobCard);
+                miniJobCard = miniJobCardRepository.saveAndFlush(miniJobCard);
+                eventPublisher.publishEvent(new MiniJobCardChangedEvent(List.of(id)));
                 return convertToResponse(miniJobCard);
             }
 
-            // Calculate time spent in previous status and update accumulation fields
-            if (lastUpdateTime != null && newStatus != null) {
-                long minutesSpentInPreviousStatus = ChronoUnit.MINUTES.between(lastUpdateTime, currentTime);
-
-                // Only track time for trackable statuses and ensure non-negative time
-                if (minutesSpentInPreviousStatus > 0) {
-                    updateTimeSpentInStatus(miniJobCard, oldStatus, minutesSpentInPreviousStatus);
-                }
-            }
-
-            // Update fields with validation
-            if (request.getStatus() != null) {
-                miniJobCard.setStatus(request.getStatus());
-                // Update tracking timestamp only when status changes
-                miniJobCard.setLastTimeUpdateThisTicket(currentTime);
-            }
-
             if (request.getDate() != null) {
                 try {
                     miniJobCard.setDate(request.getDate());
@@ -356,6 +531,10 @@ public class MiniJobCardService {
                 if (request.getLocation().length() > 255) { // Assuming max length
                     throw new IllegalArgumentException("Location cannot exceed 255 characters");
                 }
+                if (!request.getLocation().equals(miniJobCard.getLocation())) {
+                    // Locations are searchable; status-only updates do not touch the index
+                    eventPublisher.publishEvent(new JobCardChangedEvent(miniJobCard.getJobCard().getJobCardId()));
+                }
                 miniJobCard.setLocation(request.getLocation());
             }
 
@@ -369,47 +548,42 @@ public class MiniJobCardService {
             }
             miniJobCard.setUpdatedtime(getSafeCurrentTime());
 
-            // Save the updated mini job card
-            miniJobCard = miniJobCardRepository.save(miniJobCard);
+            // Time spent in the previous status is credited on the card itself
+            if (newStatus != null) {
+                transitionService.advance(miniJobCard, newStatus, currentTime);
+            }
 
-            // **NEW: Update OT time tracking when status changes**
-            if (newStatus != null && oldStatus != newStatus) {
-                try {
-                    // Update OT time tracking for status change
-                    otTimeCalculatorService.handleStatusChange(
-                            miniJobCard.getEmployee().getEmail(),
-                            miniJobCard.getDate(),
-                            newStatus.toString(),
-                            miniJobCard.getTime()
-                    );
-
-                    log.info("Updated OT time tracking for employee: {} - Status changed from {} to {}",
-                            miniJobCard.getEmployee().getEmail(), oldStatus, newStatus);
-
-                } catch (Exception e) {
-                    log.error("Error updating OT time tracking for job card {}: {}", id, e.getMessage(), e);
-                    // Don't fail the main operation if OT tracking fails
-                }
+            // Save the updated mini job card; flushing here surfaces version conflicts before the
+            // outbox event is written, and makes the response carry the new version
+            miniJobCard = miniJobCardRepository.saveAndFlush(miniJobCard);
+            eventPublisher.publishEvent(new MiniJobCardChangedEvent(List.of(id)));
+
+            MiniJobCardResponse response = convertToResponse(miniJobCard);
+
+            if (miniJobCard.getStatus() != oldStatus || !Objects.equals(miniJobCard.getDate(), oldDate)) {
+                eventPublisher.publishEvent(MiniJobCardCountChange.changed(miniJobCard.getJobCard().getJobType(),
+                        oldDate, oldStatus, miniJobCard.getDate(), miniJobCard.getStatus()));
             }
 
-            // Create log entry safely - only for actual status changes
+            // Transition log, OT tracking and audit log are applied by the outbox dispatcher
             if (newStatus != null && oldStatus != newStatus) {
-                try {
-                    MiniJobCardResponse fullResponse = convertToResponse(miniJobCard);
-                    createLogEntryDirectly(miniJobCard, oldStatus, fullResponse);
-                } catch (Exception e) {
-                    log.error("Error creating log entry for mini job card update: {}", id, e);
-                }
+                String employeeEmail = miniJobCard.getEmployee().getEmail();
+                outboxService.enqueue(OutboxEventType.MINI_JOB_CARD_STATUS_CHANGED, id, employeeEmail,
+                        new MiniJobCardStatusChange(id, response.getJobCardId(), employeeEmail, oldStatus, newStatus,
+                                currentTime, miniJobCard.getLocation(), response.getGeneratorName()));
             }
 
             log.info("Mini job card updated successfully with ID: {}. Status changed from {} to {}",
                     miniJobCard.getMiniJobCardId(), oldStatus, newStatus);
 
-            return convertToResponse(miniJobCard);
+            return response;
 
-        } catch (ResourceNotFoundException | IllegalArgumentException e) {
+        } catch (ResourceNotFoundException | IllegalArgumentException | PreconditionFailedException e) {
             // Re-throw these as they are already properly handled
             throw e;
+        } catch (OptimisticLockingFailureException e) {
+            // Let the retry loop in updateMiniJobCard handle version conflicts
+            throw e;
         } catch (DataIntegrityViolationException e) {
             log.error("Data integrity violation while updating mini job card: {}", id, e);
             throw new IllegalArgumentException("Data integrity violation during update", e);
@@ -422,139 +596,14 @@ public class MiniJobCardService {
         }
     }
 
-    /**
-     * Updates the time spent in a specific status for the mini job card
-     *
-     * @param miniJobCard The mini job card to update
-     * @param status The status that time was spent in
-     * @param minutesSpent The number of minutes spent in that status
-     */
-    private void updateTimeSpentInStatus(MiniJobCard miniJobCard, JobStatus status, long minutesSpent) {
-        try {
-            switch (status) {
-                case ON_HOLD:
-                    updateSpentTime(miniJobCard, "ON_HOLD", minutesSpent,
-                            miniJobCard.getSpentOnOnHold(),
-                            time -> miniJobCard.setSpentOnOnHold(time));
-                    break;
-
-                case ASSIGNED:
-                    updateSpentTime(miniJobCard, "ASSIGNED", minutesSpent,
-                            miniJobCard.getSpentOnAssigned(),
-                            time -> miniJobCard.setSpentOnAssigned(time));
-                    break;
-
-                case IN_PROGRESS:
-                    updateSpentTime(miniJobCard, "IN_PROGRESS", minutesSpent,
-                            miniJobCard.getSpentOnInProgress(),
-                            time -> miniJobCard.setSpentOnInProgress(time));
-                    break;
-
-                case PENDING:
-                case COMPLETED:
-                case CANCELLED:
-                    // These statuses don't track time as per business requirements
-                    log.debug("Status {} does not track time spent", status);
-                    break;
-
-                default:
-                    log.warn("Unknown status: {}, no time tracking applied", status);
-                    break;
-            }
-        } catch (Exception e) {
-            log.error("Error updating time spent for status: {}", status, e);
-            // Don't propagate this error as it's not critical for the main operation
-        }
-    }
-
-    /**
-     * Helper method to update spent time for a specific status
-     */
-    private void updateSpentTime(MiniJobCard miniJobCard, String statusName, long minutesSpent,
-                                 LocalTime currentTime, java.util.function.Consumer<LocalTime> setter) {
-        try {
-            // Get current accumulated time or default to 00:00:00
-            LocalTime accumulatedTime = currentTime != null ? currentTime : LocalTime.of(0, 0, 0);
-
-            // Convert current time to total minutes
-            int currentTotalMinutes = accumulatedTime.getHour() * 60 + accumulatedTime.getMinute();
-
-            // Add the new minutes spent
-            int newTotalMinutes = currentTotalMinutes + (int) minutesSpent;
-
-            // Convert back to LocalTime (handle overflow properly)
-            int hours = newTotalMinutes / 60;
-            int minutes = newTotalMinutes % 60;
-
-            // For time tracking, we'll allow accumulation beyond 24 hours by using modulo
-            // This ensures we don't lose data but stay within LocalTime constraints
-            int displayHours = hours % 24;
-
-            // Log if time exceeds 24 hours for monitoring purposes
-            if (hours >= 24) {
-                log.warn("Time spent in status {} for mini job card {} exceeds 24 hours. Total: {}:{}, Display: {}:{}",
-                        statusName, miniJobCard.getMiniJobCardId(), hours, minutes, displayHours, minutes);
-            }
-
-            LocalTime newTime = LocalTime.of(displayHours, minutes, 0);
-            setter.accept(newTime);
-
-            log.info("Updated {} time for mini job card {}: added {} minutes, total now: {}:{}",
-                    statusName, miniJobCard.getMiniJobCardId(), minutesSpent, displayHours, minutes);
-
-        } catch (Exception e) {
-            log.error("Error calculating time for status: {}", statusName, e);
-            // Set a safe default if calculation fails
-            setter.accept(LocalTime.of(0, 0, 0));
-        }
-    }
-
-    private void createLogEntryDirectly(MiniJobCard miniJobCard, JobStatus oldStatus, MiniJobCardResponse fullResponse) {
-        try {
-            Log logEntry = new Log();
-            logEntry.setEmployee(miniJobCard.getEmployee());
-            logEntry.setAction("UPDATE_JOB_CARD");
-
-            // Handle OT calculation safely with detailed error handling
-            try {
-                if (otTimeCalculatorService != null) {
-                    otTimeCalculatorService.handleFirstLog(miniJobCard);
-                    log.debug("Successfully processed OT calculation for mini job card: {}", miniJobCard.getMiniJobCardId());
-                } else {
-                    log.warn("OT Time Calculator Service is not available");
-                }
-            } catch (DataIntegrityViolationException e) {
-                log.error("Database constraint violation in OT calculation for mini job card: {}. Error: {}",
-                        miniJobCard.getMiniJobCardId(), e.getMessage());
-                // Continue with log creation even if OT calculation fails
-            } catch (Exception e) {
-                log.error("Failed to process OT calculation for mini job card: {}. Error: {}",
-                        miniJobCard.getMiniJobCardId(), e.getMessage(), e);
-                // Continue with log creation even if OT calculation fails
-            }
-
-            // Safe date and time setting
-            try {
-                logEntry.setDate(LocalDate.now(SRI_LANKA_ZONE));
-                logEntry.setTime(getSafeCurrentTime());
-            } catch (DateTimeException e) {
-                logEntry.setDate(LocalDate.now());
-                logEntry.setTime(LocalTime.now().withNano(0));
-            }
-
-            logEntry.setGeneratorName(fullResponse.getGeneratorName());
-            logEntry.setStatus(oldStatus.name() + " to " + miniJobCard.getStatus().name());
-            logEntry.setLocation(miniJobCard.getLocation());
-
-            // Save the log entry
-            logRepository.save(logEntry);
-            log.info("Successfully created log entry for mini job card: {}", miniJobCard.getMiniJobCardId());
-
-        } catch (Exception e) {
-            log.error("Failed to create log entry for mini job card update: {}. Error: {}",
-                    miniJobCard.getMiniJobCardId(), e.getMessage(), e);
-            // Don't propagate this error as it's not critical for the main operation
-        }
+    // Lists read the flat view rows, which already carry the job card, generator and employee fields
+    private MiniJobCardResponse convertToResponse(MiniJobCardView view) {
+        return new MiniJobCardResponse(view.getMiniJobCardId(), view.getJobCardId(), view.getEmployeeEmail(),
+                view.getEmployeeName(), view.getStatus(), view.getDate(), view.getLocation(), view.getTime(),
+                view.getCreatedAt(), view.getUpdatedAt(), view.getUpdatedTime(), view.getVersion(),
+                view.getJobType(), view.getEstimatedTime(), view.getGeneratorId(), view.getGeneratorName(),
+                view.getGeneratorCapacity(), view.getGeneratorContactNumber(), view.getGeneratorEmail(),
+                view.getGeneratorDescription());
     }
 
     private MiniJobCardResponse convertToResponse(MiniJobCard miniJobCard) {
@@ -575,6 +624,7 @@ public class MiniJobCardService {
             response.setLocation(miniJobCard.getLocation());
             response.setTime(miniJobCard.getTime());
             response.setUpdatedTime(miniJobCard.getUpdatedtime());
+            response.setVersion(miniJobCard.getVersion());
 
             // Safe timestamp handling
             try {
@@ -673,17 +723,7 @@ public class MiniJobCardService {
         try {
             LocalDate today = LocalDate.now(ZoneId.of("Asia/Colombo"));
 
-            List<Log> todaysLogs = logRepository.findByEmployeeEmailAndDate(employeeEmail, today);
-
-            if (todaysLogs.isEmpty()) {
-                log.info("Employee {} has no logs for today - CAN edit (hasn't started day yet)", employeeEmail);
-                return true;
-            }
-
-            boolean hasEndedDay = todaysLogs.stream()
-                    .anyMatch(log -> "END_DATE".equals(log.getStatus()));
-
-            if (hasEndedDay) {
+            if (dayStateCache.hasEndedDay(employeeEmail, today)) {
                 log.info("Employee {} has already ended their day (status: END_DATE) - cannot edit", employeeEmail);
                 return false;
             }
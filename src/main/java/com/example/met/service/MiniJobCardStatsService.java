@@ -0,0 +1,234 @@
+package com.example.met.service;
+
+import com.example.met.dto.response.MiniJobCardStatsResponse;
+import com.example.met.enums.JobCardType;
+import com.example.met.enums.JobStatus;
+import com.example.met.event.MiniJobCardCountChange;
+import com.example.met.repository.ArchivedMiniJobCardRepository;
+import com.example.met.repository.MiniJobCardRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Live mini job card counts per status, per job type and status, and per day and status, covering
+ * live and archived cards. Counters are striped ({@link LongAdder}) and move after commit on every
+ * create, delete, status or date change; they are seeded from the database at startup and
+ * reconciled against it on a schedule, which corrects any drift from missed or raced updates.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MiniJobCardStatsService {
+
+    private final MiniJobCardRepository miniJobCardRepository;
+    private final ArchivedMiniJobCardRepository archivedMiniJobCardRepository;
+
+    private static final ZoneId SRI_LANKA_ZONE = ZoneId.of("Asia/Colombo");
+    private static final int STATUS_COUNT = JobStatus.values().length;
+    private static final int MAX_DAY_RANGE = 366;
+    private static final int RECONCILE_ATTEMPTS = 3;
+
+    private final LongAdder[] byStatus = newCounters(STATUS_COUNT);
+    private final LongAdder[][] byJobTypeAndStatus = newCounters(JobCardType.values().length, STATUS_COUNT);
+    private final Map<LocalDate, LongAdder[]> byDayAndStatus = new ConcurrentHashMap<>();
+
+    // Bumped on every applied change so a reconcile can tell whether its snapshot raced with one
+    private final AtomicLong appliedChanges = new AtomicLong();
+    private volatile LocalDateTime lastReconciledAt;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        reconcile(true);
+    }
+
+    @Scheduled(cron = "${app.stats.reconcile-cron:0 */15 * * * *}", zone = "Asia/Colombo")
+    public void scheduledReconcile() {
+        reconcile(false);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCountChange(MiniJobCardCountChange change) {
+        if (change.getBeforeStatus() != null) {
+            add(change.getJobType(), change.getBeforeDate(), change.getBeforeStatus(), -change.getCount());
+        }
+        if (change.getAfterStatus() != null) {
+            add(change.getJobType(), change.getAfterDate(), change.getAfterStatus(), change.getCount());
+        }
+        appliedChanges.incrementAndGet();
+    }
+
+    public MiniJobCardStatsResponse getStats(LocalDate from, LocalDate to) {
+        LocalDate today = LocalDate.now(SRI_LANKA_ZONE);
+        LocalDate end = to != null ? to : today;
+        LocalDate start = from != null ? from : end.minusDays(6);
+        if (start.isAfter(end)) {
+            throw new IllegalArgumentException("Start date cannot be after end date");
+        }
+        if (ChronoUnit.DAYS.between(start, end) >= MAX_DAY_RANGE) {
+            throw new IllegalArgumentException("Date range cannot exceed " + MAX_DAY_RANGE + " days");
+        }
+
+        Map<JobStatus, Long> statusCounts = toStatusMap(byStatus);
+        long total = statusCounts.values().stream().mapToLong(Long::longValue).sum();
+
+        Map<JobCardType, Map<JobStatus, Long>> jobTypeCounts = new EnumMap<>(JobCardType.class);
+        for (JobCardType jobType : JobCardType.values()) {
+            jobTypeCounts.put(jobType, toStatusMap(byJobTypeAndStatus[jobType.ordinal()]));
+        }
+
+        Map<LocalDate, Map<JobStatus, Long>> dayCounts = new TreeMap<>();
+        for (LocalDate day = start; !day.isAfter(end); day = day.plusDays(1)) {
+            LongAdder[] counters = byDayAndStatus.get(day);
+            dayCounts.put(day, counters != null ? toStatusMap(counters) : toStatusMap(newCounters(STATUS_COUNT)));
+        }
+
+        return new MiniJobCardStatsResponse(total, statusCounts, jobTypeCounts, dayCounts, lastReconciledAt);
+    }
+
+    /**
+     * Moves every counter to the database's value. A snapshot that raced with an applied change is
+     * retried; after the last attempt it is applied anyway when seeding, otherwise left for the next run.
+     */
+    void reconcile(boolean seeding) {
+        long start = System.nanoTime();
+        try {
+            for (int attempt = 1; attempt <= RECONCILE_ATTEMPTS; attempt++) {
+                long changesBefore = appliedChanges.get();
+                Snapshot snapshot = loadSnapshot();
+                boolean raced = appliedChanges.get() != changesBefore;
+                if (raced && (attempt < RECONCILE_ATTEMPTS || !seeding)) {
+                    log.debug("Status counters changed while reconciling (attempt {}), retrying", attempt);
+                    continue;
+                }
+                long drift = apply(snapshot);
+                lastReconciledAt = LocalDateTime.now(SRI_LANKA_ZONE);
+                if (seeding) {
+                    log.info("Seeded mini job card status counters ({} days) in {} ms",
+                            snapshot.byDay.size(), (System.nanoTime() - start) / 1_000_000);
+                } else if (drift != 0) {
+                    log.warn("Corrected mini job card status counters by {} in total", drift);
+                }
+                return;
+            }
+            log.info("Skipped status counter reconciliation, counters kept changing; will retry on next run");
+        } catch (DataAccessException e) {
+            log.error("Database error while reconciling mini job card status counters", e);
+        }
+    }
+
+    private record Snapshot(long[] byStatus, long[][] byJobTypeAndStatus, Map<LocalDate, long[]> byDay) {
+    }
+
+    private Snapshot loadSnapshot() {
+        Snapshot snapshot = new Snapshot(new long[STATUS_COUNT], new long[JobCardType.values().length][STATUS_COUNT],
+                new HashMap<>());
+        accumulate(snapshot, miniJobCardRepository.countByStatusJobTypeAndDate());
+        accumulate(snapshot, archivedMiniJobCardRepository.countByStatusJobTypeAndDate());
+        return snapshot;
+    }
+
+    private static void accumulate(Snapshot snapshot, List<Object[]> rows) {
+        for (Object[] row : rows) {
+            JobStatus status = (JobStatus) row[0];
+            JobCardType jobType = (JobCardType) row[1];
+            LocalDate date = (LocalDate) row[2];
+            long count = ((Number) row[3]).longValue();
+            if (status == null) {
+                continue;
+            }
+            snapshot.byStatus[status.ordinal()] += count;
+            if (jobType != null) {
+                snapshot.byJobTypeAndStatus[jobType.ordinal()][status.ordinal()] += count;
+            }
+            if (date != null) {
+                snapshot.byDay.computeIfAbsent(date, key -> new long[STATUS_COUNT])[status.ordinal()] += count;
+            }
+        }
+    }
+
+    // Returns the total absolute correction
+    private long apply(Snapshot snapshot) {
+        long drift = correct(byStatus, snapshot.byStatus);
+        for (int type = 0; type < byJobTypeAndStatus.length; type++) {
+            drift += correct(byJobTypeAndStatus[type], snapshot.byJobTypeAndStatus[type]);
+        }
+        for (Map.Entry<LocalDate, LongAdder[]> entry : byDayAndStatus.entrySet()) {
+            drift += correct(entry.getValue(), snapshot.byDay.getOrDefault(entry.getKey(), new long[STATUS_COUNT]));
+        }
+        for (Map.Entry<LocalDate, long[]> entry : snapshot.byDay.entrySet()) {
+            if (!byDayAndStatus.containsKey(entry.getKey())) {
+                drift += correct(dayCounters(entry.getKey()), entry.getValue());
+            }
+        }
+        return drift;
+    }
+
+    private static long correct(LongAdder[] counters, long[] expected) {
+        long drift = 0;
+        for (int i = 0; i < counters.length; i++) {
+            long diff = expected[i] - counters[i].sum();
+            if (diff != 0) {
+                counters[i].add(diff);
+                drift += Math.abs(diff);
+            }
+        }
+        return drift;
+    }
+
+    private void add(JobCardType jobType, LocalDate date, JobStatus status, long delta) {
+        byStatus[status.ordinal()].add(delta);
+        if (jobType != null) {
+            byJobTypeAndStatus[jobType.ordinal()][status.ordinal()].add(delta);
+        }
+        if (date != null) {
+            dayCounters(date)[status.ordinal()].add(delta);
+        }
+    }
+
+    private LongAdder[] dayCounters(LocalDate date) {
+        return byDayAndStatus.computeIfAbsent(date, key -> newCounters(STATUS_COUNT));
+    }
+
+    private static Map<JobStatus, Long> toStatusMap(LongAdder[] counters) {
+        Map<JobStatus, Long> counts = new EnumMap<>(JobStatus.class);
+        for (JobStatus status : JobStatus.values()) {
+            counts.put(status, counters[status.ordinal()].sum());
+        }
+        return counts;
+    }
+
+    private static LongAdder[] newCounters(int size) {
+        LongAdder[] counters = new LongAdder[size];
+        for (int i = 0; i < size; i++) {
+            counters[i] = new LongAdder();
+        }
+        return counters;
+    }
+
+    private static LongAdder[][] newCounters(int rows, int size) {
+        LongAdder[][] counters = new LongAdder[rows][];
+        for (int i = 0; i < rows; i++) {
+            counters[i] = newCounters(size);
+        }
+        return counters;
+    }
+}
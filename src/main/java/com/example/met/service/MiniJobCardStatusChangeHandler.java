@@ -0,0 +1,51 @@
+package com.example.met.service;
+
+import com.example.met.entity.Employee;
+import com.example.met.entity.Log;
+import com.example.met.event.MiniJobCardStatusChange;
+import com.example.met.repository.EmployeeRepository;
+import com.example.met.repository.LogRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Deferred side effects of a mini job card status change, run by the outbox dispatcher: the
+ * transition log row, the employee's OT row for the day and the audit log entry. Failures
+ * propagate so the dispatcher can retry the whole event.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MiniJobCardStatusChangeHandler {
+
+    private final MiniJobCardTransitionService transitionService;
+    private final OTTimeCalculatorService otTimeCalculatorService;
+    private final EmployeeRepository employeeRepository;
+    private final LogRepository logRepository;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void handle(MiniJobCardStatusChange change) {
+        Employee employee = employeeRepository.getReferenceById(change.getEmployeeEmail());
+
+        transitionService.append(change);
+        otTimeCalculatorService.recordTransition(employee, change.getToStatus(), change.getLocation(),
+                change.getOccurredAt());
+
+        Log logEntry = new Log();
+        logEntry.setEmployee(employee);
+        logEntry.setAction("UPDATE_JOB_CARD");
+        logEntry.setDate(change.getOccurredAt().toLocalDate());
+        logEntry.setTime(change.getOccurredAt().toLocalTime());
+        logEntry.setGeneratorName(change.getGeneratorName());
+        logEntry.setStatus(change.getFromStatus().name() + " to " + change.getToStatus().name());
+        logEntry.setLocation(change.getLocation());
+        logEntry.setMiniJobCardId(change.getMiniJobCardId());
+        logRepository.save(logEntry);
+
+        log.debug("Applied status change {} -> {} for mini job card {}",
+                change.getFromStatus(), change.getToStatus(), change.getMiniJobCardId());
+    }
+}
@@ -0,0 +1,228 @@
+package com.example.met.service;
+
+import com.example.met.dto.request.MiniJobCardSyncItem;
+import com.example.met.dto.request.MiniJobCardSyncRequest;
+import com.example.met.dto.response.MiniJobCardSyncResponse;
+import com.example.met.dto.response.MiniJobCardSyncResult;
+import com.example.met.entity.MiniJobCard;
+import com.example.met.enums.JobStatus;
+import com.example.met.enums.OutboxEventType;
+import com.example.met.enums.SyncOutcome;
+import com.example.met.event.JobCardChangedEvent;
+import com.example.met.event.MiniJobCardChangedEvent;
+import com.example.met.event.MiniJobCardCountChange;
+import com.example.met.event.MiniJobCardStatusChange;
+import com.example.met.repository.MiniJobCardRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Applies status changes a technician made while offline. Items keep their device timestamps, so
+ * time accumulators and OT are credited from when the work happened rather than when the phone
+ * reconnected. Each employee's items are applied in request order in one transaction holding row
+ * locks on their cards; an item that does not fit the card's current state is reported and skipped
+ * without affecting the rest.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MiniJobCardSyncService {
+
+    private final MiniJobCardRepository miniJobCardRepository;
+    private final MiniJobCardTransitionService transitionService;
+    private final OutboxService outboxService;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private static final ZoneId SRI_LANKA_ZONE = ZoneId.of("Asia/Colombo");
+
+    @Value("${app.sync.max-batch-size:500}")
+    private int maxBatchSize;
+
+    @Value("${app.sync.max-clock-skew-seconds:300}")
+    private long maxClockSkewSeconds;
+
+    @Value("${app.sync.max-age-days:7}")
+    private long maxAgeDays;
+
+    /**
+     * @param callerEmail the authenticated user; only admins may sync other employees' cards
+     */
+    public MiniJobCardSyncResponse sync(MiniJobCardSyncRequest request, String callerEmail, boolean admin) {
+        if (request == null || request.getItems() == null || request.getItems().isEmpty()) {
+            throw new IllegalArgumentException("At least one change is required");
+        }
+        List<MiniJobCardSyncItem> items = request.getItems();
+        if (items.size() > maxBatchSize) {
+            throw new IllegalArgumentException("A sync batch cannot contain more than " + maxBatchSize + " changes");
+        }
+        log.info("Syncing {} offline changes for {}", items.size(), callerEmail);
+
+        MiniJobCardSyncResult[] results = new MiniJobCardSyncResult[items.size()];
+        Map<UUID, String> owners = findOwners(items);
+
+        // Group by owner keeping request order within each group
+        Map<String, List<Integer>> byEmployee = new LinkedHashMap<>();
+        for (int i = 0; i < items.size(); i++) {
+            MiniJobCardSyncItem item = items.get(i);
+            String owner = owners.get(item.getMiniJobCardId());
+            if (owner == null) {
+                results[i] = rejected(i, item, SyncOutcome.NOT_FOUND, "Mini job card not found");
+            } else if (!admin && !owner.equalsIgnoreCase(callerEmail)) {
+                results[i] = rejected(i, item, SyncOutcome.FORBIDDEN, "Mini job card is assigned to another employee");
+            } else {
+                byEmployee.computeIfAbsent(owner, key -> new ArrayList<>()).add(i);
+            }
+        }
+
+        byEmployee.forEach((employeeEmail, indexes) -> {
+            try {
+                Map<Integer, MiniJobCardSyncResult> applied = transactionTemplate.execute(
+                        status -> applyForEmployee(items, indexes));
+                applied.forEach((index, result) -> results[index] = result);
+            } catch (DataAccessException e) {
+                log.error("Database error while syncing {} changes for employee {}", indexes.size(), employeeEmail, e);
+                indexes.forEach(i -> results[i] = rejected(i, items.get(i), SyncOutcome.FAILED,
+                        "Database error occurred while syncing, please retry"));
+            }
+        });
+
+        List<MiniJobCardSyncResult> resultList = Arrays.asList(results);
+        int appliedCount = count(resultList, SyncOutcome.APPLIED);
+        int skippedCount = count(resultList, SyncOutcome.DUPLICATE);
+        log.info("Sync for {} finished: {} applied, {} duplicates, {} rejected",
+                callerEmail, appliedCount, skippedCount, items.size() - appliedCount - skippedCount);
+        return new MiniJobCardSyncResponse(resultList, appliedCount, skippedCount,
+                items.size() - appliedCount - skippedCount);
+    }
+
+    private Map<UUID, String> findOwners(List<MiniJobCardSyncItem> items) {
+        List<UUID> ids = items.stream().map(MiniJobCardSyncItem::getMiniJobCardId).distinct().toList();
+        Map<UUID, String> owners = new HashMap<>();
+        for (Object[] row : miniJobCardRepository.findEmployeeEmailsByMiniJobCardIdIn(ids)) {
+            owners.put((UUID) row[0], (String) row[1]);
+        }
+        return owners;
+    }
+
+    private Map<Integer, MiniJobCardSyncResult> applyForEmployee(List<MiniJobCardSyncItem> items, List<Integer> indexes) {
+        List<UUID> ids = indexes.stream().map(i -> items.get(i).getMiniJobCardId()).distinct().toList();
+        Map<UUID, MiniJobCard> cards = miniJobCardRepository.findForUpdateByMiniJobCardIdIn(ids).stream()
+                .collect(Collectors.toMap(MiniJobCard::getMiniJobCardId, Function.identity()));
+
+        LocalDateTime now = LocalDateTime.now(SRI_LANKA_ZONE);
+        LocalDateTime previous = null;
+        Map<Integer, MiniJobCardSyncResult> results = new LinkedHashMap<>();
+        List<Integer> appliedIndexes = new ArrayList<>();
+
+        for (int i : indexes) {
+            MiniJobCardSyncItem item = items.get(i);
+            MiniJobCard card = cards.get(item.getMiniJobCardId());
+            LocalDateTime occurredAt = item.getOccurredAt().withNano(0);
+
+            if (card == null) {
+                // Archived between the owner lookup and the lock
+                results.put(i, rejected(i, item, SyncOutcome.NOT_FOUND, "Mini job card not found"));
+                continue;
+            }
+            if (occurredAt.isAfter(now.plusSeconds(maxClockSkewSeconds))) {
+                results.put(i, rejected(i, item, SyncOutcome.INVALID, "Change is timestamped in the future"));
+                continue;
+            }
+            if (occurredAt.isBefore(now.minusDays(maxAgeDays))) {
+                results.put(i, rejected(i, item, SyncOutcome.INVALID,
+                        "Change is older than " + maxAgeDays + " days and must be entered manually"));
+                continue;
+            }
+            if (previous != null && occurredAt.isBefore(previous)) {
+                results.put(i, rejected(i, item, SyncOutcome.INVALID, "Change is out of order with the previous change"));
+                continue;
+            }
+
+            LocalDateTime lastChange = card.getLastTimeUpdateThisTicket();
+            if (card.getStatus() == item.getStatus()) {
+                // Typically a retried batch whose first attempt committed
+                results.put(i, result(i, card, SyncOutcome.DUPLICATE, "Card is already " + item.getStatus()));
+                continue;
+            }
+            if (!StatusTransitionEngine.isAllowed(card.getStatus(), item.getStatus())) {
+                results.put(i, result(i, card, SyncOutcome.INVALID,
+                        "Cannot move from " + card.getStatus() + " to " + item.getStatus()));
+                continue;
+            }
+            if (lastChange != null && occurredAt.isBefore(lastChange)) {
+                results.put(i, result(i, card, SyncOutcome.CONFLICT,
+                        "Card was changed to " + card.getStatus() + " at " + lastChange + ", after this change"));
+                continue;
+            }
+
+            apply(card, item, occurredAt);
+            previous = occurredAt;
+            appliedIndexes.add(i);
+            results.put(i, null);
+        }
+
+        // Versions in the results are those after this transaction's update
+        miniJobCardRepository.flush();
+        eventPublisher.publishEvent(new MiniJobCardChangedEvent(appliedIndexes.stream()
+                .map(i -> items.get(i).getMiniJobCardId())
+                .distinct()
+                .toList()));
+        for (int i : appliedIndexes) {
+            results.put(i, result(i, cards.get(items.get(i).getMiniJobCardId()), SyncOutcome.APPLIED, null));
+        }
+        return results;
+    }
+
+    private void apply(MiniJobCard card, MiniJobCardSyncItem item, LocalDateTime occurredAt) {
+        UUID id = card.getMiniJobCardId();
+        if (item.getLocation() != null && !item.getLocation().equals(card.getLocation())) {
+            eventPublisher.publishEvent(new JobCardChangedEvent(card.getJobCard().getJobCardId()));
+            card.setLocation(item.getLocation());
+        }
+
+        JobStatus fromStatus = card.getStatus();
+        transitionService.advance(card, item.getStatus(), occurredAt);
+        eventPublisher.publishEvent(MiniJobCardCountChange.changed(card.getJobCard().getJobType(),
+                card.getDate(), fromStatus, card.getDate(), item.getStatus()));
+        card.setUpdatedtime(LocalTime.now(SRI_LANKA_ZONE).withNano(0));
+        card.setUpdatedAt(LocalDateTime.now(SRI_LANKA_ZONE));
+
+        // The outbox credits OT and writes the logs at the device time
+        String employeeEmail = card.getEmployee().getEmail();
+        outboxService.enqueue(OutboxEventType.MINI_JOB_CARD_STATUS_CHANGED, id, employeeEmail,
+                new MiniJobCardStatusChange(id, card.getJobCard().getJobCardId(), employeeEmail, fromStatus,
+                        item.getStatus(), occurredAt, card.getLocation(), card.getJobCard().getGenerator().getName()));
+    }
+
+    private static MiniJobCardSyncResult result(int index, MiniJobCard card, SyncOutcome outcome, String message) {
+        return new MiniJobCardSyncResult(index, card.getMiniJobCardId(), outcome, message,
+                card.getStatus(), card.getVersion());
+    }
+
+    private static MiniJobCardSyncResult rejected(int index, MiniJobCardSyncItem item, SyncOutcome outcome, String message) {
+        return new MiniJobCardSyncResult(index, item.getMiniJobCardId(), outcome, message, null, null);
+    }
+
+    private static int count(List<MiniJobCardSyncResult> results, SyncOutcome outcome) {
+        return (int) results.stream().filter(result -> result.getOutcome() == outcome).count();
+    }
+}
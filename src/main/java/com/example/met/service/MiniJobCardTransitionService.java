@@ -0,0 +1,355 @@
+package com.example.met.service;
+
+import com.example.met.dto.response.MiniJobCardTimelineResponse;
+import com.example.met.dto.response.MiniJobCardTransitionResponse;
+import com.example.met.dto.response.TransitionRebuildResponse;
+import com.example.met.entity.ArchivedMiniJobCard;
+import com.example.met.entity.MiniJobCard;
+import com.example.met.entity.MiniJobCardTransition;
+import com.example.met.entity.StatusTimeAccumulator;
+import com.example.met.enums.JobStatus;
+import com.example.met.event.MiniJobCardStatusChange;
+import com.example.met.exception.ConcurrentUpdateException;
+import com.example.met.exception.ResourceNotFoundException;
+import com.example.met.repository.ArchivedMiniJobCardRepository;
+import com.example.met.repository.MiniJobCardRepository;
+import com.example.met.repository.MiniJobCardTransitionRepository;
+import com.example.met.repository.OutboxEventRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * Owns the mini job card transition log and the per-status second counters derived from it.
+ * A status change advances the counters on the card by the same rule {@link #fold} applies to a
+ * whole history, and its log row is appended from the outbox, so the counters can always be
+ * rebuilt from the log once the outbox has drained.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MiniJobCardTransitionService {
+
+    private final MiniJobCardTransitionRepository transitionRepository;
+    private final MiniJobCardRepository miniJobCardRepository;
+    private final ArchivedMiniJobCardRepository archivedMiniJobCardRepository;
+    private final OutboxEventRepository outboxEventRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private static final ZoneId SRI_LANKA_ZONE = ZoneId.of("Asia/Colombo");
+    // Lower bound for keyset paging over UUIDs
+    private static final UUID FIRST_ID = new UUID(0L, 0L);
+    private static final Set<JobStatus> FINAL_STATUSES = Set.of(JobStatus.COMPLETED, JobStatus.CANCELLED);
+
+    private final AtomicBoolean rebuildRunning = new AtomicBoolean();
+
+    @Value("${app.transitions.rebuild-chunk-size:200}")
+    private int rebuildChunkSize;
+
+    @Value("${app.transitions.rebuild-threads:4}")
+    private int rebuildThreads;
+
+    /**
+     * Logs the creation entry of a freshly saved card and starts its clock.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordCreated(MiniJobCard miniJobCard, LocalDateTime at) {
+        if (miniJobCard.getLastTimeUpdateThisTicket() == null) {
+            miniJobCard.setLastTimeUpdateThisTicket(at);
+        }
+        transitionRepository.save(newTransition(miniJobCard, null, miniJobCard.getStatus(),
+                miniJobCard.getLastTimeUpdateThisTicket()));
+    }
+
+    /**
+     * Moves the card to {@code toStatus} at {@code at}, crediting the time since the previous
+     * transition to the status being left. The matching log row is written by {@link #append}.
+     *
+     * @throws IllegalArgumentException if the move is not allowed
+     */
+    public void advance(MiniJobCard miniJobCard, JobStatus toStatus, LocalDateTime at) {
+        JobStatus fromStatus = miniJobCard.getStatus();
+        StatusTransitionEngine.requireAllowed(fromStatus, toStatus);
+        LocalDateTime since = miniJobCard.getLastTimeUpdateThisTicket();
+        if (since != null) {
+            StatusTransitionEngine.credit(miniJobCard, fromStatus, StatusTransitionEngine.secondsBetween(since, at));
+        }
+        miniJobCard.setStatus(toStatus);
+        miniJobCard.setLastTimeUpdateThisTicket(at);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(MiniJobCardStatusChange change) {
+        MiniJobCardTransition transition = new MiniJobCardTransition();
+        transition.setMiniJobCardId(change.getMiniJobCardId());
+        transition.setEmployeeEmail(change.getEmployeeEmail());
+        transition.setFromStatus(change.getFromStatus());
+        transition.setToStatus(change.getToStatus());
+        transition.setOccurredAt(change.getOccurredAt());
+        transition.setLocation(change.getLocation());
+        transition.setRecordedAt(LocalDateTime.now(SRI_LANKA_ZONE));
+        transitionRepository.save(transition);
+    }
+
+    @Transactional(readOnly = true)
+    public List<MiniJobCardTransitionResponse> getTransitions(UUID miniJobCardId) {
+        if (miniJobCardId == null) {
+            throw new IllegalArgumentException("Mini job card ID cannot be null");
+        }
+        try {
+            return transitionRepository.findByMiniJobCardId(miniJobCardId).stream()
+                    .map(t -> new MiniJobCardTransitionResponse(t.getFromStatus(), t.getToStatus(), t.getOccurredAt(),
+                            t.getLocation(), t.getEmployeeEmail()))
+                    .collect(Collectors.toList());
+        } catch (DataAccessException e) {
+            log.error("Database error while fetching transitions for mini job card: {}", miniJobCardId, e);
+            throw new RuntimeException("Database error occurred while retrieving transitions", e);
+        }
+    }
+
+    /**
+     * The card's history as consecutive stretches per status, from the transition log alone (one
+     * query on its card and time index) plus the card's current state. Stretches the log cannot
+     * account for are reported as gaps: history from before the log existed, a break in the chain of
+     * statuses, or a change still waiting in the outbox.
+     */
+    @Transactional(readOnly = true)
+    public MiniJobCardTimelineResponse getTimeline(UUID miniJobCardId) {
+        if (miniJobCardId == null) {
+            throw new IllegalArgumentException("Mini job card ID cannot be null");
+        }
+        try {
+            boolean archived = false;
+            List<Object[]> state = miniJobCardRepository.findTimelineStateById(miniJobCardId);
+            if (state.isEmpty()) {
+                state = archivedMiniJobCardRepository.findTimelineStateById(miniJobCardId);
+                archived = true;
+            }
+            if (state.isEmpty()) {
+                throw new ResourceNotFoundException("Mini Job Card not found with id: " + miniJobCardId);
+            }
+            JobStatus currentStatus = (JobStatus) state.get(0)[0];
+            LocalDateTime createdAt = (LocalDateTime) state.get(0)[1];
+            LocalDateTime lastChange = (LocalDateTime) state.get(0)[2];
+
+            return buildTimeline(miniJobCardId, currentStatus, createdAt, lastChange, archived,
+                    transitionRepository.findByMiniJobCardId(miniJobCardId), LocalDateTime.now(SRI_LANKA_ZONE));
+        } catch (DataAccessException e) {
+            log.error("Database error while building timeline for mini job card: {}", miniJobCardId, e);
+            throw new RuntimeException("Database error occurred while retrieving the timeline", e);
+        }
+    }
+
+    static MiniJobCardTimelineResponse buildTimeline(UUID miniJobCardId, JobStatus currentStatus,
+                                                     LocalDateTime createdAt, LocalDateTime lastChange,
+                                                     boolean archived, List<MiniJobCardTransition> transitions,
+                                                     LocalDateTime now) {
+        List<MiniJobCardTimelineResponse.Entry> entries = new ArrayList<>(transitions.size());
+        List<MiniJobCardTimelineResponse.Gap> gaps = new ArrayList<>();
+        Map<JobStatus, Long> secondsByStatus = new EnumMap<>(JobStatus.class);
+
+        if (transitions.isEmpty()) {
+            gaps.add(new MiniJobCardTimelineResponse.Gap(createdAt, now, "No transitions recorded for this card"));
+            return new MiniJobCardTimelineResponse(miniJobCardId, currentStatus, archived, entries, gaps, secondsByStatus);
+        }
+
+        MiniJobCardTransition first = transitions.get(0);
+        if (first.getFromStatus() != null && createdAt != null && createdAt.isBefore(first.getOccurredAt())) {
+            gaps.add(new MiniJobCardTimelineResponse.Gap(createdAt, first.getOccurredAt(),
+                    "History from before the transition log"));
+        }
+
+        for (int i = 0; i < transitions.size(); i++) {
+            MiniJobCardTransition transition = transitions.get(i);
+            MiniJobCardTransition next = i + 1 < transitions.size() ? transitions.get(i + 1) : null;
+            JobStatus status = transition.getToStatus();
+            LocalDateTime startedAt = transition.getOccurredAt();
+            LocalDateTime endedAt = next != null ? next.getOccurredAt() : null;
+
+            Long durationSeconds;
+            if (endedAt != null) {
+                durationSeconds = Math.max(0, StatusTransitionEngine.secondsBetween(startedAt, endedAt));
+            } else if (!FINAL_STATUSES.contains(status) && !archived) {
+                durationSeconds = Math.max(0, StatusTransitionEngine.secondsBetween(startedAt, now));
+            } else {
+                durationSeconds = null;
+            }
+            if (durationSeconds != null) {
+                secondsByStatus.merge(status, durationSeconds, Long::sum);
+            }
+            entries.add(new MiniJobCardTimelineResponse.Entry(transition.getFromStatus(), status, startedAt, endedAt,
+                    durationSeconds, transition.getLocation(), transition.getEmployeeEmail()));
+
+            if (next != null && next.getFromStatus() != status) {
+                gaps.add(new MiniJobCardTimelineResponse.Gap(startedAt, next.getOccurredAt(),
+                        "Recorded move into " + status + " is followed by a move out of " + next.getFromStatus()));
+            }
+        }
+
+        MiniJobCardTransition last = transitions.get(transitions.size() - 1);
+        if (last.getToStatus() != currentStatus) {
+            gaps.add(new MiniJobCardTimelineResponse.Gap(last.getOccurredAt(),
+                    lastChange != null && lastChange.isAfter(last.getOccurredAt()) ? lastChange : now,
+                    "Change to " + currentStatus + " not yet in the transition log"));
+        }
+        return new MiniJobCardTimelineResponse(miniJobCardId, currentStatus, archived, entries, gaps, secondsByStatus);
+    }
+
+    /**
+     * Recomputes the counters of every card with a complete log. Chunks of ids are folded on a
+     * small worker pool, each chunk in its own transaction with the live rows locked, so a
+     * concurrent status change either lands before the rebuild reads the log or waits for it.
+     * Cards created before the log existed have no creation entry and keep their counters; cards
+     * with status changes still in the outbox are skipped until their log has caught up.
+     */
+    public TransitionRebuildResponse rebuildProjections() {
+        if (!rebuildRunning.compareAndSet(false, true)) {
+            throw new ConcurrentUpdateException("A transition rebuild is already running");
+        }
+        long start = System.nanoTime();
+        ExecutorService workers = Executors.newFixedThreadPool(Math.max(1, rebuildThreads));
+        try {
+            List<Future<int[]>> chunks = new ArrayList<>();
+            UUID afterId = FIRST_ID;
+            while (true) {
+                List<UUID> ids = transitionRepository.findLoggedMiniJobCardIds(afterId, PageRequest.of(0, rebuildChunkSize));
+                if (ids.isEmpty()) {
+                    break;
+                }
+                chunks.add(workers.submit(() -> transactionTemplate.execute(status -> rebuildChunk(ids))));
+                afterId = ids.get(ids.size() - 1);
+            }
+
+            int scanned = 0;
+            int corrected = 0;
+            for (Future<int[]> chunk : chunks) {
+                int[] counts = chunk.get();
+                scanned += counts[0];
+                corrected += counts[1];
+            }
+            long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+            log.info("Rebuilt transition projections: {} cards scanned, {} corrected in {} ms", scanned, corrected, elapsedMs);
+            return new TransitionRebuildResponse(scanned, corrected, elapsedMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Transition rebuild was interrupted", e);
+        } catch (ExecutionException e) {
+            log.error("Transition rebuild failed", e.getCause());
+            throw new RuntimeException("Failed to rebuild transition projections", e.getCause());
+        } catch (DataAccessException e) {
+            log.error("Database error while rebuilding transition projections", e);
+            throw new RuntimeException("Database error occurred while rebuilding transition projections", e);
+        } finally {
+            workers.shutdownNow();
+            rebuildRunning.set(false);
+        }
+    }
+
+    // Returns {cards scanned, cards whose counters changed}
+    private int[] rebuildChunk(List<UUID> ids) {
+        Map<UUID, MiniJobCard> live = miniJobCardRepository.findForUpdateByMiniJobCardIdIn(ids).stream()
+                .collect(Collectors.toMap(MiniJobCard::getMiniJobCardId, m -> m));
+        Set<UUID> pending = new HashSet<>(outboxEventRepository.findPendingAggregateIds(ids));
+        Map<UUID, List<MiniJobCardTransition>> logs = transitionRepository.findByMiniJobCardIdIn(ids).stream()
+                .collect(Collectors.groupingBy(MiniJobCardTransition::getMiniJobCardId));
+
+        List<UUID> archivedIds = ids.stream().filter(id -> !live.containsKey(id)).collect(Collectors.toList());
+        Map<UUID, ArchivedMiniJobCard> archived = archivedIds.isEmpty() ? Map.of()
+                : archivedMiniJobCardRepository.findAllById(archivedIds).stream()
+                .collect(Collectors.toMap(ArchivedMiniJobCard::getMiniJobCardId, a -> a));
+
+        int scanned = 0;
+        int corrected = 0;
+        for (UUID id : ids) {
+            if (pending.contains(id)) {
+                continue;
+            }
+            StatusDurations rebuilt = fold(logs.getOrDefault(id, List.of()));
+            MiniJobCard miniJobCard = live.get(id);
+            ArchivedMiniJobCard archivedCard = archived.get(id);
+            if (miniJobCard != null) {
+                scanned++;
+                if (!rebuilt.equals(StatusDurations.of(miniJobCard))) {
+                    rebuilt.applyTo(miniJobCard);
+                    corrected++;
+                }
+            } else if (archivedCard != null) {
+                scanned++;
+                if (!rebuilt.equals(StatusDurations.of(archivedCard))) {
+                    rebuilt.applyTo(archivedCard);
+                    corrected++;
+                }
+            }
+        }
+        return new int[]{scanned, corrected};
+    }
+
+    /**
+     * Per-status seconds for one card's transitions in log order: each gap between consecutive
+     * entries is credited to the status the earlier entry moved into.
+     */
+    static StatusDurations fold(List<MiniJobCardTransition> transitions) {
+        long[] seconds = StatusTransitionEngine.newAccumulator();
+        for (int i = 1; i < transitions.size(); i++) {
+            MiniJobCardTransition previous = transitions.get(i - 1);
+            StatusTransitionEngine.credit(seconds, previous.getToStatus(), StatusTransitionEngine.secondsBetween(
+                    previous.getOccurredAt(), transitions.get(i).getOccurredAt()));
+        }
+        return new StatusDurations(seconds[JobStatus.ON_HOLD.ordinal()], seconds[JobStatus.ASSIGNED.ordinal()],
+                seconds[JobStatus.IN_PROGRESS.ordinal()]);
+    }
+
+    private MiniJobCardTransition newTransition(MiniJobCard miniJobCard, JobStatus fromStatus, JobStatus toStatus,
+                                                LocalDateTime at) {
+        MiniJobCardTransition transition = new MiniJobCardTransition();
+        transition.setMiniJobCardId(miniJobCard.getMiniJobCardId());
+        transition.setEmployeeEmail(miniJobCard.getEmployee().getEmail());
+        transition.setFromStatus(fromStatus);
+        transition.setToStatus(toStatus);
+        transition.setOccurredAt(at);
+        transition.setLocation(miniJobCard.getLocation());
+        transition.setRecordedAt(LocalDateTime.now(SRI_LANKA_ZONE));
+        return transition;
+    }
+
+    /**
+     * A snapshot of the tracked counters, for comparing a rebuilt history with a card.
+     */
+    record StatusDurations(long onHoldSeconds, long assignedSeconds, long inProgressSeconds) {
+
+        static final StatusDurations ZERO = new StatusDurations(0, 0, 0);
+
+        static StatusDurations of(StatusTimeAccumulator counters) {
+            return new StatusDurations(counters.getOnHoldSeconds(), counters.getAssignedSeconds(),
+                    counters.getInProgressSeconds());
+        }
+
+        void applyTo(StatusTimeAccumulator counters) {
+            counters.setOnHoldSeconds(onHoldSeconds);
+            counters.setAssignedSeconds(assignedSeconds);
+            counters.setInProgressSeconds(inProgressSeconds);
+        }
+    }
+}
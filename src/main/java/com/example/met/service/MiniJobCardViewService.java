@@ -0,0 +1,98 @@
+package com.example.met.service;
+
+import com.example.met.event.EmployeeChangedEvent;
+import com.example.met.event.GeneratorChangedEvent;
+import com.example.met.event.JobCardChangedEvent;
+import com.example.met.event.JobCardDeletedEvent;
+import com.example.met.event.MiniJobCardChangedEvent;
+import com.example.met.repository.MiniJobCardViewRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Keeps {@code mini_job_card_views} in step with the live mini job cards. Rows are refreshed just
+ * before the writing transaction commits, from the events the write paths already publish, so a
+ * list read after a write sees it. Each refresh is one insert-select joined on primary keys; the
+ * table is rebuilt at startup and nightly, which also repairs any row a concurrent refresh of the
+ * same card left behind.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MiniJobCardViewService {
+
+    private final MiniJobCardViewRepository viewRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        rebuild();
+    }
+
+    @Scheduled(cron = "${app.mini-job-card-views.rebuild-cron:0 15 3 * * *}", zone = "Asia/Colombo")
+    public void scheduledRebuild() {
+        rebuild();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onMiniJobCardsChanged(MiniJobCardChangedEvent event) {
+        if (event.getMiniJobCardIds().isEmpty()) {
+            return;
+        }
+        refresh(() -> {
+            viewRepository.upsertByMiniJobCardIdIn(event.getMiniJobCardIds());
+            viewRepository.deleteMissingByMiniJobCardIdIn(event.getMiniJobCardIds());
+        });
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onJobCardChanged(JobCardChangedEvent event) {
+        refresh(() -> {
+            viewRepository.upsertByJobCardId(event.getJobCardId());
+            viewRepository.deleteMissingByJobCardId(event.getJobCardId());
+        });
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onJobCardDeleted(JobCardDeletedEvent event) {
+        refresh(() -> viewRepository.deleteMissingByJobCardId(event.getJobCardId()));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onGeneratorChanged(GeneratorChangedEvent event) {
+        refresh(() -> viewRepository.upsertByGeneratorId(event.getGeneratorId()));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onEmployeeChanged(EmployeeChangedEvent event) {
+        refresh(() -> viewRepository.upsertByEmployeeEmail(event.getEmail()));
+    }
+
+    void rebuild() {
+        long start = System.nanoTime();
+        try {
+            int[] counts = transactionTemplate.execute(status ->
+                    new int[]{viewRepository.upsertAll(), viewRepository.deleteAllMissing()});
+            log.info("Rebuilt mini job card views ({} rows written, {} removed) in {} ms",
+                    counts[0], counts[1], (System.nanoTime() - start) / 1_000_000);
+        } catch (DataAccessException e) {
+            log.error("Database error while rebuilding mini job card views", e);
+        }
+    }
+
+    // Joins the writer's transaction; pending entity changes are flushed first so the copy sees them
+    private void refresh(Runnable statements) {
+        transactionTemplate.executeWithoutResult(status -> {
+            viewRepository.flush();
+            statements.run();
+        });
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.met.service;
+
+import com.example.met.entity.OTtimeCalculator;
+import com.example.met.repository.OTTimeCalculatorRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Closes OT days that were never ended with {@code /ot-time/end-session}. Each night, entries
+ * before today that are still open are read in keyset-paged chunks and closed as the end-session
+ * would have, at the later of the configured end time and the last recorded activity, tagged with
+ * the configured reason code. Each chunk commits on its own. Rows are locked in the database rather
+ * than with {@link OTDayLocks}, since a chunk spans many employee days; a late offline sync for one
+ * of them waits for the chunk to commit.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OTDayFinalizer {
+
+    private final OTTimeCalculatorRepository otTimeCalculatorRepository;
+    private final OTTimeCalculatorService otTimeCalculatorService;
+    private final TransactionTemplate transactionTemplate;
+
+    private static final ZoneId SRI_LANKA_ZONE = ZoneId.of("Asia/Colombo");
+    private static final UUID FIRST_ID = new UUID(0L, 0L);
+
+    @Value("${app.ot.finalizer.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.ot.finalizer.default-end-time:17:00}")
+    private String defaultEndTimeValue;
+
+    @Value("${app.ot.finalizer.reason-code:AUTO_CLOSED}")
+    private String reasonCode;
+
+    @Value("${app.ot.finalizer.chunk-size:200}")
+    private int chunkSize;
+
+    @Value("${app.ot.finalizer.max-chunks-per-run:500}")
+    private int maxChunksPerRun;
+
+    private LocalTime defaultEndTime;
+
+    @PostConstruct
+    void init() {
+        defaultEndTime = LocalTime.parse(defaultEndTimeValue.trim());
+    }
+
+    @Scheduled(cron = "${app.ot.finalizer.cron:0 45 0 * * *}", zone = "Asia/Colombo")
+    public void finalizeOpenDays() {
+        if (!enabled) {
+            return;
+        }
+        finalizeBefore(LocalDate.now(SRI_LANKA_ZONE));
+    }
+
+    /**
+     * @return the number of days closed
+     */
+    int finalizeBefore(LocalDate today) {
+        long start = System.nanoTime();
+        UUID afterId = FIRST_ID;
+        int finalized = 0;
+        int failedChunks = 0;
+        for (int chunk = 0; chunk < maxChunksPerRun; chunk++) {
+            List<UUID> ids;
+            try {
+                ids = otTimeCalculatorRepository.findIncompleteEntryIds(today, afterId, PageRequest.of(0, chunkSize));
+            } catch (DataAccessException e) {
+                log.error("OT day finalizer stopped after {} days because of a database error", finalized, e);
+                break;
+            }
+            if (ids.isEmpty()) {
+                break;
+            }
+            try {
+                Integer closed = transactionTemplate.execute(status -> finalizeChunk(ids));
+                finalized += closed != null ? closed : 0;
+            } catch (DataAccessException e) {
+                // The keyset moves past the chunk, so one bad row cannot stall the run; it is retried tomorrow
+                failedChunks++;
+                log.error("Database error while finalizing a chunk of {} OT days", ids.size(), e);
+            }
+            afterId = ids.get(ids.size() - 1);
+            if (ids.size() < chunkSize) {
+                break;
+            }
+        }
+
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        log.info("Finalized {} open OT days before {} as {} in {} ms ({} days/s, {} failed chunks)",
+                finalized, today, reasonCode, elapsedMs,
+                elapsedMs > 0 ? finalized * 1000L / elapsedMs : finalized, failedChunks);
+        return finalized;
+    }
+
+    private int finalizeChunk(List<UUID> ids) {
+        List<OTtimeCalculator> entries = otTimeCalculatorRepository.findForFinalizeByOtTimeIdIn(ids);
+        int closed = 0;
+        for (OTtimeCalculator entry : entries) {
+            // Re-checked under the lock; the technician may have ended the day since the page was read
+            if ("END_JOB_CARD".equals(entry.getCurrentstatus())) {
+                continue;
+            }
+            otTimeCalculatorService.finalizeOpenDay(entry, defaultEndTime, reasonCode);
+            closed++;
+        }
+        otTimeCalculatorRepository.saveAll(entries);
+        return closed;
+    }
+}
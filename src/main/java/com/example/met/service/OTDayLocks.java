@@ -0,0 +1,77 @@
+package com.example.met.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Serializes read-modify-write updates of an employee's OT row for a day within this node. Keys
+ * are hashed onto a fixed set of locks, so memory does not grow with employees and different
+ * employees almost always proceed in parallel. A lock is taken inside the writer's transaction and
+ * released once it has committed or rolled back, so the next writer for the day reads the committed
+ * row. Across nodes the row lock taken by {@code upsertDay} still applies.
+ */
+@Service
+@Slf4j
+public class OTDayLocks {
+
+    @Value("${app.ot.lock-stripes:256}")
+    private int stripeCount;
+
+    @Value("${app.ot.lock-timeout-ms:10000}")
+    private long lockTimeoutMs;
+
+    private ReentrantLock[] stripes;
+
+    @PostConstruct
+    void init() {
+        stripes = new ReentrantLock[Math.max(1, stripeCount)];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Locks the employee's day until the current transaction completes. Calls for the same day in
+     * one transaction nest; a transaction should not lock more than one day, as two days may share
+     * a stripe.
+     *
+     * @throws IllegalStateException if no transaction is active, or the lock is not free within the timeout
+     */
+    public void lockUntilCompletion(String employeeEmail, LocalDate date) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("OT day lock for " + employeeEmail + " requires an active transaction");
+        }
+        ReentrantLock lock = stripes[stripeOf(employeeEmail, date)];
+        try {
+            if (!lock.tryLock(lockTimeoutMs, TimeUnit.MILLISECONDS)) {
+                log.warn("Timed out after {} ms waiting for OT day lock of employee: {} on date: {}",
+                        lockTimeoutMs, employeeEmail, date);
+                throw new IllegalStateException("OT entry for " + employeeEmail + " on " + date
+                        + " is busy, please retry");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting for OT day lock of " + employeeEmail, e);
+        }
+        // Completion callbacks run on the thread that owns the lock
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                lock.unlock();
+            }
+        });
+    }
+
+    int stripeOf(String employeeEmail, LocalDate date) {
+        int hash = 31 * employeeEmail.hashCode() + date.hashCode();
+        return Math.floorMod(hash ^ (hash >>> 16), stripes.length);
+    }
+}
@@ -2,22 +2,27 @@ package com.example.met.service;
 
 import com.example.met.dto.request.OTTimeReportRequest;
 import com.example.met.dto.response.OTTimeReportResponse;
+import com.example.met.dto.response.TeamOTReportResponse;
 import com.example.met.entity.Employee;
 import com.example.met.entity.Log;
-import com.example.met.entity.MiniJobCard;
 import com.example.met.entity.OTtimeCalculator;
 import com.example.met.enums.JobStatus;
+import com.example.met.event.EmployeeDayEndedEvent;
 import com.example.met.repository.EmployeeRepository;
 import com.example.met.repository.LogRepository;
 import com.example.met.repository.OTTimeCalculatorRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.*;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 
 @Service
 @RequiredArgsConstructor
@@ -27,108 +32,61 @@ public class OTTimeCalculatorService {
     private final OTTimeCalculatorRepository otTimeCalculatorRepository;
     private final EmployeeService employeeService;
     private static final ZoneId SRI_LANKA_ZONE = ZoneId.of("Asia/Colombo");
+    static final String END_SESSION_REASON = "END_SESSION";
     private final EmployeeRepository employeeRepository;
     private final LogRepository logRepository;
-
+    private final ApplicationEventPublisher eventPublisher;
+    private final OTDayLocks otDayLocks;
+    private final ShiftCalendarService shiftCalendarService;
+
+    /**
+     * Applies one mini job card transition to the employee's OT row for the day of {@code currentDateTime}.
+     * Writers for the same employee and day on this node queue on {@link OTDayLocks} until the
+     * previous one has committed. The row is created or locked by one atomic upsert, so concurrent
+     * first transitions of the day meet on the same row instead of each inserting one; status time,
+     * last time, location and OT are then updated together with a single save. Errors propagate so
+     * a retrying caller can try again.
+     */
     @Transactional
-    public void handleFirstLog(MiniJobCard miniJobCard) {
-        try {
-            Employee employee = miniJobCard.getEmployee();
-            LocalDate today = LocalDate.now(SRI_LANKA_ZONE);
-            LocalTime currentTime = LocalTime.now(SRI_LANKA_ZONE).withNano(0);
-            LocalDateTime currentDateTime = getSafeCurrentDateTime();
-
-            // Check if there's already an entry for this employee today
-            Optional<OTtimeCalculator> existingEntry = otTimeCalculatorRepository
-                    .findByEmployeeAndDate(employee, today);
-
-            if (existingEntry.isPresent()) {
-                // Update existing entry - this is a subsequent log
-                OTtimeCalculator entry = existingEntry.get();
-
-                log.info("Updating existing OT entry for employee: {} on date: {}",
-                        employee.getEmail(), today);
-
-                // Update status and calculate time spent in previous status
-                String newStatus = miniJobCard.getStatus() != null ? miniJobCard.getStatus().toString() : "ASSIGNED";
-                updateStatusAndCalculateTime(entry, newStatus, currentDateTime);
-
-                // Update lasttime and location
-                updateLastTime(entry, currentTime, currentDateTime);
-
-                // Add location to the list
-                addLocationToEntry(entry, miniJobCard.getLocation());
-
-                // Calculate and update OT times
-                calculateAndUpdateOT(entry);
-
-                otTimeCalculatorRepository.save(entry);
-                log.info("Updated OT entry for employee: {} - Last time: {}, Status: {}, Location: {}",
-                        employee.getEmail(), currentTime, newStatus, miniJobCard.getLocation());
-
-            } else {
-                // Create new entry - this is the first log of the day
-                log.info("Creating new OT entry for employee: {} on date: {}",
-                        employee.getEmail(), today);
-
-                OTtimeCalculator newEntry = new OTtimeCalculator();
-                newEntry.setEmployee(employee);
-                newEntry.setDate(today);
-
-                // Set both first and last time
-                setInitialTimes(newEntry, currentTime, currentDateTime);
-
-                // Set initial status
-                String initialStatus = miniJobCard.getStatus() != null ? miniJobCard.getStatus().toString() : "ASSIGNED";
-                newEntry.setCurrentstatus(initialStatus);
-                newEntry.setStatusChangeTime(currentDateTime);
-
-                // Add location to the list and set first/last locations
-                addLocationToEntry(newEntry, miniJobCard.getLocation());
-
-                // Initialize OT times and status times to zero
-                initializeOTTimes(newEntry);
-
-                otTimeCalculatorRepository.save(newEntry);
-                log.info("Created new OT entry for employee: {} - First time: {}, Status: {}, Location: {}",
-                        employee.getEmail(), currentTime, initialStatus, miniJobCard.getLocation());
-            }
-
-        } catch (Exception e) {
-            log.error("Error handling first log for OT calculation for employee: {}",
-                    miniJobCard.getEmployee().getEmail(), e);
-            // Don't propagate the error as OT calculation shouldn't break main workflow
+    public void recordTransition(Employee employee, JobStatus status, String location, LocalDateTime currentDateTime) {
+        LocalDate today = currentDateTime.toLocalDate();
+        LocalTime currentTime = currentDateTime.toLocalTime();
+        otDayLocks.lockUntilCompletion(employee.getEmail(), today);
+
+        // Inserts a blank row for the day, or holds the existing row's lock until this transaction ends
+        otTimeCalculatorRepository.upsertDay(UUID.randomUUID(), employee.getEmail(), today, currentTime,
+                currentDateTime);
+        OTtimeCalculator entry = otTimeCalculatorRepository.findByEmployeeAndDate(employee, today)
+                .orElseThrow(() -> new IllegalStateException("OT entry for " + employee.getEmail()
+                        + " on " + today + " missing after upsert"));
+        // A blank row has no status yet; this transition starts its day
+        boolean firstLog = entry.getCurrentstatus() == null;
+
+        // Update status and calculate time spent in previous status
+        String newStatus = status != null ? status.toString() : "ASSIGNED";
+        updateStatusAndCalculateTime(entry, newStatus, currentDateTime);
+
+        // Update lasttime and location; synced offline changes may predate the times already held
+        if (entry.getFirsttime() != null && currentTime.isBefore(entry.getFirsttime())) {
+            entry.setFirsttime(currentTime);
+        }
+        if (entry.getLasttime() == null || !currentTime.isBefore(entry.getLasttime())) {
+            updateLastTime(entry, currentTime, currentDateTime);
         }
-    }
-
-    @Transactional
-    public void handleStatusChange(String employeeEmail, LocalDate date, String newStatus, LocalTime changeTime) {
-        try {
-            log.info("Handling status change for employee: {} to status: {} at time: {}",
-                    employeeEmail, newStatus, changeTime);
-
-            LocalDateTime currentDateTime = getSafeCurrentDateTime();
-
-            Optional<OTtimeCalculator> entryOpt = otTimeCalculatorRepository
-                    .findByEmployeeEmailAndDate(employeeEmail, date);
-
-            if (entryOpt.isPresent()) {
-                OTtimeCalculator entry = entryOpt.get();
 
-                // Update status and calculate time spent in previous status
-                updateStatusAndCalculateTime(entry, newStatus, currentDateTime);
-                updateLastTime(entry, changeTime, currentDateTime);
+        // Add location to the list
+        addLocationToEntry(entry, location);
 
-                otTimeCalculatorRepository.save(entry);
-                log.info("Updated status for employee: {} to {} at {}", employeeEmail, newStatus, changeTime);
-            } else {
-                log.warn("No OT entry found for employee: {} on date: {} for status change",
-                        employeeEmail, date);
-            }
+        // Calculate and update OT times
+        calculateAndUpdateOT(entry);
 
-        } catch (Exception e) {
-            log.error("Error handling status change for employee: {} to status: {}",
-                    employeeEmail, newStatus, e);
+        otTimeCalculatorRepository.save(entry);
+        if (firstLog) {
+            log.info("Created new OT entry for employee: {} - First time: {}, Status: {}, Location: {}",
+                    employee.getEmail(), entry.getFirsttime(), newStatus, location);
+        } else {
+            log.debug("Updated OT entry for employee: {} - Last time: {}, Status: {}, Location: {}",
+                    employee.getEmail(), currentTime, newStatus, location);
         }
     }
 
@@ -141,18 +99,20 @@ public class OTTimeCalculatorService {
                 return;
             }
 
-            // Calculate morning OT (before 8:30 AM)
-            LocalTime morningStart = LocalTime.of(8, 30);
-            LocalTime morningOT = calculateMorningOT(entry.getFirsttime(), morningStart);
-            entry.setMorningOTtime(morningOT);
+            // OT is time worked outside the employee's shift for the day (all of it on days off)
+            ShiftCalendar.Rule shift = shiftCalendarService.ruleFor(entry.getEmployee().getEmail(),
+                    entry.getEmployee().getRole(), entry.getDate());
+            long morningOT = calculateMorningOT(shift, entry.getFirsttime(), entry.getLasttime());
+            entry.setMorningOtSeconds(morningOT);
 
-            // Calculate evening OT (after 5:00 PM)
-            LocalTime eveningEnd = LocalTime.of(17, 0);
-            LocalTime eveningOT = calculateEveningOT(entry.getLasttime(), eveningEnd);
-            entry.setEveningOTtime(eveningOT);
+            long eveningOT = calculateEveningOT(shift, entry.getFirsttime(), entry.getLasttime());
+            entry.setEveningOtSeconds(eveningOT);
 
-            log.info("Calculated OT for employee: {} on {}: Morning OT: {}, Evening OT: {}",
-                    entry.getEmployee().getEmail(), entry.getDate(), morningOT, eveningOT);
+            if (log.isDebugEnabled()) {
+                log.debug("Calculated OT for employee: {} on {}: Morning OT: {}, Evening OT: {}",
+                        entry.getEmployee().getEmail(), entry.getDate(),
+                        formatDuration(morningOT), formatDuration(eveningOT));
+            }
 
         } catch (Exception e) {
             log.error("Error calculating OT for employee: {} on date: {}",
@@ -160,32 +120,14 @@ public class OTTimeCalculatorService {
         }
     }
 
-    private LocalTime calculateMorningOT(LocalTime firstTime, LocalTime standardStart) {
-        if (firstTime.isBefore(standardStart)) {
-            Duration duration = Duration.between(firstTime, standardStart);
-            long minutes = duration.toMinutes();
-
-            if (minutes > 0) {
-                int hours = (int) Math.min(minutes / 60, 23);
-                int mins = (int) Math.min(minutes % 60, 59);
-                return LocalTime.of(hours, mins, 0);
-            }
-        }
-        return LocalTime.of(0, 0, 0);
+    // Before the shift starts; only time actually worked counts
+    private long calculateMorningOT(ShiftCalendar.Rule shift, LocalTime firstTime, LocalTime lastTime) {
+        return shift.morningOtSeconds(firstTime, lastTime);
     }
 
-    private LocalTime calculateEveningOT(LocalTime lastTime, LocalTime standardEnd) {
-        if (lastTime.isAfter(standardEnd)) {
-            Duration duration = Duration.between(standardEnd, lastTime);
-            long minutes = duration.toMinutes();
-
-            if (minutes > 0) {
-                int hours = (int) Math.min(minutes / 60, 23);
-                int mins = (int) Math.min(minutes % 60, 59);
-                return LocalTime.of(hours, mins, 0);
-            }
-        }
-        return LocalTime.of(0, 0, 0);
+    // After the shift ends
+    private long calculateEveningOT(ShiftCalendar.Rule shift, LocalTime firstTime, LocalTime lastTime) {
+        return shift.eveningOtSeconds(firstTime, lastTime);
     }
 
     @Transactional
@@ -200,6 +142,7 @@ public class OTTimeCalculatorService {
 
             // Find employee
             Employee employee = employeeService.findByEmail(employeeEmail);
+            otDayLocks.lockUntilCompletion(employeeEmail, date);
 
             // Find existing OT entry for the specified date
             Optional<OTtimeCalculator> existingEntryOpt = otTimeCalculatorRepository
@@ -208,32 +151,16 @@ public class OTTimeCalculatorService {
             if (existingEntryOpt.isPresent()) {
                 OTtimeCalculator entry = existingEntryOpt.get();
 
-                // Handle COMPLETED to END_JOB_CARD transition if applicable
-                if ("COMPLETED".equals(entry.getCurrentstatus())) {
-                    handleCompletedToEndJobCard(entry, currentDateTime);
-                }
-
-                // Update final status if current status needs to be tracked
-                if (entry.getCurrentstatus() != null) {
-                    updateStatusAndCalculateTime(entry, "END_JOB_CARD", currentDateTime);
-                }
-
-                // Update last time and add end location to the list
-                updateLastTime(entry, endTime, currentDateTime);
-                addLocationToEntry(entry, endLocation);
-
-                // Finalize the day calculations
-                finalizeDay(entry);
-
-                // Recalculate OT with the final end time
-                calculateAndUpdateOT(entry);
+                closeDay(entry, currentDateTime, endTime, endLocation, END_SESSION_REASON);
 
                 // Save the updated entry
                 OTtimeCalculator savedEntry = otTimeCalculatorRepository.save(entry);
 
                 log.info("Session ended for employee: {}. Final OT - Morning: {}, Evening: {}, Status Times - OnHold: {}, Assigned: {}, InProgress: {}, All Locations: {}",
-                        employeeEmail, savedEntry.getMorningOTtime(), savedEntry.getEveningOTtime(),
-                        savedEntry.getSpentOnOnHold(), savedEntry.getSpentOnAssigned(), savedEntry.getSpentOnInProgress(),
+                        employeeEmail, formatDuration(savedEntry.getMorningOtSeconds()),
+                        formatDuration(savedEntry.getEveningOtSeconds()),
+                        formatDuration(savedEntry.getOnHoldSeconds()), formatDuration(savedEntry.getAssignedSeconds()),
+                        formatDuration(savedEntry.getInProgressSeconds()),
                         savedEntry.getLocationsAsString());
 
                 return savedEntry;
@@ -287,16 +214,67 @@ public class OTTimeCalculatorService {
         }
     }
 
+    /**
+     * Per-employee OT totals for a pay period, summed in the database by one grouped query rather
+     * than by loading every daily row. Daily records for one employee are left to
+     * {@link #generateOTTimeReport(OTTimeReportRequest)}.
+     */
+    @Transactional(readOnly = true)
+    public TeamOTReportResponse generateTeamOTReport(LocalDate startDate, LocalDate endDate) {
+        try {
+            validateReportRange(startDate, endDate);
+            long start = System.nanoTime();
+
+            List<Object[]> rows = otTimeCalculatorRepository.summarizeByEmployee(startDate, endDate);
+
+            List<TeamOTReportResponse.EmployeeOTTotals> employees = new ArrayList<>(rows.size());
+            long teamMorning = 0;
+            long teamEvening = 0;
+            long openDays = 0;
+            for (Object[] row : rows) {
+                TeamOTReportResponse.EmployeeOTTotals totals = toEmployeeTotals(row);
+                teamMorning += totals.getMorningOtSeconds();
+                teamEvening += totals.getEveningOtSeconds();
+                openDays += totals.getOpenDays();
+                employees.add(totals);
+            }
+
+            TeamOTReportResponse response = new TeamOTReportResponse();
+            response.setStartDate(startDate);
+            response.setEndDate(endDate);
+            response.setEmployeeCount(employees.size());
+            response.setOpenDays(openDays);
+            response.setTotalMorningOtSeconds(teamMorning);
+            response.setTotalEveningOtSeconds(teamEvening);
+            response.setTotalMorningOT(formatDuration(teamMorning));
+            response.setTotalEveningOT(formatDuration(teamEvening));
+            response.setTotalOT(formatDuration(teamMorning + teamEvening));
+            response.setEmployees(employees);
+
+            log.info("Generated team OT report from {} to {} for {} employees in {} ms",
+                    startDate, endDate, employees.size(), (System.nanoTime() - start) / 1_000_000);
+            return response;
+        } catch (IllegalArgumentException e) {
+            throw e;
+        } catch (DataAccessException e) {
+            log.error("Database error generating team OT report from {} to {}", startDate, endDate, e);
+            throw new RuntimeException("Database error occurred while generating team OT report", e);
+        }
+    }
+
     // Helper methods for status time management
     private void updateStatusAndCalculateTime(OTtimeCalculator entry, String newStatus, LocalDateTime currentDateTime) {
+        if (entry.getStatusChangeTime() != null && currentDateTime.isBefore(entry.getStatusChangeTime())) {
+            // A synced offline change older than the current status; moving the status back would double count
+            log.warn("Ignoring status {} at {} for employee: {}, current status {} has been tracked since {}",
+                    newStatus, currentDateTime, entry.getEmployee().getEmail(),
+                    entry.getCurrentstatus(), entry.getStatusChangeTime());
+            return;
+        }
         if (entry.getCurrentstatus() != null && entry.getStatusChangeTime() != null) {
             // Calculate time spent in previous status
-            Duration timeSpent = Duration.between(entry.getStatusChangeTime(), currentDateTime);
-            long minutesSpent = timeSpent.toMinutes();
-
-            if (minutesSpent > 0) {
-                addTimeToStatus(entry, entry.getCurrentstatus(), (int) minutesSpent);
-            }
+            StatusTransitionEngine.credit(entry, StatusTransitionEngine.statusNamed(entry.getCurrentstatus()),
+                    StatusTransitionEngine.secondsBetween(entry.getStatusChangeTime(), currentDateTime));
         }
 
         // Update to new status
@@ -305,76 +283,73 @@ public class OTTimeCalculatorService {
         entry.setStatusChangeTime(currentDateTime);
     }
 
-    private void addTimeToStatus(OTtimeCalculator entry, String status, int minutesToAdd) {
-        if (status == null || minutesToAdd <= 0) return;
-
-        switch (status.toUpperCase()) {
-            case "ON_HOLD":
-                entry.setSpentOnOnHold(addMinutesToTime(entry.getSpentOnOnHold(), minutesToAdd));
-                break;
-            case "ASSIGNED":
-                entry.setSpentOnAssigned(addMinutesToTime(entry.getSpentOnAssigned(), minutesToAdd));
-                break;
-            case "IN_PROGRESS":
-                entry.setSpentOnInProgress(addMinutesToTime(entry.getSpentOnInProgress(), minutesToAdd));
-                break;
+    private void handleCompletedToEndJobCard(OTtimeCalculator entry, LocalDateTime endDateTime) {
+        if (entry.getCurrentstatus() != null && entry.getCurrentstatus().equals("COMPLETED")
+                && entry.getStatusChangeTime() != null) {
+
+            // Add this time to ASSIGNED as per requirement
+            StatusTransitionEngine.credit(entry, JobStatus.ASSIGNED,
+                    StatusTransitionEngine.secondsBetween(entry.getStatusChangeTime(), endDateTime));
         }
     }
 
-    private LocalTime addMinutesToTime(LocalTime time, int minutesToAdd) {
-        if (time == null) {
-            time = LocalTime.of(0, 0, 0);
+    /**
+     * Closes a day its technician never ended, as {@link #handleEndSession} would have at the later
+     * of {@code defaultEndTime} and the last recorded activity. The caller holds the row locked.
+     */
+    public void finalizeOpenDay(OTtimeCalculator entry, LocalTime defaultEndTime, String reason) {
+        LocalTime endTime = entry.getLasttime() != null && entry.getLasttime().isAfter(defaultEndTime)
+                ? entry.getLasttime() : defaultEndTime;
+        LocalDateTime endDateTime = entry.getDate().atTime(endTime);
+        if (entry.getStatusChangeTime() != null && endDateTime.isBefore(entry.getStatusChangeTime())) {
+            // A status synced in after the last activity; closing earlier would be ignored and leave the day open
+            endDateTime = entry.getStatusChangeTime();
         }
+        closeDay(entry, endDateTime, endTime, null, reason);
+    }
 
-        int totalMinutes = (time.getHour() * 60 + time.getMinute()) + minutesToAdd;
-        int hours = (totalMinutes / 60) % 24; // Handle overflow beyond 24 hours
-        int minutes = totalMinutes % 60;
+    private void closeDay(OTtimeCalculator entry, LocalDateTime endDateTime, LocalTime endTime, String endLocation,
+                          String reason) {
+        // Handle COMPLETED to END_JOB_CARD transition if applicable
+        if ("COMPLETED".equals(entry.getCurrentstatus())) {
+            handleCompletedToEndJobCard(entry, endDateTime);
+        }
 
-        return LocalTime.of(hours, minutes, 0);
-    }
+        // Update final status if current status needs to be tracked
+        if (entry.getCurrentstatus() != null) {
+            updateStatusAndCalculateTime(entry, "END_JOB_CARD", endDateTime);
+        } else {
+            // Nothing to credit, but the day must read as ended
+            entry.setCurrentstatus("END_JOB_CARD");
+            entry.setStatusChangeTime(endDateTime);
+        }
 
-    private void handleCompletedToEndJobCard(OTtimeCalculator entry, LocalDateTime endDateTime) {
-        if (entry.getCurrentstatus() != null && entry.getCurrentstatus().equals("COMPLETED")
-                && entry.getStatusChangeTime() != null) {
+        // Update last time and add end location to the list
+        updateLastTime(entry, endTime, endDateTime);
+        addLocationToEntry(entry, endLocation);
 
-            Duration duration = Duration.between(entry.getStatusChangeTime(), endDateTime);
-            long minutesSpent = duration.toMinutes();
+        // Finalize the day calculations
+        finalizeDay(entry);
 
-            if (minutesSpent > 0) {
-                // Add this time to ASSIGNED as per requirement
-                entry.setSpentOnAssigned(addMinutesToTime(entry.getSpentOnAssigned(), (int) minutesSpent));
-            }
-        }
+        // Recalculate OT with the final end time
+        calculateAndUpdateOT(entry);
+        entry.setCloseReason(reason);
     }
 
     private void finalizeDay(OTtimeCalculator entry) {
         if (entry.getFirsttime() != null && entry.getLasttime() != null) {
             // Calculate total time between firsttime and lasttime
-            Duration totalDuration = Duration.between(entry.getFirsttime(), entry.getLasttime());
-            long totalMinutes = totalDuration.toMinutes();
+            long totalSeconds = Duration.between(entry.getFirsttime(), entry.getLasttime()).getSeconds();
 
-            // Calculate time spent on IN_PROGRESS and ASSIGNED
-            int inProgressMinutes = entry.getSpentOnInProgress().getHour() * 60 + entry.getSpentOnInProgress().getMinute();
-            int assignedMinutes = entry.getSpentOnAssigned().getHour() * 60 + entry.getSpentOnAssigned().getMinute();
+            // Remaining time not spent IN_PROGRESS or ASSIGNED goes to ON_HOLD
+            long onHoldSeconds = totalSeconds - entry.getInProgressSeconds() - entry.getAssignedSeconds();
 
-            // Calculate remaining time for ON_HOLD
-            long onHoldMinutes = totalMinutes - inProgressMinutes - assignedMinutes;
-
-            if (onHoldMinutes > 0) {
-                // Add remaining time to ON_HOLD
-                entry.setSpentOnOnHold(addMinutesToTime(entry.getSpentOnOnHold(), (int) onHoldMinutes));
+            if (onHoldSeconds > 0) {
+                entry.setOnHoldSeconds(entry.getOnHoldSeconds() + onHoldSeconds);
             }
         }
     }
 
-    private void setInitialTimes(OTtimeCalculator entry, LocalTime time, LocalDateTime currentDateTime) {
-        if (time != null) {
-            entry.setFirsttime(time);
-            entry.setLasttime(time);
-            entry.setLastTimeUpdateOTtime(currentDateTime);
-        }
-    }
-
     private void updateLastTime(OTtimeCalculator entry, LocalTime newTime, LocalDateTime currentDateTime) {
         if (newTime != null) {
             entry.setLasttime(newTime);
@@ -382,14 +357,6 @@ public class OTTimeCalculatorService {
         }
     }
 
-    private void initializeOTTimes(OTtimeCalculator entry) {
-        entry.setMorningOTtime(LocalTime.of(0, 0, 0));
-        entry.setEveningOTtime(LocalTime.of(0, 0, 0));
-        entry.setSpentOnOnHold(LocalTime.of(0, 0, 0));
-        entry.setSpentOnAssigned(LocalTime.of(0, 0, 0));
-        entry.setSpentOnInProgress(LocalTime.of(0, 0, 0));
-    }
-
     private void addLocationToEntry(OTtimeCalculator entry, String location) {
         if (location != null && !location.trim().isEmpty()) {
             // Use the entity's helper method to add location
@@ -422,6 +389,7 @@ public class OTTimeCalculatorService {
             logEntry.setLocation(endLocation);
 
             logRepository.save(logEntry);
+            eventPublisher.publishEvent(new EmployeeDayEndedEvent(employeeEmail, logEntry.getDate()));
             log.info("Successfully created log entry for end the day by: {}", employeeEmail);
 
         } catch (Exception e) {
@@ -450,16 +418,43 @@ public class OTTimeCalculatorService {
 
     // Helper methods for report generation
     private void validateOTReportRequest(OTTimeReportRequest request) {
-        if (request.getStartDate().isAfter(request.getEndDate())) {
+        validateReportRange(request.getStartDate(), request.getEndDate());
+    }
+
+    private void validateReportRange(LocalDate startDate, LocalDate endDate) {
+        if (startDate == null || endDate == null) {
+            throw new IllegalArgumentException("Start date and end date are required");
+        }
+        if (startDate.isAfter(endDate)) {
             throw new IllegalArgumentException("Start date cannot be after end date");
         }
 
-        long daysBetween = java.time.temporal.ChronoUnit.DAYS.between(request.getStartDate(), request.getEndDate());
+        long daysBetween = java.time.temporal.ChronoUnit.DAYS.between(startDate, endDate);
         if (daysBetween > 31) {
             throw new IllegalArgumentException("Date range cannot exceed 31 days");
         }
     }
 
+    // Columns as selected by OTTimeCalculatorRepository.summarizeByEmployee
+    private TeamOTReportResponse.EmployeeOTTotals toEmployeeTotals(Object[] row) {
+        long morning = ((Number) row[4]).longValue();
+        long evening = ((Number) row[5]).longValue();
+        TeamOTReportResponse.EmployeeOTTotals totals = new TeamOTReportResponse.EmployeeOTTotals();
+        totals.setEmployeeEmail((String) row[0]);
+        totals.setEmployeeName((String) row[1]);
+        totals.setDays(((Number) row[2]).longValue());
+        totals.setOpenDays(((Number) row[3]).longValue());
+        totals.setMorningOtSeconds(morning);
+        totals.setEveningOtSeconds(evening);
+        totals.setTotalMorningOT(formatDuration(morning));
+        totals.setTotalEveningOT(formatDuration(evening));
+        totals.setTotalOT(formatDuration(morning + evening));
+        totals.setTotalOnHoldTime(formatDuration(((Number) row[6]).longValue()));
+        totals.setTotalAssignedTime(formatDuration(((Number) row[7]).longValue()));
+        totals.setTotalInProgressTime(formatDuration(((Number) row[8]).longValue()));
+        return totals;
+    }
+
     private OTTimeReportResponse.OTRecord convertToOTRecord(OTtimeCalculator entry) {
         OTTimeReportResponse.OTRecord record = new OTTimeReportResponse.OTRecord();
 
@@ -473,56 +468,44 @@ public class OTTimeCalculatorService {
         record.setAllLocations(entry.getAllLocations());
         record.setLocationsSummary(entry.getLocationsAsString());
 
-        record.setMorningOT(formatTime(entry.getMorningOTtime()));
-        record.setEveningOT(formatTime(entry.getEveningOTtime()));
+        record.setMorningOT(formatDuration(entry.getMorningOtSeconds()));
+        record.setEveningOT(formatDuration(entry.getEveningOtSeconds()));
 
         // Add status time breakdown to record
-        record.setOnHoldTime(formatTime(entry.getSpentOnOnHold()));
-        record.setAssignedTime(formatTime(entry.getSpentOnAssigned()));
-        record.setInProgressTime(formatTime(entry.getSpentOnInProgress()));
+        record.setOnHoldTime(formatDuration(entry.getOnHoldSeconds()));
+        record.setAssignedTime(formatDuration(entry.getAssignedSeconds()));
+        record.setInProgressTime(formatDuration(entry.getInProgressSeconds()));
         record.setCurrentStatus(entry.getCurrentstatus());
         record.setLastStatus(entry.getLaststatus());
+        record.setCloseReason(entry.getCloseReason());
 
         // Calculate daily total OT
-        LocalTime dailyTotal = entry.getTotalDailyOT();
-        record.setDailyTotalOT(formatTime(dailyTotal));
+        record.setDailyTotalOT(formatDuration(entry.getTotalDailyOtSeconds()));
 
         return record;
     }
 
     private void calculateTotals(OTTimeReportResponse response, List<OTtimeCalculator> entries) {
-        int totalMorningMinutes = 0;
-        int totalEveningMinutes = 0;
-        int totalOnHoldMinutes = 0;
-        int totalAssignedMinutes = 0;
-        int totalInProgressMinutes = 0;
+        long totalMorningSeconds = 0;
+        long totalEveningSeconds = 0;
+        long totalOnHoldSeconds = 0;
+        long totalAssignedSeconds = 0;
+        long totalInProgressSeconds = 0;
 
         for (OTtimeCalculator entry : entries) {
-            if (entry.getMorningOTtime() != null) {
-                totalMorningMinutes += entry.getMorningOTtime().getHour() * 60 + entry.getMorningOTtime().getMinute();
-            }
-            if (entry.getEveningOTtime() != null) {
-                totalEveningMinutes += entry.getEveningOTtime().getHour() * 60 + entry.getEveningOTtime().getMinute();
-            }
-            if (entry.getSpentOnOnHold() != null) {
-                totalOnHoldMinutes += entry.getSpentOnOnHold().getHour() * 60 + entry.getSpentOnOnHold().getMinute();
-            }
-            if (entry.getSpentOnAssigned() != null) {
-                totalAssignedMinutes += entry.getSpentOnAssigned().getHour() * 60 + entry.getSpentOnAssigned().getMinute();
-            }
-            if (entry.getSpentOnInProgress() != null) {
-                totalInProgressMinutes += entry.getSpentOnInProgress().getHour() * 60 + entry.getSpentOnInProgress().getMinute();
-            }
+            totalMorningSeconds += entry.getMorningOtSeconds();
+            totalEveningSeconds += entry.getEveningOtSeconds();
+            totalOnHoldSeconds += entry.getOnHoldSeconds();
+            totalAssignedSeconds += entry.getAssignedSeconds();
+            totalInProgressSeconds += entry.getInProgressSeconds();
         }
 
-        int totalMinutes = totalMorningMinutes + totalEveningMinutes;
-
-        response.setTotalMorningOT(formatMinutesToTime(totalMorningMinutes));
-        response.setTotalEveningOT(formatMinutesToTime(totalEveningMinutes));
-        response.setTotalOT(formatMinutesToTime(totalMinutes));
-        response.setTotalOnHoldTime(formatMinutesToTime(totalOnHoldMinutes));
-        response.setTotalAssignedTime(formatMinutesToTime(totalAssignedMinutes));
-        response.setTotalInProgressTime(formatMinutesToTime(totalInProgressMinutes));
+        response.setTotalMorningOT(formatDuration(totalMorningSeconds));
+        response.setTotalEveningOT(formatDuration(totalEveningSeconds));
+        response.setTotalOT(formatDuration(totalMorningSeconds + totalEveningSeconds));
+        response.setTotalOnHoldTime(formatDuration(totalOnHoldSeconds));
+        response.setTotalAssignedTime(formatDuration(totalAssignedSeconds));
+        response.setTotalInProgressTime(formatDuration(totalInProgressSeconds));
     }
 
     private String formatTime(LocalTime time) {
@@ -532,10 +515,9 @@ public class OTTimeCalculatorService {
         return time.toString();
     }
 
-    private String formatMinutesToTime(int totalMinutes) {
-        int hours = totalMinutes / 60;
-        int minutes = totalMinutes % 60;
-        return String.format("%02d:%02d:00", hours, minutes);
+    // HH:mm:ss where hours may run past 24
+    static String formatDuration(long totalSeconds) {
+        return String.format("%02d:%02d:%02d", totalSeconds / 3600, (totalSeconds % 3600) / 60, totalSeconds % 60);
     }
 
     // Existing utility methods
@@ -549,30 +531,28 @@ public class OTTimeCalculatorService {
         }
     }
 
-    public Optional<OTtimeCalculator> getOTEntry(Employee employee, LocalDate date) {
-        try {
-            return otTimeCalculatorRepository.findByEmployeeAndDate(employee, date);
-        } catch (Exception e) {
-            log.error("Error fetching OT entry for employee: {} on date: {}",
-                    employee.getEmail(), date, e);
-            return Optional.empty();
-        }
-    }
-
+    /**
+     * Recomputes one employee day against the current shift rules.
+     *
+     * @throws IllegalStateException if the day's OT lock is not free within its timeout
+     * @throws RuntimeException if the row cannot be read or saved
+     */
     @Transactional
-    public void recalculateOTForDay(Employee employee, LocalDate date) {
+    public void recalculateOTForDay(String employeeEmail, LocalDate date) {
         try {
-            Optional<OTtimeCalculator> entryOpt = getOTEntry(employee, date);
+            otDayLocks.lockUntilCompletion(employeeEmail, date);
+            Optional<OTtimeCalculator> entryOpt = otTimeCalculatorRepository.findByEmployeeEmailAndDate(employeeEmail, date);
             if (entryOpt.isPresent()) {
                 OTtimeCalculator entry = entryOpt.get();
                 calculateAndUpdateOT(entry);
                 otTimeCalculatorRepository.save(entry);
-                log.info("Recalculated OT for employee: {} on date: {}", employee.getEmail(), date);
+                log.info("Recalculated OT for employee: {} on date: {}", employeeEmail, date);
             } else {
-                log.warn("No OT entry found for employee: {} on date: {}", employee.getEmail(), date);
+                log.warn("No OT entry found for employee: {} on date: {}", employeeEmail, date);
             }
-        } catch (Exception e) {
-            log.error("Error recalculating OT for employee: {} on date: {}", employee.getEmail(), date, e);
+        } catch (DataAccessException e) {
+            log.error("Database error while recalculating OT for employee: {} on date: {}", employeeEmail, date, e);
+            throw new RuntimeException("Database error occurred while recalculating OT", e);
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,115 @@
+package com.example.met.service;
+
+import com.example.met.entity.OTtimeCalculator;
+import com.example.met.repository.OTTimeCalculatorRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Merges OT rows that were duplicated for one employee and day before {@code (employee_email, date)}
+ * became unique, so the constraint can be created. Run once from the schema migration, while the
+ * constraint is still missing; a failure is thrown so startup stops instead of running on without it.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OTTimeRepairService {
+
+    private final OTTimeCalculatorRepository otTimeCalculatorRepository;
+    private final OTTimeCalculatorService otTimeCalculatorService;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * @return the number of duplicate rows merged away
+     * @throws RuntimeException if a day cannot be merged
+     */
+    public int mergeDuplicateDays() {
+        List<Object[]> days = otTimeCalculatorRepository.findDuplicateDays();
+        if (days.isEmpty()) {
+            return 0;
+        }
+        log.warn("Found {} employee days with duplicate OT rows, merging", days.size());
+
+        int merged = 0;
+        for (Object[] day : days) {
+            String email = (String) day[0];
+            LocalDate date = (LocalDate) day[1];
+            try {
+                // Joins the migration's transaction, so the merge commits with the index or not at all
+                Integer removed = transactionTemplate.execute(status -> mergeDay(email, date));
+                merged += removed != null ? removed : 0;
+            } catch (DataAccessException e) {
+                log.error("Database error while merging OT rows for employee: {} on date: {}", email, date, e);
+                throw new RuntimeException("Database error occurred while merging duplicate OT rows", e);
+            }
+        }
+        log.info("Merged {} duplicate OT rows", merged);
+        return merged;
+    }
+
+    private int mergeDay(String email, LocalDate date) {
+        // Ordered by first time, so the keeper is the row that saw the day start
+        List<OTtimeCalculator> rows = otTimeCalculatorRepository.findAllForMerge(email, date);
+        if (rows.size() < 2) {
+            return 0;
+        }
+        OTtimeCalculator keeper = rows.get(0);
+        List<OTtimeCalculator> duplicates = rows.subList(1, rows.size());
+        merge(keeper, duplicates);
+        otTimeCalculatorService.calculateAndUpdateOT(keeper);
+
+        otTimeCalculatorRepository.deleteAll(duplicates);
+        otTimeCalculatorRepository.save(keeper);
+        log.info("Merged {} OT rows into {} for employee: {} on date: {}",
+                duplicates.size(), keeper.getOtTimeId(), email, date);
+        return duplicates.size();
+    }
+
+    /**
+     * Folds {@code duplicates} into {@code keeper}: the day spans all of them, status time adds up,
+     * locations are kept in order, and the current status is taken from the row changed last.
+     */
+    static void merge(OTtimeCalculator keeper, List<OTtimeCalculator> duplicates) {
+        OTtimeCalculator latest = keeper;
+        OTtimeCalculator lastSeen = keeper;
+        for (OTtimeCalculator duplicate : duplicates) {
+            if (duplicate.getFirsttime() != null
+                    && (keeper.getFirsttime() == null || duplicate.getFirsttime().isBefore(keeper.getFirsttime()))) {
+                keeper.setFirsttime(duplicate.getFirsttime());
+            }
+            if (duplicate.getLasttime() != null
+                    && (lastSeen.getLasttime() == null || duplicate.getLasttime().isAfter(lastSeen.getLasttime()))) {
+                lastSeen = duplicate;
+            }
+            if (duplicate.getStatusChangeTime() != null && (latest.getStatusChangeTime() == null
+                    || duplicate.getStatusChangeTime().isAfter(latest.getStatusChangeTime()))) {
+                latest = duplicate;
+            }
+            keeper.setOnHoldSeconds(keeper.getOnHoldSeconds() + duplicate.getOnHoldSeconds());
+            keeper.setAssignedSeconds(keeper.getAssignedSeconds() + duplicate.getAssignedSeconds());
+            keeper.setInProgressSeconds(keeper.getInProgressSeconds() + duplicate.getInProgressSeconds());
+            if (duplicate.getAllLocations() != null) {
+                keeper.getAllLocations().addAll(duplicate.getAllLocations());
+            }
+            if (keeper.getFirstLocation() == null) {
+                keeper.setFirstLocation(duplicate.getFirstLocation());
+            }
+        }
+
+        keeper.setLasttime(lastSeen.getLasttime());
+        if (lastSeen.getLastLocation() != null) {
+            keeper.setLastLocation(lastSeen.getLastLocation());
+        }
+        if (latest != keeper) {
+            keeper.setLaststatus(latest.getLaststatus());
+            keeper.setCurrentstatus(latest.getCurrentstatus());
+            keeper.setStatusChangeTime(latest.getStatusChangeTime());
+        }
+    }
+}
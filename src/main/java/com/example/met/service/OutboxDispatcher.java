@@ -0,0 +1,240 @@
+package com.example.met.service;
+
+import com.example.met.entity.OutboxEvent;
+import com.example.met.enums.OutboxStatus;
+import com.example.met.event.MiniJobCardStatusChange;
+import com.example.met.exception.ResourceNotFoundException;
+import com.example.met.repository.OutboxEventRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Delivers outbox events in the background. Each poll takes a batch of due events, groups it by
+ * partition (the employee) and delivers each group in id order, one transaction per event that
+ * first claims it by marking it processed and then applies it. Nodes polling the same table may
+ * pick the same event; only the one whose claim succeeds applies it, so each event is delivered
+ * once however many nodes run. Events are only taken once they are older than the settle delay, so an
+ * id committed after a higher one of the same employee is not overtaken. A failure backs the event
+ * off exponentially and holds back the rest of its partition; an event that runs out of attempts is
+ * marked failed and keeps holding it back (reported by {@code outbox.blocked.partitions}) until it
+ * is requeued. Other partitions carry on.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OutboxDispatcher {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final MiniJobCardStatusChangeHandler statusChangeHandler;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    private static final ZoneId SRI_LANKA_ZONE = ZoneId.of("Asia/Colombo");
+    private static final int MAX_ERROR_LENGTH = 2000;
+
+    @Value("${app.outbox.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.outbox.batch-size:100}")
+    private int batchSize;
+
+    @Value("${app.outbox.max-attempts:10}")
+    private int maxAttempts;
+
+    @Value("${app.outbox.initial-backoff-ms:1000}")
+    private long initialBackoffMs;
+
+    @Value("${app.outbox.max-backoff-ms:600000}")
+    private long maxBackoffMs;
+
+    @Value("${app.outbox.retention-days:7}")
+    private int retentionDays;
+
+    @Value("${app.outbox.settle-ms:1000}")
+    private long settleMs;
+
+    private final AtomicBoolean dispatching = new AtomicBoolean();
+    private final AtomicLong pendingEvents = new AtomicLong();
+    private final AtomicLong oldestPendingAgeSeconds = new AtomicLong();
+    private final AtomicLong blockedPartitions = new AtomicLong();
+
+    private Counter processedCounter;
+    private Counter retriedCounter;
+    private Counter failedCounter;
+    private Timer deliveryLag;
+
+    @PostConstruct
+    void registerMetrics() {
+        Gauge.builder("outbox.pending", pendingEvents, AtomicLong::get)
+                .description("Outbox events waiting to be delivered")
+                .register(meterRegistry);
+        Gauge.builder("outbox.lag.seconds", oldestPendingAgeSeconds, AtomicLong::get)
+                .description("Age of the oldest undelivered outbox event")
+                .register(meterRegistry);
+        Gauge.builder("outbox.blocked.partitions", blockedPartitions, AtomicLong::get)
+                .description("Employees whose outbox events wait behind one that ran out of attempts")
+                .register(meterRegistry);
+        processedCounter = Counter.builder("outbox.processed").register(meterRegistry);
+        retriedCounter = Counter.builder("outbox.retried").register(meterRegistry);
+        failedCounter = Counter.builder("outbox.failed")
+                .description("Events given up on after the maximum number of attempts")
+                .register(meterRegistry);
+        deliveryLag = Timer.builder("outbox.delivery.lag")
+                .description("Time from commit of the causing change to delivery")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.poll-interval-ms:1000}")
+    public void dispatch() {
+        if (!enabled || !dispatching.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            LocalDateTime now = now();
+            List<OutboxEvent> batch = outboxEventRepository.findDispatchable(now,
+                    now.minusNanos(settleMs * 1_000_000), PageRequest.of(0, batchSize));
+            Map<String, List<OutboxEvent>> byPartition = batch.stream()
+                    .collect(Collectors.groupingBy(OutboxEvent::getPartitionKey, LinkedHashMap::new, Collectors.toList()));
+
+            for (List<OutboxEvent> partition : byPartition.values()) {
+                for (OutboxEvent event : partition) {
+                    if (!deliver(event)) {
+                        break; // Later events of this partition wait for the failed one
+                    }
+                }
+            }
+            refreshLag();
+        } catch (DataAccessException e) {
+            log.error("Database error while dispatching outbox events", e);
+        } finally {
+            dispatching.set(false);
+        }
+    }
+
+    @Scheduled(cron = "${app.outbox.cleanup-cron:0 15 3 * * *}", zone = "Asia/Colombo")
+    public void purgeProcessed() {
+        try {
+            Integer deleted = transactionTemplate.execute(status ->
+                    outboxEventRepository.deleteProcessedBefore(now().minusDays(retentionDays)));
+            log.info("Purged {} processed outbox events older than {} days", deleted, retentionDays);
+        } catch (DataAccessException e) {
+            log.error("Database error while purging processed outbox events", e);
+        }
+    }
+
+    /**
+     * Puts an event that ran out of attempts back in line, which releases the rest of its partition
+     * once it is delivered.
+     */
+    public void requeue(Long id) {
+        Integer updated = transactionTemplate.execute(status -> outboxEventRepository.requeueFailed(id, now()));
+        if (updated == null || updated == 0) {
+            throw new ResourceNotFoundException("No failed outbox event with id: " + id);
+        }
+        log.info("Requeued failed outbox event {}", id);
+    }
+
+    private boolean deliver(OutboxEvent event) {
+        try {
+            Boolean claimed = transactionTemplate.execute(status -> {
+                if (outboxEventRepository.markProcessed(event.getId(), now()) == 0) {
+                    return false;
+                }
+                handle(event);
+                return true;
+            });
+            if (!Boolean.TRUE.equals(claimed)) {
+                log.debug("Outbox event {} was already delivered by another node", event.getId());
+                return true;
+            }
+            processedCounter.increment();
+            deliveryLag.record(Duration.between(event.getCreatedAt(), now()));
+            return true;
+        } catch (Exception e) {
+            recordFailure(event, e);
+            return false;
+        }
+    }
+
+    private void handle(OutboxEvent event) {
+        try {
+            switch (event.getEventType()) {
+                case MINI_JOB_CARD_STATUS_CHANGED:
+                    statusChangeHandler.handle(objectMapper.readValue(event.getPayload(), MiniJobCardStatusChange.class));
+                    break;
+                default:
+                    throw new IllegalStateException("No handler for outbox event type " + event.getEventType());
+            }
+        } catch (com.fasterxml.jackson.core.JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable payload for outbox event " + event.getId(), e);
+        }
+    }
+
+    private void recordFailure(OutboxEvent event, Exception e) {
+        int attempts = event.getAttempts() + 1;
+        boolean exhausted = attempts >= maxAttempts;
+        OutboxStatus status = exhausted ? OutboxStatus.FAILED : OutboxStatus.PENDING;
+        LocalDateTime nextAttemptAt = now().plus(Duration.ofMillis(backoffMillis(attempts)));
+        String error = String.valueOf(e.getMessage());
+        if (error.length() > MAX_ERROR_LENGTH) {
+            error = error.substring(0, MAX_ERROR_LENGTH);
+        }
+
+        if (exhausted) {
+            failedCounter.increment();
+            log.error("Giving up on outbox event {} ({}) for {} after {} attempts; later events for {} are held "
+                            + "back until it is requeued", event.getId(), event.getEventType(), event.getAggregateId(),
+                    attempts, event.getPartitionKey(), e);
+        } else {
+            retriedCounter.increment();
+            log.warn("Outbox event {} ({}) failed on attempt {}, retrying at {}: {}",
+                    event.getId(), event.getEventType(), attempts, nextAttemptAt, e.getMessage());
+        }
+        try {
+            String lastError = error;
+            transactionTemplate.executeWithoutResult(tx -> outboxEventRepository.markAttemptFailed(
+                    event.getId(), status, attempts, nextAttemptAt, lastError));
+        } catch (DataAccessException ex) {
+            log.error("Failed to record failed attempt for outbox event {}", event.getId(), ex);
+        }
+    }
+
+    long backoffMillis(int attempts) {
+        int shift = Math.min(attempts - 1, 30);
+        return Math.min(maxBackoffMs, initialBackoffMs << shift);
+    }
+
+    private void refreshLag() {
+        pendingEvents.set(outboxEventRepository.countByStatus(OutboxStatus.PENDING));
+        LocalDateTime oldest = outboxEventRepository.findOldestPendingCreatedAt();
+        oldestPendingAgeSeconds.set(oldest == null ? 0 : Math.max(0, Duration.between(oldest, now()).getSeconds()));
+        blockedPartitions.set(outboxEventRepository.countBlockedPartitions());
+    }
+
+    private static LocalDateTime now() {
+        return LocalDateTime.now(SRI_LANKA_ZONE);
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.met.service;
+
+import com.example.met.entity.OutboxEvent;
+import com.example.met.enums.OutboxEventType;
+import com.example.met.event.OutboxEventRecorded;
+import com.example.met.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Writes outbox events inside the caller's transaction, so a side effect is recorded if and only
+ * if the change that caused it commits.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OutboxService {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final JdbcTemplate jdbcTemplate;
+
+    private static final ZoneId SRI_LANKA_ZONE = ZoneId.of("Asia/Colombo");
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueue(OutboxEventType eventType, UUID aggregateId, String partitionKey, Object payload) {
+        OutboxEvent event = new OutboxEvent();
+        event.setEventType(eventType);
+        event.setAggregateId(aggregateId);
+        event.setPartitionKey(partitionKey);
+        try {
+            event.setPayload(objectMapper.writeValueAsString(payload));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize " + eventType + " payload", e);
+        }
+        LocalDateTime now = LocalDateTime.now(SRI_LANKA_ZONE);
+        event.setCreatedAt(now);
+        event.setNextAttemptAt(now);
+        outboxEventRepository.save(event);
+        eventPublisher.publishEvent(new OutboxEventRecorded(event.getId(), eventType, payload));
+        log.debug("Queued {} for {}", eventType, aggregateId);
+    }
+
+    /**
+     * Same as {@link #enqueue} for many events, written as one JDBC batch; identity ids rule out
+     * Hibernate insert batching, so the rows go through JDBC directly.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueueAll(OutboxEventType eventType, List<Entry> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        List<String> payloads = new ArrayList<>(entries.size());
+        for (Entry entry : entries) {
+            try {
+                payloads.add(objectMapper.writeValueAsString(entry.payload()));
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Failed to serialize " + eventType + " payload", e);
+            }
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now(SRI_LANKA_ZONE));
+
+        GeneratedKeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(connection -> connection.prepareStatement(
+                        "INSERT INTO outbox_events (event_type, aggregate_id, partition_key, payload, status, " +
+                                "attempts, next_attempt_at, created_at) VALUES (?, ?, ?, ?, 'PENDING', 0, ?, ?)",
+                        new String[]{"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        Entry entry = entries.get(i);
+                        ps.setString(1, eventType.name());
+                        ps.setObject(2, entry.aggregateId());
+                        ps.setString(3, entry.partitionKey());
+                        ps.setString(4, payloads.get(i));
+                        ps.setTimestamp(5, now);
+                        ps.setTimestamp(6, now);
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return entries.size();
+                    }
+                }, keys);
+
+        List<Map<String, Object>> ids = keys.getKeyList();
+        for (int i = 0; i < entries.size(); i++) {
+            Long id = i < ids.size() ? ((Number) ids.get(i).get("id")).longValue() : null;
+            eventPublisher.publishEvent(new OutboxEventRecorded(id, eventType, entries.get(i).payload()));
+        }
+        log.debug("Queued {} {} events", entries.size(), eventType);
+    }
+
+    public record Entry(UUID aggregateId, String partitionKey, Object payload) {
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.met.service;
+
+import com.example.met.entity.OutboxEvent;
+import com.example.met.enums.OutboxEventType;
+import com.example.met.repository.OutboxEventRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+/**
+ * Multi-node feed: every node tails the shared outbox table, so a transition committed on any node
+ * reaches subscribers on all of them. Rows are only read once they are older than the settle
+ * delay, so an id committed after a higher one is not skipped.
+ */
+@Component
+@ConditionalOnProperty(name = "app.stream.fanout", havingValue = "outbox")
+@RequiredArgsConstructor
+@Slf4j
+public class OutboxTransitionFeed {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final TransitionStreamService streamService;
+
+    private static final ZoneId SRI_LANKA_ZONE = ZoneId.of("Asia/Colombo");
+    private static final int PAGE_SIZE = 500;
+
+    @Value("${app.stream.settle-ms:1000}")
+    private long settleMs;
+
+    private Long cursor;
+
+    @Scheduled(fixedDelayString = "${app.stream.poll-interval-ms:500}")
+    public void poll() {
+        try {
+            if (cursor == null) {
+                // Start at the head; history is served from the table on Last-Event-ID
+                cursor = outboxEventRepository.findMaxId();
+                log.info("Tailing outbox for transition stream from id {}", cursor);
+            }
+            List<OutboxEvent> rows;
+            do {
+                LocalDateTime settledBefore = LocalDateTime.now(SRI_LANKA_ZONE).minusNanos(settleMs * 1_000_000);
+                rows = outboxEventRepository.findStreamable(OutboxEventType.MINI_JOB_CARD_STATUS_CHANGED,
+                        cursor, settledBefore, PageRequest.of(0, PAGE_SIZE));
+                for (OutboxEvent row : rows) {
+                    streamService.publish(streamService.toStreamEvent(row));
+                    cursor = row.getId();
+                }
+            } while (rows.size() == PAGE_SIZE);
+        } catch (DataAccessException e) {
+            log.error("Database error while tailing outbox for transition stream", e);
+        }
+    }
+}
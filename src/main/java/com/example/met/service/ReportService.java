@@ -7,12 +7,13 @@ import lombok.extern.slf4j.Slf4j;
 import java.time.ZoneId;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.LocalTime;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 import com.example.met.entity.MiniJobCard;
 import com.example.met.entity.Employee;
+import com.example.met.repository.ArchivedMiniJobCardRepository;
 import com.example.met.repository.MiniJobCardRepository;
 import com.example.met.repository.EmployeeRepository;
 import com.example.met.dto.request.EmployeeTimeReportRequest;
@@ -28,11 +29,14 @@ public class ReportService {
     private static final ZoneId SRI_LANKA_ZONE = ZoneId.of("Asia/Colombo");
 
     private final MiniJobCardRepository miniJobCardRepository;
+    private final ArchivedMiniJobCardRepository archivedMiniJobCardRepository;
     private final EmployeeRepository employeeRepository;
 
     public ReportService(MiniJobCardRepository miniJobCardRepository,
+                         ArchivedMiniJobCardRepository archivedMiniJobCardRepository,
                          EmployeeRepository employeeRepository) {
         this.miniJobCardRepository = miniJobCardRepository;
+        this.archivedMiniJobCardRepository = archivedMiniJobCardRepository;
         this.employeeRepository = employeeRepository;
     }
 
@@ -47,11 +51,18 @@ public class ReportService {
                 .orElseThrow(() -> new IllegalArgumentException("Employee not found with email: " + request.getEmployeeEmail()));
 
         // Fetch mini job cards for the date range
-        List<MiniJobCard> miniJobCards = miniJobCardRepository.findByEmployeeEmailAndDateRange(
+        List<MiniJobCard> miniJobCards = new ArrayList<>(miniJobCardRepository.findByEmployeeEmailAndDateRange(
                 request.getEmployeeEmail(),
                 request.getStartDate(),
                 request.getEndDate()
-        );
+        ));
+
+        // Older periods may already have been moved to the archive table
+        archivedMiniJobCardRepository.findByEmployeeEmailAndDateRange(
+                request.getEmployeeEmail(),
+                request.getStartDate(),
+                request.getEndDate()
+        ).forEach(archived -> miniJobCards.add(archived.toMiniJobCard()));
 
         log.info("Found {} mini job cards for employee {} in date range {} to {}",
                 miniJobCards.size(), request.getEmployeeEmail(), request.getStartDate(), request.getEndDate());
@@ -94,10 +105,10 @@ public class ReportService {
 
     private JobCardTimeDetails convertToJobCardTimeDetails(MiniJobCard miniJobCard) {
 
-        // Convert LocalTime to minutes for calculations
-        int onHoldMinutes = timeToMinutes(miniJobCard.getSpentOnOnHold());
-        int inProgressMinutes = timeToMinutes(miniJobCard.getSpentOnInProgress());
-        int assignedMinutes = timeToMinutes(miniJobCard.getSpentOnAssigned());
+        // Stored seconds are reported in whole minutes
+        int onHoldMinutes = (int) (miniJobCard.getOnHoldSeconds() / 60);
+        int inProgressMinutes = (int) (miniJobCard.getInProgressSeconds() / 60);
+        int assignedMinutes = (int) (miniJobCard.getAssignedSeconds() / 60);
         int totalMinutes = onHoldMinutes + inProgressMinutes + assignedMinutes;
 
         return JobCardTimeDetails.builder()
@@ -107,9 +118,9 @@ public class ReportService {
                 .currentStatus(miniJobCard.getStatus())
                 .date(miniJobCard.getDate())
                 .location(miniJobCard.getLocation())
-                .timeSpentOnHold(formatTime(miniJobCard.getSpentOnOnHold()))
-                .timeSpentInProgress(formatTime(miniJobCard.getSpentOnInProgress()))
-                .timeSpentAssigned(formatTime(miniJobCard.getSpentOnAssigned()))
+                .timeSpentOnHold(minutesToTimeString(onHoldMinutes))
+                .timeSpentInProgress(minutesToTimeString(inProgressMinutes))
+                .timeSpentAssigned(minutesToTimeString(assignedMinutes))
                 .onHoldMinutes(onHoldMinutes)
                 .inProgressMinutes(inProgressMinutes)
                 .assignedMinutes(assignedMinutes)
@@ -153,20 +164,6 @@ public class ReportService {
                 .build();
     }
 
-    private int timeToMinutes(LocalTime time) {
-        if (time == null) {
-            return 0;
-        }
-        return time.getHour() * 60 + time.getMinute();
-    }
-
-    private String formatTime(LocalTime time) {
-        if (time == null) {
-            return "00:00";
-        }
-        return String.format("%02d:%02d", time.getHour(), time.getMinute());
-    }
-
     private String minutesToTimeString(int totalMinutes) {
         int hours = totalMinutes / 60;
         int minutes = totalMinutes % 60;
@@ -0,0 +1,417 @@
+package com.example.met.service;
+
+import com.example.met.dto.response.SearchHitResponse;
+import com.example.met.dto.response.SearchResponse;
+import com.example.met.entity.Employee;
+import com.example.met.entity.Generator;
+import com.example.met.entity.JobCard;
+import com.example.met.enums.JobCardType;
+import com.example.met.event.EmployeeChangedEvent;
+import com.example.met.event.GeneratorChangedEvent;
+import com.example.met.event.JobCardChangedEvent;
+import com.example.met.event.JobCardDeletedEvent;
+import com.example.met.repository.ArchivedMiniJobCardRepository;
+import com.example.met.repository.EmailRepository;
+import com.example.met.repository.EmployeeRepository;
+import com.example.met.repository.JobCardRepository;
+import com.example.met.repository.MiniJobCardRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.time.format.TextStyle;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory inverted index over job cards: type and date, generator name and description,
+ * crew names, mini job card locations and email subjects. Built once when the application is
+ * ready and refreshed per job card from events published by the write paths after commit,
+ * so searches never touch the database. Every build or refresh takes a sequence number before it
+ * reads, and a job card is only replaced by a snapshot read later than the one it holds, so
+ * refreshes that finish out of order cannot bring back older data.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SearchIndexService {
+
+    private final JobCardRepository jobCardRepository;
+    private final MiniJobCardRepository miniJobCardRepository;
+    private final ArchivedMiniJobCardRepository archivedMiniJobCardRepository;
+    private final EmailRepository emailRepository;
+    private final EmployeeRepository employeeRepository;
+
+    // Per-field boosts; a term's weight in a document is the sum over the fields it occurs in
+    private static final float GENERATOR_NAME_WEIGHT = 3f;
+    private static final float TYPE_WEIGHT = 2f;
+    private static final float LOCATION_WEIGHT = 2f;
+    private static final float EMPLOYEE_WEIGHT = 1.5f;
+    private static final float DATE_WEIGHT = 1f;
+    private static final float GENERATOR_DESCRIPTION_WEIGHT = 1f;
+    private static final float EMAIL_SUBJECT_WEIGHT = 1f;
+
+    private static final int MAX_LIMIT = 100;
+    private static final int MAX_FACET_VALUES = 10;
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "at", "by", "for", "from", "in", "of", "on", "or", "the", "to", "with", "last", "this");
+
+    // term -> (jobCardId -> weight)
+    private final Map<String, Map<UUID, Float>> postings = new HashMap<>();
+    private final Map<UUID, IndexedJobCard> documents = new HashMap<>();
+    // jobCardId -> sequence of the snapshot last applied, kept for deleted cards too
+    private final Map<UUID, Long> appliedSequences = new HashMap<>();
+    private final AtomicLong refreshSequence = new AtomicLong();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildIndex() {
+        long start = System.nanoTime();
+        long sequence = refreshSequence.incrementAndGet();
+        try {
+            List<JobCard> jobCards = jobCardRepository.findAllForSearchIndex();
+            Map<String, String> employeeNames = employeeRepository.findAll().stream()
+                    .filter(employee -> employee.getName() != null)
+                    .collect(Collectors.toMap(Employee::getEmail, Employee::getName, (a, b) -> a));
+            Map<UUID, List<String>> locations = groupPairs(miniJobCardRepository.findAllJobCardLocations());
+            groupPairs(archivedMiniJobCardRepository.findAllJobCardLocations())
+                    .forEach((id, values) -> locations.computeIfAbsent(id, k -> new ArrayList<>()).addAll(values));
+            Map<UUID, List<String>> subjects = groupPairs(emailRepository.findAllJobCardSubjects());
+
+            List<IndexedJobCard> indexed = jobCards.stream()
+                    .map(jobCard -> toDocument(jobCard, employeeNames, locations, subjects))
+                    .collect(Collectors.toList());
+
+            lock.writeLock().lock();
+            try {
+                // Cards refreshed while the build was reading are newer than the build's snapshot
+                List<IndexedJobCard> newer = documents.values().stream()
+                        .filter(document -> appliedSequences.get(document.jobCardId) > sequence)
+                        .collect(Collectors.toList());
+                postings.clear();
+                documents.clear();
+                newer.forEach(this::addDocument);
+                indexed.forEach(document -> apply(document.jobCardId, document, sequence));
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.info("Search index built with {} job cards and {} terms in {} ms",
+                    indexed.size(), postings.size(), (System.nanoTime() - start) / 1_000_000);
+        } catch (DataAccessException e) {
+            log.error("Failed to build search index", e);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onJobCardChanged(JobCardChangedEvent event) {
+        reindex(List.of(event.getJobCardId()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onJobCardDeleted(JobCardDeletedEvent event) {
+        long sequence = refreshSequence.incrementAndGet();
+        lock.writeLock().lock();
+        try {
+            apply(event.getJobCardId(), null, sequence);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onGeneratorChanged(GeneratorChangedEvent event) {
+        List<UUID> affected;
+        lock.readLock().lock();
+        try {
+            affected = documents.values().stream()
+                    .filter(document -> event.getGeneratorId().equals(document.generatorId))
+                    .map(document -> document.jobCardId)
+                    .collect(Collectors.toList());
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (!affected.isEmpty()) {
+            reindex(affected);
+        }
+    }
+
+    // Crew names are indexed, so a rename refreshes the cards the employee is on
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEmployeeChanged(EmployeeChangedEvent event) {
+        List<UUID> affected;
+        lock.readLock().lock();
+        try {
+            affected = documents.values().stream()
+                    .filter(document -> document.employeeEmails.contains(event.getEmail()))
+                    .map(document -> document.jobCardId)
+                    .collect(Collectors.toList());
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (!affected.isEmpty()) {
+            reindex(affected);
+        }
+    }
+
+    /**
+     * Ranked search. Every query word that matches contributes tf-idf weighted by the field it was
+     * found in; documents matching more of the query words rank higher. Facets count all hits.
+     */
+    public SearchResponse search(String query, JobCardType type, String month, int limit) {
+        if (query == null || query.trim().isEmpty()) {
+            throw new IllegalArgumentException("Search query cannot be empty");
+        }
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_LIMIT);
+        }
+        YearMonth monthFilter = null;
+        if (month != null && !month.isBlank()) {
+            try {
+                monthFilter = YearMonth.parse(month.trim());
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("Month must be in YYYY-MM format", e);
+            }
+        }
+        List<String> terms = new ArrayList<>(tokenize(query));
+        terms.removeIf(STOP_WORDS::contains);
+        if (terms.isEmpty()) {
+            throw new IllegalArgumentException("Search query must contain at least one searchable word");
+        }
+
+        lock.readLock().lock();
+        try {
+            int documentCount = documents.size();
+            // jobCardId -> {accumulated score, matched term count}
+            Map<UUID, double[]> scores = new HashMap<>();
+            for (String term : terms) {
+                Map<UUID, Float> posting = postings.get(term);
+                if (posting == null) {
+                    continue;
+                }
+                double idf = Math.log(1.0 + (double) documentCount / posting.size());
+                for (Map.Entry<UUID, Float> entry : posting.entrySet()) {
+                    double[] score = scores.computeIfAbsent(entry.getKey(), id -> new double[2]);
+                    score[0] += (1.0 + Math.log(entry.getValue())) * idf;
+                    score[1]++;
+                }
+            }
+
+            List<SearchHitResponse> hits = new ArrayList<>();
+            Map<String, Map<String, Integer>> facets = new LinkedHashMap<>();
+            Map<String, Integer> typeFacet = new HashMap<>();
+            Map<String, Integer> monthFacet = new HashMap<>();
+            Map<String, Integer> generatorFacet = new HashMap<>();
+            for (Map.Entry<UUID, double[]> entry : scores.entrySet()) {
+                IndexedJobCard document = documents.get(entry.getKey());
+                if (type != null && document.jobType != type) {
+                    continue;
+                }
+                if (monthFilter != null && (document.date == null || !monthFilter.equals(YearMonth.from(document.date)))) {
+                    continue;
+                }
+                double coverage = entry.getValue()[1] / terms.size();
+                hits.add(new SearchHitResponse(document.jobCardId, document.jobType, document.date,
+                        document.generatorId, document.generatorName, entry.getValue()[0] * coverage));
+
+                typeFacet.merge(String.valueOf(document.jobType), 1, Integer::sum);
+                if (document.date != null) {
+                    monthFacet.merge(YearMonth.from(document.date).toString(), 1, Integer::sum);
+                }
+                if (document.generatorName != null) {
+                    generatorFacet.merge(document.generatorName, 1, Integer::sum);
+                }
+            }
+            facets.put("jobType", topValues(typeFacet));
+            facets.put("month", topValues(monthFacet));
+            facets.put("generator", topValues(generatorFacet));
+
+            hits.sort(Comparator.comparingDouble(SearchHitResponse::getScore).reversed()
+                    .thenComparing(SearchHitResponse::getDate, Comparator.nullsLast(Comparator.reverseOrder())));
+            int totalHits = hits.size();
+            List<SearchHitResponse> page = new ArrayList<>(hits.subList(0, Math.min(limit, totalHits)));
+            return new SearchResponse(query, totalHits, page, facets);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void reindex(Collection<UUID> jobCardIds) {
+        long sequence = refreshSequence.incrementAndGet();
+        try {
+            List<JobCard> jobCards = jobCardRepository.findAllWithDetailsByJobCardIdIn(jobCardIds);
+            List<String> emails = jobCards.stream()
+                    .filter(jobCard -> jobCard.getEmployeeEmails() != null)
+                    .flatMap(jobCard -> jobCard.getEmployeeEmails().stream())
+                    .distinct()
+                    .collect(Collectors.toList());
+            Map<String, String> employeeNames = emails.isEmpty() ? Map.of()
+                    : employeeRepository.findByEmailIn(emails).stream()
+                    .filter(employee -> employee.getName() != null)
+                    .collect(Collectors.toMap(Employee::getEmail, Employee::getName, (a, b) -> a));
+            Map<UUID, List<String>> locations = groupPairs(miniJobCardRepository.findJobCardLocations(jobCardIds));
+            groupPairs(archivedMiniJobCardRepository.findJobCardLocations(jobCardIds))
+                    .forEach((id, values) -> locations.computeIfAbsent(id, k -> new ArrayList<>()).addAll(values));
+            Map<UUID, List<String>> subjects = groupPairs(emailRepository.findJobCardSubjects(jobCardIds));
+
+            Map<UUID, IndexedJobCard> indexed = jobCards.stream()
+                    .map(jobCard -> toDocument(jobCard, employeeNames, locations, subjects))
+                    .collect(Collectors.toMap(document -> document.jobCardId, document -> document));
+
+            lock.writeLock().lock();
+            try {
+                // Ids that no longer load were deleted
+                jobCardIds.forEach(id -> apply(id, indexed.get(id), sequence));
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } catch (DataAccessException e) {
+            // The write has already committed; a stale entry is corrected by the next change or restart
+            log.error("Failed to refresh search index for job cards {}", jobCardIds, e);
+        }
+    }
+
+    private IndexedJobCard toDocument(JobCard jobCard, Map<String, String> employeeNames,
+                                      Map<UUID, List<String>> locations, Map<UUID, List<String>> subjects) {
+        Map<String, Float> weights = new HashMap<>();
+        if (jobCard.getJobType() != null) {
+            addText(weights, jobCard.getJobType().name(), TYPE_WEIGHT);
+        }
+        LocalDate date = jobCard.getDate();
+        if (date != null) {
+            addTerm(weights, String.valueOf(date.getYear()), DATE_WEIGHT);
+            addTerm(weights, date.getMonth().getDisplayName(TextStyle.FULL, Locale.ENGLISH).toLowerCase(Locale.ROOT), DATE_WEIGHT);
+            addTerm(weights, date.getMonth().getDisplayName(TextStyle.SHORT, Locale.ENGLISH).toLowerCase(Locale.ROOT), DATE_WEIGHT);
+        }
+        Generator generator = jobCard.getGenerator();
+        addText(weights, generator.getName(), GENERATOR_NAME_WEIGHT);
+        addText(weights, generator.getDescription(), GENERATOR_DESCRIPTION_WEIGHT);
+        if (jobCard.getEmployeeEmails() != null) {
+            jobCard.getEmployeeEmails().forEach(email -> addText(weights, employeeNames.get(email), EMPLOYEE_WEIGHT));
+        }
+        locations.getOrDefault(jobCard.getJobCardId(), List.of())
+                .forEach(location -> addText(weights, location, LOCATION_WEIGHT));
+        subjects.getOrDefault(jobCard.getJobCardId(), List.of())
+                .forEach(subject -> addText(weights, subject, EMAIL_SUBJECT_WEIGHT));
+
+        Set<String> employeeEmails = jobCard.getEmployeeEmails() == null ? Set.of()
+                : Set.copyOf(jobCard.getEmployeeEmails());
+        return new IndexedJobCard(jobCard.getJobCardId(), jobCard.getJobType(), date,
+                generator.getGeneratorId(), generator.getName(), employeeEmails, weights);
+    }
+
+    // Callers hold the write lock; a null document removes the card
+    private void apply(UUID jobCardId, IndexedJobCard document, long sequence) {
+        if (appliedSequences.getOrDefault(jobCardId, 0L) > sequence) {
+            return; // A later snapshot is already in place
+        }
+        removeDocument(jobCardId);
+        if (document != null) {
+            addDocument(document);
+        }
+        appliedSequences.put(jobCardId, sequence);
+    }
+
+    // Callers hold the write lock
+    private void addDocument(IndexedJobCard document) {
+        documents.put(document.jobCardId, document);
+        document.weights.forEach((term, weight) ->
+                postings.computeIfAbsent(term, t -> new HashMap<>()).put(document.jobCardId, weight));
+    }
+
+    // Callers hold the write lock
+    private void removeDocument(UUID jobCardId) {
+        IndexedJobCard previous = documents.remove(jobCardId);
+        if (previous == null) {
+            return;
+        }
+        for (String term : previous.weights.keySet()) {
+            Map<UUID, Float> posting = postings.get(term);
+            if (posting != null) {
+                posting.remove(jobCardId);
+                if (posting.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+
+    private static void addText(Map<String, Float> weights, String text, float weight) {
+        if (text != null) {
+            tokenize(text).forEach(term -> addTerm(weights, term, weight));
+        }
+    }
+
+    private static void addTerm(Map<String, Float> weights, String term, float weight) {
+        weights.merge(term, weight, Float::sum);
+    }
+
+    static Set<String> tokenize(String text) {
+        Set<String> tokens = new LinkedHashSet<>();
+        for (String token : TOKEN_SEPARATOR.split(text.toLowerCase(Locale.ROOT))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private static Map<UUID, List<String>> groupPairs(List<Object[]> rows) {
+        Map<UUID, List<String>> grouped = new HashMap<>();
+        for (Object[] row : rows) {
+            if (row[1] != null) {
+                grouped.computeIfAbsent((UUID) row[0], id -> new ArrayList<>()).add((String) row[1]);
+            }
+        }
+        return grouped;
+    }
+
+    private static Map<String, Integer> topValues(Map<String, Integer> counts) {
+        return counts.entrySet().stream()
+                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+                .limit(MAX_FACET_VALUES)
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (a, b) -> a, LinkedHashMap::new));
+    }
+
+    private static final class IndexedJobCard {
+        private final UUID jobCardId;
+        private final JobCardType jobType;
+        private final LocalDate date;
+        private final UUID generatorId;
+        private final String generatorName;
+        private final Set<String> employeeEmails;
+        private final Map<String, Float> weights;
+
+        private IndexedJobCard(UUID jobCardId, JobCardType jobType, LocalDate date, UUID generatorId,
+                               String generatorName, Set<String> employeeEmails, Map<String, Float> weights) {
+            this.jobCardId = jobCardId;
+            this.jobType = jobType;
+            this.date = date;
+            this.generatorId = generatorId;
+            this.generatorName = generatorName;
+            this.employeeEmails = employeeEmails;
+            this.weights = weights;
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.met.service;
+
+import com.example.met.entity.ShiftTemplate;
+import com.example.met.enums.Role;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Shift templates and holidays compiled into per-weekday lookup tables. Built once per change and
+ * never modified, so it can be read from any thread; resolving and applying a rule is a few map
+ * and array lookups and allocates nothing. Precedence: holiday, then the employee's template for
+ * the weekday, their every-day template, the role's template for the weekday, the role's every-day
+ * template, and finally the default shift.
+ */
+public final class ShiftCalendar {
+
+    private static final int DAYS = DayOfWeek.values().length;
+    private static final long NANOS_PER_MINUTE = 60_000_000_000L;
+
+    /** A day off is a zero-length shift at noon: all time worked counts, split at midday. */
+    static final Rule DAY_OFF = new Rule(LocalTime.NOON, LocalTime.NOON);
+
+    private final Map<String, Rule[]> employeeRules;
+    private final Map<Role, Rule[]> roleRules;
+    private final Rule[] defaultRules;
+    private final Set<LocalDate> holidays;
+
+    private ShiftCalendar(Map<String, Rule[]> employeeRules, Map<Role, Rule[]> roleRules, Rule[] defaultRules,
+                          Set<LocalDate> holidays) {
+        this.employeeRules = employeeRules;
+        this.roleRules = roleRules;
+        this.defaultRules = defaultRules;
+        this.holidays = holidays;
+    }
+
+    public static ShiftCalendar compile(Collection<ShiftTemplate> templates, Collection<LocalDate> holidays,
+                                        LocalTime defaultStart, LocalTime defaultEnd, Set<DayOfWeek> defaultDaysOff) {
+        Rule workday = new Rule(defaultStart, defaultEnd);
+        Rule[] defaults = new Rule[DAYS];
+        for (DayOfWeek day : DayOfWeek.values()) {
+            defaults[day.ordinal()] = defaultDaysOff.contains(day) ? DAY_OFF : workday;
+        }
+
+        Map<String, Rule[]> byEmployee = new HashMap<>();
+        Map<Role, Rule[]> byRole = new EnumMap<>(Role.class);
+        // Every-day templates first, so weekday templates overwrite their slot
+        for (boolean everyDay : new boolean[]{true, false}) {
+            for (ShiftTemplate template : templates) {
+                if ((template.getDayOfWeek() == null) != everyDay) {
+                    continue;
+                }
+                Rule[] slots = template.getEmployeeEmail() != null
+                        ? byEmployee.computeIfAbsent(template.getEmployeeEmail(), key -> new Rule[DAYS])
+                        : byRole.computeIfAbsent(template.getRole(), key -> new Rule[DAYS]);
+                Rule rule = template.isDayOff() ? DAY_OFF : new Rule(template.getStartTime(), template.getEndTime());
+                if (everyDay) {
+                    Arrays.fill(slots, rule);
+                } else {
+                    slots[template.getDayOfWeek().ordinal()] = rule;
+                }
+            }
+        }
+        return new ShiftCalendar(byEmployee, byRole, defaults, new HashSet<>(holidays));
+    }
+
+    /**
+     * @param employeeEmail the employee's email exactly as stored
+     * @param role may be null, in which case only employee templates and the default apply
+     */
+    public Rule ruleFor(String employeeEmail, Role role, LocalDate date) {
+        if (holidays.contains(date)) {
+            return DAY_OFF;
+        }
+        int day = date.getDayOfWeek().ordinal();
+        Rule[] slots = employeeEmail != null ? employeeRules.get(employeeEmail) : null;
+        if (slots != null && slots[day] != null) {
+            return slots[day];
+        }
+        slots = role != null ? roleRules.get(role) : null;
+        if (slots != null && slots[day] != null) {
+            return slots[day];
+        }
+        return defaultRules[day];
+    }
+
+    /**
+     * One day's working hours. OT is counted in whole minutes, as before, but kept as seconds;
+     * only the part of the worked span that falls outside the shift counts.
+     */
+    public static final class Rule {
+        private final long startNanos;
+        private final long endNanos;
+
+        Rule(LocalTime start, LocalTime end) {
+            this.startNanos = start.toNanoOfDay();
+            this.endNanos = end.toNanoOfDay();
+        }
+
+        public long morningOtSeconds(LocalTime firstTime, LocalTime lastTime) {
+            long first = firstTime.toNanoOfDay();
+            long until = Math.min(startNanos, lastTime.toNanoOfDay());
+            return first < until ? (until - first) / NANOS_PER_MINUTE * 60 : 0;
+        }
+
+        public long eveningOtSeconds(LocalTime firstTime, LocalTime lastTime) {
+            long last = lastTime.toNanoOfDay();
+            long from = Math.max(endNanos, firstTime.toNanoOfDay());
+            return last > from ? (last - from) / NANOS_PER_MINUTE * 60 : 0;
+        }
+
+        public boolean isDayOff() {
+            return this == DAY_OFF;
+        }
+    }
+}
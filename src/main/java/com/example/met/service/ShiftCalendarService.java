@@ -0,0 +1,95 @@
+package com.example.met.service;
+
+import com.example.met.entity.Holiday;
+import com.example.met.enums.Role;
+import com.example.met.repository.HolidayRepository;
+import com.example.met.repository.ShiftTemplateRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Holds the compiled {@link ShiftCalendar} that OT calculation reads. Until the templates have been
+ * loaded, and if loading fails, the default shift applies. The calendar is recompiled after every
+ * rule change on this node and periodically, which picks up changes made on other nodes.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ShiftCalendarService {
+
+    private final ShiftTemplateRepository shiftTemplateRepository;
+    private final HolidayRepository holidayRepository;
+
+    @Value("${app.shifts.default-start:08:30}")
+    private String defaultStartValue;
+
+    @Value("${app.shifts.default-end:17:00}")
+    private String defaultEndValue;
+
+    // Comma-separated weekdays, e.g. SATURDAY,SUNDAY
+    @Value("${app.shifts.default-days-off:}")
+    private String defaultDaysOffValue;
+
+    private LocalTime defaultStart;
+    private LocalTime defaultEnd;
+    private Set<DayOfWeek> defaultDaysOff;
+
+    private volatile ShiftCalendar calendar;
+
+    @PostConstruct
+    void init() {
+        defaultStart = LocalTime.parse(defaultStartValue.trim());
+        defaultEnd = LocalTime.parse(defaultEndValue.trim());
+        if (defaultEnd.isBefore(defaultStart)) {
+            throw new IllegalStateException("app.shifts.default-end must not be before app.shifts.default-start");
+        }
+        defaultDaysOff = EnumSet.noneOf(DayOfWeek.class);
+        Arrays.stream(defaultDaysOffValue.split(","))
+                .map(String::trim)
+                .filter(day -> !day.isEmpty())
+                .map(day -> DayOfWeek.valueOf(day.toUpperCase()))
+                .forEach(defaultDaysOff::add);
+        calendar = ShiftCalendar.compile(List.of(), List.of(), defaultStart, defaultEnd, defaultDaysOff);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        reload();
+    }
+
+    @Scheduled(fixedDelayString = "${app.shifts.reload-interval-ms:300000}",
+            initialDelayString = "${app.shifts.reload-interval-ms:300000}")
+    public void scheduledReload() {
+        reload();
+    }
+
+    public void reload() {
+        try {
+            List<LocalDate> holidays = holidayRepository.findAll().stream().map(Holiday::getDate).toList();
+            calendar = ShiftCalendar.compile(shiftTemplateRepository.findAll(), holidays,
+                    defaultStart, defaultEnd, defaultDaysOff);
+            log.debug("Compiled shift calendar with {} holidays", holidays.size());
+        } catch (DataAccessException e) {
+            log.error("Database error while loading shift templates, keeping the previous calendar", e);
+        }
+    }
+
+    public ShiftCalendar.Rule ruleFor(String employeeEmail, Role role, LocalDate date) {
+        return calendar.ruleFor(employeeEmail, role, date);
+    }
+}
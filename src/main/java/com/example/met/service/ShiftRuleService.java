@@ -0,0 +1,340 @@
+package com.example.met.service;
+
+import com.example.met.dto.request.HolidayRequest;
+import com.example.met.dto.request.ShiftTemplateRequest;
+import com.example.met.dto.response.HolidayResponse;
+import com.example.met.dto.response.ShiftTemplateResponse;
+import com.example.met.entity.Employee;
+import com.example.met.entity.Holiday;
+import com.example.met.entity.ShiftTemplate;
+import com.example.met.enums.Role;
+import com.example.met.exception.ResourceNotFoundException;
+import com.example.met.repository.EmployeeRepository;
+import com.example.met.repository.HolidayRepository;
+import com.example.met.repository.OTTimeCalculatorRepository;
+import com.example.met.repository.ShiftTemplateRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Maintains shift templates and the holiday calendar. Each change is committed, the calendar is
+ * recompiled, and the OT rows it may affect are recomputed in the background on a small worker
+ * pool, one transaction per row under the same per-day lock as live updates. Template changes
+ * reach back {@code app.shifts.recompute-days}; a holiday recomputes its own date.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ShiftRuleService {
+
+    private final ShiftTemplateRepository shiftTemplateRepository;
+    private final HolidayRepository holidayRepository;
+    private final EmployeeRepository employeeRepository;
+    private final OTTimeCalculatorRepository otTimeCalculatorRepository;
+    private final OTTimeCalculatorService otTimeCalculatorService;
+    private final ShiftCalendarService shiftCalendarService;
+    private final TransactionTemplate transactionTemplate;
+
+    private static final ZoneId SRI_LANKA_ZONE = ZoneId.of("Asia/Colombo");
+
+    @Value("${app.shifts.recompute-days:31}")
+    private int recomputeDays;
+
+    @Value("${app.shifts.recompute-threads:4}")
+    private int recomputeThreads;
+
+    private ExecutorService recomputeWorkers;
+
+    // The OT rows a change touches: one employee or role (or everyone), optionally one weekday
+    private record Scope(String employeeEmail, Role role, DayOfWeek dayOfWeek, LocalDate startDate, LocalDate endDate) {
+    }
+
+    private record EmployeeDay(String employeeEmail, LocalDate date) {
+    }
+
+    @PostConstruct
+    void init() {
+        recomputeWorkers = Executors.newFixedThreadPool(Math.max(1, recomputeThreads));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        recomputeWorkers.shutdownNow();
+    }
+
+    public List<ShiftTemplateResponse> getAllTemplates() {
+        try {
+            return shiftTemplateRepository.findAllByOrderByEmployeeEmailAscRoleAscDayOfWeekAsc().stream()
+                    .map(this::convertToResponse)
+                    .collect(Collectors.toList());
+        } catch (DataAccessException e) {
+            log.error("Database error while retrieving shift templates", e);
+            throw new RuntimeException("Database error occurred while retrieving shift templates", e);
+        }
+    }
+
+    public ShiftTemplateResponse createTemplate(ShiftTemplateRequest request) {
+        ShiftTemplate template = new ShiftTemplate();
+        applyRequest(template, request);
+        try {
+            ShiftTemplate saved = transactionTemplate.execute(status -> {
+                requireNoOverlap(template);
+                return shiftTemplateRepository.save(template);
+            });
+            log.info("Created shift template {} for {}", saved.getShiftTemplateId(), describe(saved));
+            rulesChanged(List.of(scopeOf(saved)));
+            return convertToResponse(saved);
+        } catch (IllegalArgumentException e) {
+            throw e;
+        } catch (DataAccessException e) {
+            log.error("Database error while creating shift template", e);
+            throw new RuntimeException("Database error occurred while creating shift template", e);
+        }
+    }
+
+    public ShiftTemplateResponse updateTemplate(UUID id, ShiftTemplateRequest request) {
+        try {
+            Scope[] scopes = new Scope[2];
+            ShiftTemplate saved = transactionTemplate.execute(status -> {
+                ShiftTemplate template = findTemplate(id);
+                scopes[0] = scopeOf(template);
+                String previousEmail = template.getEmployeeEmail();
+                Role previousRole = template.getRole();
+                DayOfWeek previousDay = template.getDayOfWeek();
+                applyRequest(template, request);
+                boolean moved = !Objects.equals(previousEmail, template.getEmployeeEmail())
+                        || previousRole != template.getRole() || previousDay != template.getDayOfWeek();
+                if (moved) {
+                    requireNoOverlap(template);
+                }
+                ShiftTemplate updated = shiftTemplateRepository.save(template);
+                scopes[1] = scopeOf(updated);
+                return updated;
+            });
+            log.info("Updated shift template {} for {}", id, describe(saved));
+            rulesChanged(List.of(scopes));
+            return convertToResponse(saved);
+        } catch (IllegalArgumentException | ResourceNotFoundException e) {
+            throw e;
+        } catch (DataAccessException e) {
+            log.error("Database error while updating shift template: {}", id, e);
+            throw new RuntimeException("Database error occurred while updating shift template", e);
+        }
+    }
+
+    public void deleteTemplate(UUID id) {
+        try {
+            Scope scope = transactionTemplate.execute(status -> {
+                ShiftTemplate template = findTemplate(id);
+                shiftTemplateRepository.delete(template);
+                return scopeOf(template);
+            });
+            log.info("Deleted shift template {}", id);
+            rulesChanged(List.of(scope));
+        } catch (ResourceNotFoundException e) {
+            throw e;
+        } catch (DataAccessException e) {
+            log.error("Database error while deleting shift template: {}", id, e);
+            throw new RuntimeException("Database error occurred while deleting shift template", e);
+        }
+    }
+
+    public List<HolidayResponse> getHolidays(Integer year) {
+        try {
+            List<Holiday> holidays = year == null ? holidayRepository.findAllByOrderByDateAsc()
+                    : holidayRepository.findByDateBetweenOrderByDateAsc(LocalDate.of(year, 1, 1), LocalDate.of(year, 12, 31));
+            return holidays.stream().map(this::convertToResponse).collect(Collectors.toList());
+        } catch (DataAccessException e) {
+            log.error("Database error while retrieving holidays", e);
+            throw new RuntimeException("Database error occurred while retrieving holidays", e);
+        }
+    }
+
+    public HolidayResponse createHoliday(HolidayRequest request) {
+        if (request.getDate() == null || request.getName() == null || request.getName().trim().isEmpty()) {
+            throw new IllegalArgumentException("Holiday date and name are required");
+        }
+        try {
+            Holiday saved = transactionTemplate.execute(status -> {
+                if (holidayRepository.existsByDate(request.getDate())) {
+                    throw new IllegalArgumentException("A holiday already exists on " + request.getDate());
+                }
+                Holiday holiday = new Holiday();
+                holiday.setDate(request.getDate());
+                holiday.setName(request.getName().trim());
+                return holidayRepository.save(holiday);
+            });
+            log.info("Created holiday {} on {}", saved.getName(), saved.getDate());
+            rulesChanged(List.of(holidayScope(saved.getDate())));
+            return convertToResponse(saved);
+        } catch (IllegalArgumentException e) {
+            throw e;
+        } catch (DataAccessException e) {
+            log.error("Database error while creating holiday on {}", request.getDate(), e);
+            throw new RuntimeException("Database error occurred while creating holiday", e);
+        }
+    }
+
+    public void deleteHoliday(UUID id) {
+        try {
+            LocalDate date = transactionTemplate.execute(status -> {
+                Holiday holiday = holidayRepository.findById(id)
+                        .orElseThrow(() -> new ResourceNotFoundException("Holiday not found with id: " + id));
+                holidayRepository.delete(holiday);
+                return holiday.getDate();
+            });
+            log.info("Deleted holiday on {}", date);
+            rulesChanged(List.of(holidayScope(date)));
+        } catch (ResourceNotFoundException e) {
+            throw e;
+        } catch (DataAccessException e) {
+            log.error("Database error while deleting holiday: {}", id, e);
+            throw new RuntimeException("Database error occurred while deleting holiday", e);
+        }
+    }
+
+    // Recompiles the calendar and queues the affected OT rows; returns without waiting for them
+    private void rulesChanged(List<Scope> scopes) {
+        shiftCalendarService.reload();
+
+        Set<EmployeeDay> days = new LinkedHashSet<>();
+        try {
+            for (Scope scope : scopes) {
+                for (Object[] row : otTimeCalculatorRepository.findDaysForRecompute(scope.employeeEmail(), scope.role(),
+                        scope.startDate(), scope.endDate())) {
+                    LocalDate date = (LocalDate) row[1];
+                    if (scope.dayOfWeek() == null || date.getDayOfWeek() == scope.dayOfWeek()) {
+                        days.add(new EmployeeDay((String) row[0], date));
+                    }
+                }
+            }
+        } catch (DataAccessException e) {
+            // The rows keep their OT until they next change or the rule is saved again
+            log.error("Database error while selecting OT rows to recompute after a shift rule change", e);
+            return;
+        }
+        if (days.isEmpty()) {
+            return;
+        }
+
+        log.info("Recomputing OT for {} employee days after a shift rule change", days.size());
+        long start = System.nanoTime();
+        AtomicInteger done = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        List<CompletableFuture<Void>> tasks = new ArrayList<>(days.size());
+        for (EmployeeDay day : days) {
+            tasks.add(CompletableFuture.runAsync(() -> {
+                try {
+                    otTimeCalculatorService.recalculateOTForDay(day.employeeEmail(), day.date());
+                    done.incrementAndGet();
+                } catch (RuntimeException e) {
+                    // The row keeps its old OT; saving the rule again retries it
+                    failed.incrementAndGet();
+                    log.error("Failed to recompute OT for employee: {} on date: {} after a shift rule change",
+                            day.employeeEmail(), day.date(), e);
+                }
+            }, recomputeWorkers));
+        }
+        CompletableFuture.allOf(tasks.toArray(new CompletableFuture[0])).whenComplete((ignored, error) -> {
+            long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+            if (error != null) {
+                log.error("OT recompute after a shift rule change stopped after {} ms", elapsedMs, error);
+            } else if (failed.get() > 0) {
+                log.error("Recomputed OT for {} of {} employee days in {} ms; {} failed and keep their old OT",
+                        done.get(), days.size(), elapsedMs, failed.get());
+            } else {
+                log.info("Recomputed OT for {} of {} employee days in {} ms", done.get(), days.size(), elapsedMs);
+            }
+        });
+    }
+
+    private ShiftTemplate findTemplate(UUID id) {
+        return shiftTemplateRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Shift template not found with id: " + id));
+    }
+
+    private void applyRequest(ShiftTemplate template, ShiftTemplateRequest request) {
+        if (request == null) {
+            throw new IllegalArgumentException("Shift template is required");
+        }
+        boolean forEmployee = request.getEmployeeEmail() != null && !request.getEmployeeEmail().trim().isEmpty();
+        if (forEmployee == (request.getRole() != null)) {
+            throw new IllegalArgumentException("A shift template applies to either an employee or a role");
+        }
+        if ((request.getStartTime() == null) != (request.getEndTime() == null)) {
+            throw new IllegalArgumentException("Set both start and end time, or neither for a day off");
+        }
+        if (request.getStartTime() != null && !request.getEndTime().isAfter(request.getStartTime())) {
+            throw new IllegalArgumentException("Shift end time must be after start time");
+        }
+
+        String employeeEmail = null;
+        if (forEmployee) {
+            // Stored exactly as the employee's key so lookups need no normalizing
+            Employee employee = employeeRepository.findByEmail(request.getEmployeeEmail().trim())
+                    .orElseThrow(() -> new IllegalArgumentException(
+                            "Employee not found with email: " + request.getEmployeeEmail()));
+            employeeEmail = employee.getEmail();
+        }
+        template.setEmployeeEmail(employeeEmail);
+        template.setRole(forEmployee ? null : request.getRole());
+        template.setDayOfWeek(request.getDayOfWeek());
+        template.setStartTime(request.getStartTime());
+        template.setEndTime(request.getEndTime());
+    }
+
+    private void requireNoOverlap(ShiftTemplate template) {
+        boolean exists = template.getEmployeeEmail() != null
+                ? shiftTemplateRepository.existsByEmployeeEmailAndDayOfWeek(template.getEmployeeEmail(), template.getDayOfWeek())
+                : shiftTemplateRepository.existsByRoleAndDayOfWeek(template.getRole(), template.getDayOfWeek());
+        if (exists) {
+            throw new IllegalArgumentException("A shift template already exists for " + describe(template));
+        }
+    }
+
+    private Scope scopeOf(ShiftTemplate template) {
+        LocalDate today = LocalDate.now(SRI_LANKA_ZONE);
+        return new Scope(template.getEmployeeEmail(), template.getRole(), template.getDayOfWeek(),
+                today.minusDays(recomputeDays), today);
+    }
+
+    private static Scope holidayScope(LocalDate date) {
+        return new Scope(null, null, null, date, date);
+    }
+
+    private static String describe(ShiftTemplate template) {
+        String who = template.getEmployeeEmail() != null ? template.getEmployeeEmail() : "role " + template.getRole();
+        return who + " on " + (template.getDayOfWeek() != null ? template.getDayOfWeek() : "every day");
+    }
+
+    private ShiftTemplateResponse convertToResponse(ShiftTemplate template) {
+        return new ShiftTemplateResponse(template.getShiftTemplateId(), template.getEmployeeEmail(), template.getRole(),
+                template.getDayOfWeek(), template.getStartTime(), template.getEndTime(), template.isDayOff(),
+                template.getCreatedAt(), template.getUpdatedAt());
+    }
+
+    private HolidayResponse convertToResponse(Holiday holiday) {
+        return new HolidayResponse(holiday.getHolidayId(), holiday.getDate(), holiday.getName(), holiday.getCreatedAt());
+    }
+}
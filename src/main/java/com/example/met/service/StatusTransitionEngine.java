@@ -0,0 +1,114 @@
+package com.example.met.service;
+
+import com.example.met.entity.StatusTimeAccumulator;
+import com.example.met.enums.JobStatus;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * The one set of rules for moving between statuses and crediting the time spent in them, shared
+ * by mini job cards and the daily OT rows. Which moves are allowed is an ordinal-indexed matrix;
+ * time is credited in whole seconds to primitive counters. Nothing here allocates, so it can run
+ * on every transition of a bulk update or a rebuild without garbage.
+ */
+public final class StatusTransitionEngine {
+
+    private static final JobStatus[] STATUSES = JobStatus.values();
+    private static final boolean[][] ALLOWED = new boolean[STATUSES.length][STATUSES.length];
+    // Only these statuses accumulate time; PENDING, COMPLETED and CANCELLED do not
+    private static final boolean[] TRACKED = new boolean[STATUSES.length];
+
+    static {
+        for (JobStatus from : STATUSES) {
+            for (JobStatus to : STATUSES) {
+                ALLOWED[from.ordinal()][to.ordinal()] = from != to
+                        // PENDING is where a card starts; nothing moves back into it
+                        && to != JobStatus.PENDING
+                        // A closed card is reopened before it can be closed the other way
+                        && !(isClosed(from) && isClosed(to));
+            }
+        }
+        TRACKED[JobStatus.ON_HOLD.ordinal()] = true;
+        TRACKED[JobStatus.ASSIGNED.ordinal()] = true;
+        TRACKED[JobStatus.IN_PROGRESS.ordinal()] = true;
+    }
+
+    private StatusTransitionEngine() {
+    }
+
+    public static boolean isAllowed(JobStatus from, JobStatus to) {
+        return from != null && to != null && ALLOWED[from.ordinal()][to.ordinal()];
+    }
+
+    public static void requireAllowed(JobStatus from, JobStatus to) {
+        if (!isAllowed(from, to)) {
+            throw new IllegalArgumentException("Cannot move a mini job card from " + from + " to " + to);
+        }
+    }
+
+    public static boolean isTracked(JobStatus status) {
+        return status != null && TRACKED[status.ordinal()];
+    }
+
+    /**
+     * Whole seconds from {@code since} to {@code at}, rounded down like {@link java.time.Duration#getSeconds()}.
+     */
+    public static long secondsBetween(LocalDateTime since, LocalDateTime at) {
+        long seconds = at.toEpochSecond(ZoneOffset.UTC) - since.toEpochSecond(ZoneOffset.UTC);
+        return at.getNano() < since.getNano() ? seconds - 1 : seconds;
+    }
+
+    /**
+     * Adds {@code seconds} to the counter of {@code status}; untracked statuses and non-positive
+     * amounts are ignored.
+     */
+    public static void credit(StatusTimeAccumulator target, JobStatus status, long seconds) {
+        if (seconds <= 0 || !isTracked(status)) {
+            return;
+        }
+        switch (status) {
+            case ON_HOLD:
+                target.setOnHoldSeconds(target.getOnHoldSeconds() + seconds);
+                break;
+            case ASSIGNED:
+                target.setAssignedSeconds(target.getAssignedSeconds() + seconds);
+                break;
+            case IN_PROGRESS:
+                target.setInProgressSeconds(target.getInProgressSeconds() + seconds);
+                break;
+            default:
+                break;
+        }
+    }
+
+    /** Counters for every status, indexed by ordinal, for folding a history without an entity. */
+    public static long[] newAccumulator() {
+        return new long[STATUSES.length];
+    }
+
+    public static void credit(long[] accumulator, JobStatus status, long seconds) {
+        if (seconds > 0 && isTracked(status)) {
+            accumulator[status.ordinal()] += seconds;
+        }
+    }
+
+    /**
+     * The status with this name, ignoring case, or null; for the OT rows, which store it as text.
+     */
+    public static JobStatus statusNamed(String name) {
+        if (name == null) {
+            return null;
+        }
+        for (JobStatus status : STATUSES) {
+            if (status.name().equalsIgnoreCase(name)) {
+                return status;
+            }
+        }
+        return null;
+    }
+
+    private static boolean isClosed(JobStatus status) {
+        return status == JobStatus.COMPLETED || status == JobStatus.CANCELLED;
+    }
+}
@@ -0,0 +1,292 @@
+package com.example.met.service;
+
+import com.example.met.entity.Employee;
+import com.example.met.entity.StuckJobAlert;
+import com.example.met.enums.JobCardType;
+import com.example.met.enums.JobStatus;
+import com.example.met.enums.Role;
+import com.example.met.repository.EmployeeRepository;
+import com.example.met.repository.MiniJobCardRepository;
+import com.example.met.repository.StuckJobAlertRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Finds mini job cards left in ON_HOLD or ASSIGNED past a per job type threshold. The scan walks
+ * only active cards through a partial index, in keyset-paged chunks, records each stall once in
+ * {@code stuck_job_alerts} and then mails all unsent alerts as one digest.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StuckJobDetector {
+
+    private final MiniJobCardRepository miniJobCardRepository;
+    private final StuckJobAlertRepository stuckJobAlertRepository;
+    private final EmployeeRepository employeeRepository;
+    private final JavaMailSender mailSender;
+    private final TransactionTemplate transactionTemplate;
+
+    private static final ZoneId SRI_LANKA_ZONE = ZoneId.of("Asia/Colombo");
+    private static final Set<JobStatus> WATCHED_STATUSES = Set.of(JobStatus.ON_HOLD, JobStatus.ASSIGNED);
+    private static final LocalDateTime SCAN_START = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final UUID SCAN_START_ID = new UUID(0L, 0L);
+    private static final DateTimeFormatter DIGEST_TIME_FORMAT = DateTimeFormatter.ofPattern("MMM dd, yyyy HH:mm");
+
+    @Value("${app.stuck-jobs.enabled:true}")
+    private boolean enabled;
+
+    /**
+     * Comma-separated {@code STATUS:hours} defaults and {@code TYPE.STATUS:hours} overrides,
+     * e.g. {@code ON_HOLD:48,ASSIGNED:24,REPAIR.ON_HOLD:24}.
+     */
+    @Value("${app.stuck-jobs.threshold-hours:ON_HOLD:48,ASSIGNED:24}")
+    private String thresholdHours;
+
+    @Value("${app.stuck-jobs.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${app.stuck-jobs.max-chunks-per-run:100}")
+    private int maxChunksPerRun;
+
+    @Value("${app.stuck-jobs.digest-max-alerts:200}")
+    private int digestMaxAlerts;
+
+    // Comma-separated; admins are mailed when empty
+    @Value("${app.stuck-jobs.digest-recipients:}")
+    private String digestRecipients;
+
+    @Value("${app.mail.from:noreply@metropolitan.com}")
+    private String fromEmail;
+
+    private Map<JobCardType, Map<JobStatus, Duration>> thresholds;
+    private Duration shortestThreshold;
+
+    @PostConstruct
+    void init() {
+        thresholds = parseThresholds(thresholdHours);
+        shortestThreshold = thresholds.values().stream()
+                .flatMap(byStatus -> byStatus.values().stream())
+                .min(Duration::compareTo)
+                .orElseThrow();
+    }
+
+    @Scheduled(cron = "${app.stuck-jobs.cron:0 0 * * * *}", zone = "Asia/Colombo")
+    public void run() {
+        if (!enabled) {
+            return;
+        }
+        int recorded = scan();
+        int notified = sendDigest();
+        log.info("Stuck-job scan recorded {} new alerts, {} sent in digest", recorded, notified);
+    }
+
+    /**
+     * @return the number of new alerts recorded
+     */
+    int scan() {
+        LocalDateTime now = LocalDateTime.now(SRI_LANKA_ZONE);
+        // The shortest threshold gives the latest cutoff; per-card thresholds are applied to what it returns
+        LocalDateTime cutoff = now.minus(shortestThreshold);
+        LocalDateTime afterTime = SCAN_START;
+        UUID afterId = SCAN_START_ID;
+
+        int recorded = 0;
+        for (int chunk = 0; chunk < maxChunksPerRun; chunk++) {
+            List<Object[]> rows;
+            try {
+                rows = miniJobCardRepository.findStuckCandidates(cutoff, afterTime, afterId,
+                        PageRequest.of(0, chunkSize));
+            } catch (DataAccessException e) {
+                log.error("Stuck-job scan stopped after {} new alerts because of a database error", recorded, e);
+                break;
+            }
+            if (rows.isEmpty()) {
+                break;
+            }
+            recorded += recordChunk(rows, now);
+
+            Object[] last = rows.get(rows.size() - 1);
+            afterTime = (LocalDateTime) last[5];
+            afterId = (UUID) last[0];
+            if (rows.size() < chunkSize) {
+                break;
+            }
+        }
+        return recorded;
+    }
+
+    private int recordChunk(List<Object[]> rows, LocalDateTime now) {
+        List<StuckJobAlert> stuck = new ArrayList<>();
+        for (Object[] row : rows) {
+            JobCardType jobType = (JobCardType) row[2];
+            JobStatus status = (JobStatus) row[3];
+            LocalDateTime since = (LocalDateTime) row[5];
+            if (since.isBefore(now.minus(threshold(jobType, status)))) {
+                stuck.add(new StuckJobAlert(null, (UUID) row[0], (UUID) row[1], jobType, status,
+                        (String) row[4], since, now, null));
+            }
+        }
+        if (stuck.isEmpty()) {
+            return 0;
+        }
+
+        try {
+            Integer saved = transactionTemplate.execute(status -> {
+                Set<AlertKey> existing = new HashSet<>();
+                for (Object[] key : stuckJobAlertRepository.findAlertKeysByMiniJobCardIdIn(
+                        stuck.stream().map(StuckJobAlert::getMiniJobCardId).toList())) {
+                    existing.add(new AlertKey((UUID) key[0], (JobStatus) key[1], (LocalDateTime) key[2]));
+                }
+                List<StuckJobAlert> fresh = stuck.stream()
+                        .filter(alert -> !existing.contains(AlertKey.of(alert)))
+                        .toList();
+                stuckJobAlertRepository.saveAll(fresh);
+                return fresh.size();
+            });
+            return saved != null ? saved : 0;
+        } catch (DataIntegrityViolationException e) {
+            // Another node recorded some of these first; the next run picks up any it did not
+            log.info("Skipped a chunk of stuck-job alerts already recorded elsewhere");
+            return 0;
+        } catch (DataAccessException e) {
+            log.error("Database error while recording {} stuck-job alerts", stuck.size(), e);
+            return 0;
+        }
+    }
+
+    /**
+     * Mails unsent alerts as one message and marks them sent. A failed send leaves them for the next run.
+     *
+     * @return the number of alerts sent
+     */
+    int sendDigest() {
+        try {
+            List<StuckJobAlert> alerts = stuckJobAlertRepository.findUnnotified(PageRequest.of(0, digestMaxAlerts));
+            if (alerts.isEmpty()) {
+                return 0;
+            }
+            String[] recipients = resolveRecipients();
+            if (recipients.length == 0) {
+                log.warn("{} stuck-job alerts waiting but no digest recipients are configured", alerts.size());
+                return 0;
+            }
+
+            LocalDateTime now = LocalDateTime.now(SRI_LANKA_ZONE);
+            SimpleMailMessage message = new SimpleMailMessage();
+            message.setFrom(fromEmail);
+            message.setTo(recipients);
+            message.setSubject(alerts.size() + " mini job card" + (alerts.size() == 1 ? "" : "s") + " need attention");
+            message.setText(buildDigestBody(alerts, now));
+            mailSender.send(message);
+
+            List<Long> ids = alerts.stream().map(StuckJobAlert::getId).toList();
+            transactionTemplate.executeWithoutResult(status -> stuckJobAlertRepository.markNotified(ids, now));
+            return alerts.size();
+        } catch (DataAccessException e) {
+            log.error("Database error while sending the stuck-job digest", e);
+            return 0;
+        } catch (Exception e) {
+            log.error("Failed to send the stuck-job digest", e);
+            return 0;
+        }
+    }
+
+    private String[] resolveRecipients() {
+        if (!digestRecipients.isBlank()) {
+            return Arrays.stream(digestRecipients.split(","))
+                    .map(String::trim)
+                    .filter(email -> !email.isEmpty())
+                    .toArray(String[]::new);
+        }
+        return employeeRepository.findByRole(Role.ADMIN).stream()
+                .map(Employee::getEmail)
+                .toArray(String[]::new);
+    }
+
+    private static String buildDigestBody(List<StuckJobAlert> alerts, LocalDateTime now) {
+        StringBuilder body = new StringBuilder("The following mini job cards have not moved past their threshold:\n\n");
+        for (StuckJobAlert alert : alerts) {
+            Duration stuckFor = Duration.between(alert.getStuckSince(), now);
+            body.append(String.format("- %s job %s for %dh %02dm (since %s), assigned to %s%n  Job card: %s, mini job card: %s%n",
+                    alert.getJobType(), alert.getStatus(), stuckFor.toHours(),
+                    stuckFor.toMinutesPart(), alert.getStuckSince().format(DIGEST_TIME_FORMAT),
+                    alert.getEmployeeEmail(), alert.getJobCardId(), alert.getMiniJobCardId()));
+        }
+        return body.toString();
+    }
+
+    Duration threshold(JobCardType jobType, JobStatus status) {
+        return thresholds.get(jobType).get(status);
+    }
+
+    static Map<JobCardType, Map<JobStatus, Duration>> parseThresholds(String spec) {
+        Map<JobStatus, Duration> defaults = new EnumMap<>(JobStatus.class);
+        Map<JobCardType, Map<JobStatus, Duration>> overrides = new EnumMap<>(JobCardType.class);
+        for (String entry : spec.split(",")) {
+            String trimmed = entry.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            String[] keyAndHours = trimmed.split(":");
+            if (keyAndHours.length != 2) {
+                throw new IllegalStateException("Invalid stuck-job threshold '" + trimmed + "', expected KEY:hours");
+            }
+            String[] typeAndStatus = keyAndHours[0].trim().split("\\.");
+            Duration hours = Duration.ofHours(Long.parseLong(keyAndHours[1].trim()));
+            JobStatus status = JobStatus.valueOf(typeAndStatus[typeAndStatus.length - 1]);
+            if (!WATCHED_STATUSES.contains(status)) {
+                throw new IllegalStateException("Stuck-job thresholds apply to ON_HOLD and ASSIGNED only, not " + status);
+            }
+            if (typeAndStatus.length == 1) {
+                defaults.put(status, hours);
+            } else {
+                overrides.computeIfAbsent(JobCardType.valueOf(typeAndStatus[0]), key -> new EnumMap<>(JobStatus.class))
+                        .put(status, hours);
+            }
+        }
+
+        Map<JobCardType, Map<JobStatus, Duration>> thresholds = new EnumMap<>(JobCardType.class);
+        for (JobCardType jobType : JobCardType.values()) {
+            Map<JobStatus, Duration> byStatus = new EnumMap<>(JobStatus.class);
+            for (JobStatus status : WATCHED_STATUSES) {
+                Duration hours = overrides.getOrDefault(jobType, Map.of()).getOrDefault(status, defaults.get(status));
+                if (hours == null) {
+                    throw new IllegalStateException("No stuck-job threshold for " + jobType + " " + status);
+                }
+                byStatus.put(status, hours);
+            }
+            thresholds.put(jobType, byStatus);
+        }
+        return thresholds;
+    }
+
+    private record AlertKey(UUID miniJobCardId, JobStatus status, LocalDateTime stuckSince) {
+        static AlertKey of(StuckJobAlert alert) {
+            return new AlertKey(alert.getMiniJobCardId(), alert.getStatus(), alert.getStuckSince());
+        }
+    }
+}
@@ -0,0 +1,357 @@
+package com.example.met.service;
+
+import com.example.met.dto.response.TransitionStreamEvent;
+import com.example.met.entity.OutboxEvent;
+import com.example.met.enums.OutboxEventType;
+import com.example.met.event.MiniJobCardStatusChange;
+import com.example.met.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Pushes committed status transitions to dispatch consoles over server-sent events. Emitters are
+ * asynchronous, so subscribers hold no request thread; a small sender pool drains each
+ * subscriber's bounded queue, dropping the oldest events when a client falls behind and telling it
+ * how many were lost. Recent events are kept in a ring so a reconnecting client resumes from its
+ * {@code Last-Event-ID}, falling back to the outbox table when the id has left the ring.
+ * Events come in through {@link #publish} from whichever feed {@code app.stream.fanout} selects.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TransitionStreamService {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    private static final ZoneId SRI_LANKA_ZONE = ZoneId.of("Asia/Colombo");
+
+    @Value("${app.stream.subscriber-buffer:256}")
+    private int subscriberBuffer;
+
+    @Value("${app.stream.replay-size:1000}")
+    private int replaySize;
+
+    @Value("${app.stream.max-replay:2000}")
+    private int maxReplay;
+
+    @Value("${app.stream.max-subscribers:200}")
+    private int maxSubscribers;
+
+    @Value("${app.stream.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    @Value("${app.stream.sender-threads:2}")
+    private int senderThreads;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ArrayDeque<TransitionStreamEvent> recent = new ArrayDeque<>(); // Guarded by itself
+    private Executor senders;
+    private Counter droppedCounter;
+
+    @PostConstruct
+    void init() {
+        senders = Executors.newFixedThreadPool(Math.max(1, senderThreads));
+        Gauge.builder("stream.subscribers", subscribers, Set::size)
+                .description("Open transition stream connections on this node")
+                .register(meterRegistry);
+        droppedCounter = Counter.builder("stream.events.dropped")
+                .description("Transition events dropped for subscribers that fell behind")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        subscribers.clear();
+        if (senders instanceof ExecutorService executorService) {
+            executorService.shutdownNow();
+        }
+    }
+
+    /**
+     * @param employeeEmail only transitions of this employee, when given
+     * @param jobCardId     only transitions of this job card's mini job cards, when given
+     * @param lastEventId   the last event the client saw; later events are replayed first
+     */
+    public SseEmitter subscribe(String employeeEmail, UUID jobCardId, Long lastEventId) {
+        if (subscribers.size() >= maxSubscribers) {
+            throw new IllegalStateException("Too many open transition streams");
+        }
+
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscriber subscriber = new Subscriber(emitter, employeeEmail, jobCardId, subscriberBuffer);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+
+        // Older history comes from the table; read it before taking the ring lock
+        List<TransitionStreamEvent> stored = List.of();
+        boolean ringHasCursor = lastEventId != null && ringContains(lastEventId);
+        if (lastEventId != null && !ringHasCursor) {
+            stored = loadAfter(lastEventId);
+            if (stored.size() > maxReplay) {
+                subscriber.requestReset();
+                stored = List.of();
+            }
+        }
+
+        // Registering under the ring lock makes replay and live delivery meet without gaps or repeats
+        synchronized (recent) {
+            if (ringHasCursor) {
+                boolean afterCursor = false;
+                for (TransitionStreamEvent event : recent) {
+                    if (afterCursor) {
+                        subscriber.replay(event);
+                    }
+                    afterCursor = afterCursor || event.getId().equals(lastEventId);
+                }
+            } else if (lastEventId != null) {
+                Set<Long> storedIds = new HashSet<>();
+                for (TransitionStreamEvent event : stored) {
+                    storedIds.add(event.getId());
+                    subscriber.replay(event);
+                }
+                // The table read skips rows still settling; the ring may already hold them
+                for (TransitionStreamEvent event : recent) {
+                    if (event.getId() > lastEventId && !storedIds.contains(event.getId())) {
+                        subscriber.replay(event);
+                    }
+                }
+            }
+            subscribers.add(subscriber);
+        }
+        schedule(subscriber);
+
+        log.info("Transition stream opened (employee: {}, job card: {}, resuming after: {}), {} open",
+                employeeEmail, jobCardId, lastEventId, subscribers.size());
+        return emitter;
+    }
+
+    public void publish(TransitionStreamEvent event) {
+        synchronized (recent) {
+            recent.addLast(event);
+            if (recent.size() > replaySize) {
+                recent.pollFirst();
+            }
+            for (Subscriber subscriber : subscribers) {
+                if (subscriber.matches(event) && subscriber.offer(event)) {
+                    schedule(subscriber);
+                }
+            }
+        }
+    }
+
+    // Keeps idle connections open through proxies and notices clients that went away
+    @Scheduled(fixedDelayString = "${app.stream.heartbeat-ms:15000}")
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.requestHeartbeat()) {
+                schedule(subscriber);
+            }
+        }
+    }
+
+    List<Subscriber> subscribers() {
+        return new ArrayList<>(subscribers);
+    }
+
+    private void schedule(Subscriber subscriber) {
+        if (subscriber.startDraining()) {
+            senders.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        SseEmitter emitter = subscriber.emitter;
+        Subscriber.Batch batch;
+        while ((batch = subscriber.takeBatch()) != null) {
+            try {
+                if (batch.reset()) {
+                    emitter.send(SseEmitter.event().name("reset")
+                            .data(Map.of("reason", "Too many missed events, reload current state")));
+                }
+                if (batch.dropped() > 0) {
+                    droppedCounter.increment(batch.dropped());
+                    emitter.send(SseEmitter.event().name("dropped").data(Map.of("count", batch.dropped())));
+                }
+                for (TransitionStreamEvent event : batch.events()) {
+                    emitter.send(SseEmitter.event()
+                            .id(String.valueOf(event.getId()))
+                            .name("transition")
+                            .data(event, MediaType.APPLICATION_JSON));
+                }
+                if (batch.heartbeat()) {
+                    emitter.send(SseEmitter.event().comment("keep-alive"));
+                }
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Transition stream closed while sending: {}", e.getMessage());
+                subscribers.remove(subscriber);
+                subscriber.close();
+                return;
+            }
+        }
+    }
+
+    private boolean ringContains(Long id) {
+        synchronized (recent) {
+            for (TransitionStreamEvent event : recent) {
+                if (event.getId().equals(id)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private List<TransitionStreamEvent> loadAfter(Long lastEventId) {
+        try {
+            List<OutboxEvent> rows = outboxEventRepository.findStreamable(OutboxEventType.MINI_JOB_CARD_STATUS_CHANGED,
+                    lastEventId, LocalDateTime.now(SRI_LANKA_ZONE), PageRequest.of(0, maxReplay + 1));
+            List<TransitionStreamEvent> events = new ArrayList<>(rows.size());
+            for (OutboxEvent row : rows) {
+                events.add(toStreamEvent(row));
+            }
+            return events;
+        } catch (DataAccessException e) {
+            log.error("Database error while loading transitions after {} for replay", lastEventId, e);
+            throw new RuntimeException("Database error occurred while replaying transitions", e);
+        }
+    }
+
+    TransitionStreamEvent toStreamEvent(OutboxEvent row) {
+        try {
+            return TransitionStreamEvent.of(row.getId(),
+                    objectMapper.readValue(row.getPayload(), MiniJobCardStatusChange.class));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable payload for outbox event " + row.getId(), e);
+        }
+    }
+
+    /**
+     * One connection: its filters and a bounded queue that drops the oldest events on overflow.
+     * At most one sender drains it at a time.
+     */
+    static final class Subscriber {
+
+        record Batch(List<TransitionStreamEvent> events, long dropped, boolean heartbeat, boolean reset) {
+        }
+
+        private final SseEmitter emitter;
+        private final String employeeEmail;
+        private final UUID jobCardId;
+        private final int capacity;
+        private final ArrayDeque<TransitionStreamEvent> queue = new ArrayDeque<>();
+        private long dropped;
+        private boolean heartbeat;
+        private boolean reset;
+        private boolean draining;
+        private boolean closed;
+
+        Subscriber(SseEmitter emitter, String employeeEmail, UUID jobCardId, int capacity) {
+            this.emitter = emitter;
+            this.employeeEmail = employeeEmail;
+            this.jobCardId = jobCardId;
+            this.capacity = Math.max(1, capacity);
+        }
+
+        boolean matches(TransitionStreamEvent event) {
+            return (employeeEmail == null || employeeEmail.equalsIgnoreCase(event.getEmployeeEmail()))
+                    && (jobCardId == null || jobCardId.equals(event.getJobCardId()));
+        }
+
+        // Replayed history is not subject to the live buffer limit
+        synchronized void replay(TransitionStreamEvent event) {
+            if (matches(event)) {
+                queue.addLast(event);
+            }
+        }
+
+        /** @return whether the queue needs a sender */
+        synchronized boolean offer(TransitionStreamEvent event) {
+            if (closed) {
+                return false;
+            }
+            while (queue.size() >= capacity) {
+                queue.pollFirst();
+                dropped++;
+            }
+            queue.addLast(event);
+            return true;
+        }
+
+        synchronized void requestReset() {
+            reset = true;
+        }
+
+        synchronized boolean requestHeartbeat() {
+            heartbeat = !closed;
+            return heartbeat;
+        }
+
+        synchronized boolean startDraining() {
+            if (draining || closed) {
+                return false;
+            }
+            draining = true;
+            return true;
+        }
+
+        synchronized Batch takeBatch() {
+            if (queue.isEmpty() && dropped == 0 && !heartbeat && !reset) {
+                draining = false;
+                return null;
+            }
+            Batch batch = new Batch(new ArrayList<>(queue), dropped, heartbeat && queue.isEmpty(), reset);
+            queue.clear();
+            dropped = 0;
+            heartbeat = false;
+            reset = false;
+            return batch;
+        }
+
+        synchronized void close() {
+            closed = true;
+            draining = false;
+            queue.clear();
+        }
+
+        synchronized List<TransitionStreamEvent> pending() {
+            return new ArrayList<>(queue);
+        }
+
+        synchronized long droppedCount() {
+            return dropped;
+        }
+    }
+}
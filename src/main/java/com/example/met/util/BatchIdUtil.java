@@ -0,0 +1,39 @@
+package com.example.met.util;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Validates the id list of multi-id fetch endpoints.
+ */
+public class BatchIdUtil {
+
+    private BatchIdUtil() {
+    }
+
+    /**
+     * Drops nulls and duplicates while keeping the first-seen order, so the caller can emit
+     * results in request order.
+     *
+     * @throws IllegalArgumentException when no ids remain or more than {@code maxIds} are requested
+     */
+    public static List<UUID> normalize(List<UUID> ids, int maxIds) {
+        if (ids == null || ids.isEmpty()) {
+            throw new IllegalArgumentException("At least one id is required");
+        }
+
+        LinkedHashSet<UUID> unique = new LinkedHashSet<>();
+        ids.stream().filter(Objects::nonNull).forEach(unique::add);
+
+        if (unique.isEmpty()) {
+            throw new IllegalArgumentException("At least one id is required");
+        }
+        if (unique.size() > maxIds) {
+            throw new IllegalArgumentException("Cannot fetch more than " + maxIds + " ids at once");
+        }
+        return new ArrayList<>(unique);
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.met.util;
+
+/**
+ * Converts entity versions to and from HTTP entity tags for If-Match based optimistic locking.
+ */
+public class ETagUtil {
+
+    private ETagUtil() {
+    }
+
+    public static String toETag(Long version) {
+        return version == null ? null : "\"" + version + "\"";
+    }
+
+    /**
+     * Parses an If-Match header value into the expected version.
+     *
+     * @return the version, or null when the header is absent or "*"
+     * @throws IllegalArgumentException when the header is not a version tag
+     */
+    public static Long parseIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || "*".equals(ifMatch.trim())) {
+            return null;
+        }
+
+        String value = ifMatch.trim();
+        if (value.startsWith("W/")) {
+            value = value.substring(2);
+        }
+        if (value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) {
+            value = value.substring(1, value.length() - 1);
+        }
+
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid If-Match header: " + ifMatch);
+        }
+    }
+}
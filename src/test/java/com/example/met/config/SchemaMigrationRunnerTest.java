@@ -0,0 +1,32 @@
+package com.example.met.config;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SchemaMigrationRunnerTest {
+
+    @Test
+    void convertsTimeValuesToSeconds() {
+        assertEquals(0, SchemaMigrationRunner.legacyDurationToSeconds("00:00:00"));
+        assertEquals(13 * 3600 + 5 * 60 + 7, SchemaMigrationRunner.legacyDurationToSeconds("13:05:07"));
+        assertEquals(13 * 3600 + 5 * 60 + 7, SchemaMigrationRunner.legacyDurationToSeconds("13:05:07.6"));
+        assertEquals(0, SchemaMigrationRunner.legacyDurationToSeconds(null));
+    }
+
+    @Test
+    void keepsDurationsOfADayOrMore() {
+        assertEquals(86_400, SchemaMigrationRunner.legacyDurationToSeconds("24:00:00"));
+        assertEquals(27 * 3600 + 30 * 60, SchemaMigrationRunner.legacyDurationToSeconds("27:30:00"));
+        assertEquals(27 * 3600 + 30 * 60, SchemaMigrationRunner.legacyDurationToSeconds("1 day 03:30:00"));
+        assertEquals(3 * 86_400 + 45, SchemaMigrationRunner.legacyDurationToSeconds("3 days 00:00:45"));
+        assertEquals(1_000 * 3600L, SchemaMigrationRunner.legacyDurationToSeconds("1000:00:00"));
+    }
+
+    @Test
+    void rejectsValuesItCannotReadInsteadOfZeroingThem() {
+        assertThrows(IllegalArgumentException.class, () -> SchemaMigrationRunner.legacyDurationToSeconds("-01:00:00"));
+        assertThrows(IllegalArgumentException.class, () -> SchemaMigrationRunner.legacyDurationToSeconds("1 mon 02:00:00"));
+    }
+}
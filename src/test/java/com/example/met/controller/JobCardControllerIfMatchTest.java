@@ -0,0 +1,83 @@
+package com.example.met.controller;
+
+import com.example.met.config.SparseFieldsetConfig;
+import com.example.met.dto.response.JobCardResponse;
+import com.example.met.exception.ConcurrentUpdateException;
+import com.example.met.exception.PreconditionFailedException;
+import com.example.met.service.JobCardHistoryService;
+import com.example.met.service.JobCardPdfService;
+import com.example.met.service.JobCardService;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class JobCardControllerIfMatchTest {
+
+    private static final UUID ID = UUID.randomUUID();
+
+    private final JobCardService jobCardService = mock(JobCardService.class);
+    private final MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new JobCardController(jobCardService,
+            mock(JobCardPdfService.class), mock(JobCardHistoryService.class)))
+            .setMessageConverters(new MappingJackson2HttpMessageConverter(Jackson2ObjectMapperBuilder.json()
+                    .filters(SparseFieldsetConfig.defaultFilters()).build()))
+            .build();
+
+    @Test
+    void successfulUpdateReturnsTheNewVersionAsETag() throws Exception {
+        JobCardResponse updated = new JobCardResponse();
+        updated.setVersion(5L);
+        when(jobCardService.updateJobCard(eq(ID), any(), eq(4L))).thenReturn(updated);
+
+        mockMvc.perform(update().header(HttpHeaders.IF_MATCH, "\"4\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"5\""));
+    }
+
+    @Test
+    void staleIfMatchIsPreconditionFailed() throws Exception {
+        when(jobCardService.updateJobCard(eq(ID), any(), eq(3L)))
+                .thenThrow(new PreconditionFailedException("Job card has changed"));
+
+        mockMvc.perform(update().header(HttpHeaders.IF_MATCH, "\"3\""))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    void exhaustedRetriesAreAConflict() throws Exception {
+        when(jobCardService.updateJobCard(eq(ID), any(), isNull()))
+                .thenThrow(new ConcurrentUpdateException("Job card was modified concurrently"));
+
+        mockMvc.perform(update()).andExpect(status().isConflict());
+    }
+
+    @Test
+    void malformedIfMatchIsABadRequest() throws Exception {
+        mockMvc.perform(update().header(HttpHeaders.IF_MATCH, "\"v4\""))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(jobCardService);
+    }
+
+    private static MockHttpServletRequestBuilder update() {
+        String body = "{\"generatorId\":\"" + UUID.randomUUID() + "\",\"jobType\":\"SERVICE\",\"date\":\""
+                + LocalDate.now().plusDays(1) + "\",\"employeeEmails\":[\"tech@example.com\"]}";
+        return put("/jobcards/" + ID).contentType(MediaType.APPLICATION_JSON).content(body);
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.met.repository;
+
+import com.example.met.entity.OutboxEvent;
+import com.example.met.enums.OutboxEventType;
+import com.example.met.enums.OutboxStatus;
+import com.example.met.service.MiniJobCardStatusChangeHandler;
+import com.example.met.service.OutboxDispatcher;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@DataJpaTest(properties = "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect")
+class OutboxEventRepositoryTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 5, 1, 10, 0);
+    private static final LocalDateTime SETTLED_BEFORE = NOW.minusSeconds(1);
+
+    @Autowired
+    private OutboxEventRepository repository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void unsettledEventsWaitForEarlierIdsToCommit() {
+        OutboxEvent settled = save("a@example.com", OutboxStatus.PENDING, NOW.minusSeconds(5), NOW.minusSeconds(5));
+        save("a@example.com", OutboxStatus.PENDING, NOW.minusNanos(500_000_000), NOW.minusNanos(500_000_000));
+
+        assertEquals(List.of(settled.getId()), dispatchableIds());
+    }
+
+    @Test
+    void backingOffEventHoldsBackItsPartitionOnly() {
+        save("a@example.com", OutboxStatus.PENDING, NOW.minusSeconds(30), NOW.plusSeconds(30));
+        save("a@example.com", OutboxStatus.PENDING, NOW.minusSeconds(20), NOW.minusSeconds(20));
+        OutboxEvent other = save("b@example.com", OutboxStatus.PENDING, NOW.minusSeconds(10), NOW.minusSeconds(10));
+
+        assertEquals(List.of(other.getId()), dispatchableIds());
+    }
+
+    @Test
+    void failedEventHoldsBackItsPartitionUntilRequeued() {
+        OutboxEvent failed = save("a@example.com", OutboxStatus.FAILED, NOW.minusSeconds(30), NOW.minusSeconds(30));
+        OutboxEvent later = save("a@example.com", OutboxStatus.PENDING, NOW.minusSeconds(20), NOW.minusSeconds(20));
+
+        assertEquals(List.of(), dispatchableIds());
+        assertEquals(1, repository.countBlockedPartitions());
+
+        assertEquals(1, repository.requeueFailed(failed.getId(), NOW.minusSeconds(1)));
+        assertEquals(List.of(failed.getId(), later.getId()), dispatchableIds());
+        assertEquals(0, repository.countBlockedPartitions());
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void eventPickedByTwoNodesIsDeliveredOnce() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+        LocalDateTime createdAt = LocalDateTime.now(ZoneId.of("Asia/Colombo")).minusSeconds(5);
+        OutboxEvent event = save("a@example.com", OutboxStatus.PENDING, createdAt, createdAt);
+
+        // The first node holds its delivery open while the second one polls the same event
+        CountDownLatch claimed = new CountDownLatch(1);
+        MiniJobCardStatusChangeHandler handler = mock(MiniJobCardStatusChangeHandler.class);
+        doAnswer(invocation -> {
+            claimed.countDown();
+            Thread.sleep(300);
+            return null;
+        }).when(handler).handle(any());
+        OutboxDispatcher first = dispatcher(handler, objectMapper);
+        OutboxDispatcher second = dispatcher(handler, objectMapper);
+
+        try {
+            CompletableFuture<Void> firstRun = CompletableFuture.runAsync(first::dispatch);
+            assertTrue(claimed.await(10, TimeUnit.SECONDS));
+            second.dispatch();
+            firstRun.get(10, TimeUnit.SECONDS);
+
+            verify(handler, times(1)).handle(any());
+            OutboxEvent delivered = repository.findById(event.getId()).orElseThrow();
+            assertEquals(OutboxStatus.PROCESSED, delivered.getStatus());
+            assertEquals(1, delivered.getAttempts());
+        } finally {
+            repository.deleteAll();
+        }
+    }
+
+    private OutboxDispatcher dispatcher(MiniJobCardStatusChangeHandler handler, ObjectMapper objectMapper) {
+        OutboxDispatcher dispatcher = new OutboxDispatcher(repository, handler, transactionTemplate, objectMapper,
+                new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(dispatcher, "enabled", true);
+        ReflectionTestUtils.setField(dispatcher, "batchSize", 10);
+        ReflectionTestUtils.setField(dispatcher, "maxAttempts", 10);
+        ReflectionTestUtils.invokeMethod(dispatcher, "registerMetrics");
+        return dispatcher;
+    }
+
+    private List<Long> dispatchableIds() {
+        return repository.findDispatchable(NOW, SETTLED_BEFORE, PageRequest.of(0, 10)).stream()
+                .map(OutboxEvent::getId)
+                .toList();
+    }
+
+    private OutboxEvent save(String partitionKey, OutboxStatus status, LocalDateTime createdAt,
+                             LocalDateTime nextAttemptAt) {
+        OutboxEvent event = new OutboxEvent();
+        event.setEventType(OutboxEventType.MINI_JOB_CARD_STATUS_CHANGED);
+        event.setAggregateId(UUID.randomUUID());
+        event.setPartitionKey(partitionKey);
+        event.setPayload("{}");
+        event.setStatus(status);
+        event.setCreatedAt(createdAt);
+        event.setNextAttemptAt(nextAttemptAt);
+        return repository.saveAndFlush(event);
+    }
+}
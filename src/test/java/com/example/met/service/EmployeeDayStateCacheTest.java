@@ -0,0 +1,72 @@
+package com.example.met.service;
+
+import com.example.met.event.EmployeeDayEndedEvent;
+import com.example.met.repository.LogRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class EmployeeDayStateCacheTest {
+
+    private static final String EMAIL = "tech@example.com";
+    private static final LocalDate DAY = LocalDate.of(2024, 5, 6);
+
+    private final LogRepository logRepository = mock(LogRepository.class);
+    private final EmployeeDayStateCache cache = new EmployeeDayStateCache(logRepository);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(cache, "openTtlMs", 60_000L);
+    }
+
+    @Test
+    void missIsLoadedOnceThenServedFromMemory() {
+        when(logRepository.existsByEmployeeEmailAndDateAndStatus(EMAIL, DAY, "END_DATE")).thenReturn(false);
+
+        assertFalse(cache.hasEndedDay(EMAIL, DAY));
+        assertFalse(cache.hasEndedDay(EMAIL, DAY));
+
+        verify(logRepository, times(1)).existsByEmployeeEmailAndDateAndStatus(EMAIL, DAY, "END_DATE");
+    }
+
+    @Test
+    void openDayIsRecheckedOnceItsTtlRunsOut() {
+        // The day was ended on another node, so no local event arrives
+        ReflectionTestUtils.setField(cache, "openTtlMs", 0L);
+        when(logRepository.existsByEmployeeEmailAndDateAndStatus(EMAIL, DAY, "END_DATE")).thenReturn(false, true);
+
+        assertFalse(cache.hasEndedDay(EMAIL, DAY));
+        assertTrue(cache.hasEndedDay(EMAIL, DAY));
+        assertTrue(cache.hasEndedDay(EMAIL, DAY));
+
+        verify(logRepository, times(2)).existsByEmployeeEmailAndDateAndStatus(EMAIL, DAY, "END_DATE");
+    }
+
+    @Test
+    void endOfDayClosesACachedOpenDay() {
+        when(logRepository.existsByEmployeeEmailAndDateAndStatus(EMAIL, DAY, "END_DATE")).thenReturn(false);
+        assertFalse(cache.hasEndedDay(EMAIL, DAY));
+
+        cache.onDayEnded(new EmployeeDayEndedEvent(EMAIL, DAY));
+
+        assertTrue(cache.hasEndedDay(EMAIL, DAY));
+    }
+
+    @Test
+    void endOfDayBeforeAnyLookupNeedsNoQuery() {
+        cache.onDayEnded(new EmployeeDayEndedEvent(EMAIL, DAY));
+
+        assertTrue(cache.hasEndedDay(EMAIL, DAY));
+        verifyNoInteractions(logRepository);
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.met.service;
+
+import com.example.met.dto.response.JobCardResponse;
+import com.example.met.entity.ArchivedMiniJobCard;
+import com.example.met.entity.Generator;
+import com.example.met.entity.JobCard;
+import com.example.met.entity.MiniJobCard;
+import com.example.met.enums.JobCardType;
+import com.example.met.enums.JobStatus;
+import com.example.met.repository.ArchivedMiniJobCardRepository;
+import com.example.met.repository.JobCardProjectionRepository;
+import com.example.met.repository.JobCardRepository;
+import com.example.met.repository.MiniJobCardRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class JobCardArchiveServiceTest {
+
+    private static final LocalDate CUTOFF = LocalDate.of(2024, 1, 1);
+    private static final UUID FIRST_ID = new UUID(0L, 0L);
+    private static final UUID REOPENED_A = new UUID(0L, 1L);
+    private static final UUID REOPENED_B = new UUID(0L, 2L);
+    private static final UUID CLOSED = new UUID(0L, 3L);
+
+    private final JobCardRepository jobCardRepository = mock(JobCardRepository.class);
+    private final MiniJobCardRepository miniJobCardRepository = mock(MiniJobCardRepository.class);
+    private final ArchivedMiniJobCardRepository archivedMiniJobCardRepository = mock(ArchivedMiniJobCardRepository.class);
+    private final TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+    private final JobCardArchiveService archiveService = new JobCardArchiveService(jobCardRepository,
+            miniJobCardRepository, archivedMiniJobCardRepository, transactionTemplate,
+            mock(ApplicationEventPublisher.class));
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                ((TransactionCallback<Object>) invocation.getArgument(0)).doInTransaction(null));
+        ReflectionTestUtils.setField(archiveService, "chunkSize", 2);
+        ReflectionTestUtils.setField(archiveService, "maxChunksPerRun", 10);
+    }
+
+    @Test
+    void aChunkOfReopenedCardsDoesNotEndTheRun() {
+        when(jobCardRepository.findArchivableJobCardIds(any(), anyCollection(), eq(FIRST_ID), eq(PageRequest.of(0, 2))))
+                .thenReturn(List.of(REOPENED_A, REOPENED_B));
+        when(jobCardRepository.findArchivableJobCardIds(any(), anyCollection(), eq(REOPENED_B), eq(PageRequest.of(0, 2))))
+                .thenReturn(List.of(CLOSED));
+        // Both cards of the first chunk were reopened after the candidate query
+        when(miniJobCardRepository.findForArchiveByJobCardIdIn(List.of(REOPENED_A, REOPENED_B))).thenReturn(List.of(
+                miniJobCard(REOPENED_A, JobStatus.IN_PROGRESS), miniJobCard(REOPENED_B, JobStatus.ASSIGNED)));
+        MiniJobCard completed = miniJobCard(CLOSED, JobStatus.COMPLETED);
+        MiniJobCard cancelled = miniJobCard(CLOSED, JobStatus.CANCELLED);
+        when(miniJobCardRepository.findForArchiveByJobCardIdIn(List.of(CLOSED))).thenReturn(List.of(completed, cancelled));
+
+        assertEquals(1, archiveService.archiveBefore(CUTOFF));
+
+        ArgumentCaptor<List<ArchivedMiniJobCard>> archived = captor();
+        verify(archivedMiniJobCardRepository).saveAll(archived.capture());
+        assertEquals(List.of(completed.getMiniJobCardId(), cancelled.getMiniJobCardId()),
+                archived.getValue().stream().map(ArchivedMiniJobCard::getMiniJobCardId).toList());
+        verify(miniJobCardRepository).deleteAllInBatch(List.of(completed, cancelled));
+        verify(jobCardRepository).markArchived(eq(List.of(CLOSED)), any());
+    }
+
+    @Test
+    void cardsWithAnOpenMiniJobCardAreLeftInPlace() {
+        when(jobCardRepository.findArchivableJobCardIds(any(), anyCollection(), eq(FIRST_ID), any()))
+                .thenReturn(List.of(CLOSED));
+        when(miniJobCardRepository.findForArchiveByJobCardIdIn(List.of(CLOSED))).thenReturn(List.of(
+                miniJobCard(CLOSED, JobStatus.COMPLETED), miniJobCard(CLOSED, JobStatus.ON_HOLD)));
+
+        assertEquals(0, archiveService.archiveBefore(CUTOFF));
+
+        verify(miniJobCardRepository, never()).deleteAllInBatch(any());
+        verify(jobCardRepository, never()).markArchived(any(), any());
+    }
+
+    @Test
+    void listsLeaveArchivedCardsOutUnlessAsked() {
+        JobCardService jobCardService = new JobCardService(jobCardRepository, mock(JobCardProjectionRepository.class),
+                mock(GeneratorService.class), mock(EmployeeService.class), miniJobCardRepository,
+                archivedMiniJobCardRepository, mock(JobCardHistoryService.class),
+                mock(MiniJobCardTransitionService.class), mock(ApplicationEventPublisher.class), transactionTemplate);
+        JobCard active = jobCard(false);
+        JobCard archived = jobCard(true);
+        when(jobCardRepository.findByJobTypeAndArchivedFalse(JobCardType.SERVICE)).thenReturn(List.of(active));
+        when(jobCardRepository.findByJobType(JobCardType.SERVICE)).thenReturn(List.of(active, archived));
+
+        assertEquals(List.of(false), jobCardService.getJobCardsByType(JobCardType.SERVICE, false).stream()
+                .map(JobCardResponse::isArchived).toList());
+        assertEquals(List.of(false, true), jobCardService.getJobCardsByType(JobCardType.SERVICE, true).stream()
+                .map(JobCardResponse::isArchived).toList());
+    }
+
+    private static MiniJobCard miniJobCard(UUID jobCardId, JobStatus status) {
+        JobCard jobCard = new JobCard();
+        jobCard.setJobCardId(jobCardId);
+        MiniJobCard miniJobCard = new MiniJobCard();
+        miniJobCard.setMiniJobCardId(UUID.randomUUID());
+        miniJobCard.setJobCard(jobCard);
+        miniJobCard.setStatus(status);
+        return miniJobCard;
+    }
+
+    private static JobCard jobCard(boolean archived) {
+        Generator generator = new Generator();
+        generator.setGeneratorId(UUID.randomUUID());
+        JobCard jobCard = new JobCard();
+        jobCard.setJobCardId(UUID.randomUUID());
+        jobCard.setGenerator(generator);
+        jobCard.setJobType(JobCardType.SERVICE);
+        jobCard.setArchived(archived);
+        return jobCard;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ArgumentCaptor<List<ArchivedMiniJobCard>> captor() {
+        return ArgumentCaptor.forClass(List.class);
+    }
+}
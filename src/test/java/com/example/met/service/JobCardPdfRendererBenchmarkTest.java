@@ -0,0 +1,129 @@
+package com.example.met.service;
+
+import com.example.met.dto.JobCardSheet;
+import com.example.met.enums.JobCardType;
+import com.example.met.enums.JobStatus;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Rendering throughput for a busy day's worth of job cards, written to a counting sink so
+ * only the renderer is measured. The throughput run only executes with {@code -Pbenchmarks}.
+ */
+@Slf4j
+class JobCardPdfRendererBenchmarkTest {
+
+    private static final int CARDS_PER_DAY = 60;
+    private static final int CREW_PER_CARD = 4;
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int MEASURED_ROUNDS = 20;
+
+    private JobCardPdfRenderer renderer;
+
+    @BeforeEach
+    void setUp() {
+        renderer = new JobCardPdfRenderer("MET System");
+        renderer.loadResources();
+    }
+
+    @Test
+    void rendersValidPdf() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        renderer.render(sampleDay(2), out);
+
+        String header = new String(out.toByteArray(), 0, 5);
+        assertEquals("%PDF-", header);
+    }
+
+    @Test
+    void rendersEmptyDay() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        renderer.render(List.of(), out);
+
+        assertTrue(out.size() > 0);
+    }
+
+    @Test
+    @Tag("benchmark")
+    void dayOfJobCardsThroughput() throws IOException {
+        List<JobCardSheet> day = sampleDay(CARDS_PER_DAY);
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            renderer.render(day, new CountingOutputStream());
+        }
+
+        CountingOutputStream sink = new CountingOutputStream();
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            renderer.render(day, sink);
+        }
+        long elapsedNanos = System.nanoTime() - start;
+
+        double msPerDay = elapsedNanos / 1_000_000.0 / MEASURED_ROUNDS;
+        double cardsPerSecond = CARDS_PER_DAY * MEASURED_ROUNDS / (elapsedNanos / 1_000_000_000.0);
+        log.info("Job card PDF: {} cards/day, {} ms/day, {} cards/s, {} KB/day", CARDS_PER_DAY,
+                String.format("%.1f", msPerDay), Math.round(cardsPerSecond), sink.count / MEASURED_ROUNDS / 1024);
+
+        assertTrue(sink.count > 0);
+    }
+
+    private static List<JobCardSheet> sampleDay(int cards) {
+        List<JobCardSheet> sheets = new ArrayList<>(cards);
+        JobStatus[] statuses = JobStatus.values();
+        for (int i = 0; i < cards; i++) {
+            List<JobCardSheet.CrewLine> crew = new ArrayList<>(CREW_PER_CARD);
+            for (int j = 0; j < CREW_PER_CARD; j++) {
+                crew.add(JobCardSheet.CrewLine.builder()
+                        .employeeName("Technician " + j)
+                        .employeeEmail("tech" + j + "@example.com")
+                        .status(statuses[(i + j) % statuses.length])
+                        .location("Site " + i)
+                        .onHoldMinutes(15 * j)
+                        .assignedMinutes(30 + j)
+                        .inProgressMinutes(90 + 10 * j)
+                        .build());
+            }
+            sheets.add(JobCardSheet.builder()
+                    .jobCardId(UUID.randomUUID())
+                    .jobId(UUID.randomUUID())
+                    .jobType(JobCardType.values()[i % JobCardType.values().length])
+                    .date(LocalDate.of(2025, 1, 15))
+                    .estimatedTime(LocalTime.of(9, 30))
+                    .generatorName("Generator " + i)
+                    .generatorCapacity("250")
+                    .generatorContactNumber("0112345678")
+                    .generatorEmail("site" + i + "@example.com")
+                    .generatorDescription("Standby generator at site " + i)
+                    .crew(crew)
+                    .build());
+        }
+        return sheets;
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.met.service;
+
+import com.example.met.dto.request.UpdateJobCardRequest;
+import com.example.met.dto.response.JobCardResponse;
+import com.example.met.entity.Employee;
+import com.example.met.entity.Generator;
+import com.example.met.entity.JobCard;
+import com.example.met.entity.MiniJobCard;
+import com.example.met.enums.JobCardType;
+import com.example.met.exception.ConcurrentUpdateException;
+import com.example.met.exception.PreconditionFailedException;
+import com.example.met.repository.ArchivedMiniJobCardRepository;
+import com.example.met.repository.JobCardProjectionRepository;
+import com.example.met.repository.JobCardRepository;
+import com.example.met.repository.MiniJobCardRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class JobCardUpdateRetryTest {
+
+    private static final UUID JOB_CARD_ID = UUID.randomUUID();
+    private static final String EMAIL = "tech@example.com";
+    private static final LocalDate DATE = LocalDate.of(2024, 5, 6);
+
+    private final JobCardRepository jobCardRepository = mock(JobCardRepository.class);
+    private final MiniJobCardRepository miniJobCardRepository = mock(MiniJobCardRepository.class);
+    private final TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+    private final JobCardService service = new JobCardService(jobCardRepository,
+            mock(JobCardProjectionRepository.class), mock(GeneratorService.class), mock(EmployeeService.class),
+            miniJobCardRepository, mock(ArchivedMiniJobCardRepository.class), mock(JobCardHistoryService.class),
+            mock(MiniJobCardTransitionService.class), mock(ApplicationEventPublisher.class), transactionTemplate);
+
+    private JobCard jobCard;
+    private UpdateJobCardRequest request;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                ((TransactionCallback<Object>) invocation.getArgument(0)).doInTransaction(null));
+
+        Generator generator = new Generator();
+        generator.setGeneratorId(UUID.randomUUID());
+        jobCard = new JobCard();
+        jobCard.setJobCardId(JOB_CARD_ID);
+        jobCard.setGenerator(generator);
+        jobCard.setJobType(JobCardType.SERVICE);
+        jobCard.setDate(DATE);
+        jobCard.setEmployeeEmails(List.of(EMAIL));
+        jobCard.setVersion(4L);
+        when(jobCardRepository.findById(JOB_CARD_ID)).thenReturn(Optional.of(jobCard));
+
+        Employee employee = new Employee();
+        employee.setEmail(EMAIL);
+        MiniJobCard miniJobCard = new MiniJobCard();
+        miniJobCard.setEmployee(employee);
+        miniJobCard.setDate(DATE);
+        when(miniJobCardRepository.findByJobCardJobCardId(JOB_CARD_ID)).thenReturn(List.of(miniJobCard));
+
+        request = new UpdateJobCardRequest();
+        request.setGeneratorId(generator.getGeneratorId());
+        request.setJobType(JobCardType.SERVICE);
+        request.setDate(DATE);
+        request.setEmployeeEmails(List.of(EMAIL));
+    }
+
+    @Test
+    void versionConflictIsRetriedOnFreshState() {
+        when(jobCardRepository.saveAndFlush(any()))
+                .thenThrow(conflict())
+                .thenAnswer(invocation -> {
+                    JobCard saved = invocation.getArgument(0);
+                    saved.setVersion(5L);
+                    return saved;
+                });
+
+        JobCardResponse response = service.updateJobCard(JOB_CARD_ID, request, 4L);
+
+        assertEquals(5L, response.getVersion());
+        verify(transactionTemplate, times(2)).execute(any());
+        verify(jobCardRepository, times(2)).findById(JOB_CARD_ID);
+    }
+
+    @Test
+    void givesUpAfterTheBoundedNumberOfAttempts() {
+        when(jobCardRepository.saveAndFlush(any())).thenThrow(conflict());
+
+        assertThrows(ConcurrentUpdateException.class, () -> service.updateJobCard(JOB_CARD_ID, request));
+
+        verify(jobCardRepository, times(3)).saveAndFlush(any());
+    }
+
+    @Test
+    void staleIfMatchIsRejectedWithoutRetrying() {
+        assertThrows(PreconditionFailedException.class, () -> service.updateJobCard(JOB_CARD_ID, request, 3L));
+
+        verify(transactionTemplate, times(1)).execute(any());
+        verify(jobCardRepository, never()).saveAndFlush(any());
+    }
+
+    private static ObjectOptimisticLockingFailureException conflict() {
+        return new ObjectOptimisticLockingFailureException(JobCard.class, JOB_CARD_ID);
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.met.service;
+
+import com.example.met.dto.request.MiniJobCardBulkStatusRequest;
+import com.example.met.dto.response.MiniJobCardBulkStatusResponse;
+import com.example.met.entity.MiniJobCard;
+import com.example.met.enums.JobStatus;
+import com.example.met.enums.OutboxEventType;
+import com.example.met.repository.ArchivedMiniJobCardRepository;
+import com.example.met.repository.MiniJobCardRepository;
+import com.example.met.repository.MiniJobCardTransitionRepository;
+import com.example.met.repository.OutboxEventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import static com.example.met.service.MiniJobCardFixtures.TECHNICIAN;
+import static com.example.met.service.MiniJobCardFixtures.card;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class MiniJobCardBulkStatusServiceTest {
+
+    private static final ZoneId SRI_LANKA_ZONE = ZoneId.of("Asia/Colombo");
+
+    private MiniJobCardRepository miniJobCardRepository;
+    private OutboxService outboxService;
+    private MiniJobCardBulkStatusService bulkStatusService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        miniJobCardRepository = mock(MiniJobCardRepository.class);
+        outboxService = mock(OutboxService.class);
+
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                ((TransactionCallback<Object>) invocation.getArgument(0)).doInTransaction(null));
+
+        MiniJobCardTransitionService transitionService = new MiniJobCardTransitionService(
+                mock(MiniJobCardTransitionRepository.class), miniJobCardRepository,
+                mock(ArchivedMiniJobCardRepository.class), mock(OutboxEventRepository.class), transactionTemplate);
+        bulkStatusService = new MiniJobCardBulkStatusService(miniJobCardRepository, transitionService, outboxService,
+                transactionTemplate, mock(ApplicationEventPublisher.class));
+        ReflectionTestUtils.setField(bulkStatusService, "maxCards", 10);
+        ReflectionTestUtils.setField(bulkStatusService, "chunkSize", 2);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void closesOutAJobCardInChunksWithOneOutboxBatchEach() {
+        LocalDateTime since = LocalDateTime.now(SRI_LANKA_ZONE).minusHours(2).withNano(0);
+        MiniJobCard inProgress = card(JobStatus.IN_PROGRESS, since);
+        MiniJobCard onHold = card(JobStatus.ON_HOLD, since);
+        MiniJobCard done = card(JobStatus.COMPLETED, since);
+        UUID archived = UUID.randomUUID();
+        UUID jobCardId = UUID.randomUUID();
+        when(miniJobCardRepository.findIdsByJobCardId(jobCardId)).thenReturn(List.of(
+                inProgress.getMiniJobCardId(), onHold.getMiniJobCardId(), done.getMiniJobCardId(), archived));
+        when(miniJobCardRepository.findForUpdateByMiniJobCardIdIn(anyCollection()))
+                .thenReturn(List.of(inProgress, onHold), List.of(done));
+
+        MiniJobCardBulkStatusRequest request = new MiniJobCardBulkStatusRequest();
+        request.setStatus(JobStatus.COMPLETED);
+        request.setJobCardId(jobCardId);
+        MiniJobCardBulkStatusResponse response = bulkStatusService.transition(request, "admin@example.com");
+
+        assertEquals(4, response.getMatched());
+        assertEquals(2, response.getUpdated());
+        assertEquals(1, response.getUnchanged());
+        assertEquals(List.of(archived), response.getNotFoundIds());
+        assertEquals(1, response.getUpdatedFrom().get(JobStatus.IN_PROGRESS));
+        assertEquals(1, response.getUpdatedFrom().get(JobStatus.ON_HOLD));
+
+        // Time up to now credited to the status each card left
+        assertTrue(inProgress.getInProgressSeconds() >= 2 * 3600);
+        assertTrue(onHold.getOnHoldSeconds() >= 2 * 3600);
+        assertEquals(JobStatus.COMPLETED, onHold.getStatus());
+
+        ArgumentCaptor<List<OutboxService.Entry>> batches = ArgumentCaptor.forClass(List.class);
+        verify(outboxService, times(2)).enqueueAll(eq(OutboxEventType.MINI_JOB_CARD_STATUS_CHANGED), batches.capture());
+        assertEquals(2, batches.getAllValues().get(0).size());
+        assertEquals(0, batches.getAllValues().get(1).size());
+        verify(miniJobCardRepository, times(2)).flush();
+    }
+
+    @Test
+    void requiresExactlyOneSelector() {
+        MiniJobCardBulkStatusRequest request = new MiniJobCardBulkStatusRequest();
+        request.setStatus(JobStatus.CANCELLED);
+        assertThrows(IllegalArgumentException.class, () -> bulkStatusService.transition(request, "admin@example.com"));
+
+        request.setJobCardId(UUID.randomUUID());
+        request.setEmployeeEmail(TECHNICIAN);
+        assertThrows(IllegalArgumentException.class, () -> bulkStatusService.transition(request, "admin@example.com"));
+    }
+
+    @Test
+    void rejectsFiltersMatchingTooManyCards() {
+        when(miniJobCardRepository.findIdsByFilter(any(), anyCollection(), any(), any(), any()))
+                .thenReturn(Collections.nCopies(11, UUID.randomUUID()));
+
+        MiniJobCardBulkStatusRequest request = new MiniJobCardBulkStatusRequest();
+        request.setStatus(JobStatus.CANCELLED);
+        request.setDateFrom(LocalDate.of(2024, 1, 1));
+        assertThrows(IllegalArgumentException.class, () -> bulkStatusService.transition(request, "admin@example.com"));
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.met.service;
+
+import com.example.met.entity.Employee;
+import com.example.met.entity.Generator;
+import com.example.met.entity.JobCard;
+import com.example.met.entity.MiniJobCard;
+import com.example.met.entity.MiniJobCardTransition;
+import com.example.met.enums.JobCardType;
+import com.example.met.enums.JobStatus;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Mini job cards and transition log rows shared by the service tests.
+ */
+final class MiniJobCardFixtures {
+
+    static final String TECHNICIAN = "tech@example.com";
+    static final LocalDateTime START = LocalDateTime.of(2025, 1, 15, 8, 0);
+
+    private MiniJobCardFixtures() {
+    }
+
+    /**
+     * A repair card for {@link #TECHNICIAN} on Generator 1, last changed at {@code lastChange},
+     * with ids assigned as if it had been loaded.
+     */
+    static MiniJobCard card(JobStatus status, LocalDateTime lastChange) {
+        MiniJobCard miniJobCard = newCard(status, lastChange);
+        miniJobCard.setMiniJobCardId(UUID.randomUUID());
+        miniJobCard.getJobCard().setJobCardId(UUID.randomUUID());
+        miniJobCard.getJobCard().getGenerator().setGeneratorId(UUID.randomUUID());
+        return miniJobCard;
+    }
+
+    // Same card before anything is saved, for tests that persist it
+    static MiniJobCard newCard(JobStatus status, LocalDateTime lastChange) {
+        Generator generator = new Generator();
+        generator.setName("Generator 1");
+        generator.setCapacity("250");
+
+        JobCard jobCard = new JobCard();
+        jobCard.setGenerator(generator);
+        jobCard.setJobType(JobCardType.REPAIR);
+        jobCard.setDate(lastChange.toLocalDate());
+
+        Employee employee = new Employee();
+        employee.setEmail(TECHNICIAN);
+        employee.setName("Technician");
+
+        MiniJobCard miniJobCard = new MiniJobCard();
+        miniJobCard.setJobCard(jobCard);
+        miniJobCard.setEmployee(employee);
+        miniJobCard.setStatus(status);
+        miniJobCard.setDate(lastChange.toLocalDate());
+        miniJobCard.setLastTimeUpdateThisTicket(lastChange);
+        return miniJobCard;
+    }
+
+    static MiniJobCardTransition transition(JobStatus from, JobStatus to, LocalDateTime at) {
+        MiniJobCardTransition transition = new MiniJobCardTransition();
+        transition.setFromStatus(from);
+        transition.setToStatus(to);
+        transition.setOccurredAt(at);
+        return transition;
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.met.service;
+
+import com.example.met.dto.response.MiniJobCardStatsResponse;
+import com.example.met.enums.JobCardType;
+import com.example.met.enums.JobStatus;
+import com.example.met.event.MiniJobCardCountChange;
+import com.example.met.repository.ArchivedMiniJobCardRepository;
+import com.example.met.repository.MiniJobCardRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class MiniJobCardStatsServiceTest {
+
+    private static final LocalDate DAY = LocalDate.of(2024, 5, 6);
+
+    private final MiniJobCardRepository miniJobCardRepository = mock(MiniJobCardRepository.class);
+    private final ArchivedMiniJobCardRepository archivedMiniJobCardRepository = mock(ArchivedMiniJobCardRepository.class);
+    private final MiniJobCardStatsService statsService =
+            new MiniJobCardStatsService(miniJobCardRepository, archivedMiniJobCardRepository);
+
+    @BeforeEach
+    void seed() {
+        when(miniJobCardRepository.countByStatusJobTypeAndDate()).thenReturn(rows(
+                new Object[]{JobStatus.ASSIGNED, JobCardType.REPAIR, DAY, 3L},
+                new Object[]{JobStatus.IN_PROGRESS, JobCardType.SERVICE, DAY, 2L}));
+        when(archivedMiniJobCardRepository.countByStatusJobTypeAndDate()).thenReturn(rows(
+                new Object[]{JobStatus.COMPLETED, JobCardType.REPAIR, DAY.minusDays(1), 5L}));
+        statsService.seed();
+    }
+
+    @Test
+    void seedsFromLiveAndArchivedCounts() {
+        MiniJobCardStatsResponse stats = statsService.getStats(DAY.minusDays(1), DAY);
+
+        assertEquals(10, stats.getTotal());
+        assertEquals(5, stats.getByStatus().get(JobStatus.COMPLETED));
+        assertEquals(3, stats.getByJobType().get(JobCardType.REPAIR).get(JobStatus.ASSIGNED));
+        assertEquals(5, stats.getByDay().get(DAY.minusDays(1)).get(JobStatus.COMPLETED));
+        assertEquals(2, stats.getByDay().get(DAY).get(JobStatus.IN_PROGRESS));
+    }
+
+    @Test
+    void transitionsMoveCountsBetweenStatuses() {
+        statsService.onCountChange(MiniJobCardCountChange.changed(
+                JobCardType.REPAIR, DAY, JobStatus.ASSIGNED, DAY, JobStatus.IN_PROGRESS));
+        statsService.onCountChange(MiniJobCardCountChange.created(JobCardType.VISIT, DAY, JobStatus.PENDING));
+        statsService.onCountChange(MiniJobCardCountChange.removed(JobCardType.SERVICE, DAY, JobStatus.IN_PROGRESS, 2));
+
+        MiniJobCardStatsResponse stats = statsService.getStats(DAY, DAY);
+        assertEquals(9, stats.getTotal());
+        assertEquals(2, stats.getByStatus().get(JobStatus.ASSIGNED));
+        assertEquals(1, stats.getByStatus().get(JobStatus.IN_PROGRESS));
+        assertEquals(1, stats.getByJobType().get(JobCardType.REPAIR).get(JobStatus.IN_PROGRESS));
+        assertEquals(0, stats.getByJobType().get(JobCardType.SERVICE).get(JobStatus.IN_PROGRESS));
+        assertEquals(1, stats.getByDay().get(DAY).get(JobStatus.PENDING));
+    }
+
+    @Test
+    void reconcileCorrectsDrift() {
+        // A change the counters never heard about
+        when(miniJobCardRepository.countByStatusJobTypeAndDate()).thenReturn(rows(
+                new Object[]{JobStatus.ASSIGNED, JobCardType.REPAIR, DAY, 1L},
+                new Object[]{JobStatus.COMPLETED, JobCardType.REPAIR, DAY, 2L},
+                new Object[]{JobStatus.IN_PROGRESS, JobCardType.SERVICE, DAY, 2L}));
+        statsService.onCountChange(MiniJobCardCountChange.created(JobCardType.VISIT, DAY, JobStatus.PENDING));
+
+        statsService.scheduledReconcile();
+
+        MiniJobCardStatsResponse stats = statsService.getStats(DAY, DAY);
+        assertEquals(10, stats.getTotal());
+        assertEquals(0, stats.getByStatus().get(JobStatus.PENDING));
+        assertEquals(1, stats.getByDay().get(DAY).get(JobStatus.ASSIGNED));
+        assertEquals(2, stats.getByDay().get(DAY).get(JobStatus.COMPLETED));
+    }
+
+    private static List<Object[]> rows(Object[]... rows) {
+        return new ArrayList<>(List.of(rows));
+    }
+}
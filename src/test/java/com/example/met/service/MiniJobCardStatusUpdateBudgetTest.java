@@ -0,0 +1,168 @@
+package com.example.met.service;
+
+import com.example.met.dto.request.MiniJobCardUpdateRequest;
+import com.example.met.dto.response.MiniJobCardResponse;
+import com.example.met.entity.MiniJobCard;
+import com.example.met.entity.OutboxEvent;
+import com.example.met.enums.JobStatus;
+import com.example.met.enums.OutboxEventType;
+import com.example.met.enums.Role;
+import com.example.met.repository.EmployeeRepository;
+import com.example.met.repository.GeneratorRepository;
+import com.example.met.repository.JobCardRepository;
+import com.example.met.repository.MiniJobCardProjectionRepository;
+import com.example.met.repository.MiniJobCardRepository;
+import com.example.met.repository.MiniJobCardTransitionRepository;
+import com.example.met.repository.MiniJobCardViewRepository;
+import com.example.met.repository.OutboxEventRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+import static com.example.met.service.MiniJobCardFixtures.TECHNICIAN;
+import static com.example.met.service.MiniJobCardFixtures.newCard;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mockingDetails;
+
+/**
+ * Status updates are the most frequent write, so the SQL they send is pinned: one select of the
+ * card with everything the response needs, the card update, one outbox insert, and the upsert and
+ * delete that refresh the card's view row just before commit. Transition log, OT and audit rows are
+ * left to the outbox dispatcher.
+ * <p>
+ * Statements are counted by Hibernate on an in-memory database, so lazy loads and listener
+ * writes show up too. The view refresh is native Postgres SQL and is counted from the mocked
+ * view repository instead.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN"
+})
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({MiniJobCardService.class, MiniJobCardTransitionService.class, OutboxService.class,
+        MiniJobCardViewService.class, MiniJobCardProjectionRepository.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class MiniJobCardStatusUpdateBudgetTest {
+
+    // Select with details, card update, outbox insert
+    private static final int STATUS_UPDATE_STATEMENTS = 3;
+    // Upsert and delete of the card's view row
+    private static final int STATUS_UPDATE_VIEW_STATEMENTS = 2;
+    private static final ZoneId SRI_LANKA_ZONE = ZoneId.of("Asia/Colombo");
+
+    @Autowired
+    private MiniJobCardService miniJobCardService;
+    @Autowired
+    private GeneratorRepository generatorRepository;
+    @Autowired
+    private EmployeeRepository employeeRepository;
+    @Autowired
+    private JobCardRepository jobCardRepository;
+    @Autowired
+    private MiniJobCardRepository miniJobCardRepository;
+    @Autowired
+    private MiniJobCardTransitionRepository transitionRepository;
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockBean
+    private MiniJobCardViewRepository viewRepository;
+    @MockBean
+    private EmployeeService employeeService;
+    @MockBean
+    private EmployeeDayStateCache dayStateCache;
+
+    private Statistics statistics;
+    private MiniJobCard miniJobCard;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        miniJobCard = transactionTemplate.execute(status -> sampleCard());
+        statistics.clear();
+        clearInvocations(viewRepository);
+    }
+
+    @AfterEach
+    void tearDown() {
+        outboxEventRepository.deleteAll();
+        transitionRepository.deleteAll();
+        miniJobCardRepository.deleteAll();
+        jobCardRepository.deleteAll();
+        generatorRepository.deleteAll();
+        employeeRepository.deleteAll();
+    }
+
+    @Test
+    void statusChangeStaysWithinStatementBudget() {
+        MiniJobCardUpdateRequest request = new MiniJobCardUpdateRequest();
+        request.setStatus(JobStatus.IN_PROGRESS);
+        MiniJobCardResponse response = miniJobCardService.updateMiniJobCard(miniJobCard.getMiniJobCardId(), request, null);
+
+        assertEquals(JobStatus.IN_PROGRESS, response.getStatus());
+        assertEquals("Generator 1", response.getGeneratorName());
+
+        assertEquals(STATUS_UPDATE_STATEMENTS, statistics.getPrepareStatementCount());
+        assertEquals(STATUS_UPDATE_VIEW_STATEMENTS, viewStatements());
+
+        List<OutboxEvent> events = outboxEventRepository.findAll();
+        assertEquals(1, events.size());
+        assertEquals(OutboxEventType.MINI_JOB_CARD_STATUS_CHANGED, events.get(0).getEventType());
+        assertEquals(TECHNICIAN, events.get(0).getPartitionKey());
+        assertEquals(0, transitionRepository.count());
+    }
+
+    @Test
+    void repeatedStatusSkipsSideEffects() {
+        MiniJobCardUpdateRequest request = new MiniJobCardUpdateRequest();
+        request.setStatus(JobStatus.ASSIGNED);
+        miniJobCardService.updateMiniJobCard(miniJobCard.getMiniJobCardId(), request, null);
+
+        // Select with details and the touched card's update; no outbox insert
+        assertEquals(STATUS_UPDATE_STATEMENTS - 1, statistics.getPrepareStatementCount());
+        assertEquals(STATUS_UPDATE_VIEW_STATEMENTS, viewStatements());
+        assertEquals(0, outboxEventRepository.count());
+    }
+
+    // Statements the view refresh sends; the flush before them is already counted by Hibernate
+    private long viewStatements() {
+        return mockingDetails(viewRepository).getInvocations().stream()
+                .filter(invocation -> invocation.getMethod().getName().startsWith("upsert")
+                        || invocation.getMethod().getName().startsWith("delete"))
+                .count();
+    }
+
+    // The fixture card with what the database also requires, saved parent first
+    private MiniJobCard sampleCard() {
+        MiniJobCard card = newCard(JobStatus.ASSIGNED, LocalDateTime.now(SRI_LANKA_ZONE).minusMinutes(30));
+        card.setLocation("Site A");
+        card.getEmployee().setRole(Role.EMPLOYEE);
+        card.getEmployee().setPassword("secret");
+        card.setEmployee(employeeRepository.save(card.getEmployee()));
+        card.getJobCard().setGenerator(generatorRepository.save(card.getJobCard().getGenerator()));
+        card.setJobCard(jobCardRepository.save(card.getJobCard()));
+        return miniJobCardRepository.save(card);
+    }
+}
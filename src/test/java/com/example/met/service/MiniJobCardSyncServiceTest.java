@@ -0,0 +1,148 @@
+package com.example.met.service;
+
+import com.example.met.dto.request.MiniJobCardSyncItem;
+import com.example.met.dto.request.MiniJobCardSyncRequest;
+import com.example.met.dto.response.MiniJobCardSyncResponse;
+import com.example.met.entity.MiniJobCard;
+import com.example.met.enums.JobStatus;
+import com.example.met.enums.SyncOutcome;
+import com.example.met.repository.ArchivedMiniJobCardRepository;
+import com.example.met.repository.MiniJobCardRepository;
+import com.example.met.repository.MiniJobCardTransitionRepository;
+import com.example.met.repository.OutboxEventRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static com.example.met.service.MiniJobCardFixtures.TECHNICIAN;
+import static com.example.met.service.MiniJobCardFixtures.card;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class MiniJobCardSyncServiceTest {
+
+    private static final ZoneId SRI_LANKA_ZONE = ZoneId.of("Asia/Colombo");
+
+    private MiniJobCardRepository miniJobCardRepository;
+    private OutboxEventRepository outboxEventRepository;
+    private MiniJobCardSyncService syncService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        miniJobCardRepository = mock(MiniJobCardRepository.class);
+        outboxEventRepository = mock(OutboxEventRepository.class);
+
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                ((TransactionCallback<Object>) invocation.getArgument(0)).doInTransaction(null));
+
+        MiniJobCardTransitionService transitionService = new MiniJobCardTransitionService(
+                mock(MiniJobCardTransitionRepository.class), miniJobCardRepository,
+                mock(ArchivedMiniJobCardRepository.class), outboxEventRepository, transactionTemplate);
+        OutboxService outboxService = new OutboxService(outboxEventRepository,
+                new ObjectMapper().findAndRegisterModules(), mock(ApplicationEventPublisher.class), mock(JdbcTemplate.class));
+        syncService = new MiniJobCardSyncService(miniJobCardRepository, transitionService, outboxService,
+                transactionTemplate, mock(ApplicationEventPublisher.class));
+        ReflectionTestUtils.setField(syncService, "maxBatchSize", 500);
+        ReflectionTestUtils.setField(syncService, "maxClockSkewSeconds", 300L);
+        ReflectionTestUtils.setField(syncService, "maxAgeDays", 7L);
+    }
+
+    @Test
+    void creditsTimeFromDeviceTimestampsAndReportsEachItem() {
+        LocalDateTime start = LocalDateTime.now(SRI_LANKA_ZONE).minusHours(3).withNano(0);
+        MiniJobCard card = card(JobStatus.ASSIGNED, start);
+        stubCards(card);
+
+        MiniJobCardSyncRequest request = new MiniJobCardSyncRequest();
+        request.setItems(List.of(
+                item(card, JobStatus.IN_PROGRESS, start.plusMinutes(20)),
+                item(card, JobStatus.IN_PROGRESS, start.plusMinutes(21)),   // Retried
+                item(card, JobStatus.ON_HOLD, start.plusMinutes(10)),       // Out of order
+                item(card, JobStatus.COMPLETED, start.plusMinutes(80)),
+                item(UUID.randomUUID(), JobStatus.COMPLETED, start.plusMinutes(90))));
+
+        MiniJobCardSyncResponse response = syncService.sync(request, TECHNICIAN, false);
+
+        List<SyncOutcome> outcomes = new ArrayList<>();
+        response.getResults().forEach(result -> outcomes.add(result.getOutcome()));
+        assertEquals(List.of(SyncOutcome.APPLIED, SyncOutcome.DUPLICATE, SyncOutcome.INVALID,
+                SyncOutcome.APPLIED, SyncOutcome.NOT_FOUND), outcomes);
+        assertEquals(2, response.getApplied());
+        assertEquals(1, response.getSkipped());
+        assertEquals(2, response.getRejected());
+
+        // 20 minutes assigned, then 60 minutes in progress, credited at device time
+        assertEquals(20 * 60, card.getAssignedSeconds());
+        assertEquals(60 * 60, card.getInProgressSeconds());
+        assertEquals(JobStatus.COMPLETED, card.getStatus());
+        assertEquals(start.plusMinutes(80), card.getLastTimeUpdateThisTicket());
+        verify(outboxEventRepository, times(2)).save(any());
+    }
+
+    @Test
+    void rejectsChangesOlderThanTheCardsLastChange() {
+        LocalDateTime start = LocalDateTime.now(SRI_LANKA_ZONE).minusHours(3).withNano(0);
+        MiniJobCard card = card(JobStatus.ASSIGNED, start);
+        stubCards(card);
+
+        MiniJobCardSyncRequest request = new MiniJobCardSyncRequest();
+        request.setItems(List.of(item(card, JobStatus.IN_PROGRESS, start.minusMinutes(5))));
+
+        MiniJobCardSyncResponse response = syncService.sync(request, TECHNICIAN, false);
+
+        assertEquals(SyncOutcome.CONFLICT, response.getResults().get(0).getOutcome());
+        assertEquals(JobStatus.ASSIGNED, card.getStatus());
+    }
+
+    @Test
+    void employeesCannotSyncOtherEmployeesCards() {
+        LocalDateTime start = LocalDateTime.now(SRI_LANKA_ZONE).minusHours(3).withNano(0);
+        MiniJobCard card = card(JobStatus.ASSIGNED, start);
+        stubCards(card);
+
+        MiniJobCardSyncRequest request = new MiniJobCardSyncRequest();
+        request.setItems(List.of(item(card, JobStatus.IN_PROGRESS, start.plusMinutes(5))));
+
+        MiniJobCardSyncResponse response = syncService.sync(request, "someone.else@example.com", false);
+
+        assertEquals(SyncOutcome.FORBIDDEN, response.getResults().get(0).getOutcome());
+        assertEquals(JobStatus.ASSIGNED, card.getStatus());
+    }
+
+    private void stubCards(MiniJobCard card) {
+        List<Object[]> owners = new ArrayList<>();
+        owners.add(new Object[]{card.getMiniJobCardId(), TECHNICIAN});
+        when(miniJobCardRepository.findEmployeeEmailsByMiniJobCardIdIn(anyCollection())).thenReturn(owners);
+        when(miniJobCardRepository.findForUpdateByMiniJobCardIdIn(anyCollection())).thenReturn(List.of(card));
+    }
+
+    private static MiniJobCardSyncItem item(MiniJobCard card, JobStatus status, LocalDateTime occurredAt) {
+        return item(card.getMiniJobCardId(), status, occurredAt);
+    }
+
+    private static MiniJobCardSyncItem item(UUID miniJobCardId, JobStatus status, LocalDateTime occurredAt) {
+        MiniJobCardSyncItem item = new MiniJobCardSyncItem();
+        item.setMiniJobCardId(miniJobCardId);
+        item.setStatus(status);
+        item.setOccurredAt(occurredAt);
+        return item;
+    }
+}
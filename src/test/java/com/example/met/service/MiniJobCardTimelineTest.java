@@ -0,0 +1,68 @@
+package com.example.met.service;
+
+import com.example.met.dto.response.MiniJobCardTimelineResponse;
+import com.example.met.entity.MiniJobCardTransition;
+import com.example.met.enums.JobStatus;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static com.example.met.service.MiniJobCardFixtures.START;
+import static com.example.met.service.MiniJobCardFixtures.transition;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MiniJobCardTimelineTest {
+
+    private static final UUID CARD = UUID.randomUUID();
+
+    @Test
+    void stretchesRunFromOneTransitionToTheNext() {
+        List<MiniJobCardTransition> log = List.of(
+                transition(null, JobStatus.PENDING, START),
+                transition(JobStatus.PENDING, JobStatus.IN_PROGRESS, START.plusHours(1)),
+                transition(JobStatus.IN_PROGRESS, JobStatus.ON_HOLD, START.plusDays(3)),
+                transition(JobStatus.ON_HOLD, JobStatus.COMPLETED, START.plusDays(20)));
+
+        MiniJobCardTimelineResponse timeline = MiniJobCardTransitionService.buildTimeline(CARD, JobStatus.COMPLETED,
+                START, START.plusDays(20), false, log, START.plusDays(30));
+
+        assertEquals(4, timeline.getEntries().size());
+        assertEquals(3 * 86400 - 3600, timeline.getEntries().get(1).getDurationSeconds());
+        assertEquals(17 * 86400L, timeline.getSecondsByStatus().get(JobStatus.ON_HOLD));
+        MiniJobCardTimelineResponse.Entry last = timeline.getEntries().get(3);
+        assertNull(last.getEndedAt());
+        assertNull(last.getDurationSeconds());
+        assertTrue(timeline.getGaps().isEmpty());
+    }
+
+    @Test
+    void openActiveStatusRunsUntilNow() {
+        List<MiniJobCardTransition> log = List.of(
+                transition(null, JobStatus.ASSIGNED, START),
+                transition(JobStatus.ASSIGNED, JobStatus.IN_PROGRESS, START.plusMinutes(30)));
+
+        MiniJobCardTimelineResponse timeline = MiniJobCardTransitionService.buildTimeline(CARD, JobStatus.IN_PROGRESS,
+                START, START.plusMinutes(30), false, log, START.plusHours(2));
+
+        assertEquals(90 * 60L, timeline.getEntries().get(1).getDurationSeconds());
+    }
+
+    @Test
+    void reportsWhatTheLogCannotAccountFor() {
+        List<MiniJobCardTransition> log = List.of(
+                transition(JobStatus.PENDING, JobStatus.ASSIGNED, START.plusHours(1)),
+                transition(JobStatus.IN_PROGRESS, JobStatus.ON_HOLD, START.plusHours(5)));
+
+        MiniJobCardTimelineResponse timeline = MiniJobCardTransitionService.buildTimeline(CARD, JobStatus.COMPLETED,
+                START, START.plusHours(6), false, log, START.plusHours(7));
+
+        List<MiniJobCardTimelineResponse.Gap> gaps = timeline.getGaps();
+        assertEquals(3, gaps.size());
+        assertEquals(START, gaps.get(0).getFrom());                         // Before the log
+        assertEquals(START.plusHours(5), gaps.get(1).getTo());              // ASSIGNED -> ? -> IN_PROGRESS
+        assertEquals(START.plusHours(6), gaps.get(2).getTo());              // Change still in the outbox
+    }
+}
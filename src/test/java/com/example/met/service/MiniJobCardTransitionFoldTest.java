@@ -0,0 +1,51 @@
+package com.example.met.service;
+
+import com.example.met.entity.MiniJobCardTransition;
+import com.example.met.enums.JobStatus;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.example.met.service.MiniJobCardFixtures.START;
+import static com.example.met.service.MiniJobCardFixtures.transition;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * The rebuild must credit time exactly as the incremental path does, including histories longer
+ * than a day.
+ */
+class MiniJobCardTransitionFoldTest {
+
+    @Test
+    void creditsEachGapToTheStatusBeingLeft() {
+        List<MiniJobCardTransition> log = new ArrayList<>();
+        log.add(transition(null, JobStatus.PENDING, START));
+        log.add(transition(JobStatus.PENDING, JobStatus.ASSIGNED, START.plusMinutes(10)));
+        log.add(transition(JobStatus.ASSIGNED, JobStatus.IN_PROGRESS, START.plusMinutes(40)));
+        log.add(transition(JobStatus.IN_PROGRESS, JobStatus.ON_HOLD, START.plusHours(2)));
+        log.add(transition(JobStatus.ON_HOLD, JobStatus.IN_PROGRESS, START.plusHours(2).plusSeconds(95)));
+        log.add(transition(JobStatus.IN_PROGRESS, JobStatus.COMPLETED, START.plusHours(3)));
+
+        MiniJobCardTransitionService.StatusDurations durations = MiniJobCardTransitionService.fold(log);
+
+        assertEquals(30 * 60, durations.assignedSeconds());
+        assertEquals(80 * 60 + 3600 - 95, durations.inProgressSeconds());
+        assertEquals(95, durations.onHoldSeconds());
+    }
+
+    @Test
+    void keepsTimeBeyondTwentyFourHours() {
+        List<MiniJobCardTransition> log = List.of(
+                transition(null, JobStatus.IN_PROGRESS, START),
+                transition(JobStatus.IN_PROGRESS, JobStatus.COMPLETED, START.plusDays(3).plusMinutes(5)));
+
+        assertEquals(3 * 86400 + 300, MiniJobCardTransitionService.fold(log).inProgressSeconds());
+    }
+
+    @Test
+    void creationOnlyHistoryIsZero() {
+        assertEquals(MiniJobCardTransitionService.StatusDurations.ZERO,
+                MiniJobCardTransitionService.fold(List.of(transition(null, JobStatus.PENDING, START))));
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.met.service;
+
+import com.example.met.event.GeneratorChangedEvent;
+import com.example.met.event.JobCardDeletedEvent;
+import com.example.met.event.MiniJobCardChangedEvent;
+import com.example.met.repository.MiniJobCardViewRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class MiniJobCardViewServiceTest {
+
+    private final MiniJobCardViewRepository viewRepository = mock(MiniJobCardViewRepository.class);
+    private final TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+    private final MiniJobCardViewService viewService = new MiniJobCardViewService(viewRepository, transactionTemplate);
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                ((TransactionCallback<Object>) invocation.getArgument(0)).doInTransaction(null));
+        doAnswer(invocation -> {
+            ((Consumer<Object>) invocation.getArgument(0)).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+
+    @Test
+    void changedCardsAreFlushedThenCopiedAndRemovedCardsDropped() {
+        List<UUID> ids = List.of(UUID.randomUUID(), UUID.randomUUID());
+
+        viewService.onMiniJobCardsChanged(new MiniJobCardChangedEvent(ids));
+
+        InOrder order = inOrder(viewRepository);
+        order.verify(viewRepository).flush();
+        order.verify(viewRepository).upsertByMiniJobCardIdIn(ids);
+        order.verify(viewRepository).deleteMissingByMiniJobCardIdIn(ids);
+    }
+
+    @Test
+    void emptyChangeTouchesNothing() {
+        viewService.onMiniJobCardsChanged(new MiniJobCardChangedEvent(List.of()));
+
+        verifyNoInteractions(viewRepository, transactionTemplate);
+    }
+
+    @Test
+    void generatorAndJobCardEventsRefreshTheirRows() {
+        UUID generatorId = UUID.randomUUID();
+        UUID jobCardId = UUID.randomUUID();
+
+        viewService.onGeneratorChanged(new GeneratorChangedEvent(generatorId));
+        viewService.onJobCardDeleted(new JobCardDeletedEvent(jobCardId));
+        viewService.rebuild();
+
+        verify(viewRepository).upsertByGeneratorId(generatorId);
+        verify(viewRepository).deleteMissingByJobCardId(jobCardId);
+        verify(viewRepository, never()).upsertByJobCardId(any());
+        verify(viewRepository, never()).deleteMissingByMiniJobCardIdIn(anyCollection());
+        verify(viewRepository).upsertAll();
+        verify(viewRepository).deleteAllMissing();
+    }
+}
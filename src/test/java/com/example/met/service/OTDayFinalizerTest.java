@@ -0,0 +1,122 @@
+package com.example.met.service;
+
+import com.example.met.entity.Employee;
+import com.example.met.entity.OTtimeCalculator;
+import com.example.met.repository.EmployeeRepository;
+import com.example.met.repository.LogRepository;
+import com.example.met.repository.OTTimeCalculatorRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OTDayFinalizerTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2024, 5, 8);
+    private static final LocalDate MONDAY = LocalDate.of(2024, 5, 6);
+    private static final UUID FIRST_ID = new UUID(0L, 0L);
+
+    private final OTTimeCalculatorRepository repository = mock(OTTimeCalculatorRepository.class);
+    private final TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+    private final ShiftCalendarService shiftCalendarService = new ShiftCalendarService(null, null);
+    private final OTTimeCalculatorService otTimeCalculatorService = new OTTimeCalculatorService(repository,
+            mock(EmployeeService.class), mock(EmployeeRepository.class), mock(LogRepository.class),
+            mock(ApplicationEventPublisher.class), new OTDayLocks(), shiftCalendarService);
+    private final OTDayFinalizer finalizer = new OTDayFinalizer(repository, otTimeCalculatorService, transactionTemplate);
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                ((TransactionCallback<Object>) invocation.getArgument(0)).doInTransaction(null));
+        ReflectionTestUtils.setField(shiftCalendarService, "defaultStartValue", "08:30");
+        ReflectionTestUtils.setField(shiftCalendarService, "defaultEndValue", "17:00");
+        ReflectionTestUtils.setField(shiftCalendarService, "defaultDaysOffValue", "");
+        shiftCalendarService.init();
+        ReflectionTestUtils.setField(finalizer, "defaultEndTimeValue", "17:00");
+        ReflectionTestUtils.setField(finalizer, "reasonCode", "AUTO_CLOSED");
+        ReflectionTestUtils.setField(finalizer, "chunkSize", 2);
+        ReflectionTestUtils.setField(finalizer, "maxChunksPerRun", 10);
+        finalizer.init();
+    }
+
+    @Test
+    void closesOpenDaysChunkByChunkAtTheConfiguredEndTime() {
+        OTtimeCalculator forgotten = entry(LocalTime.of(8, 0), LocalTime.of(15, 0), "ASSIGNED", LocalTime.of(9, 0));
+        OTtimeCalculator lateWorker = entry(LocalTime.of(9, 0), LocalTime.of(18, 30), "IN_PROGRESS", LocalTime.of(18, 0));
+        OTtimeCalculator endedMeanwhile = entry(LocalTime.of(9, 0), LocalTime.of(16, 0), "END_JOB_CARD", LocalTime.of(16, 0));
+        endedMeanwhile.setCloseReason(OTTimeCalculatorService.END_SESSION_REASON);
+
+        when(repository.findIncompleteEntryIds(TODAY, FIRST_ID, PageRequest.of(0, 2)))
+                .thenReturn(List.of(forgotten.getOtTimeId(), lateWorker.getOtTimeId()));
+        when(repository.findIncompleteEntryIds(TODAY, lateWorker.getOtTimeId(), PageRequest.of(0, 2)))
+                .thenReturn(List.of(endedMeanwhile.getOtTimeId()));
+        when(repository.findForFinalizeByOtTimeIdIn(List.of(forgotten.getOtTimeId(), lateWorker.getOtTimeId())))
+                .thenReturn(List.of(forgotten, lateWorker));
+        when(repository.findForFinalizeByOtTimeIdIn(List.of(endedMeanwhile.getOtTimeId())))
+                .thenReturn(List.of(endedMeanwhile));
+
+        assertEquals(2, finalizer.finalizeBefore(TODAY));
+
+        // Assigned since 09:00 until the default end; the rest of the 08:00-17:00 span is on hold
+        assertEquals("END_JOB_CARD", forgotten.getCurrentstatus());
+        assertEquals("AUTO_CLOSED", forgotten.getCloseReason());
+        assertEquals(LocalTime.of(17, 0), forgotten.getLasttime());
+        assertEquals(8 * 3600, forgotten.getAssignedSeconds());
+        assertEquals(3600, forgotten.getOnHoldSeconds());
+        assertEquals(30 * 60, forgotten.getMorningOtSeconds());
+        assertEquals(0, forgotten.getEveningOtSeconds());
+
+        // Activity after the default end keeps its later time
+        assertEquals(LocalTime.of(18, 30), lateWorker.getLasttime());
+        assertEquals(30 * 60, lateWorker.getInProgressSeconds());
+        assertEquals(90 * 60, lateWorker.getEveningOtSeconds());
+
+        assertEquals(OTTimeCalculatorService.END_SESSION_REASON, endedMeanwhile.getCloseReason());
+        verify(repository).saveAll(List.of(forgotten, lateWorker));
+        verify(repository).saveAll(List.of(endedMeanwhile));
+    }
+
+    @Test
+    void blankDaysAreMarkedEnded() {
+        OTtimeCalculator blank = entry(LocalTime.of(7, 0), LocalTime.of(7, 0), null, null);
+        when(repository.findIncompleteEntryIds(eq(TODAY), eq(FIRST_ID), any())).thenReturn(List.of(blank.getOtTimeId()));
+        when(repository.findForFinalizeByOtTimeIdIn(List.of(blank.getOtTimeId()))).thenReturn(List.of(blank));
+
+        assertEquals(1, finalizer.finalizeBefore(TODAY));
+
+        assertEquals("END_JOB_CARD", blank.getCurrentstatus());
+        assertNull(blank.getLaststatus());
+        assertEquals(MONDAY.atTime(17, 0), blank.getStatusChangeTime());
+    }
+
+    private static OTtimeCalculator entry(LocalTime first, LocalTime last, String status, LocalTime statusSince) {
+        Employee employee = new Employee();
+        employee.setEmail("tech@example.com");
+        OTtimeCalculator entry = new OTtimeCalculator();
+        entry.setOtTimeId(UUID.randomUUID());
+        entry.setEmployee(employee);
+        entry.setDate(MONDAY);
+        entry.setFirsttime(first);
+        entry.setLasttime(last);
+        entry.setCurrentstatus(status);
+        entry.setStatusChangeTime(statusSince != null ? MONDAY.atTime(statusSince) : null);
+        return entry;
+    }
+}
@@ -0,0 +1,224 @@
+package com.example.met.service;
+
+import com.example.met.entity.Employee;
+import com.example.met.entity.OTtimeCalculator;
+import com.example.met.enums.JobStatus;
+import com.example.met.repository.EmployeeRepository;
+import com.example.met.repository.LogRepository;
+import com.example.met.repository.OTTimeCalculatorRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.BeanUtils;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Many threads recording transitions for a few employees at once against a repository that, like
+ * the database, hands each reader its own copy of the row: every transition must land exactly once.
+ */
+@Slf4j
+class OTDayLocksTest {
+
+    private static final LocalDate DAY = LocalDate.of(2024, 5, 6);
+    private static final LocalDateTime SEED_TIME = DAY.atTime(8, 0);
+    private static final LocalDateTime START = DAY.atTime(9, 0);
+    private static final int EMPLOYEES = 4;
+    private static final int THREADS_PER_EMPLOYEE = 8;
+    private static final int TRANSITIONS_PER_THREAD = 250;
+
+    private record DayKey(String email, LocalDate date) {
+    }
+
+    private final Map<DayKey, OTtimeCalculator> rows = new ConcurrentHashMap<>();
+    private final OTTimeCalculatorRepository repository = mock(OTTimeCalculatorRepository.class);
+    private final OTDayLocks locks = new OTDayLocks();
+    private final ShiftCalendarService shiftCalendarService = new ShiftCalendarService(null, null);
+    private final OTTimeCalculatorService service = new OTTimeCalculatorService(repository,
+            mock(EmployeeService.class), mock(EmployeeRepository.class), mock(LogRepository.class),
+            mock(ApplicationEventPublisher.class), locks, shiftCalendarService);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(shiftCalendarService, "defaultStartValue", "08:30");
+        ReflectionTestUtils.setField(shiftCalendarService, "defaultEndValue", "17:00");
+        ReflectionTestUtils.setField(shiftCalendarService, "defaultDaysOffValue", "");
+        shiftCalendarService.init();
+        ReflectionTestUtils.setField(locks, "stripeCount", 256);
+        ReflectionTestUtils.setField(locks, "lockTimeoutMs", 10_000L);
+        locks.init();
+
+        when(repository.upsertDay(any(), anyString(), any(), any(), any())).thenAnswer(invocation -> {
+            String email = invocation.getArgument(1);
+            LocalDate date = invocation.getArgument(2);
+            rows.computeIfAbsent(new DayKey(email, date), key -> blankRow(email, date, invocation.getArgument(3)));
+            return 1;
+        });
+        when(repository.findByEmployeeAndDate(any(), any())).thenAnswer(invocation -> {
+            Employee employee = invocation.getArgument(0);
+            OTtimeCalculator stored = rows.get(new DayKey(employee.getEmail(), invocation.getArgument(1)));
+            // Widens the window between read and write, as a round trip would
+            Thread.yield();
+            return Optional.ofNullable(stored).map(OTDayLocksTest::copy);
+        });
+        when(repository.save(any())).thenAnswer(invocation -> {
+            OTtimeCalculator entry = invocation.getArgument(0);
+            rows.put(new DayKey(entry.getEmployee().getEmail(), entry.getDate()), copy(entry));
+            return entry;
+        });
+    }
+
+    @Test
+    void concurrentTransitionsForTheSameDayAreAllCounted() throws Exception {
+        List<Employee> employees = new ArrayList<>();
+        for (int e = 0; e < EMPLOYEES; e++) {
+            Employee employee = new Employee();
+            employee.setEmail("tech" + e + "@example.com");
+            employees.add(employee);
+            inTransaction(() -> service.recordTransition(employee, JobStatus.ASSIGNED, "Depot", SEED_TIME));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(EMPLOYEES * THREADS_PER_EMPLOYEE);
+        CountDownLatch ready = new CountDownLatch(EMPLOYEES * THREADS_PER_EMPLOYEE);
+        CountDownLatch go = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (Employee employee : employees) {
+            for (int t = 0; t < THREADS_PER_EMPLOYEE; t++) {
+                int thread = t;
+                futures.add(executor.submit(() -> {
+                    ready.countDown();
+                    go.await();
+                    for (int i = 0; i < TRANSITIONS_PER_THREAD; i++) {
+                        // Distinct times, arriving out of order across threads
+                        LocalDateTime at = START.plusSeconds((long) i * THREADS_PER_EMPLOYEE + thread);
+                        JobStatus status = i % 2 == 0 ? JobStatus.IN_PROGRESS : JobStatus.ON_HOLD;
+                        inTransaction(() -> service.recordTransition(employee, status, "Site " + thread, at));
+                    }
+                    return null;
+                }));
+            }
+        }
+        ready.await();
+        long start = System.nanoTime();
+        go.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        executor.shutdown();
+
+        int perEmployee = THREADS_PER_EMPLOYEE * TRANSITIONS_PER_THREAD;
+        log.info("OT day locks: {} transitions over {} employees in {} ms", perEmployee * EMPLOYEES, EMPLOYEES, elapsedMs);
+        LocalDateTime last = START.plusSeconds(perEmployee - 1);
+        for (Employee employee : employees) {
+            OTtimeCalculator row = rows.get(new DayKey(employee.getEmail(), DAY));
+            // Every transition appended its location exactly once
+            assertEquals(perEmployee + 1, row.getAllLocations().size());
+            assertEquals(last.toLocalTime(), row.getLasttime());
+            assertEquals(last, row.getStatusChangeTime());
+            // Each accepted transition credits the interval since the previous one, so the total telescopes
+            long tracked = row.getAssignedSeconds() + row.getInProgressSeconds() + row.getOnHoldSeconds();
+            assertEquals(Duration.between(SEED_TIME, last).getSeconds(), tracked);
+            assertEquals(LocalTime.of(8, 0), row.getFirsttime());
+            assertEquals(30 * 60, row.getMorningOtSeconds());
+        }
+    }
+
+    @Test
+    void otherEmployeesAreNotBlockedByAHeldDay() throws Exception {
+        ReflectionTestUtils.setField(locks, "lockTimeoutMs", 100L);
+        String busy = "busy@example.com";
+        String other = "other@example.com";
+        assertNotEquals(locks.stripeOf(busy, DAY), locks.stripeOf(other, DAY));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            locks.lockUntilCompletion(busy, DAY);
+            ExecutorService executor = Executors.newSingleThreadExecutor();
+            try {
+                executor.submit(() -> inTransaction(() -> locks.lockUntilCompletion(other, DAY)))
+                        .get(5, TimeUnit.SECONDS);
+                ExecutionException blocked = assertThrows(ExecutionException.class, () -> executor
+                        .submit(() -> inTransaction(() -> locks.lockUntilCompletion(busy, DAY)))
+                        .get(5, TimeUnit.SECONDS));
+                assertInstanceOf(IllegalStateException.class, blocked.getCause());
+            } finally {
+                executor.shutdown();
+            }
+        } finally {
+            complete(TransactionSynchronization.STATUS_COMMITTED);
+        }
+
+        // Released on completion, so the day can be locked again
+        inTransaction(() -> locks.lockUntilCompletion(busy, DAY));
+    }
+
+    @Test
+    void lockingOutsideATransactionIsRejected() {
+        assertThrows(IllegalStateException.class, () -> locks.lockUntilCompletion("tech@example.com", DAY));
+    }
+
+    // Stands in for a transaction boundary: completion callbacks run once the work has finished
+    private static void inTransaction(Runnable work) {
+        TransactionSynchronizationManager.initSynchronization();
+        int status = TransactionSynchronization.STATUS_ROLLED_BACK;
+        try {
+            work.run();
+            status = TransactionSynchronization.STATUS_COMMITTED;
+        } finally {
+            complete(status);
+        }
+    }
+
+    private static void complete(int status) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        TransactionSynchronizationUtils.invokeAfterCompletion(synchronizations, status);
+    }
+
+    private static OTtimeCalculator blankRow(String email, LocalDate date, LocalTime time) {
+        Employee employee = new Employee();
+        employee.setEmail(email);
+        OTtimeCalculator row = new OTtimeCalculator();
+        row.setEmployee(employee);
+        row.setDate(date);
+        row.setFirsttime(time);
+        row.setLasttime(time);
+        return row;
+    }
+
+    private static OTtimeCalculator copy(OTtimeCalculator source) {
+        OTtimeCalculator copy = new OTtimeCalculator();
+        BeanUtils.copyProperties(source, copy);
+        copy.setAllLocations(new ArrayList<>(source.getAllLocations()));
+        return copy;
+    }
+}
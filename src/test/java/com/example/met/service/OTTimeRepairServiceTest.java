@@ -0,0 +1,111 @@
+package com.example.met.service;
+
+import com.example.met.entity.Employee;
+import com.example.met.entity.OTtimeCalculator;
+import com.example.met.repository.OTTimeCalculatorRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class OTTimeRepairServiceTest {
+
+    private static final LocalDate DAY = LocalDate.of(2024, 5, 6);
+    private static final String EMAIL = "tech@example.com";
+
+    private final OTTimeCalculatorRepository repository = mock(OTTimeCalculatorRepository.class);
+    private final OTTimeCalculatorService otTimeCalculatorService = mock(OTTimeCalculatorService.class);
+    private final TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+    private final OTTimeRepairService repairService =
+            new OTTimeRepairService(repository, otTimeCalculatorService, transactionTemplate);
+
+    @Test
+    void mergeSpansTheDayAndKeepsTheLatestStatus() {
+        OTtimeCalculator keeper = row(LocalTime.of(7, 50), LocalTime.of(9, 0), "ASSIGNED", 8, 0, "Depot");
+        keeper.setAssignedSeconds(600);
+        OTtimeCalculator later = row(LocalTime.of(7, 51), LocalTime.of(17, 40), "IN_PROGRESS", 16, 30, "Site A");
+        later.setAssignedSeconds(60);
+        later.setInProgressSeconds(1200);
+
+        OTTimeRepairService.merge(keeper, List.of(later));
+
+        assertEquals(LocalTime.of(7, 50), keeper.getFirsttime());
+        assertEquals(LocalTime.of(17, 40), keeper.getLasttime());
+        assertEquals(660, keeper.getAssignedSeconds());
+        assertEquals(1200, keeper.getInProgressSeconds());
+        assertEquals("IN_PROGRESS", keeper.getCurrentstatus());
+        assertEquals(DAY.atTime(16, 30), keeper.getStatusChangeTime());
+        assertEquals("Depot", keeper.getFirstLocation());
+        assertEquals("Site A", keeper.getLastLocation());
+        assertEquals(List.of("Depot", "Site A"), keeper.getAllLocations());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void duplicateDaysAreMergedIntoTheEarliestRow() {
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                ((TransactionCallback<Object>) invocation.getArgument(0)).doInTransaction(null));
+        OTtimeCalculator keeper = row(LocalTime.of(8, 0), LocalTime.of(8, 0), "ASSIGNED", 8, 0, null);
+        OTtimeCalculator duplicate = row(LocalTime.of(8, 0), LocalTime.of(8, 5), "IN_PROGRESS", 8, 5, null);
+        when(repository.findDuplicateDays()).thenReturn(List.<Object[]>of(new Object[]{EMAIL, DAY}));
+        when(repository.findAllForMerge(EMAIL, DAY)).thenReturn(new ArrayList<>(List.of(keeper, duplicate)));
+
+        assertEquals(1, repairService.mergeDuplicateDays());
+
+        verify(otTimeCalculatorService).calculateAndUpdateOT(keeper);
+        verify(repository).deleteAll(List.of(duplicate));
+        verify(repository).save(keeper);
+        assertEquals(LocalTime.of(8, 5), keeper.getLasttime());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void aDayThatCannotBeMergedFailsTheRepair() {
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                ((TransactionCallback<Object>) invocation.getArgument(0)).doInTransaction(null));
+        when(repository.findDuplicateDays()).thenReturn(List.<Object[]>of(new Object[]{EMAIL, DAY}));
+        when(repository.findAllForMerge(EMAIL, DAY)).thenThrow(new QueryTimeoutException("timed out"));
+
+        // Startup must stop here: without the unique index every OT upsert would fail
+        assertThrows(RuntimeException.class, repairService::mergeDuplicateDays);
+        verify(repository, never()).deleteAll(any());
+    }
+
+    @Test
+    void nothingToDoWithoutDuplicates() {
+        when(repository.findDuplicateDays()).thenReturn(List.of());
+
+        assertEquals(0, repairService.mergeDuplicateDays());
+        verifyNoInteractions(transactionTemplate, otTimeCalculatorService);
+    }
+
+    private static OTtimeCalculator row(LocalTime first, LocalTime last, String status, int changeHour,
+                                        int changeMinute, String location) {
+        OTtimeCalculator row = new OTtimeCalculator();
+        Employee employee = new Employee();
+        employee.setEmail(EMAIL);
+        row.setEmployee(employee);
+        row.setDate(DAY);
+        row.setFirsttime(first);
+        row.setLasttime(last);
+        row.setCurrentstatus(status);
+        row.setStatusChangeTime(LocalDateTime.of(DAY, LocalTime.of(changeHour, changeMinute)));
+        row.addLocation(location);
+        return row;
+    }
+}
@@ -0,0 +1,173 @@
+package com.example.met.service;
+
+import com.example.met.dto.response.SearchHitResponse;
+import com.example.met.dto.response.SearchResponse;
+import com.example.met.entity.Employee;
+import com.example.met.entity.Generator;
+import com.example.met.entity.JobCard;
+import com.example.met.enums.JobCardType;
+import com.example.met.event.EmployeeChangedEvent;
+import com.example.met.event.JobCardChangedEvent;
+import com.example.met.repository.ArchivedMiniJobCardRepository;
+import com.example.met.repository.EmailRepository;
+import com.example.met.repository.EmployeeRepository;
+import com.example.met.repository.JobCardRepository;
+import com.example.met.repository.MiniJobCardRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SearchIndexServiceTest {
+
+    private static final String ANIL = "anil@example.com";
+    private static final String BIMAL = "bimal@example.com";
+
+    private final JobCardRepository jobCardRepository = mock(JobCardRepository.class);
+    private final MiniJobCardRepository miniJobCardRepository = mock(MiniJobCardRepository.class);
+    private final EmailRepository emailRepository = mock(EmailRepository.class);
+    private final EmployeeRepository employeeRepository = mock(EmployeeRepository.class);
+    private final SearchIndexService searchIndex = new SearchIndexService(jobCardRepository, miniJobCardRepository,
+            mock(ArchivedMiniJobCardRepository.class), emailRepository, employeeRepository);
+
+    private final Generator kelaniMill = generator("Kelani Mill", "Standby unit");
+    private final JobCard mayService = jobCard(JobCardType.SERVICE, LocalDate.of(2024, 5, 6), kelaniMill, ANIL);
+    private final JobCard lateMayService = jobCard(JobCardType.SERVICE, LocalDate.of(2024, 5, 20), kelaniMill, BIMAL);
+    private final JobCard juneRepair = jobCard(JobCardType.REPAIR, LocalDate.of(2024, 6, 10),
+            generator("Colombo Port", "Feeds the Kelani river pump"), BIMAL);
+
+    @BeforeEach
+    void setUp() {
+        when(jobCardRepository.findAllForSearchIndex()).thenReturn(List.of(mayService, lateMayService, juneRepair));
+        when(employeeRepository.findAll()).thenReturn(List.of(employee(ANIL, "Anil Perera"), employee(BIMAL, "Bimal Silva")));
+        when(miniJobCardRepository.findAllJobCardLocations()).thenReturn(rows(
+                new Object[]{mayService.getJobCardId(), "Kelaniya"},
+                new Object[]{lateMayService.getJobCardId(), "Biyagama"}));
+        searchIndex.buildIndex();
+    }
+
+    @Test
+    void tokenizesOnNonAlphanumericsAndLowercases() {
+        assertEquals(List.of("kelani", "mill", "no", "5", "über"),
+                new ArrayList<>(SearchIndexService.tokenize("Kelani-Mill, No.5 / ÜBER kelani")));
+    }
+
+    @Test
+    void strongerFieldsAndFullerMatchesRankHigher() {
+        // Generator name outweighs a mention in another generator's description; ties go to the later date
+        assertEquals(List.of(lateMayService.getJobCardId(), mayService.getJobCardId(), juneRepair.getJobCardId()),
+                ids(searchIndex.search("Kelani", null, null, 10)));
+        // Matching every query word beats matching some of them
+        assertEquals(lateMayService.getJobCardId(),
+                searchIndex.search("kelani mill biyagama", null, null, 10).getHits().get(0).getJobCardId());
+    }
+
+    @Test
+    void facetsCountTheFilteredHits() {
+        SearchResponse all = searchIndex.search("kelani", null, null, 1);
+        assertEquals(3, all.getTotalHits());
+        assertEquals(1, all.getHits().size());
+        assertEquals(Map.of("SERVICE", 2, "REPAIR", 1), all.getFacets().get("jobType"));
+        assertEquals(Map.of("2024-05", 2, "2024-06", 1), all.getFacets().get("month"));
+        assertEquals(Map.of("Kelani Mill", 2, "Colombo Port", 1), all.getFacets().get("generator"));
+
+        SearchResponse may = searchIndex.search("kelani", JobCardType.SERVICE, "2024-05", 10);
+        assertEquals(2, may.getTotalHits());
+        assertEquals(Map.of("2024-05", 2), may.getFacets().get("month"));
+    }
+
+    @Test
+    void renamedEmployeesAreSearchableByTheirNewName() {
+        when(jobCardRepository.findAllWithDetailsByJobCardIdIn(List.of(mayService.getJobCardId())))
+                .thenReturn(List.of(mayService));
+        when(employeeRepository.findByEmailIn(List.of(ANIL))).thenReturn(List.of(employee(ANIL, "Anil Fernando")));
+
+        searchIndex.onEmployeeChanged(new EmployeeChangedEvent(ANIL));
+
+        assertEquals(List.of(mayService.getJobCardId()), ids(searchIndex.search("fernando", null, null, 10)));
+        assertEquals(0, searchIndex.search("perera", null, null, 10).getTotalHits());
+    }
+
+    @Test
+    void aRefreshThatFinishesLateDoesNotOverwriteANewerOne() throws Exception {
+        UUID id = mayService.getJobCardId();
+        JobCard before = jobCard(JobCardType.SERVICE, mayService.getDate(), generator("Old Name", null), ANIL);
+        before.setJobCardId(id);
+        JobCard after = jobCard(JobCardType.SERVICE, mayService.getDate(), generator("New Name", null), ANIL);
+        after.setJobCardId(id);
+        AtomicInteger loads = new AtomicInteger();
+        when(jobCardRepository.findAllWithDetailsByJobCardIdIn(any()))
+                .thenAnswer(invocation -> List.of(loads.getAndIncrement() == 0 ? before : after));
+        when(employeeRepository.findByEmailIn(anyList())).thenReturn(List.of());
+
+        // The first refresh reads the old card, then stalls until the second has been applied
+        CountDownLatch firstLoaded = new CountDownLatch(1);
+        CountDownLatch secondApplied = new CountDownLatch(1);
+        AtomicInteger subjectLoads = new AtomicInteger();
+        when(emailRepository.findJobCardSubjects(any())).thenAnswer(invocation -> {
+            if (subjectLoads.getAndIncrement() == 0) {
+                firstLoaded.countDown();
+                assertTrue(secondApplied.await(5, TimeUnit.SECONDS));
+            }
+            return List.of();
+        });
+
+        CompletableFuture<Void> first = CompletableFuture.runAsync(() ->
+                searchIndex.onJobCardChanged(new JobCardChangedEvent(id)));
+        assertTrue(firstLoaded.await(5, TimeUnit.SECONDS));
+        searchIndex.onJobCardChanged(new JobCardChangedEvent(id));
+        secondApplied.countDown();
+        first.get(5, TimeUnit.SECONDS);
+
+        assertEquals(List.of(id), ids(searchIndex.search("new", null, null, 10)));
+        assertEquals(0, searchIndex.search("old", null, null, 10).getTotalHits());
+    }
+
+    private static List<UUID> ids(SearchResponse response) {
+        return response.getHits().stream().map(SearchHitResponse::getJobCardId).toList();
+    }
+
+    private static List<Object[]> rows(Object[]... rows) {
+        return List.of(rows);
+    }
+
+    private static Generator generator(String name, String description) {
+        Generator generator = new Generator();
+        generator.setGeneratorId(UUID.randomUUID());
+        generator.setName(name);
+        generator.setDescription(description);
+        return generator;
+    }
+
+    private static JobCard jobCard(JobCardType type, LocalDate date, Generator generator, String email) {
+        JobCard jobCard = new JobCard();
+        jobCard.setJobCardId(UUID.randomUUID());
+        jobCard.setJobType(type);
+        jobCard.setDate(date);
+        jobCard.setGenerator(generator);
+        jobCard.setEmployeeEmails(List.of(email));
+        return jobCard;
+    }
+
+    private static Employee employee(String email, String name) {
+        Employee employee = new Employee();
+        employee.setEmail(email);
+        employee.setName(name);
+        return employee;
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.met.service;
+
+import com.example.met.entity.ShiftTemplate;
+import com.example.met.enums.Role;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Rule precedence, OT arithmetic, and a check that resolving and applying rules allocates nothing.
+ * The allocation check only executes with {@code -Pbenchmarks}.
+ */
+@Slf4j
+class ShiftCalendarTest {
+
+    private static final String EMAIL = "tech@example.com";
+    private static final LocalDate MONDAY = LocalDate.of(2024, 5, 6);
+    private static final LocalDate SATURDAY = LocalDate.of(2024, 5, 11);
+    private static final LocalDate SUNDAY = LocalDate.of(2024, 5, 12);
+    private static final LocalDate POYA = LocalDate.of(2024, 5, 23);
+    private static final LocalTime DEFAULT_START = LocalTime.of(8, 30);
+    private static final LocalTime DEFAULT_END = LocalTime.of(17, 0);
+    private static final int WARMUP_ROUNDS = 200_000;
+    private static final int MEASURED_ROUNDS = 1_000_000;
+    private static final long ALLOCATION_SLACK_BYTES = 64 * 1024;
+
+    private final ShiftCalendar calendar = ShiftCalendar.compile(List.of(
+                    template(null, Role.EMPLOYEE, null, LocalTime.of(8, 0), LocalTime.of(16, 30)),
+                    template(null, Role.EMPLOYEE, DayOfWeek.SATURDAY, LocalTime.of(8, 0), LocalTime.of(12, 0)),
+                    template(EMAIL, null, null, LocalTime.of(7, 0), LocalTime.of(15, 0)),
+                    template(EMAIL, null, DayOfWeek.SATURDAY, null, null)),
+            List.of(POYA), DEFAULT_START, DEFAULT_END, EnumSet.of(DayOfWeek.SUNDAY));
+
+    @Test
+    void mostSpecificRuleWins() {
+        // Employee every-day template beats the role
+        assertEquals(0, calendar.ruleFor(EMAIL, Role.EMPLOYEE, MONDAY).morningOtSeconds(at(7, 0), at(15, 0)));
+        // Employee weekday template beats their every-day one
+        assertTrue(calendar.ruleFor(EMAIL, Role.EMPLOYEE, SATURDAY).isDayOff());
+        // Role weekday template beats the role's every-day one
+        ShiftCalendar.Rule roleSaturday = calendar.ruleFor("other@example.com", Role.EMPLOYEE, SATURDAY);
+        assertEquals(3600, roleSaturday.eveningOtSeconds(at(8, 0), at(13, 0)));
+        // No template: the default shift, with Sunday off
+        assertEquals(1800, calendar.ruleFor("admin@example.com", Role.ADMIN, MONDAY).morningOtSeconds(at(8, 0), at(17, 0)));
+        assertTrue(calendar.ruleFor("admin@example.com", null, SUNDAY).isDayOff());
+        // A holiday overrides every template
+        assertSame(ShiftCalendar.DAY_OFF, calendar.ruleFor(EMAIL, Role.EMPLOYEE, POYA));
+    }
+
+    @Test
+    void countsOnlyTimeWorkedOutsideTheShiftInWholeMinutes() {
+        ShiftCalendar.Rule shift = calendar.ruleFor("admin@example.com", Role.ADMIN, MONDAY);
+
+        assertEquals(90 * 60, shift.morningOtSeconds(at(7, 0), at(12, 0)));
+        assertEquals(0, shift.eveningOtSeconds(at(7, 0), at(12, 0)));
+        assertEquals(45 * 60, shift.eveningOtSeconds(at(9, 0), LocalTime.of(17, 45, 59)));
+        // Work that ended before the shift started only counts up to when it ended
+        assertEquals(60 * 60, shift.morningOtSeconds(at(6, 0), at(7, 0)));
+        assertEquals(0, shift.eveningOtSeconds(at(6, 0), at(7, 0)));
+
+        // On a day off all of it counts, split at midday
+        ShiftCalendar.Rule dayOff = ShiftCalendar.DAY_OFF;
+        assertEquals(4 * 3600, dayOff.morningOtSeconds(at(8, 0), at(15, 0)));
+        assertEquals(3 * 3600, dayOff.eveningOtSeconds(at(8, 0), at(15, 0)));
+        assertEquals(0, dayOff.morningOtSeconds(at(13, 0), at(15, 0)));
+        assertEquals(2 * 3600, dayOff.eveningOtSeconds(at(13, 0), at(15, 0)));
+    }
+
+    @Test
+    @Tag("benchmark")
+    void evaluationDoesNotAllocate() {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        LocalDate[] dates = {MONDAY, SATURDAY, SUNDAY, POYA};
+        String[] emails = {EMAIL, "other@example.com"};
+        LocalTime first = at(7, 10);
+        LocalTime last = at(18, 20);
+
+        long sink = run(dates, emails, first, last, WARMUP_ROUNDS);
+        long threadId = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(threadId);
+        long startNanos = System.nanoTime();
+        sink += run(dates, emails, first, last, MEASURED_ROUNDS);
+        long elapsedNanos = System.nanoTime() - startNanos;
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+        log.info("Shift rules: {} ns/evaluation, {} bytes allocated over {} evaluations",
+                String.format("%.1f", (double) elapsedNanos / MEASURED_ROUNDS), allocated, MEASURED_ROUNDS);
+        assertTrue(allocated < ALLOCATION_SLACK_BYTES, "Allocated " + allocated + " bytes");
+        assertTrue(sink > 0);
+    }
+
+    private long run(LocalDate[] dates, String[] emails, LocalTime first, LocalTime last, int rounds) {
+        long total = 0;
+        for (int i = 0; i < rounds; i++) {
+            ShiftCalendar.Rule rule = calendar.ruleFor(emails[i & 1], Role.EMPLOYEE, dates[i & 3]);
+            total += rule.morningOtSeconds(first, last) + rule.eveningOtSeconds(first, last);
+        }
+        return total;
+    }
+
+    private static ShiftTemplate template(String email, Role role, DayOfWeek day, LocalTime start, LocalTime end) {
+        ShiftTemplate template = new ShiftTemplate();
+        template.setEmployeeEmail(email);
+        template.setRole(role);
+        template.setDayOfWeek(day);
+        template.setStartTime(start);
+        template.setEndTime(end);
+        return template;
+    }
+
+    private static LocalTime at(int hour, int minute) {
+        return LocalTime.of(hour, minute);
+    }
+}
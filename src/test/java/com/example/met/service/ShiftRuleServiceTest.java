@@ -0,0 +1,153 @@
+package com.example.met.service;
+
+import com.example.met.dto.request.HolidayRequest;
+import com.example.met.dto.request.ShiftTemplateRequest;
+import com.example.met.entity.Employee;
+import com.example.met.entity.Holiday;
+import com.example.met.entity.ShiftTemplate;
+import com.example.met.enums.Role;
+import com.example.met.repository.EmployeeRepository;
+import com.example.met.repository.HolidayRepository;
+import com.example.met.repository.OTTimeCalculatorRepository;
+import com.example.met.repository.ShiftTemplateRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class ShiftRuleServiceTest {
+
+    private static final String EMAIL = "Tech@example.com";
+    private static final LocalDate MONDAY = LocalDate.of(2024, 5, 6);
+    private static final LocalDate TUESDAY = LocalDate.of(2024, 5, 7);
+
+    private final ShiftTemplateRepository shiftTemplateRepository = mock(ShiftTemplateRepository.class);
+    private final HolidayRepository holidayRepository = mock(HolidayRepository.class);
+    private final EmployeeRepository employeeRepository = mock(EmployeeRepository.class);
+    private final OTTimeCalculatorRepository otTimeCalculatorRepository = mock(OTTimeCalculatorRepository.class);
+    private final OTTimeCalculatorService otTimeCalculatorService = mock(OTTimeCalculatorService.class);
+    private final ShiftCalendarService shiftCalendarService = mock(ShiftCalendarService.class);
+    private final TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+    private final ShiftRuleService service = new ShiftRuleService(shiftTemplateRepository, holidayRepository,
+            employeeRepository, otTimeCalculatorRepository, otTimeCalculatorService, shiftCalendarService,
+            transactionTemplate);
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                ((TransactionCallback<Object>) invocation.getArgument(0)).doInTransaction(null));
+        ReflectionTestUtils.setField(service, "recomputeDays", 31);
+        ReflectionTestUtils.setField(service, "recomputeThreads", 2);
+        service.init();
+    }
+
+    @Test
+    void weekdayTemplateRecomputesOnlyThatWeekdayForTheEmployee() throws Exception {
+        Employee employee = new Employee();
+        employee.setEmail(EMAIL);
+        when(employeeRepository.findByEmail("Tech@example.com")).thenReturn(Optional.of(employee));
+        when(shiftTemplateRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(otTimeCalculatorRepository.findDaysForRecompute(eq(EMAIL), isNull(), any(), any())).thenReturn(List.of(
+                new Object[]{EMAIL, MONDAY}, new Object[]{EMAIL, TUESDAY}));
+
+        ShiftTemplateRequest request = new ShiftTemplateRequest();
+        request.setEmployeeEmail(" Tech@example.com ");
+        request.setDayOfWeek(DayOfWeek.MONDAY);
+        request.setStartTime(LocalTime.of(7, 0));
+        request.setEndTime(LocalTime.of(15, 0));
+        service.createTemplate(request);
+        awaitRecompute();
+
+        verify(shiftCalendarService).reload();
+        verify(otTimeCalculatorService).recalculateOTForDay(EMAIL, MONDAY);
+        verify(otTimeCalculatorService, never()).recalculateOTForDay(EMAIL, TUESDAY);
+    }
+
+    @Test
+    void holidayRecomputesEveryoneOnItsDate() throws Exception {
+        when(holidayRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(otTimeCalculatorRepository.findDaysForRecompute(null, null, MONDAY, MONDAY)).thenReturn(List.of(
+                new Object[]{"a@example.com", MONDAY}, new Object[]{"b@example.com", MONDAY}));
+
+        HolidayRequest request = new HolidayRequest();
+        request.setDate(MONDAY);
+        request.setName("Vesak");
+        service.createHoliday(request);
+        awaitRecompute();
+
+        verify(otTimeCalculatorService).recalculateOTForDay("a@example.com", MONDAY);
+        verify(otTimeCalculatorService).recalculateOTForDay("b@example.com", MONDAY);
+        verify(holidayRepository).save(any(Holiday.class));
+    }
+
+    @Test
+    void dayThatFailsToRecomputeDoesNotStopTheOthers() throws Exception {
+        when(holidayRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(otTimeCalculatorRepository.findDaysForRecompute(null, null, MONDAY, MONDAY)).thenReturn(List.of(
+                new Object[]{"a@example.com", MONDAY}, new Object[]{"b@example.com", MONDAY}));
+        doThrow(new IllegalStateException("OT entry for a@example.com on " + MONDAY + " is locked"))
+                .when(otTimeCalculatorService).recalculateOTForDay("a@example.com", MONDAY);
+
+        HolidayRequest request = new HolidayRequest();
+        request.setDate(MONDAY);
+        request.setName("Vesak");
+        service.createHoliday(request);
+        awaitRecompute();
+
+        verify(otTimeCalculatorService).recalculateOTForDay("a@example.com", MONDAY);
+        verify(otTimeCalculatorService).recalculateOTForDay("b@example.com", MONDAY);
+    }
+
+    @Test
+    void invalidTemplatesAreRejectedBeforeAnyChange() {
+        ShiftTemplateRequest both = new ShiftTemplateRequest();
+        both.setEmployeeEmail(EMAIL);
+        both.setRole(Role.EMPLOYEE);
+        assertThrows(IllegalArgumentException.class, () -> service.createTemplate(both));
+
+        ShiftTemplateRequest backwards = new ShiftTemplateRequest();
+        backwards.setRole(Role.EMPLOYEE);
+        backwards.setStartTime(LocalTime.of(17, 0));
+        backwards.setEndTime(LocalTime.of(8, 0));
+        assertThrows(IllegalArgumentException.class, () -> service.createTemplate(backwards));
+
+        ShiftTemplateRequest duplicate = new ShiftTemplateRequest();
+        duplicate.setRole(Role.EMPLOYEE);
+        when(shiftTemplateRepository.existsByRoleAndDayOfWeek(Role.EMPLOYEE, null)).thenReturn(true);
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                () -> service.createTemplate(duplicate));
+        assertTrue(error.getMessage().contains("already exists"));
+
+        verify(shiftTemplateRepository, never()).save(any(ShiftTemplate.class));
+        verifyNoInteractions(shiftCalendarService, otTimeCalculatorService);
+    }
+
+    private void awaitRecompute() throws InterruptedException {
+        ExecutorService workers = (ExecutorService) ReflectionTestUtils.getField(service, "recomputeWorkers");
+        workers.shutdown();
+        assertEquals(true, workers.awaitTermination(5, TimeUnit.SECONDS));
+    }
+}
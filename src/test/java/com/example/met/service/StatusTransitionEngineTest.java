@@ -0,0 +1,108 @@
+package com.example.met.service;
+
+import com.example.met.entity.MiniJobCard;
+import com.example.met.entity.OTtimeCalculator;
+import com.example.met.enums.JobStatus;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Transition rules, second rounding, and a check that a steady stream of transitions allocates
+ * nothing once warmed up. The allocation check only executes with {@code -Pbenchmarks}.
+ */
+@Slf4j
+class StatusTransitionEngineTest {
+
+    private static final int WARMUP_ROUNDS = 200_000;
+    private static final int MEASURED_ROUNDS = 1_000_000;
+    // Slack for the measurement itself; a single boxed value per transition would be megabytes
+    private static final long ALLOCATION_SLACK_BYTES = 64 * 1024;
+    private static final JobStatus[] CYCLE = {
+            JobStatus.IN_PROGRESS, JobStatus.ON_HOLD, JobStatus.IN_PROGRESS, JobStatus.ASSIGNED};
+
+    @Test
+    void matrixRejectsPendingTargetsAndClosedToClosed() {
+        assertFalse(StatusTransitionEngine.isAllowed(JobStatus.ASSIGNED, JobStatus.PENDING));
+        assertFalse(StatusTransitionEngine.isAllowed(JobStatus.COMPLETED, JobStatus.CANCELLED));
+        assertFalse(StatusTransitionEngine.isAllowed(JobStatus.ON_HOLD, JobStatus.ON_HOLD));
+        assertFalse(StatusTransitionEngine.isAllowed(null, JobStatus.ASSIGNED));
+        assertTrue(StatusTransitionEngine.isAllowed(JobStatus.PENDING, JobStatus.ASSIGNED));
+        assertTrue(StatusTransitionEngine.isAllowed(JobStatus.COMPLETED, JobStatus.IN_PROGRESS));
+
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                () -> StatusTransitionEngine.requireAllowed(JobStatus.CANCELLED, JobStatus.COMPLETED));
+        assertEquals("Cannot move a mini job card from CANCELLED to COMPLETED", error.getMessage());
+    }
+
+    @Test
+    void creditsWholeSecondsToTrackedStatusesOnly() {
+        LocalDateTime since = LocalDateTime.of(2024, 5, 6, 9, 0, 0, 900_000_000);
+        assertEquals(59, StatusTransitionEngine.secondsBetween(since, since.plusSeconds(60).withNano(0)));
+        assertEquals(60, StatusTransitionEngine.secondsBetween(since, since.plusSeconds(60)));
+
+        OTtimeCalculator ot = new OTtimeCalculator();
+        StatusTransitionEngine.credit(ot, JobStatus.ON_HOLD, 30);
+        StatusTransitionEngine.credit(ot, JobStatus.COMPLETED, 30);
+        StatusTransitionEngine.credit(ot, JobStatus.IN_PROGRESS, -5);
+        assertEquals(30, ot.getOnHoldSeconds());
+        assertEquals(0, ot.getInProgressSeconds());
+
+        long[] accumulator = StatusTransitionEngine.newAccumulator();
+        StatusTransitionEngine.credit(accumulator, JobStatus.ASSIGNED, 45);
+        StatusTransitionEngine.credit(accumulator, JobStatus.PENDING, 45);
+        assertEquals(45, accumulator[JobStatus.ASSIGNED.ordinal()]);
+        assertEquals(0, accumulator[JobStatus.PENDING.ordinal()]);
+    }
+
+    @Test
+    @Tag("benchmark")
+    void transitionsDoNotAllocate() {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        MiniJobCardTransitionService transitionService = new MiniJobCardTransitionService(
+                null, null, null, null, null);
+        MiniJobCard card = new MiniJobCard();
+        card.setStatus(JobStatus.ASSIGNED);
+        LocalDateTime start = LocalDateTime.of(2024, 5, 6, 8, 30);
+        card.setLastTimeUpdateThisTicket(start);
+        // Timestamps are built up front so only the transitions are measured
+        LocalDateTime[] times = new LocalDateTime[CYCLE.length];
+        for (int i = 0; i < times.length; i++) {
+            times[i] = start.plusMinutes(15L * (i + 1));
+        }
+
+        run(transitionService, card, start, times, WARMUP_ROUNDS);
+        long threadId = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(threadId);
+        long startNanos = System.nanoTime();
+        run(transitionService, card, start, times, MEASURED_ROUNDS);
+        long elapsedNanos = System.nanoTime() - startNanos;
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+        log.info("Status transitions: {} ns/transition, {} bytes allocated over {} transitions",
+                String.format("%.1f", (double) elapsedNanos / MEASURED_ROUNDS), allocated, MEASURED_ROUNDS);
+        assertTrue(allocated < ALLOCATION_SLACK_BYTES, "Allocated " + allocated + " bytes");
+        assertTrue(card.getInProgressSeconds() > 0 && card.getOnHoldSeconds() > 0 && card.getAssignedSeconds() > 0);
+    }
+
+    private static void run(MiniJobCardTransitionService transitionService, MiniJobCard card,
+                            LocalDateTime start, LocalDateTime[] times, int rounds) {
+        for (int i = 0; i < rounds; i++) {
+            int step = i % CYCLE.length;
+            // Rewind the clock at the top of each cycle so every step credits a positive interval
+            if (step == 0) {
+                card.setLastTimeUpdateThisTicket(start);
+            }
+            transitionService.advance(card, CYCLE[step], times[step]);
+        }
+    }
+}
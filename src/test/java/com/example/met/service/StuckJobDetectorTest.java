@@ -0,0 +1,120 @@
+package com.example.met.service;
+
+import com.example.met.entity.StuckJobAlert;
+import com.example.met.enums.JobCardType;
+import com.example.met.enums.JobStatus;
+import com.example.met.repository.EmployeeRepository;
+import com.example.met.repository.MiniJobCardRepository;
+import com.example.met.repository.StuckJobAlertRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class StuckJobDetectorTest {
+
+    private static final ZoneId SRI_LANKA_ZONE = ZoneId.of("Asia/Colombo");
+
+    private MiniJobCardRepository miniJobCardRepository;
+    private StuckJobAlertRepository stuckJobAlertRepository;
+    private JavaMailSender mailSender;
+    private StuckJobDetector detector;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        miniJobCardRepository = mock(MiniJobCardRepository.class);
+        stuckJobAlertRepository = mock(StuckJobAlertRepository.class);
+        mailSender = mock(JavaMailSender.class);
+
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                ((TransactionCallback<Object>) invocation.getArgument(0)).doInTransaction(null));
+        doAnswer(invocation -> {
+            ((Consumer<Object>) invocation.getArgument(0)).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+
+        detector = new StuckJobDetector(miniJobCardRepository, stuckJobAlertRepository,
+                mock(EmployeeRepository.class), mailSender, transactionTemplate);
+        ReflectionTestUtils.setField(detector, "thresholdHours", "ON_HOLD:48,ASSIGNED:24,REPAIR.ON_HOLD:12");
+        ReflectionTestUtils.setField(detector, "chunkSize", 2);
+        ReflectionTestUtils.setField(detector, "maxChunksPerRun", 10);
+        ReflectionTestUtils.setField(detector, "digestMaxAlerts", 100);
+        ReflectionTestUtils.setField(detector, "digestRecipients", "dispatch@example.com");
+        ReflectionTestUtils.setField(detector, "fromEmail", "noreply@example.com");
+        detector.init();
+    }
+
+    @Test
+    void typeOverridesFallBackToStatusDefaults() {
+        assertEquals(Duration.ofHours(12), detector.threshold(JobCardType.REPAIR, JobStatus.ON_HOLD));
+        assertEquals(Duration.ofHours(48), detector.threshold(JobCardType.SERVICE, JobStatus.ON_HOLD));
+        assertEquals(Duration.ofHours(24), detector.threshold(JobCardType.REPAIR, JobStatus.ASSIGNED));
+        assertThrows(IllegalStateException.class, () -> StuckJobDetector.parseThresholds("ON_HOLD:48"));
+        assertThrows(IllegalStateException.class, () -> StuckJobDetector.parseThresholds("ON_HOLD:48,ASSIGNED:24,COMPLETED:1"));
+    }
+
+    @Test
+    void recordsEachStallOnceAcrossChunks() {
+        LocalDateTime now = LocalDateTime.now(SRI_LANKA_ZONE).withNano(0);
+        Object[] repairOnHold = row(JobCardType.REPAIR, JobStatus.ON_HOLD, now.minusHours(20));     // Past 12h
+        Object[] serviceOnHold = row(JobCardType.SERVICE, JobStatus.ON_HOLD, now.minusHours(20));   // Under 48h
+        Object[] alreadyAlerted = row(JobCardType.VISIT, JobStatus.ASSIGNED, now.minusHours(30));
+        when(miniJobCardRepository.findStuckCandidates(any(), any(), any(), any()))
+                .thenReturn(rows(repairOnHold, serviceOnHold), rows(alreadyAlerted));
+        when(stuckJobAlertRepository.findAlertKeysByMiniJobCardIdIn(anyCollection()))
+                .thenReturn(List.of(), rows(new Object[]{alreadyAlerted[0], JobStatus.ASSIGNED, alreadyAlerted[5]}));
+
+        assertEquals(1, detector.scan());
+
+        // The second chunk resumes after the last row of the first
+        verify(miniJobCardRepository).findStuckCandidates(any(), eq((LocalDateTime) serviceOnHold[5]),
+                eq((UUID) serviceOnHold[0]), any());
+    }
+
+    @Test
+    void digestMarksAlertsSentOnlyAfterMailing() {
+        StuckJobAlert alert = new StuckJobAlert(7L, UUID.randomUUID(), UUID.randomUUID(), JobCardType.REPAIR,
+                JobStatus.ON_HOLD, "tech@example.com", LocalDateTime.now(SRI_LANKA_ZONE).minusHours(30),
+                LocalDateTime.now(SRI_LANKA_ZONE), null);
+        when(stuckJobAlertRepository.findUnnotified(any())).thenReturn(List.of(alert));
+
+        assertEquals(1, detector.sendDigest());
+
+        ArgumentCaptor<SimpleMailMessage> message = ArgumentCaptor.forClass(SimpleMailMessage.class);
+        verify(mailSender).send(message.capture());
+        assertEquals("dispatch@example.com", message.getValue().getTo()[0]);
+        verify(stuckJobAlertRepository).markNotified(eq(List.of(7L)), any());
+    }
+
+    private static Object[] row(JobCardType jobType, JobStatus status, LocalDateTime since) {
+        return new Object[]{UUID.randomUUID(), UUID.randomUUID(), jobType, status, "tech@example.com", since};
+    }
+
+    private static List<Object[]> rows(Object[]... rows) {
+        return new ArrayList<>(List.of(rows));
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.met.service;
+
+import com.example.met.dto.response.TeamOTReportResponse;
+import com.example.met.repository.EmployeeRepository;
+import com.example.met.repository.LogRepository;
+import com.example.met.repository.OTTimeCalculatorRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+class TeamOTReportTest {
+
+    private static final LocalDate MAY_FIRST = LocalDate.of(2024, 5, 1);
+    private static final LocalDate MAY_LAST = LocalDate.of(2024, 5, 31);
+
+    private final OTTimeCalculatorRepository repository = mock(OTTimeCalculatorRepository.class);
+    private final OTTimeCalculatorService service = new OTTimeCalculatorService(repository,
+            mock(EmployeeService.class), mock(EmployeeRepository.class), mock(LogRepository.class),
+            mock(ApplicationEventPublisher.class), new OTDayLocks(), new ShiftCalendarService(null, null));
+
+    @Test
+    void teamTotalsComeFromOneGroupedQuery() {
+        when(repository.summarizeByEmployee(MAY_FIRST, MAY_LAST)).thenReturn(List.of(
+                new Object[]{"a@example.com", "Anil", 22L, 1L, 5400L, 90_000L, 600L, 1200L, 30_000L},
+                // No rows in the period: still listed, with zeros
+                new Object[]{"b@example.com", "Bimal", 0L, 0L, 0L, 0L, 0L, 0L, 0L},
+                new Object[]{"c@example.com", "Chamari", 20L, 0, 1800, 3600, 0, 0, 0}));
+
+        TeamOTReportResponse report = service.generateTeamOTReport(MAY_FIRST, MAY_LAST);
+
+        assertEquals(3, report.getEmployeeCount());
+        assertEquals(1, report.getOpenDays());
+        assertEquals(7200, report.getTotalMorningOtSeconds());
+        assertEquals(93_600, report.getTotalEveningOtSeconds());
+        assertEquals("28:00:00", report.getTotalOT());
+
+        TeamOTReportResponse.EmployeeOTTotals anil = report.getEmployees().get(0);
+        assertEquals("a@example.com", anil.getEmployeeEmail());
+        assertEquals(22, anil.getDays());
+        assertEquals("01:30:00", anil.getTotalMorningOT());
+        assertEquals("25:00:00", anil.getTotalEveningOT());
+        assertEquals("26:30:00", anil.getTotalOT());
+        assertEquals("08:20:00", anil.getTotalInProgressTime());
+
+        TeamOTReportResponse.EmployeeOTTotals bimal = report.getEmployees().get(1);
+        assertEquals(0, bimal.getDays());
+        assertEquals("00:00:00", bimal.getTotalOT());
+
+        verify(repository).summarizeByEmployee(MAY_FIRST, MAY_LAST);
+        verifyNoMoreInteractions(repository);
+    }
+
+    @Test
+    void invalidPeriodsAreRejectedWithoutQuerying() {
+        assertThrows(IllegalArgumentException.class, () -> service.generateTeamOTReport(MAY_LAST, MAY_FIRST));
+        assertThrows(IllegalArgumentException.class,
+                () -> service.generateTeamOTReport(MAY_FIRST, MAY_LAST.plusDays(2)));
+        assertThrows(IllegalArgumentException.class, () -> service.generateTeamOTReport(null, MAY_LAST));
+        verify(repository, never()).summarizeByEmployee(any(), any());
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.met.service;
+
+import com.example.met.dto.response.TransitionStreamEvent;
+import com.example.met.entity.OutboxEvent;
+import com.example.met.enums.JobStatus;
+import com.example.met.enums.OutboxEventType;
+import com.example.met.event.MiniJobCardStatusChange;
+import com.example.met.event.OutboxEventRecorded;
+import com.example.met.repository.OutboxEventRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TransitionStreamServiceTest {
+
+    private static final UUID JOB_CARD = UUID.randomUUID();
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private OutboxEventRepository outboxEventRepository;
+    private TransitionStreamService streamService;
+
+    @BeforeEach
+    void setUp() {
+        outboxEventRepository = mock(OutboxEventRepository.class);
+        streamService = new TransitionStreamService(outboxEventRepository, objectMapper, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(streamService, "subscriberBuffer", 3);
+        ReflectionTestUtils.setField(streamService, "replaySize", 4);
+        ReflectionTestUtils.setField(streamService, "maxReplay", 100);
+        ReflectionTestUtils.setField(streamService, "maxSubscribers", 10);
+        ReflectionTestUtils.setField(streamService, "timeoutMs", 60_000L);
+        streamService.init();
+        // Leave queues undrained so their contents can be inspected
+        List<Runnable> parked = new ArrayList<>();
+        ReflectionTestUtils.setField(streamService, "senders", (Executor) parked::add);
+    }
+
+    @Test
+    void slowSubscriberKeepsNewestEventsAndCountsDrops() {
+        streamService.subscribe(null, null, null);
+
+        for (long id = 1; id <= 5; id++) {
+            streamService.publish(event(id, "tech@example.com"));
+        }
+
+        TransitionStreamService.Subscriber subscriber = streamService.subscribers().get(0);
+        assertEquals(List.of(3L, 4L, 5L), ids(subscriber.pending()));
+        assertEquals(2, subscriber.droppedCount());
+    }
+
+    @Test
+    void filtersByEmployeeAndJobCard() {
+        streamService.subscribe("tech@example.com", null, null);
+        streamService.publish(event(1, "tech@example.com"));
+        streamService.publish(event(2, "other@example.com"));
+        assertEquals(List.of(1L), ids(streamService.subscribers().get(0).pending()));
+
+        TransitionStreamService.Subscriber byJobCard = new TransitionStreamService.Subscriber(null, null, JOB_CARD, 3);
+        TransitionStreamEvent otherJob = event(3, "tech@example.com");
+        otherJob.setJobCardId(UUID.randomUUID());
+        assertFalse(byJobCard.matches(otherJob));
+        assertTrue(byJobCard.matches(event(4, "other@example.com")));
+    }
+
+    @Test
+    void resumesFromRingAfterLastEventId() {
+        for (long id = 1; id <= 4; id++) {
+            streamService.publish(event(id, "tech@example.com"));
+        }
+
+        streamService.subscribe(null, null, 2L);
+        streamService.publish(event(5, "tech@example.com"));
+
+        assertEquals(List.of(3L, 4L, 5L), ids(streamService.subscribers().get(0).pending()));
+    }
+
+    @Test
+    void resumesFromOutboxTableWhenCursorLeftTheRing() throws Exception {
+        for (long id = 3; id <= 6; id++) {
+            streamService.publish(event(id, "tech@example.com"));
+        }
+        when(outboxEventRepository.findStreamable(eq(OutboxEventType.MINI_JOB_CARD_STATUS_CHANGED), eq(1L), any(), any()))
+                .thenReturn(List.of(row(2), row(3)));
+
+        streamService.subscribe(null, null, 1L);
+
+        assertEquals(List.of(2L, 3L, 4L, 5L, 6L), ids(streamService.subscribers().get(0).pending()));
+    }
+
+    @Test
+    void localFeedPublishesCommittedStatusChanges() {
+        streamService.subscribe(null, null, null);
+        LocalTransitionFeed feed = new LocalTransitionFeed(streamService);
+
+        feed.onOutboxEventRecorded(new OutboxEventRecorded(7L, OutboxEventType.MINI_JOB_CARD_STATUS_CHANGED,
+                change("tech@example.com")));
+
+        List<TransitionStreamEvent> pending = streamService.subscribers().get(0).pending();
+        assertEquals(List.of(7L), ids(pending));
+        assertEquals(JobStatus.IN_PROGRESS, pending.get(0).getToStatus());
+    }
+
+    private OutboxEvent row(long id) throws Exception {
+        OutboxEvent row = new OutboxEvent();
+        row.setId(id);
+        row.setEventType(OutboxEventType.MINI_JOB_CARD_STATUS_CHANGED);
+        row.setPayload(objectMapper.writeValueAsString(change("tech@example.com")));
+        return row;
+    }
+
+    private static TransitionStreamEvent event(long id, String employeeEmail) {
+        return TransitionStreamEvent.of(id, change(employeeEmail));
+    }
+
+    private static MiniJobCardStatusChange change(String employeeEmail) {
+        return new MiniJobCardStatusChange(UUID.randomUUID(), JOB_CARD, employeeEmail, JobStatus.ASSIGNED,
+                JobStatus.IN_PROGRESS, LocalDateTime.of(2024, 5, 6, 9, 30), "Site A", "Generator 1");
+    }
+
+    private static List<Long> ids(List<TransitionStreamEvent> events) {
+        return events.stream().map(TransitionStreamEvent::getId).toList();
+    }
+}
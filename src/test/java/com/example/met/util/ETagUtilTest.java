@@ -0,0 +1,37 @@
+package com.example.met.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ETagUtilTest {
+
+    @Test
+    void versionsRoundTripThroughTheEntityTag() {
+        assertEquals("\"7\"", ETagUtil.toETag(7L));
+        assertEquals(7L, ETagUtil.parseIfMatch(ETagUtil.toETag(7L)));
+        assertNull(ETagUtil.toETag(null));
+    }
+
+    @Test
+    void acceptsWeakUnquotedAndPaddedTags() {
+        assertEquals(3L, ETagUtil.parseIfMatch("W/\"3\""));
+        assertEquals(3L, ETagUtil.parseIfMatch("3"));
+        assertEquals(3L, ETagUtil.parseIfMatch("  \"3\" "));
+    }
+
+    @Test
+    void absentOrWildcardHeaderSkipsThePrecondition() {
+        assertNull(ETagUtil.parseIfMatch(null));
+        assertNull(ETagUtil.parseIfMatch(" "));
+        assertNull(ETagUtil.parseIfMatch("*"));
+    }
+
+    @Test
+    void rejectsTagsThatAreNotVersions() {
+        assertThrows(IllegalArgumentException.class, () -> ETagUtil.parseIfMatch("\"abc\""));
+        assertThrows(IllegalArgumentException.class, () -> ETagUtil.parseIfMatch("\"1\", \"2\""));
+    }
+}